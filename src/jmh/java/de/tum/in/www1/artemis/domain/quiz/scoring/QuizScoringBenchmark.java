@@ -0,0 +1,200 @@
+package de.tum.in.www1.artemis.domain.quiz.scoring;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+/**
+ * Compares scoring quiz submissions with the {@link ScoringStrategy} implementations (as done by {@link QuizSubmission#calculateAndUpdateScores(QuizExercise)})
+ * and with a compiled {@link QuizScoringPlan}, for every question type and scoring type.
+ * <p>
+ * Run with ./gradlew jmh -PjmhIncludes=QuizScoringBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizScoringBenchmark {
+
+    public enum QuestionType {
+        MULTIPLE_CHOICE, DRAG_AND_DROP, SHORT_ANSWER
+    }
+
+    private static final int NUMBER_OF_QUESTIONS = 10;
+
+    private static final int NUMBER_OF_SUBMISSIONS = 1000;
+
+    @Param
+    public QuestionType questionType;
+
+    @Param
+    public ScoringType scoringType;
+
+    private final Random random = new Random(42);
+
+    private long nextId = 1;
+
+    private QuizExercise quizExercise;
+
+    private QuizScoringPlan scoringPlan;
+
+    private List<QuizSubmission> submissions;
+
+    @Setup
+    public void setup() {
+        quizExercise = new QuizExercise();
+        for (int i = 0; i < NUMBER_OF_QUESTIONS; i++) {
+            quizExercise.addQuestions(switch (questionType) {
+                case MULTIPLE_CHOICE -> createMultipleChoiceQuestion();
+                case DRAG_AND_DROP -> createDragAndDropQuestion();
+                case SHORT_ANSWER -> createShortAnswerQuestion();
+            });
+        }
+        scoringPlan = QuizScoringPlan.compile(quizExercise);
+        submissions = new ArrayList<>(NUMBER_OF_SUBMISSIONS);
+        for (int i = 0; i < NUMBER_OF_SUBMISSIONS; i++) {
+            submissions.add(createRandomSubmission());
+        }
+    }
+
+    /**
+     * Scores all submissions with the scoring strategies of the questions, including the score of the result
+     */
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_SUBMISSIONS)
+    public void scoringStrategies(Blackhole blackhole) {
+        for (QuizSubmission submission : submissions) {
+            submission.calculateAndUpdateScores(quizExercise);
+            blackhole.consume(quizExercise.getScoreForSubmission(submission));
+        }
+    }
+
+    /**
+     * Scores all submissions with the scoring plan compiled once in the setup, including the score of the result
+     */
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_SUBMISSIONS)
+    public void scoringPlan(Blackhole blackhole) {
+        for (QuizSubmission submission : submissions) {
+            blackhole.consume(scoringPlan.getScore(scoringPlan.calculateAndUpdateScores(submission)));
+        }
+    }
+
+    /**
+     * Compiles the scoring plan and scores all submissions with it in parallel, as done when a quiz ends
+     */
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_SUBMISSIONS)
+    public void scoringPlanParallel(Blackhole blackhole) {
+        QuizScoringPlan plan = QuizScoringPlan.compile(quizExercise);
+        blackhole.consume(submissions.parallelStream().mapToDouble(plan::calculateAndUpdateScores).sum());
+    }
+
+    private void initQuestion(QuizQuestion question) {
+        question.setId(nextId++);
+        question.setPoints(1 + random.nextInt(5));
+        question.setScoringType(scoringType);
+    }
+
+    private MultipleChoiceQuestion createMultipleChoiceQuestion() {
+        MultipleChoiceQuestion question = new MultipleChoiceQuestion();
+        initQuestion(question);
+        List<AnswerOption> answerOptions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            AnswerOption answerOption = new AnswerOption();
+            answerOption.setId(nextId++);
+            answerOption.setIsCorrect(random.nextBoolean());
+            answerOptions.add(answerOption);
+        }
+        question.setAnswerOptions(answerOptions);
+        return question;
+    }
+
+    private DragAndDropQuestion createDragAndDropQuestion() {
+        DragAndDropQuestion question = new DragAndDropQuestion();
+        initQuestion(question);
+        for (int i = 0; i < 8; i++) {
+            DropLocation dropLocation = new DropLocation();
+            dropLocation.setId(nextId++);
+            question.addDropLocation(dropLocation);
+
+            DragItem dragItem = new DragItem();
+            dragItem.setId(nextId++);
+            question.addDragItem(dragItem);
+        }
+        for (int i = 0; i < 8; i++) {
+            DragAndDropMapping mapping = new DragAndDropMapping();
+            mapping.setDropLocation(question.getDropLocations().get(i));
+            mapping.setDragItem(question.getDragItems().get(i));
+            question.addCorrectMapping(mapping);
+        }
+        return question;
+    }
+
+    private ShortAnswerQuestion createShortAnswerQuestion() {
+        ShortAnswerQuestion question = new ShortAnswerQuestion();
+        initQuestion(question);
+        for (int i = 0; i < 4; i++) {
+            ShortAnswerSpot spot = new ShortAnswerSpot();
+            spot.setId(nextId++);
+            question.getSpots().add(spot);
+
+            ShortAnswerSolution solution = new ShortAnswerSolution();
+            solution.setId(nextId++);
+            solution.setText("solution" + i);
+            question.addSolution(solution);
+
+            ShortAnswerMapping mapping = new ShortAnswerMapping();
+            mapping.setSpot(spot);
+            mapping.setSolution(solution);
+            question.addCorrectMapping(mapping);
+        }
+        return question;
+    }
+
+    private QuizSubmission createRandomSubmission() {
+        QuizSubmission submission = new QuizSubmission();
+        for (QuizQuestion question : quizExercise.getQuizQuestions()) {
+            SubmittedAnswer answer;
+            if (question instanceof MultipleChoiceQuestion mcQuestion) {
+                var mcAnswer = new MultipleChoiceSubmittedAnswer();
+                mcQuestion.getAnswerOptions().stream().filter(answerOption -> random.nextBoolean()).forEach(mcAnswer::addSelectedOptions);
+                answer = mcAnswer;
+            }
+            else if (question instanceof DragAndDropQuestion dndQuestion) {
+                var dndAnswer = new DragAndDropSubmittedAnswer();
+                for (DropLocation dropLocation : dndQuestion.getDropLocations()) {
+                    DragAndDropMapping mapping = new DragAndDropMapping();
+                    mapping.setId(nextId++);
+                    mapping.setDropLocation(dropLocation);
+                    mapping.setDragItem(dndQuestion.getDragItems().get(random.nextInt(dndQuestion.getDragItems().size())));
+                    dndAnswer.addMappings(mapping);
+                }
+                answer = dndAnswer;
+            }
+            else {
+                var saQuestion = (ShortAnswerQuestion) question;
+                var saAnswer = new ShortAnswerSubmittedAnswer();
+                for (int i = 0; i < saQuestion.getSpots().size(); i++) {
+                    ShortAnswerSubmittedText submittedText = new ShortAnswerSubmittedText();
+                    submittedText.setId(nextId++);
+                    submittedText.setSpot(saQuestion.getSpots().get(i));
+                    submittedText.setText(random.nextBoolean() ? "solution" + i : "wrong answer");
+                    saAnswer.addSubmittedTexts(submittedText);
+                }
+                answer = saAnswer;
+            }
+            answer.setId(nextId++);
+            answer.setQuizQuestion(question);
+            submission.addSubmittedAnswers(answer);
+        }
+        return submission;
+    }
+}
@@ -0,0 +1,171 @@
+package de.tum.in.www1.artemis.service.compass.controller;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import de.tum.in.www1.artemis.domain.modeling.ModelCluster;
+import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+
+/**
+ * Compares building the Compass clusters of synthetic class diagrams by comparing every element to all unique elements (as done before the {@link UniqueElementIndex})
+ * and by comparing every element only to the candidates of the {@link UniqueElementIndex}. Both include parsing the models of the submissions.
+ * <p>
+ * The class diagrams model the same small domain, but every submission uses a random subset of the classes, attributes and methods, some of which contain typos.
+ * <p>
+ * Run with ./gradlew jmh -PjmhIncludes=ModelClusteringBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ModelClusteringBenchmark {
+
+    private static final Map<String, List<String>> DOMAIN = new LinkedHashMap<>();
+
+    static {
+        DOMAIN.put("Bank", List.of("name: String", "bic: String", "+ openAccount(customer: Customer): Account", "+ closeAccount(account: Account): void"));
+        DOMAIN.put("Customer", List.of("firstName: String", "lastName: String", "birthday: Date", "+ getAccounts(): List"));
+        DOMAIN.put("Account", List.of("iban: String", "balance: double", "+ deposit(amount: double): void", "+ withdraw(amount: double): void"));
+        DOMAIN.put("SavingsAccount", List.of("interestRate: double", "+ addInterest(): void"));
+        DOMAIN.put("CheckingAccount", List.of("overdraftLimit: double", "+ getOverdraft(): double"));
+        DOMAIN.put("Transaction", List.of("amount: double", "date: Date", "purpose: String", "+ execute(): boolean"));
+        DOMAIN.put("Card", List.of("number: String", "expiryDate: Date", "pin: int", "+ block(): void"));
+        DOMAIN.put("Branch", List.of("address: String", "openingHours: String", "+ getEmployees(): List"));
+        DOMAIN.put("Employee", List.of("employeeId: int", "salary: double", "+ advise(customer: Customer): void"));
+        DOMAIN.put("Loan", List.of("principal: double", "interestRate: double", "duration: int", "+ calculateRate(): double"));
+        DOMAIN.put("ATM", List.of("location: String", "cash: double", "+ dispense(amount: double): void"));
+        DOMAIN.put("Statement", List.of("month: int", "year: int", "+ print(): void"));
+    }
+
+    private static final List<String> RELATIONSHIP_TYPES = List.of("ClassBidirectional", "ClassUnidirectional", "ClassInheritance", "ClassAggregation", "ClassComposition");
+
+    @Param({ "500", "1000", "2000" })
+    public int numberOfSubmissions;
+
+    private final Random random = new Random(42);
+
+    private final ModelClusterFactory modelClusterFactory = new ModelClusterFactory();
+
+    private List<ModelingSubmission> submissions;
+
+    @Setup
+    public void setup() {
+        submissions = new ArrayList<>(numberOfSubmissions);
+        for (int i = 0; i < numberOfSubmissions; i++) {
+            ModelingSubmission submission = new ModelingSubmission();
+            submission.setId(i + 1L);
+            submission.setModel(createClassDiagram());
+            submissions.add(submission);
+        }
+    }
+
+    /**
+     * Compares every element to all unique elements
+     */
+    @Benchmark
+    public List<ModelCluster> allUniqueElements() {
+        return modelClusterFactory.buildClusters(submissions, new ModelingExercise(), UniqueElementIndex.withoutBlocking());
+    }
+
+    /**
+     * Compares every element to the candidates of the unique element index
+     */
+    @Benchmark
+    public List<ModelCluster> uniqueElementIndex() {
+        return modelClusterFactory.buildClusters(submissions, new ModelingExercise(), new UniqueElementIndex());
+    }
+
+    private String createClassDiagram() {
+        JsonArray elements = new JsonArray();
+        JsonArray relationships = new JsonArray();
+        List<String> classIds = new ArrayList<>();
+        for (var domainClass : DOMAIN.entrySet()) {
+            if (random.nextInt(4) == 0) {
+                // students do not model every class
+                continue;
+            }
+            String classId = UUID.randomUUID().toString();
+            JsonArray attributeIds = new JsonArray();
+            JsonArray methodIds = new JsonArray();
+            for (String member : domainClass.getValue()) {
+                if (random.nextInt(5) == 0) {
+                    continue;
+                }
+                boolean isMethod = member.startsWith("+");
+                String memberId = UUID.randomUUID().toString();
+                elements.add(createElement(memberId, withTypo(member), isMethod ? "ClassMethod" : "ClassAttribute", classId));
+                (isMethod ? methodIds : attributeIds).add(memberId);
+            }
+            JsonObject classElement = createElement(classId, withTypo(domainClass.getKey()), random.nextInt(10) == 0 ? "AbstractClass" : "Class", null);
+            classElement.add("attributes", attributeIds);
+            classElement.add("methods", methodIds);
+            elements.add(classElement);
+            classIds.add(classId);
+        }
+        for (int i = 0; i + 1 < classIds.size(); i++) {
+            if (random.nextBoolean()) {
+                relationships.add(createRelationship(classIds.get(i), classIds.get(i + 1 + random.nextInt(classIds.size() - i - 1))));
+            }
+        }
+
+        JsonObject model = new JsonObject();
+        model.addProperty("version", "2.0.0");
+        model.addProperty("type", "ClassDiagram");
+        model.add("size", new JsonObject());
+        model.add("elements", elements);
+        model.add("relationships", relationships);
+        model.add("assessments", new JsonArray());
+        return model.toString();
+    }
+
+    private static JsonObject createElement(String id, String name, String type, String owner) {
+        JsonObject element = new JsonObject();
+        element.addProperty("id", id);
+        element.addProperty("name", name);
+        element.addProperty("type", type);
+        element.addProperty("owner", owner);
+        return element;
+    }
+
+    private JsonObject createRelationship(String sourceId, String targetId) {
+        JsonObject relationship = new JsonObject();
+        relationship.addProperty("id", UUID.randomUUID().toString());
+        relationship.addProperty("name", "");
+        relationship.addProperty("type", RELATIONSHIP_TYPES.get(random.nextInt(RELATIONSHIP_TYPES.size())));
+        relationship.add("source", createEndpoint(sourceId));
+        relationship.add("target", createEndpoint(targetId));
+        return relationship;
+    }
+
+    private JsonObject createEndpoint(String elementId) {
+        JsonObject endpoint = new JsonObject();
+        endpoint.addProperty("element", elementId);
+        endpoint.addProperty("multiplicity", random.nextBoolean() ? "1" : "*");
+        endpoint.addProperty("role", "");
+        return endpoint;
+    }
+
+    /**
+     * Adds a typo (a missing, an additional or a wrong letter) to every fifth name
+     */
+    private String withTypo(String name) {
+        if (random.nextInt(5) != 0) {
+            return name;
+        }
+        int position = random.nextInt(name.length());
+        char letter = (char) ('a' + random.nextInt(26));
+        return switch (random.nextInt(3)) {
+            case 0 -> name.substring(0, position) + name.substring(position + 1);
+            case 1 -> name.substring(0, position) + letter + name.substring(position);
+            default -> name.substring(0, position) + letter + name.substring(position + 1);
+        };
+    }
+}
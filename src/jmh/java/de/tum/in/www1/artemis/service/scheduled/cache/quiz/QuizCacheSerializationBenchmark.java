@@ -0,0 +1,197 @@
+package de.tum.in.www1.artemis.service.scheduled.cache.quiz;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.service.scheduled.cache.CacheValueSerializer;
+import de.tum.in.www1.artemis.service.scheduled.cache.SerializedValueMap;
+
+/**
+ * Compares the cached values of a {@link QuizExerciseDistributedCache} stored as Java serialized entities (as before) and in the compact form of
+ * {@link QuizCacheValueSerializers}, using a single embedded Hazelcast member.
+ * <p>
+ * The benchmark measures the latency of a put followed by a get, the bytes per entry are reported as secondary result {@code bytesPerEntry}.
+ * Run with ./gradlew jmh -PjmhIncludes=QuizCacheSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizCacheSerializationBenchmark {
+
+    public enum ValueType {
+        SUBMISSION, PARTICIPATION, RESULT
+    }
+
+    public enum Format {
+        JAVA, COMPACT
+    }
+
+    private static final int NUMBER_OF_QUESTIONS = 10;
+
+    private static final int NUMBER_OF_ENTRIES = 1000;
+
+    @Param
+    public ValueType valueType;
+
+    @Param
+    public Format format;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private Map<String, Object> cacheMap;
+
+    private List<Object> values;
+
+    private int nextEntry;
+
+    private long bytesPerEntry;
+
+    /**
+     * Reports the memory cost of the cached entries as secondary result of the benchmark
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EntryMemoryCost {
+
+        public long bytesPerEntry;
+    }
+
+    @Setup
+    public void setup() {
+        Config config = new Config();
+        config.setClusterName("quiz-cache-benchmark");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+
+        QuizExercise quizExercise = createQuizExercise();
+        values = new ArrayList<>(NUMBER_OF_ENTRIES);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            StudentParticipation participation = createParticipationWithResult(quizExercise, i);
+            Result result = participation.getResults().iterator().next();
+            values.add(switch (valueType) {
+                case SUBMISSION -> result.getSubmission();
+                case PARTICIPATION -> participation;
+                case RESULT -> result;
+            });
+        }
+
+        IMap<String, Object> javaMap = hazelcastInstance.getMap("java-" + valueType);
+        IMap<String, byte[]> compactMap = hazelcastInstance.getMap("compact-" + valueType);
+        cacheMap = format == Format.JAVA ? javaMap : createCompactMap(compactMap);
+
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            SerializedValueMap.setValue(cacheMap, "student" + i, values.get(i));
+        }
+        IMap<String, ?> backingMap = format == Format.JAVA ? javaMap : compactMap;
+        bytesPerEntry = backingMap.getLocalMapStats().getOwnedEntryMemoryCost() / NUMBER_OF_ENTRIES;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> createCompactMap(IMap<String, byte[]> compactMap) {
+        CacheValueSerializer<?> serializer = switch (valueType) {
+            case SUBMISSION -> QuizCacheValueSerializers.SUBMISSION;
+            case PARTICIPATION -> QuizCacheValueSerializers.PARTICIPATION;
+            case RESULT -> QuizCacheValueSerializers.RESULT;
+        };
+        return new SerializedValueMap<>(compactMap, (CacheValueSerializer<Object>) serializer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hazelcastInstance.shutdown();
+    }
+
+    /**
+     * Puts a value into the cache map and reads it again, as the quiz schedule service does for each student
+     */
+    @Benchmark
+    public void putAndGet(Blackhole blackhole, EntryMemoryCost entryMemoryCost) {
+        int entry = nextEntry++ % NUMBER_OF_ENTRIES;
+        String key = "student" + entry;
+        SerializedValueMap.setValue(cacheMap, key, values.get(entry));
+        blackhole.consume(cacheMap.get(key));
+        entryMemoryCost.bytesPerEntry = bytesPerEntry;
+    }
+
+    private static QuizExercise createQuizExercise() {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(1L);
+        quizExercise.setTitle("Benchmark Quiz");
+        long nextId = 1;
+        for (int i = 0; i < NUMBER_OF_QUESTIONS; i++) {
+            MultipleChoiceQuestion question = new MultipleChoiceQuestion();
+            question.setId(nextId++);
+            question.setTitle("Question " + i);
+            question.setText("Which of the following statements about question " + i + " are correct?");
+            question.setPoints(2);
+            question.setScoringType(ScoringType.ALL_OR_NOTHING);
+            List<AnswerOption> answerOptions = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                AnswerOption answerOption = new AnswerOption();
+                answerOption.setId(nextId++);
+                answerOption.setText("Answer option " + j + " of question " + i);
+                answerOption.setExplanation("Explanation of answer option " + j);
+                answerOption.setIsCorrect(j % 2 == 0);
+                answerOptions.add(answerOption);
+            }
+            question.setAnswerOptions(answerOptions);
+            quizExercise.addQuestions(question);
+        }
+        return quizExercise;
+    }
+
+    private static StudentParticipation createParticipationWithResult(QuizExercise quizExercise, int studentNumber) {
+        ZonedDateTime now = ZonedDateTime.now();
+        User student = new User();
+        student.setId((long) studentNumber);
+        student.setLogin("student" + studentNumber);
+
+        QuizSubmission submission = new QuizSubmission();
+        submission.setId(10_000L + studentNumber);
+        submission.setSubmitted(true);
+        submission.setSubmissionDate(now);
+        submission.setScoreInPoints(10.0);
+        long answerId = 100_000L * (studentNumber + 1);
+        for (QuizQuestion question : quizExercise.getQuizQuestions()) {
+            MultipleChoiceSubmittedAnswer answer = new MultipleChoiceSubmittedAnswer();
+            answer.setId(answerId++);
+            answer.setQuizQuestion(question);
+            answer.addSelectedOptions(((MultipleChoiceQuestion) question).getAnswerOptions().get(studentNumber % 4));
+            submission.addSubmittedAnswers(answer);
+        }
+
+        StudentParticipation participation = new StudentParticipation();
+        participation.setId(20_000L + studentNumber);
+        participation.setInitializationDate(now);
+        participation.setParticipant(student);
+        participation.setExercise(quizExercise);
+
+        Result result = new Result().participation(participation);
+        result.setId(30_000L + studentNumber);
+        result.setRated(true);
+        result.setCompletionDate(now);
+        result.setScore(50.0);
+        result.setSubmission(submission);
+        participation.addResult(result);
+        participation.setSubmissions(Set.of(submission));
+        return participation;
+    }
+}
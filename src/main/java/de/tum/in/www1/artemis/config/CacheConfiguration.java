@@ -26,6 +26,7 @@ import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.spring.context.SpringManagedContext;
 
+import de.tum.in.www1.artemis.service.StatisticsChartCacheService;
 import de.tum.in.www1.artemis.service.scheduled.cache.monitoring.ExamMonitoringScheduleService;
 import de.tum.in.www1.artemis.service.scheduled.cache.quiz.QuizScheduleService;
 import tech.jhipster.config.JHipsterProperties;
@@ -160,6 +161,7 @@ public class CacheConfiguration {
 
         QuizScheduleService.configureHazelcast(config);
         ExamMonitoringScheduleService.configureHazelcast(config);
+        StatisticsChartCacheService.configureHazelcast(config);
         return Hazelcast.newHazelcastInstance(config);
     }
 
@@ -259,6 +259,10 @@ public final class Constants {
 
     public static final String HAZELCAST_ACTIVE_PLAGIARISM_CHECKS_PER_COURSE_CACHE = HAZELCAST_PLAGIARISM_PREFIX + "active-plagiarism-checks-per-course-cache";
 
+    public static final String HAZELCAST_PLAGIARISM_CHECK_JOB_DISPATCH_LOCK = HAZELCAST_PLAGIARISM_PREFIX + "check-job-dispatch-lock";
+
+    public static final String HAZELCAST_STATISTICS_CHART_CACHE = "statistics-chart-cache";
+
     public static final String VERSION_CONTROL_URL = "versionControlUrl";
 
     public static final String USE_EXTERNAL = "useExternal";
@@ -10,6 +10,7 @@ import javax.persistence.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -23,7 +24,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 @Table(name = "learning_goal_user")
 @EntityListeners(AuditingEntityListener.class)
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
-public class LearningGoalProgress implements Serializable {
+public class LearningGoalProgress implements Serializable, Persistable<LearningGoalProgress.LearningGoalUserId> {
 
     /**
      * The primary key of the association, composited through {@link LearningGoalUserId}.
@@ -93,6 +94,18 @@ public class LearningGoalProgress implements Serializable {
         return lastModifiedDate;
     }
 
+    /**
+     * The composite id is always set, so Spring Data can not derive from it whether the progress is new.
+     * Persisted progress always has a last modified date, which allows to insert new progress without selecting it first (as merging would).
+     *
+     * @return true if the progress has not been persisted yet
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return lastModifiedDate == null;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -0,0 +1,10 @@
+package de.tum.in.www1.artemis.domain.lecture;
+
+/**
+ * A completed lecture unit of a user, with only the ids of the {@link LectureUnitCompletion}
+ *
+ * @param lectureUnitId the id of the completed lecture unit
+ * @param userId        the id of the user who completed the lecture unit
+ */
+public record LectureUnitCompletionOfUser(Long lectureUnitId, Long userId) {
+}
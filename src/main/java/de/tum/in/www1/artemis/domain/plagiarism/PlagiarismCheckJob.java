@@ -0,0 +1,211 @@
+package de.tum.in.www1.artemis.domain.plagiarism;
+
+import java.time.Instant;
+
+import javax.persistence.*;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import de.tum.in.www1.artemis.domain.AbstractAuditingEntity;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.enumeration.ExerciseType;
+
+/**
+ * A plagiarism check of an exercise that is queued and run asynchronously by one of the instances, see
+ * {@link de.tum.in.www1.artemis.service.scheduled.PlagiarismCheckJobScheduleService}. The jobs are kept after they finished, so that they form the history of the
+ * checks of an exercise. The created date of the job is the time it was queued.
+ */
+@Entity
+@Table(name = "plagiarism_check_job")
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class PlagiarismCheckJob extends AbstractAuditingEntity {
+
+    @Column(name = "exercise_id", nullable = false)
+    private long exerciseId;
+
+    /**
+     * The course of the exercise, only one check per course runs at the same time
+     */
+    @Column(name = "course_id", nullable = false)
+    private long courseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "exercise_type", nullable = false)
+    private ExerciseType exerciseType;
+
+    /**
+     * The similarity threshold of the check (in % between 0 and 100)
+     */
+    @Column(name = "similarity_threshold", nullable = false)
+    private float similarityThreshold;
+
+    @Column(name = "minimum_score", nullable = false)
+    private int minimumScore;
+
+    /**
+     * The minimum size of the compared submissions, not used for programming exercises
+     */
+    @Column(name = "minimum_size", nullable = false)
+    private int minimumSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private PlagiarismCheckJobStatus status = PlagiarismCheckJobStatus.QUEUED;
+
+    /**
+     * True if the job should be cancelled while it is running, the instance running the job cancels it with its next heartbeat
+     */
+    @Column(name = "cancellation_requested", nullable = false)
+    private boolean cancellationRequested;
+
+    /**
+     * How often the job has been started, a job is started again if the instance running it stopped sending heartbeats
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * The instance that runs or ran the job
+     */
+    @JsonIgnore
+    @Column(name = "node")
+    private String node;
+
+    @Column(name = "started_date")
+    private Instant startedDate;
+
+    @Column(name = "completed_date")
+    private Instant completedDate;
+
+    /**
+     * The last time the instance running the job confirmed that it is still running
+     */
+    @JsonIgnore
+    @Column(name = "heartbeat_date")
+    private Instant heartbeatDate;
+
+    /**
+     * The latest progress message of the running check, e.g. the number of downloaded repositories
+     */
+    @Column(name = "progress")
+    private String progress;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    /**
+     * The key of the error, which the client translates
+     */
+    @Column(name = "error_key")
+    private String errorKey;
+
+    /**
+     * The id of the result of a completed job, the result is deleted when the next check of the exercise completes
+     */
+    @Column(name = "plagiarism_result_id")
+    private Long plagiarismResultId;
+
+    public PlagiarismCheckJob() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public PlagiarismCheckJob(Exercise exercise, float similarityThreshold, int minimumScore, int minimumSize) {
+        this.exerciseId = exercise.getId();
+        this.courseId = exercise.getCourseViaExerciseGroupOrCourseMember().getId();
+        this.exerciseType = exercise.getExerciseType();
+        this.similarityThreshold = similarityThreshold;
+        this.minimumScore = minimumScore;
+        this.minimumSize = minimumSize;
+    }
+
+    /**
+     * Checks if the job checks the exercise with the given parameters, i.e. if a new check with these parameters can wait for this job instead
+     *
+     * @param similarityThreshold the similarity threshold (in % between 0 and 100)
+     * @param minimumScore        the minimum result score of the compared submissions
+     * @param minimumSize         the minimum size of the compared submissions
+     * @return true if the job uses the given parameters
+     */
+    public boolean hasParameters(float similarityThreshold, int minimumScore, int minimumSize) {
+        return this.similarityThreshold == similarityThreshold && this.minimumScore == minimumScore && this.minimumSize == minimumSize;
+    }
+
+    public long getExerciseId() {
+        return exerciseId;
+    }
+
+    public long getCourseId() {
+        return courseId;
+    }
+
+    public ExerciseType getExerciseType() {
+        return exerciseType;
+    }
+
+    public float getSimilarityThreshold() {
+        return similarityThreshold;
+    }
+
+    public int getMinimumScore() {
+        return minimumScore;
+    }
+
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    public PlagiarismCheckJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PlagiarismCheckJobStatus status) {
+        this.status = status;
+    }
+
+    public boolean isCancellationRequested() {
+        return cancellationRequested;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public Instant getCompletedDate() {
+        return completedDate;
+    }
+
+    public Instant getHeartbeatDate() {
+        return heartbeatDate;
+    }
+
+    public String getProgress() {
+        return progress;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public Long getPlagiarismResultId() {
+        return plagiarismResultId;
+    }
+
+    @Override
+    public String toString() {
+        return "PlagiarismCheckJob{" + "id=" + getId() + ", exerciseId=" + exerciseId + ", exerciseType=" + exerciseType + ", status=" + status + ", attempts=" + attempts
+                + ", node='" + node + '\'' + '}';
+    }
+}
@@ -0,0 +1,39 @@
+package de.tum.in.www1.artemis.domain.plagiarism;
+
+/**
+ * The lifecycle of a plagiarism check job, see {@link PlagiarismCheckJob}.
+ */
+public enum PlagiarismCheckJobStatus {
+
+    /**
+     * The job waits until one of the instances has capacity to run it.
+     */
+    QUEUED,
+
+    /**
+     * The job is running on the instance stored in the job.
+     */
+    RUNNING,
+
+    /**
+     * The check finished and its result has been saved.
+     */
+    COMPLETED,
+
+    /**
+     * The check failed, the job contains the error.
+     */
+    FAILED,
+
+    /**
+     * The job was cancelled before its result was saved.
+     */
+    CANCELLED;
+
+    /**
+     * @return true if the job will not change anymore
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
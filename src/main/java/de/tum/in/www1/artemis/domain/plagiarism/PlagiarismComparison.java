@@ -1,6 +1,5 @@
 package de.tum.in.www1.artemis.domain.plagiarism;
 
-import java.io.File;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -79,16 +78,15 @@ public class PlagiarismComparison<E extends PlagiarismSubmissionElement> extends
     /**
      * Create a new PlagiarismComparison instance from an existing JPlagComparison object.
      *
-     * @param jplagComparison     JPlag comparison to map to the new PlagiarismComparison instance
-     * @param exercise            the exercise to which the comparison belongs, either Text or Programming
-     * @param submissionDirectory the directory to which all student submissions have been downloaded / stored
+     * @param jplagComparison JPlag comparison to map to the new PlagiarismComparison instance
+     * @param exercise        the exercise to which the comparison belongs, either Text or Programming
      * @return a new instance with the content of the JPlagComparison
      */
-    public static PlagiarismComparison<TextSubmissionElement> fromJPlagComparison(JPlagComparison jplagComparison, Exercise exercise, File submissionDirectory) {
+    public static PlagiarismComparison<TextSubmissionElement> fromJPlagComparison(JPlagComparison jplagComparison, Exercise exercise) {
         PlagiarismComparison<TextSubmissionElement> comparison = new PlagiarismComparison<>();
 
-        comparison.setSubmissionA(PlagiarismSubmission.fromJPlagSubmission(jplagComparison.firstSubmission(), exercise, submissionDirectory));
-        comparison.setSubmissionB(PlagiarismSubmission.fromJPlagSubmission(jplagComparison.secondSubmission(), exercise, submissionDirectory));
+        comparison.setSubmissionA(PlagiarismSubmission.fromJPlagSubmission(jplagComparison.firstSubmission(), exercise));
+        comparison.setSubmissionB(PlagiarismSubmission.fromJPlagSubmission(jplagComparison.secondSubmission(), exercise));
         comparison.setMatches(jplagComparison.matches().stream().map(PlagiarismMatch::fromJPlagMatch).collect(Collectors.toSet()));
         // Note: JPlag returns a value between 0 and 1, we assume and store a value between 0 and 100 (percentage) in the database
         comparison.setSimilarity(jplagComparison.similarity() * 100);
@@ -84,15 +84,14 @@ public class PlagiarismSubmission<E extends PlagiarismSubmissionElement> extends
     /**
      * Create a new PlagiarismSubmission instance from an existing JPlag Submission
      *
-     * @param jplagSubmission     the JPlag Submission to create the PlagiarismSubmission from
-     * @param exercise            the exercise to which the comparison belongs, either Text or Programming
-     * @param submissionDirectory the directory to which all student submissions have been downloaded / stored
+     * @param jplagSubmission the JPlag Submission to create the PlagiarismSubmission from
+     * @param exercise        the exercise to which the comparison belongs, either Text or Programming
      * @return a new PlagiarismSubmission instance
      */
-    public static PlagiarismSubmission<TextSubmissionElement> fromJPlagSubmission(Submission jplagSubmission, Exercise exercise, File submissionDirectory) {
+    public static PlagiarismSubmission<TextSubmissionElement> fromJPlagSubmission(Submission jplagSubmission, Exercise exercise) {
         PlagiarismSubmission<TextSubmissionElement> submission = new PlagiarismSubmission<>();
 
-        String[] submissionIdAndStudentLogin = jplagSubmission.getName().split("[-.]");
+        String[] submissionIdAndStudentLogin = splitJPlagSubmissionName(jplagSubmission);
 
         long submissionId = 0;
         String studentLogin = "unknown";
@@ -108,6 +107,8 @@ public class PlagiarismSubmission<E extends PlagiarismSubmissionElement> extends
             studentLogin = submissionIdAndStudentLogin[1];
         }
 
+        // the submissions can be stored in different directories, e.g. the unchanged submissions of an incremental check
+        File submissionDirectory = jplagSubmission.getRoot().getParentFile();
         submission.setStudentLogin(studentLogin);
         submission.setElements(jplagSubmission.getTokenList().stream().filter(Objects::nonNull)
                 .map(token -> TextSubmissionElement.fromJPlagToken(token, submission, exercise, submissionDirectory)).collect(Collectors.toCollection(ArrayList::new)));
@@ -118,6 +119,33 @@ public class PlagiarismSubmission<E extends PlagiarismSubmissionElement> extends
         return submission;
     }
 
+    /**
+     * Get the id of the submission (or of the participation for programming exercises) from the name of the given JPlag Submission
+     *
+     * @param jplagSubmission the JPlag Submission, whose name starts with the id
+     * @return the id of the submission, or 0 if the name does not contain an id
+     */
+    public static long getSubmissionIdOfJPlagSubmission(Submission jplagSubmission) {
+        String[] submissionIdAndStudentLogin = splitJPlagSubmissionName(jplagSubmission);
+        if (submissionIdAndStudentLogin.length >= 2) {
+            try {
+                return Long.parseLong(submissionIdAndStudentLogin[0]);
+            }
+            catch (NumberFormatException e) {
+                logger.error("Invalid submissionId: {}", e.getMessage());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * JPlag prefixes the names of the submissions with the name of their root directory if it compares multiple root directories, therefore only the last part of the
+     * name is used.
+     */
+    private static String[] splitJPlagSubmissionName(Submission jplagSubmission) {
+        return new File(jplagSubmission.getName()).getName().split("[-.]");
+    }
+
     /**
      * Create a new PlagiarismSubmission instance from an existing Modeling Submission
      *
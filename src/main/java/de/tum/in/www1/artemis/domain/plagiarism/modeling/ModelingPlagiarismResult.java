@@ -1,6 +1,13 @@
 package de.tum.in.www1.artemis.domain.plagiarism.modeling;
 
-import javax.persistence.Entity;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.*;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
 
@@ -10,4 +17,90 @@ import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
 @Entity
 public class ModelingPlagiarismResult extends PlagiarismResult<ModelingSubmissionElement> {
 
+    /**
+     * The parameters of the check, a follow-up check can only reuse the signatures and similarities of this result if it uses the same parameters
+     */
+    @Column(name = "minimum_similarity")
+    private Double minimumSimilarity;
+
+    @Column(name = "minimum_model_size")
+    private Integer minimumModelSize;
+
+    @Column(name = "minimum_score")
+    private Integer minimumScore;
+
+    /**
+     * The signatures of all submissions that were compared in the check
+     */
+    @JsonIgnore
+    @OneToMany(mappedBy = "plagiarismResult", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<ModelingSubmissionSignature> submissionSignatures = new HashSet<>();
+
+    /**
+     * The similarities of all compared pairs of submissions that reached the minimum similarity
+     */
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "modeling_plagiarism_similarity", joinColumns = @JoinColumn(name = "plagiarism_result_id"))
+    private List<ModelingSubmissionSimilarity> submissionSimilarities = new ArrayList<>();
+
+    /**
+     * Sets the parameters with which the check was run
+     *
+     * @param minimumSimilarity the minimum similarity so that the result is considered
+     * @param minimumModelSize  the minimum number of model elements to be considered as plagiarism
+     * @param minimumScore      the minimum result score (if available) to be considered as plagiarism
+     */
+    public void setParameters(double minimumSimilarity, int minimumModelSize, int minimumScore) {
+        this.minimumSimilarity = minimumSimilarity;
+        this.minimumModelSize = minimumModelSize;
+        this.minimumScore = minimumScore;
+    }
+
+    /**
+     * Checks if the check was run with the given parameters, i.e. if a follow-up check with these parameters can reuse the signatures and similarities of this result
+     *
+     * @param minimumSimilarity the minimum similarity so that the result is considered
+     * @param minimumModelSize  the minimum number of model elements to be considered as plagiarism
+     * @param minimumScore      the minimum result score (if available) to be considered as plagiarism
+     * @return true if the check was run with the given parameters
+     */
+    public boolean hasParameters(double minimumSimilarity, int minimumModelSize, int minimumScore) {
+        return this.minimumSimilarity != null && this.minimumSimilarity == minimumSimilarity && this.minimumModelSize != null && this.minimumModelSize == minimumModelSize
+                && this.minimumScore != null && this.minimumScore == minimumScore;
+    }
+
+    public Double getMinimumSimilarity() {
+        return minimumSimilarity;
+    }
+
+    public Integer getMinimumModelSize() {
+        return minimumModelSize;
+    }
+
+    public Integer getMinimumScore() {
+        return minimumScore;
+    }
+
+    public Set<ModelingSubmissionSignature> getSubmissionSignatures() {
+        return submissionSignatures;
+    }
+
+    /**
+     * Sets the signatures of the compared submissions and maintains the bidirectional relationship
+     *
+     * @param submissionSignatures the signatures of all submissions that were compared in the check
+     */
+    public void setSubmissionSignatures(Set<ModelingSubmissionSignature> submissionSignatures) {
+        this.submissionSignatures = submissionSignatures;
+        submissionSignatures.forEach(submissionSignature -> submissionSignature.setPlagiarismResult(this));
+    }
+
+    public List<ModelingSubmissionSimilarity> getSubmissionSimilarities() {
+        return submissionSimilarities;
+    }
+
+    public void setSubmissionSimilarities(List<ModelingSubmissionSimilarity> submissionSimilarities) {
+        this.submissionSimilarities = submissionSimilarities;
+    }
 }
@@ -0,0 +1,71 @@
+package de.tum.in.www1.artemis.domain.plagiarism.modeling;
+
+import javax.persistence.*;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+
+/**
+ * The signature of a modeling submission that was compared in a plagiarism check. It is stored with the result of the check, so that a follow-up check with the same
+ * parameters only has to compare the submissions that are new or have been changed since.
+ */
+@Entity
+@Table(name = "modeling_plagiarism_submission_signature")
+public class ModelingSubmissionSignature extends DomainObject {
+
+    @JsonIgnore
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "plagiarism_result_id")
+    private ModelingPlagiarismResult plagiarismResult;
+
+    @Column(name = "submission_id", nullable = false)
+    private long submissionId;
+
+    /**
+     * SHA-256 hash of the model of the submission at the time of the check
+     */
+    @Column(name = "model_hash", nullable = false)
+    private String modelHash;
+
+    /**
+     * The serialized signature of the diagram of the submission, see {@link de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagramSignature#serialize()}
+     */
+    @Column(name = "diagram_signature", nullable = false)
+    private String diagramSignature;
+
+    public ModelingSubmissionSignature() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public ModelingSubmissionSignature(long submissionId, String modelHash, String diagramSignature) {
+        this.submissionId = submissionId;
+        this.modelHash = modelHash;
+        this.diagramSignature = diagramSignature;
+    }
+
+    public ModelingPlagiarismResult getPlagiarismResult() {
+        return plagiarismResult;
+    }
+
+    public void setPlagiarismResult(ModelingPlagiarismResult plagiarismResult) {
+        this.plagiarismResult = plagiarismResult;
+    }
+
+    public long getSubmissionId() {
+        return submissionId;
+    }
+
+    public String getModelHash() {
+        return modelHash;
+    }
+
+    public String getDiagramSignature() {
+        return diagramSignature;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelingSubmissionSignature{" + "submissionId=" + submissionId + ", modelHash='" + modelHash + '\'' + ", diagramSignature='" + diagramSignature + '\'' + '}';
+    }
+}
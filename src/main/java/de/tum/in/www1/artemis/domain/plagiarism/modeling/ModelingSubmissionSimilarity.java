@@ -0,0 +1,51 @@
+package de.tum.in.www1.artemis.domain.plagiarism.modeling;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * The similarity of two modeling submissions that reached the minimum similarity of a plagiarism check. In contrast to the comparisons of the result, which are limited to
+ * the most similar ones, all similarities of a check are stored, so that a follow-up check can merge the similarities of the unchanged submissions with the new ones.
+ */
+@Embeddable
+public class ModelingSubmissionSimilarity {
+
+    @Column(name = "submission_a_id")
+    private long submissionAId;
+
+    @Column(name = "submission_b_id")
+    private long submissionBId;
+
+    /**
+     * Similarity of the two submissions (between 0 and 1)
+     */
+    @Column(name = "similarity")
+    private double similarity;
+
+    public ModelingSubmissionSimilarity() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public ModelingSubmissionSimilarity(long submissionAId, long submissionBId, double similarity) {
+        this.submissionAId = submissionAId;
+        this.submissionBId = submissionBId;
+        this.similarity = similarity;
+    }
+
+    public long getSubmissionAId() {
+        return submissionAId;
+    }
+
+    public long getSubmissionBId() {
+        return submissionBId;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelingSubmissionSimilarity{" + "submissionAId=" + submissionAId + ", submissionBId=" + submissionBId + ", similarity=" + similarity + '}';
+    }
+}
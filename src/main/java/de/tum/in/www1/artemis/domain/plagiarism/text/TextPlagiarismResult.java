@@ -1,6 +1,14 @@
 package de.tum.in.www1.artemis.domain.plagiarism.text;
 
-import javax.persistence.Entity;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.persistence.*;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import de.jplag.JPlagResult;
 import de.tum.in.www1.artemis.domain.Exercise;
@@ -13,6 +21,39 @@ import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
 @Entity
 public class TextPlagiarismResult extends PlagiarismResult<TextSubmissionElement> {
 
+    /**
+     * The parameters of the check, a follow-up check can only reuse the fingerprints and similarities of this result if it uses the same parameters
+     */
+    @Column(name = "similarity_threshold")
+    private Double similarityThreshold;
+
+    @Column(name = "minimum_score")
+    private Integer minimumScore;
+
+    @Column(name = "minimum_size")
+    private Integer minimumSize;
+
+    /**
+     * The hash of the compared commit of the template repository, which JPlag uses as base code in programming exercises, null if no base code was used
+     */
+    @Column(name = "base_code_fingerprint")
+    private String baseCodeFingerprint;
+
+    /**
+     * The fingerprints of all submissions that were compared in the check
+     */
+    @JsonIgnore
+    @OneToMany(mappedBy = "plagiarismResult", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<TextSubmissionFingerprint> submissionFingerprints = new HashSet<>();
+
+    /**
+     * The similarities of all compared pairs of submissions that reached the similarity threshold
+     */
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "text_plagiarism_similarity", joinColumns = @JoinColumn(name = "plagiarism_result_id"))
+    private List<TextSubmissionSimilarity> submissionSimilarities = new ArrayList<>();
+
     /**
      * converts the given JPlagResult into a TextPlagiarismResult, only uses the 500 most interesting comparisons based on the highest similarity
      *
@@ -24,7 +65,7 @@ public class TextPlagiarismResult extends PlagiarismResult<TextSubmissionElement
         var comparisons = result.getComparisons(500);
         // only convert those 500 comparisons to save memory and cpu power
         for (var jPlagComparison : comparisons) {
-            var comparison = PlagiarismComparison.fromJPlagComparison(jPlagComparison, exercise, result.getOptions().submissionDirectories().iterator().next());
+            var comparison = PlagiarismComparison.fromJPlagComparison(jPlagComparison, exercise);
             comparison.setPlagiarismResult(this);
             this.comparisons.add(comparison);
         }
@@ -32,4 +73,71 @@ public class TextPlagiarismResult extends PlagiarismResult<TextSubmissionElement
         this.setSimilarityDistribution(result.getSimilarityDistribution());
         this.setExercise(exercise);
     }
+
+    /**
+     * Sets the parameters with which the check was run
+     *
+     * @param similarityThreshold the similarity threshold (in % between 0 and 100)
+     * @param minimumScore        the minimum result score of the compared submissions
+     * @param minimumSize         the minimum size of the compared submissions
+     * @param baseCodeFingerprint the hash of the commit of the template repository used as base code, or null if no base code was used
+     */
+    public void setParameters(float similarityThreshold, int minimumScore, int minimumSize, String baseCodeFingerprint) {
+        this.similarityThreshold = (double) similarityThreshold;
+        this.minimumScore = minimumScore;
+        this.minimumSize = minimumSize;
+        this.baseCodeFingerprint = baseCodeFingerprint;
+    }
+
+    /**
+     * Checks if the check was run with the given parameters, i.e. if a follow-up check with these parameters can reuse the fingerprints and similarities of this result
+     *
+     * @param similarityThreshold the similarity threshold (in % between 0 and 100)
+     * @param minimumScore        the minimum result score of the compared submissions
+     * @param minimumSize         the minimum size of the compared submissions
+     * @param baseCodeFingerprint the hash of the commit of the template repository used as base code, or null if no base code is used
+     * @return true if the check was run with the given parameters
+     */
+    public boolean hasParameters(float similarityThreshold, int minimumScore, int minimumSize, String baseCodeFingerprint) {
+        return this.similarityThreshold != null && this.similarityThreshold == (double) similarityThreshold && this.minimumScore != null && this.minimumScore == minimumScore
+                && this.minimumSize != null && this.minimumSize == minimumSize && Objects.equals(this.baseCodeFingerprint, baseCodeFingerprint);
+    }
+
+    public Double getSimilarityThreshold() {
+        return similarityThreshold;
+    }
+
+    public Integer getMinimumScore() {
+        return minimumScore;
+    }
+
+    public Integer getMinimumSize() {
+        return minimumSize;
+    }
+
+    public String getBaseCodeFingerprint() {
+        return baseCodeFingerprint;
+    }
+
+    public Set<TextSubmissionFingerprint> getSubmissionFingerprints() {
+        return submissionFingerprints;
+    }
+
+    /**
+     * Sets the fingerprints of the compared submissions and maintains the bidirectional relationship
+     *
+     * @param submissionFingerprints the fingerprints of all submissions that were compared in the check
+     */
+    public void setSubmissionFingerprints(Set<TextSubmissionFingerprint> submissionFingerprints) {
+        this.submissionFingerprints = submissionFingerprints;
+        submissionFingerprints.forEach(submissionFingerprint -> submissionFingerprint.setPlagiarismResult(this));
+    }
+
+    public List<TextSubmissionSimilarity> getSubmissionSimilarities() {
+        return submissionSimilarities;
+    }
+
+    public void setSubmissionSimilarities(List<TextSubmissionSimilarity> submissionSimilarities) {
+        this.submissionSimilarities = submissionSimilarities;
+    }
 }
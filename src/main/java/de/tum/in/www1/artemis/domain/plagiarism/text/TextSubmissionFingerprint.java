@@ -0,0 +1,63 @@
+package de.tum.in.www1.artemis.domain.plagiarism.text;
+
+import javax.persistence.*;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+
+/**
+ * The fingerprint of a text or programming submission that was compared by JPlag in a plagiarism check. It is stored with the result of the check, so that a follow-up
+ * check with the same parameters only has to compare the submissions that are new or have been changed since.
+ */
+@Entity
+@Table(name = "text_plagiarism_submission_fingerprint")
+public class TextSubmissionFingerprint extends DomainObject {
+
+    @JsonIgnore
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "plagiarism_result_id")
+    private TextPlagiarismResult plagiarismResult;
+
+    /**
+     * The id of the submission, or of the participation for programming exercises (see {@link de.tum.in.www1.artemis.domain.plagiarism.PlagiarismSubmission})
+     */
+    @Column(name = "submission_id", nullable = false)
+    private long submissionId;
+
+    /**
+     * SHA-256 hash of the text of a text submission, or the hash of the compared commit of a programming submission
+     */
+    @Column(name = "fingerprint", nullable = false)
+    private String fingerprint;
+
+    public TextSubmissionFingerprint() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public TextSubmissionFingerprint(long submissionId, String fingerprint) {
+        this.submissionId = submissionId;
+        this.fingerprint = fingerprint;
+    }
+
+    public TextPlagiarismResult getPlagiarismResult() {
+        return plagiarismResult;
+    }
+
+    public void setPlagiarismResult(TextPlagiarismResult plagiarismResult) {
+        this.plagiarismResult = plagiarismResult;
+    }
+
+    public long getSubmissionId() {
+        return submissionId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "TextSubmissionFingerprint{" + "submissionId=" + submissionId + ", fingerprint='" + fingerprint + '\'' + '}';
+    }
+}
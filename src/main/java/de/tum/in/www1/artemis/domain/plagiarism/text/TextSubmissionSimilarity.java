@@ -0,0 +1,52 @@
+package de.tum.in.www1.artemis.domain.plagiarism.text;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * The similarity of two text or programming submissions that reached the similarity threshold of a plagiarism check. In contrast to the comparisons of the result, which
+ * are limited to the most similar ones, all similarities of a check are stored, so that a follow-up check can merge the similarities of the unchanged submissions with the
+ * new ones.
+ */
+@Embeddable
+public class TextSubmissionSimilarity {
+
+    @Column(name = "submission_a_id")
+    private long submissionAId;
+
+    @Column(name = "submission_b_id")
+    private long submissionBId;
+
+    /**
+     * Similarity of the two submissions in percentage (between 0 and 100), like the similarity of a comparison
+     */
+    @Column(name = "similarity")
+    private double similarity;
+
+    public TextSubmissionSimilarity() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public TextSubmissionSimilarity(long submissionAId, long submissionBId, double similarity) {
+        this.submissionAId = submissionAId;
+        this.submissionBId = submissionBId;
+        this.similarity = similarity;
+    }
+
+    public long getSubmissionAId() {
+        return submissionAId;
+    }
+
+    public long getSubmissionBId() {
+        return submissionBId;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    @Override
+    public String toString() {
+        return "TextSubmissionSimilarity{" + "submissionAId=" + submissionAId + ", submissionBId=" + submissionBId + ", similarity=" + similarity + '}';
+    }
+}
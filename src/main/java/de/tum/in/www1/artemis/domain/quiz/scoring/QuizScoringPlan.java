@@ -0,0 +1,413 @@
+package de.tum.in.www1.artemis.domain.quiz.scoring;
+
+import java.util.*;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+/**
+ * An immutable scoring plan of a quiz exercise that is compiled once and can then score many submissions of this quiz (also in parallel).
+ * <p>
+ * The {@link ScoringStrategy} implementations look up the solution of a question (e.g. the correct drag items of a drop location) again for every
+ * submitted answer. The plan resolves these lookups once: answer options of multiple choice questions are mapped to bit positions and the correct
+ * mappings of drag and drop questions to int arrays, so scoring a submitted answer only compares primitives and does not allocate.
+ * Short answer questions (and questions the plan cannot represent, e.g. with more than 64 answer options) are scored by their {@link ScoringStrategy}.
+ * <p>
+ * The plan gives exactly the same scores as {@link QuizSubmission#calculateAndUpdateScores(QuizExercise)} and must be compiled again when the quiz changes.
+ */
+public final class QuizScoringPlan {
+
+    /**
+     * the maximum number of answer options or drop locations of a question that can be represented by the bits of a long
+     */
+    private static final int MAX_ELEMENTS = Long.SIZE;
+
+    private final QuizQuestion[] questions;
+
+    private final QuestionPlan[] questionPlans;
+
+    private final double overallQuizPoints;
+
+    private QuizScoringPlan(QuizQuestion[] questions, QuestionPlan[] questionPlans, double overallQuizPoints) {
+        this.questions = questions;
+        this.questionPlans = questionPlans;
+        this.overallQuizPoints = overallQuizPoints;
+    }
+
+    /**
+     * Compiles the scoring plan for the given quiz exercise, which has to include its questions
+     *
+     * @param quizExercise the quiz exercise with its questions
+     * @return the scoring plan of the quiz exercise
+     */
+    public static QuizScoringPlan compile(QuizExercise quizExercise) {
+        List<QuizQuestion> quizQuestions = quizExercise.getQuizQuestions();
+        QuizQuestion[] questions = quizQuestions.toArray(new QuizQuestion[0]);
+        QuestionPlan[] questionPlans = new QuestionPlan[questions.length];
+        for (int i = 0; i < questions.length; i++) {
+            questionPlans[i] = compileQuestion(questions[i]);
+        }
+        return new QuizScoringPlan(questions, questionPlans, quizExercise.getOverallQuizPoints());
+    }
+
+    /**
+     * Calculates the scores of the given submission and all its submitted answers and saves them in scoreInPoints.
+     * This is the equivalent of {@link QuizSubmission#calculateAndUpdateScores(QuizExercise)}.
+     *
+     * @param quizSubmission the submission of the quiz this plan was compiled for
+     * @return the resulting score of the submission as the number of points
+     */
+    public double calculateAndUpdateScores(QuizSubmission quizSubmission) {
+        double score = 0.0;
+        for (int i = 0; i < questions.length; i++) {
+            SubmittedAnswer submittedAnswer = quizSubmission.getSubmittedAnswerForQuestion(questions[i]);
+            if (submittedAnswer != null) {
+                double questionScore = questionPlans[i].score(submittedAnswer);
+                submittedAnswer.setScoreInPoints(questionScore);
+                score += questionScore;
+            }
+        }
+        quizSubmission.setScoreInPoints(score);
+        return score;
+    }
+
+    /**
+     * Maps the given number of points to the 0 to 100 scale. This is the equivalent of {@link QuizExercise#getScoreForSubmission(QuizSubmission)}
+     *
+     * @param scoreInPoints the score of a submission as the number of points, e.g. the return value of {@link #calculateAndUpdateScores(QuizSubmission)}
+     * @return the score on the 0 to 100 scale
+     */
+    public double getScore(double scoreInPoints) {
+        return 100.0 * scoreInPoints / overallQuizPoints;
+    }
+
+    private static QuestionPlan compileQuestion(QuizQuestion question) {
+        if (question.getPoints() == null || question.getScoringType() == null || question.isInvalid() == null) {
+            // the strategy fails in the same way as before
+            return new StrategyPlan(question);
+        }
+        if (question.isInvalid()) {
+            return new ConstantPlan(question.getPoints());
+        }
+        if (question instanceof MultipleChoiceQuestion mcQuestion) {
+            var plan = MultipleChoicePlan.compile(mcQuestion);
+            if (plan != null) {
+                return plan;
+            }
+        }
+        else if (question instanceof DragAndDropQuestion dndQuestion) {
+            var plan = DragAndDropPlan.compile(dndQuestion);
+            if (plan != null) {
+                return plan;
+            }
+        }
+        return new StrategyPlan(question);
+    }
+
+    /**
+     * The compiled scoring of one question
+     */
+    private interface QuestionPlan {
+
+        /**
+         * @param submittedAnswer the submitted answer for the question of this plan
+         * @return the score of the submitted answer, identical to the one of the {@link ScoringStrategy} of the question
+         */
+        double score(SubmittedAnswer submittedAnswer);
+    }
+
+    /**
+     * Invalid questions give full points for every answer
+     */
+    private record ConstantPlan(double points) implements QuestionPlan {
+
+        @Override
+        public double score(SubmittedAnswer submittedAnswer) {
+            return points;
+        }
+    }
+
+    /**
+     * Scores the submitted answer with the scoring strategy of the question
+     */
+    private record StrategyPlan(QuizQuestion question) implements QuestionPlan {
+
+        @Override
+        public double score(SubmittedAnswer submittedAnswer) {
+            return question.scoreForAnswer(submittedAnswer);
+        }
+    }
+
+    /**
+     * Every answer option is represented by a bit. The ids of the answer options are sorted, so the bit of a selected option can be found with a binary search.
+     */
+    private static final class MultipleChoicePlan implements QuestionPlan {
+
+        private final ScoringType scoringType;
+
+        private final int points;
+
+        private final int numberOfOptions;
+
+        private final long[] sortedOptionIds;
+
+        private final long[] optionMasks;
+
+        private final long correctMask;
+
+        private final long validMask;
+
+        private MultipleChoicePlan(ScoringType scoringType, int points, int numberOfOptions, long[] sortedOptionIds, long[] optionMasks, long correctMask, long validMask) {
+            this.scoringType = scoringType;
+            this.points = points;
+            this.numberOfOptions = numberOfOptions;
+            this.sortedOptionIds = sortedOptionIds;
+            this.optionMasks = optionMasks;
+            this.correctMask = correctMask;
+            this.validMask = validMask;
+        }
+
+        /**
+         * @return the plan of the question, or null if the question cannot be represented by a plan
+         */
+        static MultipleChoicePlan compile(MultipleChoiceQuestion question) {
+            List<AnswerOption> answerOptions = question.getAnswerOptions();
+            if (answerOptions.size() > MAX_ELEMENTS) {
+                return null;
+            }
+            // options with the same id are selected together, as AnswerOption#isSelected only compares ids
+            SortedMap<Long, Long> masksById = new TreeMap<>();
+            long correctMask = 0;
+            long validMask = 0;
+            for (int i = 0; i < answerOptions.size(); i++) {
+                AnswerOption answerOption = answerOptions.get(i);
+                if (answerOption.getId() == null || answerOption.isIsCorrect() == null || answerOption.isInvalid() == null) {
+                    return null;
+                }
+                long bit = 1L << i;
+                masksById.merge(answerOption.getId(), bit, (mask1, mask2) -> mask1 | mask2);
+                if (answerOption.isIsCorrect()) {
+                    correctMask |= bit;
+                }
+                if (!answerOption.isInvalid()) {
+                    validMask |= bit;
+                }
+            }
+            long[] sortedOptionIds = masksById.keySet().stream().mapToLong(Long::longValue).toArray();
+            long[] optionMasks = masksById.values().stream().mapToLong(Long::longValue).toArray();
+            return new MultipleChoicePlan(question.getScoringType(), question.getPoints(), answerOptions.size(), sortedOptionIds, optionMasks, correctMask, validMask);
+        }
+
+        @Override
+        public double score(SubmittedAnswer submittedAnswer) {
+            if (!(submittedAnswer instanceof MultipleChoiceSubmittedAnswer mcAnswer)) {
+                // the submitted answer's type doesn't fit the question's type => it cannot be correct
+                return 0.0;
+            }
+            long selectedMask = 0;
+            for (AnswerOption selectedOption : mcAnswer.getSelectedOptions()) {
+                if (selectedOption.getId() != null) {
+                    int index = Arrays.binarySearch(sortedOptionIds, selectedOption.getId());
+                    if (index >= 0) {
+                        selectedMask |= optionMasks[index];
+                    }
+                }
+            }
+            // the user is wrong about a valid option if it is correct but not selected or incorrect but selected, invalid options count as correct
+            int incorrectSelections = Long.bitCount((correctMask ^ selectedMask) & validMask);
+            if (scoringType == ScoringType.ALL_OR_NOTHING) {
+                return incorrectSelections == 0 ? points : 0.0;
+            }
+            double totalOptions = numberOfOptions;
+            double correctSelections = numberOfOptions - incorrectSelections;
+            double fraction;
+            if (scoringType == ScoringType.PROPORTIONAL_WITH_PENALTY) {
+                fraction = ((correctSelections / totalOptions) - (incorrectSelections / totalOptions));
+            }
+            else {
+                fraction = correctSelections / totalOptions;
+            }
+            return Math.max(0, points * fraction);
+        }
+    }
+
+    /**
+     * Every drop location is represented by its index (and bit), the correct drag items of a drop location are stored as an array of their ids.
+     */
+    private static final class DragAndDropPlan implements QuestionPlan {
+
+        private static final int NEUTRAL = 0;
+
+        private static final int CORRECT = 1;
+
+        private static final int INCORRECT = 2;
+
+        private final ScoringType scoringType;
+
+        private final int points;
+
+        private final long allDropLocationsMask;
+
+        private final long[] sortedDropLocationIds;
+
+        private final int[] dropLocationIndices;
+
+        private final long invalidDropLocationsMask;
+
+        private final long[][] correctDragItemIds;
+
+        private final int mappedDropLocations;
+
+        private DragAndDropPlan(ScoringType scoringType, int points, long allDropLocationsMask, long[] sortedDropLocationIds, int[] dropLocationIndices,
+                long invalidDropLocationsMask, long[][] correctDragItemIds, int mappedDropLocations) {
+            this.scoringType = scoringType;
+            this.points = points;
+            this.allDropLocationsMask = allDropLocationsMask;
+            this.sortedDropLocationIds = sortedDropLocationIds;
+            this.dropLocationIndices = dropLocationIndices;
+            this.invalidDropLocationsMask = invalidDropLocationsMask;
+            this.correctDragItemIds = correctDragItemIds;
+            this.mappedDropLocations = mappedDropLocations;
+        }
+
+        /**
+         * @return the plan of the question, or null if the question cannot be represented by a plan
+         */
+        static DragAndDropPlan compile(DragAndDropQuestion question) {
+            List<DropLocation> dropLocations = question.getDropLocations();
+            if (dropLocations.size() > MAX_ELEMENTS) {
+                return null;
+            }
+            SortedMap<Long, Integer> indicesById = new TreeMap<>();
+            long invalidDropLocationsMask = 0;
+            for (int i = 0; i < dropLocations.size(); i++) {
+                DropLocation dropLocation = dropLocations.get(i);
+                if (dropLocation.getId() == null || dropLocation.isInvalid() == null || indicesById.put(dropLocation.getId(), i) != null) {
+                    return null;
+                }
+                if (dropLocation.isInvalid()) {
+                    invalidDropLocationsMask |= 1L << i;
+                }
+            }
+
+            List<Set<Long>> correctIdsByDropLocation = new ArrayList<>(dropLocations.size());
+            dropLocations.forEach(dropLocation -> correctIdsByDropLocation.add(new TreeSet<>()));
+            for (DragAndDropMapping mapping : question.getCorrectMappings()) {
+                if (mapping.getDropLocation() == null || mapping.getDragItem() == null || mapping.getDragItem().getId() == null) {
+                    return null;
+                }
+                Integer index = indicesById.get(mapping.getDropLocation().getId());
+                if (index != null) {
+                    correctIdsByDropLocation.get(index).add(mapping.getDragItem().getId());
+                }
+            }
+
+            long[][] correctDragItemIds = new long[dropLocations.size()][];
+            int mappedDropLocations = 0;
+            for (int i = 0; i < dropLocations.size(); i++) {
+                correctDragItemIds[i] = correctIdsByDropLocation.get(i).stream().mapToLong(Long::longValue).toArray();
+                if (correctDragItemIds[i].length > 0) {
+                    mappedDropLocations++;
+                }
+            }
+            long allDropLocationsMask = dropLocations.size() == MAX_ELEMENTS ? -1L : (1L << dropLocations.size()) - 1;
+            long[] sortedDropLocationIds = indicesById.keySet().stream().mapToLong(Long::longValue).toArray();
+            int[] dropLocationIndices = indicesById.values().stream().mapToInt(Integer::intValue).toArray();
+            return new DragAndDropPlan(question.getScoringType(), question.getPoints(), allDropLocationsMask, sortedDropLocationIds, dropLocationIndices,
+                    invalidDropLocationsMask, correctDragItemIds, mappedDropLocations);
+        }
+
+        @Override
+        public double score(SubmittedAnswer submittedAnswer) {
+            if (!(submittedAnswer instanceof DragAndDropSubmittedAnswer dndAnswer)) {
+                // the submitted answer's type doesn't fit the question's type => it cannot be correct
+                return 0.0;
+            }
+            int correctMappings = 0;
+            int incorrectMappings = 0;
+            long evaluatedDropLocations = 0;
+            // like DragAndDropSubmittedAnswer#getSelectedDragItemForDropLocation, only the first mapping of a drop location counts
+            for (DragAndDropMapping mapping : dndAnswer.getMappings()) {
+                if (mapping.getDropLocation() == null || mapping.getDropLocation().getId() == null) {
+                    continue;
+                }
+                int index = Arrays.binarySearch(sortedDropLocationIds, mapping.getDropLocation().getId());
+                if (index < 0) {
+                    continue;
+                }
+                int dropLocationIndex = dropLocationIndices[index];
+                long bit = 1L << dropLocationIndex;
+                if ((evaluatedDropLocations & bit) != 0) {
+                    continue;
+                }
+                evaluatedDropLocations |= bit;
+                int evaluation = evaluateDropLocation(dropLocationIndex, mapping.getDragItem());
+                if (evaluation == CORRECT) {
+                    correctMappings++;
+                }
+                else if (evaluation == INCORRECT) {
+                    incorrectMappings++;
+                }
+            }
+            // the drop locations without a mapping of the user
+            long emptyDropLocations = allDropLocationsMask & ~evaluatedDropLocations;
+            while (emptyDropLocations != 0) {
+                int dropLocationIndex = Long.numberOfTrailingZeros(emptyDropLocations);
+                emptyDropLocations &= emptyDropLocations - 1;
+                int evaluation = evaluateDropLocation(dropLocationIndex, null);
+                if (evaluation == CORRECT) {
+                    correctMappings++;
+                }
+                else if (evaluation == INCORRECT) {
+                    incorrectMappings++;
+                }
+            }
+
+            if (scoringType == ScoringType.ALL_OR_NOTHING) {
+                return incorrectMappings == 0 ? points : 0.0;
+            }
+            double mapped = mappedDropLocations;
+            double correct = correctMappings;
+            double fraction;
+            if (scoringType == ScoringType.PROPORTIONAL_WITH_PENALTY) {
+                double incorrect = incorrectMappings;
+                fraction = ((correct / mapped) - (incorrect / mapped));
+            }
+            else {
+                fraction = correct / mapped;
+            }
+            return Math.max(0, points * fraction);
+        }
+
+        /**
+         * Evaluates a drop location in the same way as the drag and drop scoring strategies
+         *
+         * @param dropLocationIndex the index of the drop location
+         * @param selectedDragItem  the drag item the user dragged onto the drop location, or null if the user left it empty
+         * @return {@link #CORRECT} if the drop location counts as correct mapping, {@link #INCORRECT} if it counts as incorrect mapping or {@link #NEUTRAL} otherwise
+         */
+        private int evaluateDropLocation(int dropLocationIndex, DragItem selectedDragItem) {
+            long[] correctIds = correctDragItemIds[dropLocationIndex];
+            boolean meantToBeMapped = correctIds.length > 0;
+            // invalid drop location or invalid drag item => always correct, but points are only given for drop locations that were meant to not stay empty
+            if ((invalidDropLocationsMask & (1L << dropLocationIndex)) != 0 || (selectedDragItem != null && selectedDragItem.isInvalid())) {
+                return meantToBeMapped ? CORRECT : NEUTRAL;
+            }
+            boolean isCorrect;
+            if (selectedDragItem == null) {
+                isCorrect = !meantToBeMapped;
+            }
+            else {
+                isCorrect = selectedDragItem.getId() != null && contains(correctIds, selectedDragItem.getId());
+            }
+            if (isCorrect) {
+                return meantToBeMapped ? CORRECT : NEUTRAL;
+            }
+            return INCORRECT;
+        }
+
+        private static boolean contains(long[] sortedIds, long id) {
+            return Arrays.binarySearch(sortedIds, id) >= 0;
+        }
+    }
+}
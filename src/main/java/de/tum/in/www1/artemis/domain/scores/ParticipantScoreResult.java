@@ -0,0 +1,12 @@
+package de.tum.in.www1.artemis.domain.scores;
+
+/**
+ * A result that can become the last (rated) result of a participant score, with only the attributes needed to select the last (rated) result
+ *
+ * @param resultId      the id of the result
+ * @param exerciseId    the id of the exercise of the participation
+ * @param participantId the id of the student or team of the participation
+ * @param rated         whether the result is rated
+ */
+public record ParticipantScoreResult(Long resultId, Long exerciseId, Long participantId, Boolean rated) {
+}
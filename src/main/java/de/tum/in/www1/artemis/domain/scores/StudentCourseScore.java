@@ -0,0 +1,157 @@
+package de.tum.in.www1.artemis.domain.scores;
+
+import java.time.Instant;
+
+import javax.persistence.*;
+
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.ExerciseType;
+import de.tum.in.www1.artemis.service.StudentCourseScoreService;
+
+/**
+ * Student course scores store the sum of the last rated points of a student in all exercises of a course (per exercise type) and the sum of the presentation scores.
+ * They are derived from the {@link StudentScore}s and {@link TeamScore}s, so that course totals can be read without going through all participant scores of a course.
+ * <p>
+ * The points of all course exercises are included, no matter if the exercise is released or included in the overall score,
+ * because these properties change over time. Readers have to subtract the points of the exercises they do not want to consider.
+ * Like the participant scores, they are eventually consistent.
+ *
+ * @see StudentCourseScoreService
+ */
+@Entity
+@Table(name = "student_course_score", uniqueConstraints = @UniqueConstraint(columnNames = { "course_id", "user_id" }))
+@EntityListeners(AuditingEntityListener.class)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class StudentCourseScore extends DomainObject {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
+    @JsonIgnore
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @JsonIgnore
+    private User user;
+
+    @Column(name = "programming_points")
+    private double programmingPoints;
+
+    @Column(name = "modeling_points")
+    private double modelingPoints;
+
+    @Column(name = "quiz_points")
+    private double quizPoints;
+
+    @Column(name = "text_points")
+    private double textPoints;
+
+    @Column(name = "file_upload_points")
+    private double fileUploadPoints;
+
+    @Column(name = "presentation_score")
+    private double presentationScore;
+
+    @LastModifiedDate
+    @Column(name = "last_modified_date")
+    @JsonIgnore
+    private Instant lastModifiedDate;
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public void setCourse(Course course) {
+        this.course = course;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    /**
+     * @param exerciseType the type of the exercises
+     * @return the sum of the last rated points of the student in all course exercises of the given type
+     */
+    public double getPoints(ExerciseType exerciseType) {
+        return switch (exerciseType) {
+            case PROGRAMMING -> programmingPoints;
+            case MODELING -> modelingPoints;
+            case QUIZ -> quizPoints;
+            case TEXT -> textPoints;
+            case FILE_UPLOAD -> fileUploadPoints;
+        };
+    }
+
+    public void setPoints(ExerciseType exerciseType, double points) {
+        switch (exerciseType) {
+            case PROGRAMMING -> programmingPoints = points;
+            case MODELING -> modelingPoints = points;
+            case QUIZ -> quizPoints = points;
+            case TEXT -> textPoints = points;
+            case FILE_UPLOAD -> fileUploadPoints = points;
+        }
+    }
+
+    /**
+     * @return the sum of the last rated points of the student in all course exercises
+     */
+    public double getTotalPoints() {
+        return programmingPoints + modelingPoints + quizPoints + textPoints + fileUploadPoints;
+    }
+
+    public double getPresentationScore() {
+        return presentationScore;
+    }
+
+    public void setPresentationScore(double presentationScore) {
+        this.presentationScore = presentationScore;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    /**
+     * @param other the course score to compare with
+     * @return true if both course scores contain the same points and presentation score, apart from rounding errors of the summation
+     */
+    public boolean hasSameScoresAs(StudentCourseScore other) {
+        return isEqual(programmingPoints, other.programmingPoints) && isEqual(modelingPoints, other.modelingPoints) && isEqual(quizPoints, other.quizPoints)
+                && isEqual(textPoints, other.textPoints) && isEqual(fileUploadPoints, other.fileUploadPoints) && isEqual(presentationScore, other.presentationScore);
+    }
+
+    /**
+     * @param other the course score whose points and presentation score should be copied into this course score
+     */
+    public void copyScoresFrom(StudentCourseScore other) {
+        programmingPoints = other.programmingPoints;
+        modelingPoints = other.modelingPoints;
+        quizPoints = other.quizPoints;
+        textPoints = other.textPoints;
+        fileUploadPoints = other.fileUploadPoints;
+        presentationScore = other.presentationScore;
+    }
+
+    private static boolean isEqual(double value, double otherValue) {
+        return Math.abs(value - otherValue) < 1e-6;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentCourseScore{" + "id=" + getId() + ", programmingPoints=" + programmingPoints + ", modelingPoints=" + modelingPoints + ", quizPoints=" + quizPoints
+                + ", textPoints=" + textPoints + ", fileUploadPoints=" + fileUploadPoints + ", presentationScore=" + presentationScore + '}';
+    }
+}
@@ -0,0 +1,12 @@
+package de.tum.in.www1.artemis.domain.scores;
+
+/**
+ * Points of a student in an exercise, either the last rated points from the student score of the student or from the team score of one of the student's teams,
+ * or the presentation score of one of the student's participations
+ *
+ * @param userId     the id of the student
+ * @param exerciseId the id of the exercise
+ * @param points     the points, null if there are none
+ */
+public record UserExercisePoints(Long userId, Long exerciseId, Double points) {
+}
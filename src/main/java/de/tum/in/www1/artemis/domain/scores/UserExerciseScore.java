@@ -0,0 +1,11 @@
+package de.tum.in.www1.artemis.domain.scores;
+
+/**
+ * The last score of a student in an exercise, either from the student score of the student or from the team score of one of the student's teams
+ *
+ * @param userId     the id of the student
+ * @param exerciseId the id of the exercise
+ * @param lastScore  the score of the last result of the student (or team) in the exercise
+ */
+public record UserExerciseScore(Long userId, Long exerciseId, Double lastScore) {
+}
@@ -0,0 +1,12 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+/**
+ * The attributes of a quiz result which are needed to add it to the quiz statistics, so that the recalculation does not need to load the whole result
+ *
+ * @param resultId     the id of the result, used to page through the results
+ * @param rated        whether the result is rated (i.e. the submission was made while the quiz was running)
+ * @param score        the score of the result, which determines the point counter
+ * @param submissionId the id of the quiz submission with the submitted answers
+ */
+public record QuizStatisticResult(Long resultId, Boolean rated, Double score, Long submissionId) {
+}
@@ -0,0 +1,25 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+import javax.annotation.Nullable;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.enumeration.SpanType;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
+
+/**
+ * Identifies the chart data of one graph of the statistics pages. The period index of the request is resolved to the start and end date of the period,
+ * so that requests for the same period share one entry, independent of the point in time at which they are made.
+ *
+ * @param graphType the type of the graph
+ * @param span      the span of the graph
+ * @param startDate the start of the period (inclusive)
+ * @param endDate   the end of the period (inclusive), truncated to seconds
+ * @param view      the view in which the data is displayed (Artemis, Course, Exercise)
+ * @param entityId  the id of the course or exercise, null for the Artemis view
+ */
+public record StatisticsChartCacheKey(GraphType graphType, SpanType span, ZonedDateTime startDate, ZonedDateTime endDate, StatisticsView view, @Nullable Long entityId)
+        implements Serializable {
+}
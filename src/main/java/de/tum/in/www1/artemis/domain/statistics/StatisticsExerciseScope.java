@@ -0,0 +1,21 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import javax.annotation.Nullable;
+
+/**
+ * Determines in which statistics views the entries of an exercise are counted
+ *
+ * @param exerciseId      the id of the exercise
+ * @param courseId        the id of the course of a course exercise, null for exam exercises
+ * @param testCourse      whether the course of a course exercise is a test course, null for exam exercises
+ * @param exerciseGroupId the id of the exercise group of an exam exercise, null for course exercises
+ */
+public record StatisticsExerciseScope(Long exerciseId, @Nullable Long courseId, @Nullable Boolean testCourse, @Nullable Long exerciseGroupId) {
+
+    /**
+     * @return true if the entries of the exercise are counted in the Artemis statistics, which exclude test courses
+     */
+    public boolean isCountedForArtemis() {
+        return exerciseGroupId != null || Boolean.FALSE.equals(testCourse);
+    }
+}
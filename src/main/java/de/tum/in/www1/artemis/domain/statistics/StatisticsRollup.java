@@ -0,0 +1,84 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.*;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
+import de.tum.in.www1.artemis.service.StatisticsRollupService;
+
+/**
+ * The number of entries of a graph type in one hour (the slot), for the Artemis statistics or the statistics of one course or exercise.
+ * The statistics pages read these rollups instead of counting the raw submissions, results and posts of the whole period.
+ *
+ * @see StatisticsRollupService
+ */
+@Entity
+@Table(name = "statistics_rollup", uniqueConstraints = @UniqueConstraint(columnNames = { "graph_type", "statistics_view", "entity_id", "slot" }))
+public class StatisticsRollup extends DomainObject {
+
+    /**
+     * The entity id of the rollups of the {@link StatisticsView#ARTEMIS} view, which do not belong to a course or exercise
+     */
+    public static final long ARTEMIS_ENTITY_ID = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "graph_type", nullable = false)
+    private GraphType graphType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statistics_view", nullable = false)
+    private StatisticsView view;
+
+    @Column(name = "entity_id", nullable = false)
+    private long entityId;
+
+    @Column(name = "slot", nullable = false)
+    private ZonedDateTime slot;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+
+    public StatisticsRollup() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public StatisticsRollup(GraphType graphType, StatisticsView view, long entityId, ZonedDateTime slot, long amount) {
+        this.graphType = graphType;
+        this.view = view;
+        this.entityId = entityId;
+        this.slot = slot;
+        this.amount = amount;
+    }
+
+    public GraphType getGraphType() {
+        return graphType;
+    }
+
+    public StatisticsView getView() {
+        return view;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public ZonedDateTime getSlot() {
+        return slot;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsRollup{" + "id=" + getId() + ", graphType=" + graphType + ", view=" + view + ", entityId=" + entityId + ", slot=" + slot + ", amount=" + amount + '}';
+    }
+}
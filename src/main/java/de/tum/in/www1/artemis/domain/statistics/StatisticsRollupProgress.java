@@ -0,0 +1,67 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.*;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+
+/**
+ * The period for which the rollups of a graph type are complete. Outside of this period, the statistics are counted from the raw data.
+ */
+@Entity
+@Table(name = "statistics_rollup_progress")
+public class StatisticsRollupProgress {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "graph_type")
+    private GraphType graphType;
+
+    /**
+     * The start of the first hour that is rolled up (inclusive)
+     */
+    @Column(name = "rolled_up_from", nullable = false)
+    private ZonedDateTime rolledUpFrom;
+
+    /**
+     * The start of the first hour that is not rolled up yet (exclusive)
+     */
+    @Column(name = "rolled_up_until", nullable = false)
+    private ZonedDateTime rolledUpUntil;
+
+    public StatisticsRollupProgress() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public StatisticsRollupProgress(GraphType graphType, ZonedDateTime rolledUpFrom, ZonedDateTime rolledUpUntil) {
+        this.graphType = graphType;
+        this.rolledUpFrom = rolledUpFrom;
+        this.rolledUpUntil = rolledUpUntil;
+    }
+
+    public GraphType getGraphType() {
+        return graphType;
+    }
+
+    public ZonedDateTime getRolledUpFrom() {
+        return rolledUpFrom;
+    }
+
+    public void setRolledUpFrom(ZonedDateTime rolledUpFrom) {
+        this.rolledUpFrom = rolledUpFrom;
+    }
+
+    public ZonedDateTime getRolledUpUntil() {
+        return rolledUpUntil;
+    }
+
+    public void setRolledUpUntil(ZonedDateTime rolledUpUntil) {
+        this.rolledUpUntil = rolledUpUntil;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsRollupProgress{" + "graphType=" + graphType + ", rolledUpFrom=" + rolledUpFrom + ", rolledUpUntil=" + rolledUpUntil + '}';
+    }
+}
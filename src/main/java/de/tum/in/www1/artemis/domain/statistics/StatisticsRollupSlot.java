@@ -0,0 +1,14 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+
+/**
+ * An hour of a graph type for which statistics rollups exist, e.g. to recalculate the rollups of all views of this hour after data was deleted
+ *
+ * @param graphType the graph type of the rollups
+ * @param slot      the start of the hour
+ */
+public record StatisticsRollupSlot(GraphType graphType, ZonedDateTime slot) {
+}
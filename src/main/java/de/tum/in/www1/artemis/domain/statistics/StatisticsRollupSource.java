@@ -0,0 +1,29 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+import javax.annotation.Nullable;
+
+/**
+ * The raw data from which the statistics rollups are calculated, e.g. the number of submissions to an exercise at one point in time
+ *
+ * @param courseId   the id of the course the entry belongs to, only set if it is not derived from the exercise (e.g. for lecture posts)
+ * @param exerciseId the id of the exercise the entry belongs to
+ * @param date       the point in time of the entry
+ * @param amount     the number of entries at this point in time, 1 for entries of users
+ * @param login      the login of the user for the graph types that count distinct users
+ */
+public record StatisticsRollupSource(@Nullable Long courseId, @Nullable Long exerciseId, ZonedDateTime date, Long amount, @Nullable String login) {
+
+    public StatisticsRollupSource(Long exerciseId, ZonedDateTime date, Long amount) {
+        this(null, exerciseId, date, amount, null);
+    }
+
+    public StatisticsRollupSource(Long exerciseId, ZonedDateTime date, String login) {
+        this(null, exerciseId, date, 1L, login);
+    }
+
+    public StatisticsRollupSource(Long courseId, Long exerciseId, ZonedDateTime date, Long amount) {
+        this(courseId, exerciseId, date, amount, null);
+    }
+}
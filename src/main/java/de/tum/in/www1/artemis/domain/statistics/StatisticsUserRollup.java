@@ -0,0 +1,76 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.*;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
+import de.tum.in.www1.artemis.service.StatisticsRollupService;
+
+/**
+ * A user who was active in one hour (the slot), for the graph types that count distinct users (e.g. active users or active tutors).
+ * Distinct users cannot be summed up over several hours, so the rollup stores each user once per hour instead of a number.
+ *
+ * @see StatisticsRollupService
+ */
+@Entity
+@Table(name = "statistics_user_rollup", uniqueConstraints = @UniqueConstraint(columnNames = { "graph_type", "statistics_view", "entity_id", "slot", "login" }))
+public class StatisticsUserRollup extends DomainObject {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "graph_type", nullable = false)
+    private GraphType graphType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statistics_view", nullable = false)
+    private StatisticsView view;
+
+    @Column(name = "entity_id", nullable = false)
+    private long entityId;
+
+    @Column(name = "slot", nullable = false)
+    private ZonedDateTime slot;
+
+    @Column(name = "login", nullable = false)
+    private String login;
+
+    public StatisticsUserRollup() {
+        // Empty constructor needed for Hibernate
+    }
+
+    public StatisticsUserRollup(GraphType graphType, StatisticsView view, long entityId, ZonedDateTime slot, String login) {
+        this.graphType = graphType;
+        this.view = view;
+        this.entityId = entityId;
+        this.slot = slot;
+        this.login = login;
+    }
+
+    public GraphType getGraphType() {
+        return graphType;
+    }
+
+    public StatisticsView getView() {
+        return view;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public ZonedDateTime getSlot() {
+        return slot;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsUserRollup{" + "id=" + getId() + ", graphType=" + graphType + ", view=" + view + ", entityId=" + entityId + ", slot=" + slot + ", login='" + login
+                + '\'' + '}';
+    }
+}
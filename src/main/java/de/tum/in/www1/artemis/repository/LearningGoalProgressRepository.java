@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -26,6 +27,7 @@ public interface LearningGoalProgressRepository extends JpaRepository<LearningGo
     @Query("""
             SELECT lgp
             FROM LearningGoalProgress lgp
+                LEFT JOIN FETCH lgp.user
             WHERE lgp.learningGoal.id = :learningGoalId
             """)
     List<LearningGoalProgress> findAllByLearningGoalId(@Param("learningGoalId") Long learningGoalId);
@@ -48,6 +50,15 @@ public interface LearningGoalProgressRepository extends JpaRepository<LearningGo
             """)
     Optional<LearningGoalProgress> findEagerByLearningGoalIdAndUserId(@Param("learningGoalId") Long learningGoalId, @Param("userId") Long userId);
 
+    @Query("""
+            SELECT lgp
+            FROM LearningGoalProgress lgp
+                LEFT JOIN FETCH lgp.user
+            WHERE lgp.learningGoal.id = :learningGoalId
+                AND lgp.user.id IN :userIds
+            """)
+    List<LearningGoalProgress> findAllByLearningGoalIdAndUserIdIn(@Param("learningGoalId") Long learningGoalId, @Param("userIds") Set<Long> userIds);
+
     @Query("""
             SELECT AVG(lgp.confidence)
             FROM LearningGoalProgress lgp
@@ -85,6 +85,15 @@ public interface LearningGoalRepository extends JpaRepository<LearningGoal, Long
             """)
     Optional<LearningGoal> findByIdWithExercisesAndLectureUnitsAndCompletions(@Param("learningGoalId") Long learningGoalId);
 
+    @Query("""
+            SELECT lg
+            FROM LearningGoal lg
+                LEFT JOIN FETCH lg.exercises
+                LEFT JOIN FETCH lg.lectureUnits
+            WHERE lg.id = :learningGoalId
+            """)
+    Optional<LearningGoal> findByIdWithExercisesAndLectureUnitsWithoutCompletions(@Param("learningGoalId") Long learningGoalId);
+
     @Query("""
             SELECT lg
             FROM LearningGoal lg
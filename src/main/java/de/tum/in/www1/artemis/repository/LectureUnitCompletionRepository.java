@@ -1,6 +1,8 @@
 package de.tum.in.www1.artemis.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.lecture.LectureUnitCompletion;
+import de.tum.in.www1.artemis.domain.lecture.LectureUnitCompletionOfUser;
 
 @Repository
 public interface LectureUnitCompletionRepository extends JpaRepository<LectureUnitCompletion, Long> {
@@ -22,4 +25,12 @@ public interface LectureUnitCompletionRepository extends JpaRepository<LectureUn
             """)
     Optional<LectureUnitCompletion> findByLectureUnitIdAndUserId(@Param("lectureUnitId") Long lectureUnitId, @Param("userId") Long userId);
 
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.lecture.LectureUnitCompletionOfUser(lectureUnitCompletion.lectureUnit.id, lectureUnitCompletion.user.id)
+            FROM LectureUnitCompletion lectureUnitCompletion
+            WHERE lectureUnitCompletion.lectureUnit.id IN :lectureUnitIds
+            AND lectureUnitCompletion.user.id IN :userIds
+            """)
+    List<LectureUnitCompletionOfUser> findAllByLectureUnitIdsAndUserIds(@Param("lectureUnitIds") Set<Long> lectureUnitIds, @Param("userIds") Set<Long> userIds);
+
 }
@@ -29,17 +29,26 @@ import de.tum.in.www1.artemis.web.rest.dto.ExerciseScoresAggregatedInformation;
 @Repository
 public interface ParticipantScoreRepository extends JpaRepository<ParticipantScore, Long> {
 
+    @Query("""
+            SELECT DISTINCT p.exercise.id
+            FROM ParticipantScore p
+            WHERE p.lastResult IS NULL
+            """)
+    Set<Long> findExerciseIdsOfOutdated();
+
     /**
-     * Find all outdated participant scores where the last result was deleted (and therefore set to null).
+     * Find all outdated participant scores of the given exercises where the last result was deleted (and therefore set to null).
      * Note: There are valid scores where the last *rated* result is null because of practice runs, see {@link #clearAllByResultId(Long)}
      *
+     * @param exerciseIds the ids of the exercises
      * @return A list of outdated participant scores
      */
     @Query("""
             SELECT p FROM ParticipantScore p
             WHERE p.lastResult IS NULL
+                AND p.exercise.id IN :exerciseIds
             """)
-    List<ParticipantScore> findAllOutdated();
+    List<ParticipantScore> findAllOutdatedByExerciseIdIn(@Param("exerciseIds") Set<Long> exerciseIds);
 
     @NotNull
     @Override
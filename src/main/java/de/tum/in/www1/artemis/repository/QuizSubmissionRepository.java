@@ -2,6 +2,8 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -34,6 +36,9 @@ public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission,
     @EntityGraph(type = LOAD, attributePaths = { "submittedAnswers" })
     QuizSubmission findWithEagerSubmittedAnswersById(@Param("submissionId") long submissionId);
 
+    @EntityGraph(type = LOAD, attributePaths = { "submittedAnswers" })
+    List<QuizSubmission> findWithEagerSubmittedAnswersByIdIn(Collection<Long> submissionIds);
+
     Set<QuizSubmission> findByParticipation_Exercise_Id(long exerciseId);
 
     @Query("""
@@ -7,6 +7,7 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -17,6 +18,8 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.assessment.dashboard.ResultCount;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.leaderboard.tutor.TutorLeaderboardAssessments;
+import de.tum.in.www1.artemis.domain.scores.ParticipantScoreResult;
+import de.tum.in.www1.artemis.domain.statistics.QuizStatisticResult;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
 import de.tum.in.www1.artemis.web.rest.dto.DueDateStat;
 import de.tum.in.www1.artemis.web.rest.dto.ResultWithPointsPerGradingCriterionDTO;
@@ -44,6 +47,55 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     @EntityGraph(type = LOAD, attributePaths = "submission")
     List<Result> findByParticipationExerciseIdOrderByCompletionDateAsc(Long exerciseId);
 
+    /**
+     * Get one page of the results that are included in the quiz statistics: the latest rated and the latest unrated result of every participation.
+     * The results are ordered by id, so that the next page can be requested with the id of the last result of the current page (keyset pagination).
+     *
+     * @param exerciseId   the id of the quiz exercise
+     * @param lastResultId the id of the last result of the previous page, or 0 for the first page
+     * @param pageable     the size of the page
+     * @return the attributes of the results that are needed for the quiz statistics
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.statistics.QuizStatisticResult(r.id, r.rated, r.score, r.submission.id)
+            FROM Result r
+            WHERE r.participation.exercise.id = :exerciseId
+                AND r.id > :lastResultId
+                AND r.rated IS NOT NULL
+                AND r.completionDate IS NOT NULL
+                AND r.submission IS NOT NULL
+                AND NOT EXISTS (
+                    SELECT r2.id FROM Result r2
+                    WHERE r2.participation.id = r.participation.id
+                        AND r2.rated = r.rated
+                        AND (r2.completionDate > r.completionDate OR (r2.completionDate = r.completionDate AND r2.id > r.id))
+                )
+            ORDER BY r.id
+            """)
+    List<QuizStatisticResult> findLatestResultsForQuizStatistics(@Param("exerciseId") Long exerciseId, @Param("lastResultId") Long lastResultId, Pageable pageable);
+
+    /**
+     * Count the results that are included in the quiz statistics, see {@link #findLatestResultsForQuizStatistics(Long, Long, Pageable)}
+     *
+     * @param exerciseId the id of the quiz exercise
+     * @return the number of results that are included in the quiz statistics
+     */
+    @Query("""
+            SELECT COUNT(r.id)
+            FROM Result r
+            WHERE r.participation.exercise.id = :exerciseId
+                AND r.rated IS NOT NULL
+                AND r.completionDate IS NOT NULL
+                AND r.submission IS NOT NULL
+                AND NOT EXISTS (
+                    SELECT r2.id FROM Result r2
+                    WHERE r2.participation.id = r.participation.id
+                        AND r2.rated = r.rated
+                        AND (r2.completionDate > r.completionDate OR (r2.completionDate = r.completionDate AND r2.id > r.id))
+                )
+            """)
+    long countLatestResultsForQuizStatistics(@Param("exerciseId") Long exerciseId);
+
     @EntityGraph(type = LOAD, attributePaths = { "submission", "feedbacks" })
     List<Result> findWithEagerSubmissionAndFeedbackByParticipationExerciseId(Long exerciseId);
 
@@ -276,6 +328,46 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
             """)
     List<Result> getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
 
+    /**
+     * Get the results of the given students in the given exercises that can be the last (rated) result of a participant score, in the same order as
+     * {@link #getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudent(Long, Long)}: the first result of a combination of exercise and student is its last result
+     *
+     * @param exerciseIds the ids of the exercises
+     * @param studentIds  the ids of the students
+     * @return the results of all combinations of the given exercises and students, ordered descending by participation id, submission id and result id
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.ParticipantScoreResult(r.id, e.id, p.student.id, r.rated)
+            FROM Exercise e JOIN e.studentParticipations p JOIN p.submissions s JOIN s.results r
+            WHERE e.id IN :exerciseIds
+                AND p.student.id IN :studentIds
+                AND r.score IS NOT NULL
+                AND r.completionDate IS NOT NULL
+                AND (s.type <> 'ILLEGAL' or s.type is null)
+            ORDER BY p.id DESC, s.id DESC, r.id DESC
+            """)
+    List<ParticipantScoreResult> getParticipantScoreResultsForStudents(@Param("exerciseIds") Set<Long> exerciseIds, @Param("studentIds") Set<Long> studentIds);
+
+    /**
+     * Get the results of the given teams in the given exercises that can be the last (rated) result of a participant score, in the same order as
+     * {@link #getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(Long, Long)}: the first result of a combination of exercise and team is its last result
+     *
+     * @param exerciseIds the ids of the exercises
+     * @param teamIds     the ids of the teams
+     * @return the results of all combinations of the given exercises and teams, ordered descending by participation id, submission id and result id
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.ParticipantScoreResult(r.id, e.id, p.team.id, r.rated)
+            FROM Exercise e JOIN e.studentParticipations p JOIN p.submissions s JOIN s.results r
+            WHERE e.id IN :exerciseIds
+                AND p.team.id IN :teamIds
+                AND r.score IS NOT NULL
+                AND r.completionDate IS NOT NULL
+                AND (s.type <> 'ILLEGAL' or s.type is null)
+            ORDER BY p.id DESC, s.id DESC, r.id DESC
+            """)
+    List<ParticipantScoreResult> getParticipantScoreResultsForTeams(@Param("exerciseIds") Set<Long> exerciseIds, @Param("teamIds") Set<Long> teamIds);
+
     @Query("""
             SELECT r
             FROM Exercise e
@@ -308,7 +400,22 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
             """)
     List<Result> getRatedResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
 
-    List<Result> findAllByLastModifiedDateAfter(Instant lastModifiedDate);
+    @Query("""
+            SELECT DISTINCT p.exercise.id
+            FROM Result r
+                JOIN r.participation p
+            WHERE r.lastModifiedDate > :lastModifiedDate
+            """)
+    Set<Long> findExerciseIdsByLastModifiedDateAfter(@Param("lastModifiedDate") Instant lastModifiedDate);
+
+    @Query("""
+            SELECT r
+            FROM Result r
+                JOIN r.participation p
+            WHERE r.lastModifiedDate > :lastModifiedDate
+                AND p.exercise.id IN :exerciseIds
+            """)
+    List<Result> findAllByLastModifiedDateAfterAndExerciseIdIn(@Param("lastModifiedDate") Instant lastModifiedDate, @Param("exerciseIds") Set<Long> exerciseIds);
 
     /**
      * Checks if a result for the given participation exists.
@@ -21,6 +21,8 @@ import de.tum.in.www1.artemis.domain.enumeration.SpanType;
 import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
 import de.tum.in.www1.artemis.domain.statistics.CourseStatisticsAverageScore;
 import de.tum.in.www1.artemis.domain.statistics.StatisticsEntry;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsExerciseScope;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource;
 
 /**
  * Spring Data JPA repository for the statistics pages
@@ -403,7 +405,7 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
                 answer.creationDate, count(answer.id)
                 )
             from AnswerPost answer left join answer.post post left join post.exercise exercise
-            where answer.creationDate >= :#{#startDate} and answer.creationDate <= :#{#endDate} and answer.resolvesPost = true and exercise.course.id = :#{#exerciseId}
+            where answer.creationDate >= :#{#startDate} and answer.creationDate <= :#{#endDate} and answer.resolvesPost = true and exercise.id = :#{#exerciseId}
             group by answer.creationDate
             order by answer.creationDate asc
             """)
@@ -438,6 +440,108 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
             """)
     List<CourseStatisticsAverageScore> findAvgPointsForExercises(@Param("exercises") Set<Exercise> exercises);
 
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource(
+                e.id, s.submissionDate, count(s.id)
+                )
+            from Submission s join s.participation p join p.exercise e
+            where s.submissionDate >= :#{#startDate} and s.submissionDate < :#{#endDate}
+            group by e.id, s.submissionDate
+            """)
+    List<StatisticsRollupSource> getSubmissionsForRollup(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource(
+                p.exercise.id, s.submissionDate, u.login
+                )
+            from User u, Submission s, StudentParticipation p
+            where s.participation.id = p.id and p.student.id = u.id and s.submissionDate >= :#{#startDate} and s.submissionDate < :#{#endDate} and u.login not like '%test%'
+            """)
+    List<StatisticsRollupSource> getActiveUsersForRollup(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource(
+                e.id, r.completionDate, r.assessor.login
+                )
+            from Result r join r.participation p join p.exercise e
+            where (r.assessmentType = 'MANUAL' or r.assessmentType = 'SEMI_AUTOMATIC') and r.completionDate >= :#{#startDate} and r.completionDate < :#{#endDate}
+            and r.assessor.login not like '%test%'
+            """)
+    List<StatisticsRollupSource> getActiveTutorsForRollup(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource(
+                e.id, r.completionDate, count(r.id)
+                )
+            from Result r join r.participation p join p.exercise e
+            where r.completionDate >= :#{#startDate} and r.completionDate < :#{#endDate}
+            group by e.id, r.completionDate
+            """)
+    List<StatisticsRollupSource> getCreatedResultsForRollup(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource(
+                e.id, r.completionDate, sum(size(r.feedbacks))
+                )
+            from Result r join r.participation p join p.exercise e
+            where r.completionDate >= :#{#startDate} and r.completionDate < :#{#endDate}
+            group by e.id, r.completionDate
+            """)
+    List<StatisticsRollupSource> getResultFeedbacksForRollup(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource(
+                coalesce(postCourse.id, lectureCourse.id, exerciseCourse.id), exercise.id, post.creationDate, count(post.id)
+                )
+            from Post post left join post.course postCourse left join post.lecture lecture left join lecture.course lectureCourse
+                left join post.exercise exercise left join exercise.course exerciseCourse
+            where post.creationDate >= :#{#startDate} and post.creationDate < :#{#endDate}
+            group by postCourse.id, lectureCourse.id, exerciseCourse.id, exercise.id, post.creationDate
+            """)
+    List<StatisticsRollupSource> getPostsForRollup(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSource(
+                coalesce(postCourse.id, lectureCourse.id, exerciseCourse.id), exercise.id, answer.creationDate, count(answer.id)
+                )
+            from AnswerPost answer join answer.post post left join post.course postCourse left join post.lecture lecture left join lecture.course lectureCourse
+                left join post.exercise exercise left join exercise.course exerciseCourse
+            where answer.creationDate >= :#{#startDate} and answer.creationDate < :#{#endDate} and answer.resolvesPost = true
+            group by postCourse.id, lectureCourse.id, exerciseCourse.id, exercise.id, answer.creationDate
+            """)
+    List<StatisticsRollupSource> getResolvedPostsForRollup(@Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            select s.submissionDate
+            from Submission s
+            where s.participation.id = :#{#participationId} and s.submissionDate is not null
+            """)
+    List<ZonedDateTime> getSubmissionDatesOfParticipation(@Param("participationId") long participationId);
+
+    @Query("""
+            select r.completionDate
+            from Result r
+            where r.participation.id = :#{#participationId} and r.completionDate is not null
+            """)
+    List<ZonedDateTime> getResultCompletionDatesOfParticipation(@Param("participationId") long participationId);
+
+    @Query("""
+            select
+            new de.tum.in.www1.artemis.domain.statistics.StatisticsExerciseScope(
+                e.id, c.id, c.testCourse, eg.id
+                )
+            from Exercise e left join e.course c left join e.exerciseGroup eg
+            where e.id in :exerciseIds
+            """)
+    List<StatisticsExerciseScope> findExerciseScopes(@Param("exerciseIds") Set<Long> exerciseIds);
+
     /**
      * Gets the number of entries for the specific graphType and the span. First we distribute into the different types of graphs.
      * After that, we distinguish between the views in which this graph can be shown and call the corresponding method
@@ -461,19 +565,8 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
                     case EXERCISE -> getTotalSubmissionsForExercise(startDate, endDate, entityId);
                 };
             }
-            case ACTIVE_USERS -> {
-                List<StatisticsEntry> result = switch (view) {
-                    case ARTEMIS -> getActiveUsers(startDate, endDate);
-                    case COURSE -> getActiveUsersForCourse(startDate, endDate, exerciseIds);
-                    case EXERCISE -> getActiveUsersForExercise(startDate, endDate, entityId);
-                };
-                return filterDuplicatedUsers(span, result, startDate, graphType);
-            }
-            case LOGGED_IN_USERS -> {
-                Instant startDateInstant = startDate.toInstant();
-                Instant endDateInstant = endDate.toInstant();
-                List<StatisticsEntry> result = getLoggedInUsers(startDateInstant, endDateInstant);
-                return filterDuplicatedUsers(span, result, startDate, graphType);
+            case ACTIVE_USERS, LOGGED_IN_USERS, ACTIVE_TUTORS -> {
+                return filterDuplicatedUsers(span, getEntriesOfUsers(graphType, startDate, endDate, view, entityId), startDate);
             }
             case RELEASED_EXERCISES -> {
                 return switch (view) {
@@ -510,14 +603,6 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
                     case EXERCISE -> throw new UnsupportedOperationException("Unsupported view: " + view);
                 };
             }
-            case ACTIVE_TUTORS -> {
-                List<StatisticsEntry> result = switch (view) {
-                    case ARTEMIS -> getActiveTutors(startDate, endDate);
-                    case COURSE -> getActiveTutorsForCourse(startDate, endDate, exerciseIds);
-                    case EXERCISE -> getActiveTutorsForExercise(startDate, endDate, entityId);
-                };
-                return filterDuplicatedUsers(span, result, startDate, graphType);
-            }
             case CREATED_RESULTS -> {
                 return switch (view) {
                     case ARTEMIS -> getCreatedResults(startDate, endDate);
@@ -550,6 +635,34 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
         }
     }
 
+    /**
+     * Gets the entries of the graph types that count distinct users (one entry per user and point in time), which still contain duplicated users
+     *
+     * @param graphType ACTIVE_USERS, LOGGED_IN_USERS or ACTIVE_TUTORS
+     * @param startDate The startDate of which the data should be fetched
+     * @param endDate   The endDate of which the data should be fetched
+     * @param view      the view in which the data will be displayed (Artemis, Course, Exercise), the logged-in users are always fetched for Artemis
+     * @param entityId  the entityId which is null for a user statistics call and contains the id for the other statistics pages
+     * @return the entries containing the point in time and the login of the user
+     */
+    default List<StatisticsEntry> getEntriesOfUsers(GraphType graphType, ZonedDateTime startDate, ZonedDateTime endDate, StatisticsView view, @Nullable Long entityId) {
+        var exerciseIds = view == StatisticsView.COURSE && entityId != null ? findExerciseIdsByCourseId(entityId) : null;
+        return switch (graphType) {
+            case ACTIVE_USERS -> switch (view) {
+                case ARTEMIS -> getActiveUsers(startDate, endDate);
+                case COURSE -> getActiveUsersForCourse(startDate, endDate, exerciseIds);
+                case EXERCISE -> getActiveUsersForExercise(startDate, endDate, entityId);
+            };
+            case LOGGED_IN_USERS -> getLoggedInUsers(startDate.toInstant(), endDate.toInstant());
+            case ACTIVE_TUTORS -> switch (view) {
+                case ARTEMIS -> getActiveTutors(startDate, endDate);
+                case COURSE -> getActiveTutorsForCourse(startDate, endDate, exerciseIds);
+                case EXERCISE -> getActiveTutorsForExercise(startDate, endDate, entityId);
+            };
+            default -> throw new UnsupportedOperationException("Unsupported graph type: " + graphType);
+        };
+    }
+
     /**
      * This method handles the duplicity of usernames. It gets a List<StatisticsData> with set day values and set username values.
      * It then filters out all duplicated user entries per timeslot (depending on spanType) and return a list of entries
@@ -558,15 +671,14 @@ public interface StatisticsRepository extends JpaRepository<User, Long> {
      * @param span      DAY,WEEK,MONTH or YEAR
      * @param result    the result given by the Repository call
      * @param startDate the startDate of the period
-     * @param graphType the graphType for which the List should be converted
      * @return A List<StatisticsData> with only distinct users per timeslot
      */
-    private List<StatisticsEntry> filterDuplicatedUsers(SpanType span, List<StatisticsEntry> result, ZonedDateTime startDate, GraphType graphType) {
+    default List<StatisticsEntry> filterDuplicatedUsers(SpanType span, List<StatisticsEntry> result, ZonedDateTime startDate) {
         Map<Integer, List<String>> users = new HashMap<>();
         for (StatisticsEntry listElement : result) {
             ZonedDateTime date;
-            if (graphType == GraphType.LOGGED_IN_USERS) {
-                Instant instant = (Instant) listElement.getDay();
+            // the logged-in users are read from the audit events, which store an instant
+            if (listElement.getDay() instanceof Instant instant) {
                 date = instant.atZone(startDate.getZone());
             }
             else {
@@ -0,0 +1,39 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.time.ZonedDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollupProgress;
+
+/**
+ * Spring Data JPA repository for the progress of the hourly rollups of the statistics pages.
+ * The start and the end of the rolled up period are updated separately, because the backfill and the scheduled rollup of recent hours can run at the same time.
+ */
+@Repository
+public interface StatisticsRollupProgressRepository extends JpaRepository<StatisticsRollupProgress, GraphType> {
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE StatisticsRollupProgress p
+            SET p.rolledUpFrom = :rolledUpFrom
+            WHERE p.graphType = :graphType
+            """)
+    void updateRolledUpFrom(@Param("graphType") GraphType graphType, @Param("rolledUpFrom") ZonedDateTime rolledUpFrom);
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE StatisticsRollupProgress p
+            SET p.rolledUpUntil = :rolledUpUntil
+            WHERE p.graphType = :graphType
+            """)
+    void updateRolledUpUntil(@Param("graphType") GraphType graphType, @Param("rolledUpUntil") ZonedDateTime rolledUpUntil);
+}
@@ -0,0 +1,58 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsEntry;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollup;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSlot;
+
+/**
+ * Spring Data JPA repository for the hourly rollups of the statistics pages
+ */
+@Repository
+public interface StatisticsRollupRepository extends JpaRepository<StatisticsRollup, Long> {
+
+    @Query("""
+            SELECT r
+            FROM StatisticsRollup r
+            WHERE r.graphType = :graphType
+                AND r.slot >= :startDate
+                AND r.slot < :endDate
+            """)
+    List<StatisticsRollup> findAllByGraphTypeAndSlotInRange(@Param("graphType") GraphType graphType, @Param("startDate") ZonedDateTime startDate,
+            @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(r.slot, r.amount)
+            FROM StatisticsRollup r
+            WHERE r.graphType = :graphType
+                AND r.view = :view
+                AND r.entityId = :entityId
+                AND r.slot >= :startDate
+                AND r.slot < :endDate
+            """)
+    List<StatisticsEntry> getRolledUpEntries(@Param("graphType") GraphType graphType, @Param("view") StatisticsView view, @Param("entityId") long entityId,
+            @Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            SELECT DISTINCT new de.tum.in.www1.artemis.domain.statistics.StatisticsRollupSlot(r.graphType, r.slot)
+            FROM StatisticsRollup r
+            WHERE r.view = :view
+                AND r.entityId = :entityId
+            """)
+    List<StatisticsRollupSlot> findSlotsByViewAndEntityId(@Param("view") StatisticsView view, @Param("entityId") long entityId);
+
+    @Transactional // ok because of delete
+    @Modifying
+    void deleteAllByViewAndEntityId(StatisticsView view, long entityId);
+}
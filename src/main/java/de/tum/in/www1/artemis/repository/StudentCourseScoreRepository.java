@@ -0,0 +1,43 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.scores.StudentCourseScore;
+
+@Repository
+public interface StudentCourseScoreRepository extends JpaRepository<StudentCourseScore, Long> {
+
+    @Transactional // ok because of delete
+    @Modifying
+    void deleteAllByCourseId(long courseId);
+
+    @Transactional // ok because of delete
+    @Modifying
+    void deleteAllByUserId(long userId);
+
+    @Query("""
+            SELECT s
+            FROM StudentCourseScore s
+            WHERE s.course.id = :courseId
+                AND s.user.id IN :userIds
+            """)
+    List<StudentCourseScore> findAllByCourseIdAndUserIdIn(@Param("courseId") long courseId, @Param("userIds") Set<Long> userIds);
+
+    @Query("""
+            SELECT s.user.id
+            FROM StudentCourseScore s
+            WHERE s.course.id = :courseId
+            ORDER BY s.user.id
+            """)
+    Slice<Long> findUserIdsByCourseId(@Param("courseId") long courseId, Pageable pageable);
+}
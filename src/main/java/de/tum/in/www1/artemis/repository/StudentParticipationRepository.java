@@ -27,6 +27,7 @@ import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmittedAnswerCount;
+import de.tum.in.www1.artemis.domain.scores.UserExercisePoints;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
@@ -64,6 +65,27 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
              """)
     boolean existsByCourseIdAndStudentId(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
 
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.UserExercisePoints(p.student.id, p.exercise.id, p.presentationScore)
+            FROM StudentParticipation p
+            WHERE p.exercise.id IN :exerciseIds
+                AND p.student.id IN :userIds
+                AND p.presentationScore IS NOT NULL
+                AND p.testRun = false
+            """)
+    List<UserExercisePoints> findAllPresentationScoresOfStudentsByExerciseIdsAndUserIds(@Param("exerciseIds") Set<Long> exerciseIds, @Param("userIds") Set<Long> userIds);
+
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.UserExercisePoints(student.id, p.exercise.id, p.presentationScore)
+            FROM StudentParticipation p
+                JOIN p.team.students student
+            WHERE p.exercise.id IN :exerciseIds
+                AND student.id IN :userIds
+                AND p.presentationScore IS NOT NULL
+                AND p.testRun = false
+            """)
+    List<UserExercisePoints> findAllPresentationScoresOfTeamsByExerciseIdsAndUserIds(@Param("exerciseIds") Set<Long> exerciseIds, @Param("userIds") Set<Long> userIds);
+
     @Query("""
             SELECT DISTINCT p FROM StudentParticipation p
             LEFT JOIN FETCH p.submissions s
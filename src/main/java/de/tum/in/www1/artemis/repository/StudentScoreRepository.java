@@ -18,6 +18,8 @@ import org.springframework.transaction.annotation.Transactional;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.scores.StudentScore;
+import de.tum.in.www1.artemis.domain.scores.UserExercisePoints;
+import de.tum.in.www1.artemis.domain.scores.UserExerciseScore;
 
 @Repository
 public interface StudentScoreRepository extends JpaRepository<StudentScore, Long> {
@@ -29,6 +31,9 @@ public interface StudentScoreRepository extends JpaRepository<StudentScore, Long
     @EntityGraph(type = LOAD, attributePaths = { "user", "exercise" })
     Optional<StudentScore> findByExercise_IdAndUser_Id(Long exerciseId, Long userId);
 
+    @EntityGraph(type = LOAD, attributePaths = { "user", "exercise" })
+    List<StudentScore> findAllByExercise_IdInAndUser_IdIn(Set<Long> exerciseIds, Set<Long> userIds);
+
     @EntityGraph(type = LOAD, attributePaths = { "user", "exercise", "lastResult", "lastRatedResult" })
     List<StudentScore> findAllByExerciseIn(Set<Exercise> exercises, Pageable pageable);
 
@@ -58,6 +63,22 @@ public interface StudentScoreRepository extends JpaRepository<StudentScore, Long
             """)
     List<StudentScore> findAllByExercisesAndUser(@Param("exercises") List<Exercise> exercises, @Param("user") User user);
 
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.UserExerciseScore(s.user.id, s.exercise.id, s.lastScore)
+            FROM StudentScore s
+            WHERE s.exercise.id IN :exerciseIds
+                AND s.user.id IN :userIds
+            """)
+    List<UserExerciseScore> findAllUserExerciseScoresByExerciseIdsAndUserIds(@Param("exerciseIds") Set<Long> exerciseIds, @Param("userIds") Set<Long> userIds);
+
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.UserExercisePoints(s.user.id, s.exercise.id, s.lastRatedPoints)
+            FROM StudentScore s
+            WHERE s.exercise.id IN :exerciseIds
+                AND s.user.id IN :userIds
+            """)
+    List<UserExercisePoints> findAllUserExercisePointsByExerciseIdsAndUserIds(@Param("exerciseIds") Set<Long> exerciseIds, @Param("userIds") Set<Long> userIds);
+
     @Query("""
             SELECT s
             FROM StudentScore s
@@ -19,6 +19,8 @@ import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.Team;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.scores.TeamScore;
+import de.tum.in.www1.artemis.domain.scores.UserExercisePoints;
+import de.tum.in.www1.artemis.domain.scores.UserExerciseScore;
 
 @Repository
 public interface TeamScoreRepository extends JpaRepository<TeamScore, Long> {
@@ -30,6 +32,9 @@ public interface TeamScoreRepository extends JpaRepository<TeamScore, Long> {
     @EntityGraph(type = LOAD, attributePaths = { "team", "exercise" })
     Optional<TeamScore> findByExercise_IdAndTeam_Id(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
 
+    @EntityGraph(type = LOAD, attributePaths = { "team", "exercise" })
+    List<TeamScore> findAllByExercise_IdInAndTeam_IdIn(Set<Long> exerciseIds, Set<Long> teamIds);
+
     @EntityGraph(type = LOAD, attributePaths = { "team", "exercise", "lastResult", "lastRatedResult" })
     List<TeamScore> findAllByExerciseIn(Set<Exercise> exercises, Pageable pageable);
 
@@ -67,6 +72,24 @@ public interface TeamScoreRepository extends JpaRepository<TeamScore, Long> {
             """)
     List<TeamScore> findAllByExercisesAndUser(@Param("exercises") List<Exercise> exercises, @Param("user") User user);
 
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.UserExerciseScore(student.id, s.exercise.id, s.lastScore)
+            FROM TeamScore s
+                JOIN s.team.students student
+            WHERE s.exercise.id IN :exerciseIds
+                AND student.id IN :userIds
+            """)
+    List<UserExerciseScore> findAllUserExerciseScoresByExerciseIdsAndUserIds(@Param("exerciseIds") Set<Long> exerciseIds, @Param("userIds") Set<Long> userIds);
+
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.scores.UserExercisePoints(student.id, s.exercise.id, s.lastRatedPoints)
+            FROM TeamScore s
+                JOIN s.team.students student
+            WHERE s.exercise.id IN :exerciseIds
+                AND student.id IN :userIds
+            """)
+    List<UserExercisePoints> findAllUserExercisePointsByExerciseIdsAndUserIds(@Param("exerciseIds") Set<Long> exerciseIds, @Param("userIds") Set<Long> userIds);
+
     @Transactional // ok because of delete
     @Modifying
     void deleteByExerciseAndTeam(Exercise exercise, Team team);
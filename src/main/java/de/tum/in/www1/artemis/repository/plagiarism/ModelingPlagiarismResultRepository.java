@@ -0,0 +1,37 @@
+package de.tum.in.www1.artemis.repository.plagiarism;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingPlagiarismResult;
+import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingSubmissionSignature;
+import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingSubmissionSimilarity;
+
+/**
+ * Spring Data JPA repository for the ModelingPlagiarismResult entity, used to reuse the signatures and similarities of the previous check in a follow-up check.
+ */
+@Repository
+public interface ModelingPlagiarismResultRepository extends JpaRepository<ModelingPlagiarismResult, Long> {
+
+    Optional<ModelingPlagiarismResult> findFirstByExerciseIdOrderByLastModifiedDateDesc(long exerciseId);
+
+    @Query("""
+            SELECT signature
+            FROM ModelingSubmissionSignature signature
+            WHERE signature.plagiarismResult.id = :plagiarismResultId
+            """)
+    List<ModelingSubmissionSignature> findSubmissionSignaturesByPlagiarismResultId(@Param("plagiarismResultId") long plagiarismResultId);
+
+    @Query("""
+            SELECT similarity
+            FROM ModelingPlagiarismResult result
+                JOIN result.submissionSimilarities similarity
+            WHERE result.id = :plagiarismResultId
+            """)
+    List<ModelingSubmissionSimilarity> findSubmissionSimilaritiesByPlagiarismResultId(@Param("plagiarismResultId") long plagiarismResultId);
+}
@@ -0,0 +1,239 @@
+package de.tum.in.www1.artemis.repository.plagiarism;
+
+import static de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJobStatus.*;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJob;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJobStatus;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+
+/**
+ * Spring Data JPA repository for the PlagiarismCheckJob entity.
+ * The state transitions of the jobs are conditional updates, so that instances that concurrently claim, finish or cancel a job do not overwrite each other.
+ */
+@Repository
+public interface PlagiarismCheckJobRepository extends JpaRepository<PlagiarismCheckJob, Long> {
+
+    default PlagiarismCheckJob findByIdElseThrow(long jobId) {
+        return findById(jobId).orElseThrow(() -> new EntityNotFoundException("PlagiarismCheckJob", jobId));
+    }
+
+    List<PlagiarismCheckJob> findAllByExerciseIdOrderByIdDesc(long exerciseId);
+
+    List<PlagiarismCheckJob> findAllByExerciseIdAndStatusIn(long exerciseId, Collection<PlagiarismCheckJobStatus> statuses);
+
+    /**
+     * @return the queued jobs in the order in which they were queued
+     */
+    default List<PlagiarismCheckJob> findAllQueued() {
+        return findAllByStatusOrderByIdAsc(QUEUED);
+    }
+
+    List<PlagiarismCheckJob> findAllByStatusOrderByIdAsc(PlagiarismCheckJobStatus status);
+
+    default List<PlagiarismCheckJob> findAllRunning() {
+        return findAllByStatusOrderByIdAsc(RUNNING);
+    }
+
+    @Query("""
+            SELECT COUNT(job)
+            FROM PlagiarismCheckJob job
+            WHERE job.status = :status
+                AND job.id < :jobId
+            """)
+    long countByStatusAndIdLessThan(@Param("status") PlagiarismCheckJobStatus status, @Param("jobId") long jobId);
+
+    /**
+     * @param jobId the id of a queued job
+     * @return the number of jobs that were queued before the given job and still wait to be started
+     */
+    default long countQueuedBefore(long jobId) {
+        return countByStatusAndIdLessThan(QUEUED, jobId);
+    }
+
+    @Query("""
+            SELECT job.id
+            FROM PlagiarismCheckJob job
+            WHERE job.id IN :jobIds
+                AND job.cancellationRequested = TRUE
+            """)
+    Set<Long> findIdsWithCancellationRequested(@Param("jobIds") Collection<Long> jobIds);
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.status = :running, job.node = :node, job.startedDate = :now, job.heartbeatDate = :now, job.attempts = job.attempts + 1, job.progress = NULL
+            WHERE job.id = :jobId
+                AND job.status = :queued
+            """)
+    int updateStatusToRunning(@Param("jobId") long jobId, @Param("node") String node, @Param("now") Instant now, @Param("queued") PlagiarismCheckJobStatus queued,
+            @Param("running") PlagiarismCheckJobStatus running);
+
+    /**
+     * Starts the given job on the given instance, unless it has been started by another instance or cancelled in the meantime
+     *
+     * @param jobId the id of the queued job
+     * @param node  the instance that runs the job
+     * @param now   the start time
+     * @return true if the job has been claimed by the given instance
+     */
+    default boolean claim(long jobId, String node, Instant now) {
+        return updateStatusToRunning(jobId, node, now, QUEUED, RUNNING) > 0;
+    }
+
+    /**
+     * Confirms that the given job is still running on the given instance and stores its latest progress message
+     *
+     * @param jobId    the id of the running job
+     * @param node     the instance that runs the job
+     * @param now      the time of the heartbeat
+     * @param progress the latest progress message, or null if there is none
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.heartbeatDate = :now, job.progress = :progress
+            WHERE job.id = :jobId
+                AND job.node = :node
+            """)
+    void updateHeartbeat(@Param("jobId") long jobId, @Param("node") String node, @Param("now") Instant now, @Param("progress") String progress);
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.status = :status, job.completedDate = :now, job.errorMessage = :errorMessage, job.errorKey = :errorKey, job.plagiarismResultId = :plagiarismResultId
+            WHERE job.id = :jobId
+                AND job.node = :node
+                AND job.status = :running
+            """)
+    int updateStatusOfRunningJob(@Param("jobId") long jobId, @Param("node") String node, @Param("now") Instant now, @Param("status") PlagiarismCheckJobStatus status,
+            @Param("errorMessage") String errorMessage, @Param("errorKey") String errorKey, @Param("plagiarismResultId") Long plagiarismResultId,
+            @Param("running") PlagiarismCheckJobStatus running);
+
+    /**
+     * Finishes the given job, unless it is not running on the given instance anymore (e.g. because it was started again after missing heartbeats)
+     *
+     * @param jobId              the id of the running job
+     * @param node               the instance that runs the job
+     * @param now                the completion time
+     * @param status             the final status
+     * @param errorMessage       the error message of a failed job, otherwise null
+     * @param errorKey           the error key of a failed job, otherwise null
+     * @param plagiarismResultId the id of the result of a completed job, otherwise null
+     */
+    default void finish(long jobId, String node, Instant now, PlagiarismCheckJobStatus status, String errorMessage, String errorKey, Long plagiarismResultId) {
+        updateStatusOfRunningJob(jobId, node, now, status, errorMessage, errorKey, plagiarismResultId, RUNNING);
+    }
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.status = :cancelled, job.cancellationRequested = TRUE, job.completedDate = :now
+            WHERE job.id = :jobId
+                AND job.status = :queued
+            """)
+    int updateStatusOfQueuedJob(@Param("jobId") long jobId, @Param("now") Instant now, @Param("queued") PlagiarismCheckJobStatus queued,
+            @Param("cancelled") PlagiarismCheckJobStatus cancelled);
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.cancellationRequested = TRUE
+            WHERE job.id = :jobId
+                AND job.status = :running
+            """)
+    int updateCancellationRequested(@Param("jobId") long jobId, @Param("running") PlagiarismCheckJobStatus running);
+
+    /**
+     * Cancels a queued job immediately, and requests the cancellation of a running job from the instance running it
+     *
+     * @param jobId the id of the job
+     * @param now   the time of the cancellation
+     * @return true if the job was queued or running
+     */
+    default boolean cancel(long jobId, Instant now) {
+        return updateStatusOfQueuedJob(jobId, now, QUEUED, CANCELLED) > 0 || updateCancellationRequested(jobId, RUNNING) > 0;
+    }
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.status = :cancelled, job.completedDate = :now
+            WHERE job.status = :running
+                AND job.cancellationRequested = TRUE
+                AND (job.heartbeatDate < :heartbeatThreshold OR job.node = :node)
+            """)
+    int updateStatusOfStaleJobsToCancelled(@Param("heartbeatThreshold") Instant heartbeatThreshold, @Param("node") String node, @Param("now") Instant now,
+            @Param("running") PlagiarismCheckJobStatus running, @Param("cancelled") PlagiarismCheckJobStatus cancelled);
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.status = :queued, job.node = NULL, job.progress = NULL
+            WHERE job.status = :running
+                AND job.cancellationRequested = FALSE
+                AND job.attempts < :maxAttempts
+                AND (job.heartbeatDate < :heartbeatThreshold OR job.node = :node)
+            """)
+    int updateStatusOfStaleJobsToQueued(@Param("heartbeatThreshold") Instant heartbeatThreshold, @Param("node") String node, @Param("maxAttempts") int maxAttempts,
+            @Param("running") PlagiarismCheckJobStatus running, @Param("queued") PlagiarismCheckJobStatus queued);
+
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE PlagiarismCheckJob job
+            SET job.status = :failed, job.completedDate = :now, job.errorMessage = :errorMessage, job.errorKey = :errorKey
+            WHERE job.status = :running
+                AND (job.heartbeatDate < :heartbeatThreshold OR job.node = :node)
+            """)
+    int updateStatusOfStaleJobsToFailed(@Param("heartbeatThreshold") Instant heartbeatThreshold, @Param("node") String node, @Param("now") Instant now,
+            @Param("errorMessage") String errorMessage, @Param("errorKey") String errorKey, @Param("running") PlagiarismCheckJobStatus running,
+            @Param("failed") PlagiarismCheckJobStatus failed);
+
+    /**
+     * Handles the running jobs whose instance stopped sending heartbeats (e.g. because it crashed), or that are still marked as running on the given instance although
+     * it does not run them anymore (e.g. after a restart). Jobs whose cancellation was requested are cancelled, the other jobs are queued again, unless they already
+     * reached the maximum number of attempts, in which case they fail.
+     *
+     * @param heartbeatThreshold the jobs whose last heartbeat is before this time are stale
+     * @param node               the instance whose running jobs are all stale, or null
+     * @param maxAttempts        the maximum number of times a job is started
+     * @param now                the current time
+     * @return the number of stale jobs
+     */
+    default int requeueStaleJobs(Instant heartbeatThreshold, String node, int maxAttempts, Instant now) {
+        // the cancellation is handled first, so that cancelled jobs are neither queued again nor fail
+        int cancelledJobs = updateStatusOfStaleJobsToCancelled(heartbeatThreshold, node, now, RUNNING, CANCELLED);
+        int requeuedJobs = updateStatusOfStaleJobsToQueued(heartbeatThreshold, node, maxAttempts, RUNNING, QUEUED);
+        int failedJobs = updateStatusOfStaleJobsToFailed(heartbeatThreshold, node, now, "The plagiarism check was interrupted because the server running it stopped",
+                "plagiarismCheckInterrupted", RUNNING, FAILED);
+        return cancelledJobs + requeuedJobs + failedJobs;
+    }
+
+    /**
+     * Deletes all plagiarism check jobs of the given exercise
+     *
+     * @param exerciseId the id of the exercise
+     */
+    @Transactional // ok because of delete
+    @Modifying
+    void deleteAllByExerciseId(long exerciseId);
+}
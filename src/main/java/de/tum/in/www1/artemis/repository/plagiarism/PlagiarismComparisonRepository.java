@@ -5,6 +5,8 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -15,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismStatus;
+import de.tum.in.www1.artemis.web.rest.dto.PlagiarismComparisonDTO;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
@@ -67,6 +70,52 @@ public interface PlagiarismComparisonRepository extends JpaRepository<Plagiarism
         return findByIdWithSubmissionsAndElementsB(comparisonId).orElseThrow(() -> new EntityNotFoundException("PlagiarismComparison", comparisonId));
     }
 
+    // the elements of both submissions are loaded in separate queries to avoid the cartesian product of both element lists
+    @Query("""
+            SELECT DISTINCT comparison FROM PlagiarismComparison comparison
+            LEFT JOIN FETCH comparison.submissionA submissionA
+            LEFT JOIN FETCH submissionA.elements elementsA
+            WHERE comparison.id IN :comparisonIds
+            """)
+    Set<PlagiarismComparison<?>> findAllWithSubmissionsAndElementsAByIdIn(@Param("comparisonIds") Set<Long> comparisonIds);
+
+    @Query("""
+            SELECT DISTINCT comparison FROM PlagiarismComparison comparison
+            LEFT JOIN FETCH comparison.submissionB submissionB
+            LEFT JOIN FETCH submissionB.elements elementsB
+            WHERE comparison.id IN :comparisonIds
+            """)
+    Set<PlagiarismComparison<?>> findAllWithSubmissionsAndElementsBByIdIn(@Param("comparisonIds") Set<Long> comparisonIds);
+
+    /**
+     * Loads a page of the comparisons of the given result without their matches and the elements of their submissions, the most similar comparisons first
+     *
+     * @param plagiarismResultId the id of the plagiarism result
+     * @param exerciseId         the id of the exercise of the plagiarism result
+     * @param pageable           the page to load, its sort order is ignored
+     * @return the page of comparisons
+     */
+    @Query(value = """
+            SELECT new de.tum.in.www1.artemis.web.rest.dto.PlagiarismComparisonDTO(comparison.id, comparison.similarity, comparison.status,
+                submissionA.id, submissionA.submissionId, submissionA.studentLogin, submissionA.size, submissionA.score,
+                submissionB.id, submissionB.submissionId, submissionB.studentLogin, submissionB.size, submissionB.score)
+            FROM PlagiarismComparison comparison
+                JOIN comparison.submissionA submissionA
+                JOIN comparison.submissionB submissionB
+            WHERE comparison.plagiarismResult.id = :plagiarismResultId
+                AND comparison.plagiarismResult.exercise.id = :exerciseId
+            ORDER BY comparison.similarity DESC, comparison.id
+            """, countQuery = """
+            SELECT COUNT(comparison)
+            FROM PlagiarismComparison comparison
+            WHERE comparison.plagiarismResult.id = :plagiarismResultId
+                AND comparison.plagiarismResult.exercise.id = :exerciseId
+            """)
+    Page<PlagiarismComparisonDTO> findAllByPlagiarismResultIdAndExerciseIdOrderBySimilarityDesc(@Param("plagiarismResultId") long plagiarismResultId,
+            @Param("exerciseId") long exerciseId, Pageable pageable);
+
+    long countByPlagiarismResultId(long plagiarismResultId);
+
     @EntityGraph(type = LOAD, attributePaths = { "submissionA", "submissionA.plagiarismCase", "submissionB", "submissionB.plagiarismCase" })
     Optional<Set<PlagiarismComparison<?>>> findBySubmissionA_SubmissionIdOrSubmissionB_SubmissionId(long submissionA_submissionId, long submissionB_submissionId);
 
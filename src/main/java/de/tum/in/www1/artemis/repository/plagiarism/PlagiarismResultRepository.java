@@ -23,11 +23,22 @@ public interface PlagiarismResultRepository extends JpaRepository<PlagiarismResu
     @EntityGraph(type = LOAD, attributePaths = { "comparisons" })
     Optional<PlagiarismResult<?>> findFirstByExerciseIdOrderByLastModifiedDateDesc(long exerciseId);
 
+    @EntityGraph(type = LOAD, attributePaths = { "comparisons" })
+    Optional<PlagiarismResult<?>> findWithComparisonsById(long plagiarismResultId);
+
     @Nullable
     default PlagiarismResult<?> findFirstByExerciseIdOrderByLastModifiedDateDescOrNull(long exerciseId) {
         return findFirstByExerciseIdOrderByLastModifiedDateDesc(exerciseId).orElse(null);
     }
 
+    /**
+     * Loads the latest result of the given exercise without its comparisons, e.g. to show its precomputed similarity distribution
+     *
+     * @param exerciseId the id of the exercise
+     * @return the latest result, or an empty optional if the exercise has not been checked yet
+     */
+    Optional<PlagiarismResult<?>> findTopByExerciseIdOrderByLastModifiedDateDesc(long exerciseId);
+
     /**
      * Store the given TextPlagiarismResult in the database.
      *
@@ -0,0 +1,41 @@
+package de.tum.in.www1.artemis.repository.plagiarism;
+
+import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionFingerprint;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionSimilarity;
+
+/**
+ * Spring Data JPA repository for the TextPlagiarismResult entity, used to reuse the fingerprints, similarities and comparisons of the previous check in a follow-up check.
+ */
+@Repository
+public interface TextPlagiarismResultRepository extends JpaRepository<TextPlagiarismResult, Long> {
+
+    @EntityGraph(type = LOAD, attributePaths = { "comparisons" })
+    Optional<TextPlagiarismResult> findFirstByExerciseIdOrderByLastModifiedDateDesc(long exerciseId);
+
+    @Query("""
+            SELECT fingerprint
+            FROM TextSubmissionFingerprint fingerprint
+            WHERE fingerprint.plagiarismResult.id = :plagiarismResultId
+            """)
+    List<TextSubmissionFingerprint> findSubmissionFingerprintsByPlagiarismResultId(@Param("plagiarismResultId") long plagiarismResultId);
+
+    @Query("""
+            SELECT similarity
+            FROM TextPlagiarismResult result
+                JOIN result.submissionSimilarities similarity
+            WHERE result.id = :plagiarismResultId
+            """)
+    List<TextSubmissionSimilarity> findSubmissionSimilaritiesByPlagiarismResultId(@Param("plagiarismResultId") long plagiarismResultId);
+}
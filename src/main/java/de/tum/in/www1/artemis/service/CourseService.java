@@ -35,6 +35,7 @@ import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.IncludedInOverallScore;
 import de.tum.in.www1.artemis.domain.enumeration.NotificationType;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.domain.notification.GroupNotification;
@@ -135,6 +136,12 @@ public class CourseService {
 
     private final ParticipantScoreRepository participantScoreRepository;
 
+    private final StudentCourseScoreRepository studentCourseScoreRepository;
+
+    private final StatisticsRollupService statisticsRollupService;
+
+    private final StatisticsChartCacheService statisticsChartCacheService;
+
     private final TutorialGroupRepository tutorialGroupRepository;
 
     private final TutorialGroupService tutorialGroupService;
@@ -153,7 +160,8 @@ public class CourseService {
             ComplaintResponseRepository complaintResponseRepository, SubmissionRepository submissionRepository, ProgrammingExerciseRepository programmingExerciseRepository,
             ExerciseRepository exerciseRepository, ParticipantScoreRepository participantScoreRepository, TutorialGroupRepository tutorialGroupRepository,
             TutorialGroupService tutorialGroupService, TutorialGroupsConfigurationRepository tutorialGroupsConfigurationRepository,
-            PlagiarismCaseRepository plagiarismCaseRepository) {
+            PlagiarismCaseRepository plagiarismCaseRepository, StudentCourseScoreRepository studentCourseScoreRepository, StatisticsRollupService statisticsRollupService,
+            StatisticsChartCacheService statisticsChartCacheService) {
         this.env = env;
         this.artemisAuthenticationProvider = artemisAuthenticationProvider;
         this.courseRepository = courseRepository;
@@ -185,6 +193,9 @@ public class CourseService {
         this.resultRepository = resultRepository;
         this.exerciseRepository = exerciseRepository;
         this.participantScoreRepository = participantScoreRepository;
+        this.studentCourseScoreRepository = studentCourseScoreRepository;
+        this.statisticsRollupService = statisticsRollupService;
+        this.statisticsChartCacheService = statisticsChartCacheService;
         this.tutorialGroupRepository = tutorialGroupRepository;
         this.tutorialGroupService = tutorialGroupService;
         this.tutorialGroupsConfigurationRepository = tutorialGroupsConfigurationRepository;
@@ -332,6 +343,9 @@ public class CourseService {
      * <li>All default groups created by Artemis, see {@link UserService#deleteGroup}</li>
      * <li>All Exams, see {@link ExamDeletionService#delete}</li>
      * <li>The Grading Scale if such exists, see {@link GradingScaleRepository#delete}</li>
+     * <li>The course scores of all students, see {@link StudentCourseScoreRepository#deleteAllByCourseId}</li>
+     * <li>The statistics rollups of the course, see {@link StatisticsRollupService#deleteRollups}</li>
+     * <li>The cached statistics charts of the course and of Artemis, see {@link StatisticsChartCacheService#evictChartData}</li>
      * </ul>
      *
      * @param course the course to be deleted
@@ -347,7 +361,12 @@ public class CourseService {
         deleteExamsOfCourse(course);
         deleteGradingScaleOfCourse(course);
         deleteTutorialGroupsOfCourse(course);
+        studentCourseScoreRepository.deleteAllByCourseId(course.getId());
+        statisticsRollupService.deleteRollups(StatisticsView.COURSE, course.getId());
         courseRepository.deleteById(course.getId());
+        // the Artemis charts contain the deleted data of the course as well
+        statisticsChartCacheService.evictChartData(StatisticsView.COURSE, course.getId());
+        statisticsChartCacheService.evictChartData(StatisticsView.ARTEMIS, null);
     }
 
     private void deleteTutorialGroupsOfCourse(Course course) {
@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.lecture.ExerciseUnit;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
@@ -16,6 +17,7 @@ import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentPar
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCheckJobRepository;
 import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseService;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
@@ -50,6 +52,8 @@ public class ExerciseDeletionService {
 
     private final PlagiarismResultRepository plagiarismResultRepository;
 
+    private final PlagiarismCheckJobRepository plagiarismCheckJobRepository;
+
     private final TextAssessmentKnowledgeService textAssessmentKnowledgeService;
 
     private final ModelAssessmentKnowledgeService modelAssessmentKnowledgeService;
@@ -58,12 +62,17 @@ public class ExerciseDeletionService {
 
     private final ModelingExerciseRepository modelingExerciseRepository;
 
+    private final StatisticsRollupService statisticsRollupService;
+
+    private final StatisticsChartCacheService statisticsChartCacheService;
+
     public ExerciseDeletionService(ExerciseRepository exerciseRepository, ExerciseUnitRepository exerciseUnitRepository, ParticipationService participationService,
             ProgrammingExerciseService programmingExerciseService, ModelingExerciseService modelingExerciseService, QuizExerciseService quizExerciseService,
             TutorParticipationRepository tutorParticipationRepository, ExampleSubmissionService exampleSubmissionService, StudentExamRepository studentExamRepository,
             LectureUnitService lectureUnitService, TextExerciseRepository textExerciseRepository, PlagiarismResultRepository plagiarismResultRepository,
             TextAssessmentKnowledgeService textAssessmentKnowledgeService, ModelingExerciseRepository modelingExerciseRepository,
-            ModelAssessmentKnowledgeService modelAssessmentKnowledgeService) {
+            ModelAssessmentKnowledgeService modelAssessmentKnowledgeService, StatisticsRollupService statisticsRollupService,
+            StatisticsChartCacheService statisticsChartCacheService, PlagiarismCheckJobRepository plagiarismCheckJobRepository) {
         this.exerciseRepository = exerciseRepository;
         this.participationService = participationService;
         this.programmingExerciseService = programmingExerciseService;
@@ -75,10 +84,13 @@ public class ExerciseDeletionService {
         this.exerciseUnitRepository = exerciseUnitRepository;
         this.lectureUnitService = lectureUnitService;
         this.plagiarismResultRepository = plagiarismResultRepository;
+        this.plagiarismCheckJobRepository = plagiarismCheckJobRepository;
         this.textAssessmentKnowledgeService = textAssessmentKnowledgeService;
         this.modelAssessmentKnowledgeService = modelAssessmentKnowledgeService;
         this.textExerciseRepository = textExerciseRepository;
         this.modelingExerciseRepository = modelingExerciseRepository;
+        this.statisticsRollupService = statisticsRollupService;
+        this.statisticsChartCacheService = statisticsChartCacheService;
     }
 
     /**
@@ -136,8 +148,14 @@ public class ExerciseDeletionService {
             lectureUnitService.removeLectureUnit(exerciseUnit);
         }
 
-        // delete all plagiarism results belonging to this exercise
+        // delete all plagiarism results and the history of the plagiarism checks belonging to this exercise
         plagiarismResultRepository.deletePlagiarismResultsByExerciseId(exerciseId);
+        plagiarismCheckJobRepository.deleteAllByExerciseId(exerciseId);
+
+        // the course and Artemis rollups of the hours in which the exercise was active are recalculated once its data is deleted
+        var rolledUpSlots = statisticsRollupService.findRolledUpSlots(StatisticsView.EXERCISE, exerciseId);
+        statisticsRollupService.deleteRollups(StatisticsView.EXERCISE, exerciseId);
+        Long courseId = exercise.getCourseViaExerciseGroupOrCourseMember().getId();
 
         // delete all participations belonging to this exercise, this will also delete submissions, results, feedback, complaints, etc.
         participationService.deleteAllByExerciseId(exercise.getId(), deleteStudentReposBuildPlans, deleteStudentReposBuildPlans);
@@ -195,6 +213,12 @@ public class ExerciseDeletionService {
             exercise = exerciseRepository.findByIdWithStudentParticipationsElseThrow(exerciseId);
             exerciseRepository.delete(exercise);
         }
+
+        statisticsRollupService.recalculateRollups(rolledUpSlots);
+        // the course and Artemis charts contain the deleted data of the exercise as well
+        statisticsChartCacheService.evictChartData(StatisticsView.EXERCISE, exerciseId);
+        statisticsChartCacheService.evictChartData(StatisticsView.COURSE, courseId);
+        statisticsChartCacheService.evictChartData(StatisticsView.ARTEMIS, null);
     }
 
     /**
@@ -2,6 +2,8 @@ package de.tum.in.www1.artemis.service;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
@@ -16,8 +18,10 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.lecture.ExerciseUnit;
 import de.tum.in.www1.artemis.domain.lecture.LectureUnit;
 import de.tum.in.www1.artemis.domain.lecture.LectureUnitCompletion;
+import de.tum.in.www1.artemis.domain.lecture.LectureUnitCompletionOfUser;
 import de.tum.in.www1.artemis.domain.participation.Participant;
 import de.tum.in.www1.artemis.domain.scores.ParticipantScore;
+import de.tum.in.www1.artemis.domain.scores.UserExerciseScore;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
@@ -28,6 +32,11 @@ import de.tum.in.www1.artemis.service.util.RoundingUtil;
 @Service
 public class LearningGoalProgressService {
 
+    /**
+     * The maximum number of users whose progress in a learning goal is computed with the same queries, which limits the size of the IN clauses and of the saved batch
+     */
+    private static final int BULK_UPDATE_CHUNK_SIZE = 500;
+
     private final Logger logger = LoggerFactory.getLogger(LearningGoalProgressService.class);
 
     private final LearningGoalRepository learningGoalRepository;
@@ -42,17 +51,20 @@ public class LearningGoalProgressService {
 
     private final LectureUnitRepository lectureUnitRepository;
 
+    private final LectureUnitCompletionRepository lectureUnitCompletionRepository;
+
     private final UserRepository userRepository;
 
     public LearningGoalProgressService(LearningGoalRepository learningGoalRepository, LearningGoalProgressRepository learningGoalProgressRepository,
             StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository, ExerciseRepository exerciseRepository,
-            LectureUnitRepository lectureUnitRepository, UserRepository userRepository) {
+            LectureUnitRepository lectureUnitRepository, LectureUnitCompletionRepository lectureUnitCompletionRepository, UserRepository userRepository) {
         this.learningGoalRepository = learningGoalRepository;
         this.learningGoalProgressRepository = learningGoalProgressRepository;
         this.studentScoreRepository = studentScoreRepository;
         this.teamScoreRepository = teamScoreRepository;
         this.exerciseRepository = exerciseRepository;
         this.lectureUnitRepository = lectureUnitRepository;
+        this.lectureUnitCompletionRepository = lectureUnitCompletionRepository;
         this.userRepository = userRepository;
     }
 
@@ -97,9 +109,8 @@ public class LearningGoalProgressService {
     @Async
     public void updateProgressByLearningGoalAsync(LearningGoal learningGoal) {
         SecurityUtils.setAuthorizationObject(); // required for async
-        learningGoalProgressRepository.findAllByLearningGoalId(learningGoal.getId()).stream().map(LearningGoalProgress::getUser).forEach(user -> {
-            updateLearningGoalProgress(learningGoal.getId(), user);
-        });
+        var users = learningGoalProgressRepository.findAllByLearningGoalId(learningGoal.getId()).stream().map(LearningGoalProgress::getUser).collect(Collectors.toSet());
+        updateLearningGoalProgress(learningGoal.getId(), users);
     }
 
     /**
@@ -121,7 +132,8 @@ public class LearningGoalProgressService {
     }
 
     /**
-     * Update the progress for all learning goals linked to the given learning object
+     * Update the progress for all learning goals linked to the given learning object.
+     * The progress of all users is computed in bulk, see {@link #updateLearningGoalProgress(Long, Set)}.
      *
      * @param learningObject The learning object for which to fetch the learning goals
      * @param users          A list of users for which to update the progress
@@ -146,11 +158,7 @@ public class LearningGoalProgressService {
                 return;
             }
 
-            users.forEach(user -> {
-                learningGoals.forEach(learningGoal -> {
-                    updateLearningGoalProgress(learningGoal.getId(), user);
-                });
-            });
+            learningGoals.forEach(learningGoal -> updateLearningGoalProgress(learningGoal.getId(), users));
         }
         catch (Exception e) {
             logger.error("Exception while updating progress for competency", e);
@@ -219,6 +227,107 @@ public class LearningGoalProgressService {
         return studentProgress;
     }
 
+    /**
+     * Updates the progress values (and confidence scores) of the given learning goal for all given users at once.
+     * <p>
+     * In contrast to {@link #updateLearningGoalProgress(Long, User)}, the learning goal is only loaded once, the completions, scores and existing progress of
+     * {@link #BULK_UPDATE_CHUNK_SIZE} users are loaded with one query each and the progress of these users is saved together.
+     * The progress and confidence are calculated in the same way.
+     *
+     * @param learningGoalId The id of the learning goal to update the progress for
+     * @param users          The users for which the progress should be updated
+     */
+    public void updateLearningGoalProgress(Long learningGoalId, @NotNull Set<User> users) {
+        var learningGoal = learningGoalRepository.findByIdWithExercisesAndLectureUnitsWithoutCompletions(learningGoalId).orElse(null);
+        if (learningGoal == null) {
+            logger.debug("Competency no longer exists, skipping.");
+            return;
+        }
+
+        List<LectureUnit> lectureUnits = learningGoal.getLectureUnits().stream().filter(LectureUnit::isVisibleToStudents)
+                .filter(lectureUnit -> !(lectureUnit instanceof ExerciseUnit)).toList();
+        List<Exercise> exercises = learningGoal.getExercises().stream().filter(Exercise::isVisibleToStudents).toList();
+        Set<Long> lectureUnitIds = lectureUnits.stream().map(LectureUnit::getId).collect(Collectors.toSet());
+        Set<Long> exerciseIds = exercises.stream().map(Exercise::getId).collect(Collectors.toSet());
+
+        List<User> userList = users.stream().filter(Objects::nonNull).toList();
+        for (int start = 0; start < userList.size(); start += BULK_UPDATE_CHUNK_SIZE) {
+            var chunk = userList.subList(start, Math.min(start + BULK_UPDATE_CHUNK_SIZE, userList.size()));
+            Map<Long, User> usersById = chunk.stream().collect(Collectors.toMap(User::getId, Function.identity(), (user, duplicate) -> user));
+
+            Map<Long, Set<Long>> completedLectureUnitIdsByUser = lectureUnitIds.isEmpty() ? Map.of()
+                    : lectureUnitCompletionRepository.findAllByLectureUnitIdsAndUserIds(lectureUnitIds, usersById.keySet()).stream().collect(Collectors
+                            .groupingBy(LectureUnitCompletionOfUser::userId, Collectors.mapping(LectureUnitCompletionOfUser::lectureUnitId, Collectors.toSet())));
+            Map<Long, List<UserExerciseScore>> scoresByUser = exerciseIds.isEmpty() ? Map.of()
+                    : Stream.concat(studentScoreRepository.findAllUserExerciseScoresByExerciseIdsAndUserIds(exerciseIds, usersById.keySet()).stream(),
+                            teamScoreRepository.findAllUserExerciseScoresByExerciseIdsAndUserIds(exerciseIds, usersById.keySet()).stream())
+                            .collect(Collectors.groupingBy(UserExerciseScore::userId));
+            Map<Long, LearningGoalProgress> existingProgress = learningGoalProgressRepository.findAllByLearningGoalIdAndUserIdIn(learningGoalId, usersById.keySet())
+                    .stream().collect(Collectors.toMap(progress -> progress.getUser().getId(), Function.identity()));
+
+            List<LearningGoalProgress> progressToSave = new ArrayList<>();
+            usersById.forEach((userId, user) -> {
+                var studentProgress = existingProgress.get(userId);
+                if (studentProgress != null && studentProgress.getLastModifiedDate() != null && studentProgress.getLastModifiedDate().isAfter(Instant.now().minusSeconds(1))) {
+                    logger.debug("Competency progress has been updated very recently, skipping.");
+                    return;
+                }
+                if (studentProgress == null) {
+                    studentProgress = new LearningGoalProgress();
+                }
+
+                var completedLectureUnitIds = completedLectureUnitIdsByUser.getOrDefault(userId, Set.of());
+                var scores = scoresByUser.getOrDefault(userId, List.of());
+                Set<Long> exercisesWithScore = scores.stream().map(UserExerciseScore::exerciseId).collect(Collectors.toSet());
+
+                var completions = Stream.concat(lectureUnits.stream().map(lectureUnit -> completedLectureUnitIds.contains(lectureUnit.getId())),
+                        exercises.stream().map(exercise -> exercisesWithScore.contains(exercise.getId())));
+                var progress = RoundingUtil.roundScoreSpecifiedByCourseSettings(completions.mapToInt(completed -> completed ? 100 : 0).summaryStatistics().getAverage(),
+                        learningGoal.getCourse());
+                var confidence = RoundingUtil.roundScoreSpecifiedByCourseSettings(
+                        scores.stream().map(UserExerciseScore::lastScore).filter(Objects::nonNull).mapToDouble(score -> score).summaryStatistics().getAverage(),
+                        learningGoal.getCourse());
+
+                if (exercises.isEmpty()) {
+                    // If the learning goal has no exercises, the confidence score equals the progress
+                    confidence = progress;
+                }
+
+                studentProgress.setLearningGoal(learningGoal);
+                studentProgress.setUser(user);
+                studentProgress.setProgress(progress);
+                studentProgress.setConfidence(confidence);
+                progressToSave.add(studentProgress);
+            });
+
+            saveLearningGoalProgress(progressToSave);
+            logger.debug("Updated progress of {} users in competency {}.", progressToSave.size(), learningGoalId);
+        }
+    }
+
+    /**
+     * Saves the given progress together, or one by one if this fails (e.g. because a parallel update has created the progress of one of the users in the meantime)
+     *
+     * @param progressToSave The new or updated progress
+     */
+    private void saveLearningGoalProgress(List<LearningGoalProgress> progressToSave) {
+        try {
+            learningGoalProgressRepository.saveAll(progressToSave);
+        }
+        catch (DataIntegrityViolationException e) {
+            logger.debug("Could not save {} competency progress entries together, saving them one by one: {}", progressToSave.size(), e.getMessage());
+            for (var studentProgress : progressToSave) {
+                try {
+                    learningGoalProgressRepository.save(studentProgress);
+                }
+                catch (DataIntegrityViolationException ex) {
+                    // In rare instances of initially creating a progress entity, async updates might run in parallel.
+                    // This fails the SQL unique constraint and throws an exception. We can safely ignore it.
+                }
+            }
+        }
+    }
+
     /**
      * Calculate the progress value for the given user in a learning goal.
      *
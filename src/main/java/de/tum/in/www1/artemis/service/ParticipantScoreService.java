@@ -24,10 +24,14 @@ public class ParticipantScoreService {
 
     private final TeamScoreRepository teamScoreRepository;
 
-    public ParticipantScoreService(UserRepository userRepository, StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository) {
+    private final StudentCourseScoreService studentCourseScoreService;
+
+    public ParticipantScoreService(UserRepository userRepository, StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository,
+            StudentCourseScoreService studentCourseScoreService) {
         this.userRepository = userRepository;
         this.studentScoreRepository = studentScoreRepository;
         this.teamScoreRepository = teamScoreRepository;
+        this.studentCourseScoreService = studentCourseScoreService;
     }
 
     /**
@@ -64,6 +68,9 @@ public class ParticipantScoreService {
      * <p>
      * The goal is to switch completely to this much faster server based calculation if the {@link de.tum.in.www1.artemis.service.listeners.ResultListener}
      * has been battle tested enough.
+     * <p>
+     * The achieved points are read from the {@link de.tum.in.www1.artemis.domain.scores.StudentCourseScore}s, so that the participant scores of the whole course
+     * do not have to be summed up on every request.
      *
      * @param course the course with exercises for which to calculate the course scores
      * @return list of course scores for every member of the course
@@ -88,7 +95,22 @@ public class ParticipantScoreService {
         Double regularAchievablePoints = exercisesToConsider.stream().filter(exercise -> exercise.getIncludedInOverallScore() == IncludedInOverallScore.INCLUDED_COMPLETELY)
                 .map(Exercise::getMaxPoints).reduce(0.0, Double::sum);
 
-        return calculateScores(exercisesToConsider, usersOfCourse, regularAchievablePoints);
+        // 0.0 means we can not reasonably calculate the achieved points / scores
+        if (regularAchievablePoints.equals(0.0)) {
+            return List.of();
+        }
+
+        Set<Long> userIds = usersOfCourse.stream().map(User::getId).collect(Collectors.toSet());
+        Map<Long, Double> pointsOfStudents = studentCourseScoreService.getPointsOfStudents(course, exercisesToConsider, userIds);
+
+        List<ScoreDTO> scores = new ArrayList<>();
+        for (User user : usersOfCourse) {
+            double pointsAchieved = pointsOfStudents.getOrDefault(user.getId(), 0.0);
+            double scoreAchieved = roundScoreSpecifiedByCourseSettings((pointsAchieved / regularAchievablePoints) * 100.0, course);
+            // sending the achievable points for debugging purposes to find out why the scores' calculation could be wrong
+            scores.add(new ScoreDTO(user.getId(), user.getLogin(), pointsAchieved, scoreAchieved, regularAchievablePoints));
+        }
+        return scores;
     }
 
     private List<ScoreDTO> calculateScores(Set<Exercise> exercises, Set<User> users, Double scoreCalculationDenominator) {
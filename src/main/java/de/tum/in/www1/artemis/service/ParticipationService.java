@@ -63,12 +63,15 @@ public class ParticipationService {
 
     private final TeamScoreRepository teamScoreRepository;
 
+    private final StudentCourseScoreService studentCourseScoreService;
+
     public ParticipationService(GitService gitService, Optional<ContinuousIntegrationService> continuousIntegrationService, Optional<VersionControlService> versionControlService,
             BuildLogEntryService buildLogEntryService, ParticipationRepository participationRepository, StudentParticipationRepository studentParticipationRepository,
             ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository, ProgrammingExerciseRepository programmingExerciseRepository,
             SubmissionRepository submissionRepository, TeamRepository teamRepository, UrlService urlService, ResultService resultService,
             CoverageReportRepository coverageReportRepository, BuildLogStatisticsEntryRepository buildLogStatisticsEntryRepository,
-            ParticipantScoreRepository participantScoreRepository, StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository) {
+            ParticipantScoreRepository participantScoreRepository, StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository,
+            StudentCourseScoreService studentCourseScoreService) {
         this.gitService = gitService;
         this.continuousIntegrationService = continuousIntegrationService;
         this.versionControlService = versionControlService;
@@ -86,6 +89,7 @@ public class ParticipationService {
         this.participantScoreRepository = participantScoreRepository;
         this.studentScoreRepository = studentScoreRepository;
         this.teamScoreRepository = teamScoreRepository;
+        this.studentCourseScoreService = studentCourseScoreService;
     }
 
     /**
@@ -745,6 +749,11 @@ public class ParticipationService {
 
         deleteResultsAndSubmissionsOfParticipation(participationId, deleteParticipantScores);
         studentParticipationRepository.delete(participation);
+
+        // the course scores are updated once for all participations if the participant scores have been bulk deleted
+        if (deleteParticipantScores) {
+            studentCourseScoreService.updateCourseScoresOfParticipations(List.of(participation));
+        }
     }
 
     /**
@@ -806,6 +815,7 @@ public class ParticipationService {
         for (StudentParticipation participation : participationsToDelete) {
             delete(participation.getId(), deleteBuildPlan, deleteRepository, false);
         }
+        studentCourseScoreService.updateCourseScoresOfParticipations(participationsToDelete);
     }
 
     /**
@@ -825,5 +835,6 @@ public class ParticipationService {
         for (StudentParticipation participation : participationsToDelete) {
             delete(participation.getId(), deleteBuildPlan, deleteRepository, false);
         }
+        studentCourseScoreService.updateCourseScoresOfParticipations(participationsToDelete);
     }
 }
@@ -16,6 +16,7 @@ import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.enumeration.QuizMode;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.scheduled.cache.quiz.QuizScheduleService;
 import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
@@ -209,6 +210,8 @@ public class QuizExerciseService {
         List<Result> results = resultRepository.findByParticipationExerciseIdOrderByCompletionDateAsc(quizExercise.getId());
         log.info("Found {} results to update for quiz re-evaluate", results.size());
         List<QuizSubmission> submissions = new ArrayList<>();
+        // the changed quiz is compiled only once for all results
+        QuizScoringPlan scoringPlan = QuizScoringPlan.compile(quizExercise);
         for (Result result : results) {
 
             Set<SubmittedAnswer> submittedAnswersToDelete = new HashSet<>();
@@ -225,11 +228,11 @@ public class QuizExerciseService {
             quizSubmission.getSubmittedAnswers().removeAll(submittedAnswersToDelete);
 
             // recalculate existing score
-            quizSubmission.calculateAndUpdateScores(quizExercise);
+            double scoreInPoints = scoringPlan.calculateAndUpdateScores(quizSubmission);
             // update Successful-Flag in Result
             StudentParticipation studentParticipation = (StudentParticipation) result.getParticipation();
             studentParticipation.setExercise(quizExercise);
-            result.evaluateQuizSubmission();
+            result.setScore(scoringPlan.getScore(scoreInPoints), quizExercise.getCourseViaExerciseGroupOrCourseMember());
 
             submissions.add(quizSubmission);
         }
@@ -395,6 +398,8 @@ public class QuizExerciseService {
         if (updateOfResultsAndStatisticsNecessary) {
             // make sure we have all objects available before updating the statistics to avoid lazy / proxy issues
             quizExercise = quizExerciseRepository.findByIdWithQuestionsAndStatisticsElseThrow(quizExercise.getId());
+            // the recalculation includes all saved results, so cached statistic changes would be counted twice
+            quizScheduleService.clearStatisticChanges(quizExercise.getId());
             quizStatisticService.recalculateStatistics(quizExercise);
         }
         // fetch the quiz exercise again to make sure the latest changes are included
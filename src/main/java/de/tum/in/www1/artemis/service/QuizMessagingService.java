@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.service;
 
+import java.util.Arrays;
+
 import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
@@ -9,9 +11,12 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizBatch;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
@@ -21,6 +26,8 @@ public class QuizMessagingService {
 
     private final Logger log = LoggerFactory.getLogger(QuizMessagingService.class);
 
+    private static final String USER_DESTINATION_PREFIX = "/user/";
+
     private final ObjectMapper objectMapper;
 
     private final GroupNotificationService groupNotificationService;
@@ -65,4 +72,59 @@ public class QuizMessagingService {
             log.error("Exception occurred while serializing quiz exercise", e);
         }
     }
+
+    /**
+     * Serializes the given quiz exercise once, so that it can be shared by the participations sent to all participants at the end of a quiz,
+     * see {@link #sendParticipationWithSharedExercise(String, long, StudentParticipation, byte[])}.
+     * The course and the student participations of the exercise are not included, as the participants do not need them.
+     *
+     * @param quizExercise the quiz exercise (including questions) which should be sent to all participants
+     * @return the serialized <code>"exercise":{...}</code> property of a participation
+     * @throws JsonProcessingException if the quiz exercise could not be serialized
+     */
+    public byte[] serializeSharedExercise(QuizExercise quizExercise) throws JsonProcessingException {
+        byte[] serializedHolder = objectMapper.writeValueAsBytes(new SharedExercise(quizExercise));
+        // remove the braces of the holder object, so that only the exercise property remains
+        return Arrays.copyOfRange(serializedHolder, 1, serializedHolder.length - 1);
+    }
+
+    /**
+     * Sends the given participation to the given user. Only the participation itself (e.g. the result and the submission) is serialized for this user,
+     * the quiz exercise is inserted from the already serialized shared exercise.
+     *
+     * @param user             the login of the user who should receive the participation
+     * @param quizExerciseId   the id of the quiz exercise
+     * @param participation    the participation of the user, the exercise of the participation is removed
+     * @param sharedExercise   the serialized exercise property, see {@link #serializeSharedExercise(QuizExercise)}
+     * @throws JsonProcessingException if the participation could not be serialized
+     */
+    public void sendParticipationWithSharedExercise(String user, long quizExerciseId, StudentParticipation participation, byte[] sharedExercise) throws JsonProcessingException {
+        participation.setExercise(null);
+        byte[] serializedParticipation = objectMapper.writeValueAsBytes(participation);
+        // insert the shared exercise property before the closing brace of the participation
+        byte[] payload = new byte[serializedParticipation.length + 1 + sharedExercise.length];
+        System.arraycopy(serializedParticipation, 0, payload, 0, serializedParticipation.length - 1);
+        payload[serializedParticipation.length - 1] = ',';
+        System.arraycopy(sharedExercise, 0, payload, serializedParticipation.length, sharedExercise.length);
+        payload[payload.length - 1] = '}';
+        // send the payload in the same way as the quiz exercise, converting it would add a different content type header
+        messagingTemplate.send(userDestination(user, "/topic/exercise/" + quizExerciseId + "/participation"), MessageBuilder.withPayload(payload).build());
+    }
+
+    /**
+     * Resolves the destination of the given user in the same way as {@link SimpMessageSendingOperations#convertAndSendToUser(String, String, Object)}
+     *
+     * @param user        the login of the user
+     * @param destination the destination of the user, e.g. a topic
+     * @return the destination with the user prefix
+     */
+    private static String userDestination(String user, String destination) {
+        return USER_DESTINATION_PREFIX + user.replace("/", "%2F") + destination;
+    }
+
+    /**
+     * Holder to serialize the exercise in the same way as it would be serialized as property of a participation
+     */
+    private record SharedExercise(@JsonIgnoreProperties({ "studentParticipations", "course" }) Exercise exercise) {
+    }
 }
@@ -1,25 +1,34 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Result;
-import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.statistics.QuizStatisticResult;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.web.rest.dto.QuizStatisticRecalculationProgressDTO;
 
 @Service
 public class QuizStatisticService {
 
     private final Logger log = LoggerFactory.getLogger(QuizStatisticService.class);
 
-    private final StudentParticipationRepository studentParticipationRepository;
+    /**
+     * The number of results that are loaded at once when the statistics are recalculated
+     */
+    private static final int RECALCULATION_PAGE_SIZE = 500;
 
     private final ResultRepository resultRepository;
 
@@ -31,10 +40,13 @@ public class QuizStatisticService {
 
     private final SimpMessageSendingOperations messagingTemplate;
 
-    public QuizStatisticService(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository, SimpMessageSendingOperations messagingTemplate,
-            QuizPointStatisticRepository quizPointStatisticRepository, QuizQuestionStatisticRepository quizQuestionStatisticRepository,
-            QuizSubmissionRepository quizSubmissionRepository) {
-        this.studentParticipationRepository = studentParticipationRepository;
+    /**
+     * The recalculations of quiz statistics that are currently running on this instance, mapped to their cancellation flag by the id of the quiz exercise
+     */
+    private final Map<Long, AtomicBoolean> runningRecalculations = new ConcurrentHashMap<>();
+
+    public QuizStatisticService(ResultRepository resultRepository, SimpMessageSendingOperations messagingTemplate, QuizPointStatisticRepository quizPointStatisticRepository,
+            QuizQuestionStatisticRepository quizQuestionStatisticRepository, QuizSubmissionRepository quizSubmissionRepository) {
         this.resultRepository = resultRepository;
         this.quizPointStatisticRepository = quizPointStatisticRepository;
         this.quizQuestionStatisticRepository = quizQuestionStatisticRepository;
@@ -43,14 +55,73 @@ public class QuizStatisticService {
     }
 
     /**
-     * 1. Go through all Results in the Participation and recalculate the score
-     * 2. Recalculate the statistics of the given quizExercise
+     * Recalculates the statistics of the given quiz exercise from the latest rated and the latest unrated result of every participation.
+     * The results are loaded page by page as projections, together with the submitted answers of the current page only, so that the memory needed
+     * does not grow with the number of participations. The question statistics of one page are updated in parallel.
+     * <p>
+     * The progress is sent to the instructors via websocket. The recalculation can be cancelled with {@link #cancelRecalculation(Long)}, in which case
+     * the statistics are not saved.
      *
      * @param quizExercise the changed QuizExercise object which will be used to recalculate the existing Results and Statistics
+     * @return true if the statistics have been recalculated and saved, false if the recalculation was cancelled
      */
-    public void recalculateStatistics(QuizExercise quizExercise) {
+    public boolean recalculateStatistics(QuizExercise quizExercise) {
+        final Long quizExerciseId = quizExercise.getId();
+        final var cancelled = new AtomicBoolean(false);
+        runningRecalculations.put(quizExerciseId, cancelled);
+        try {
+            resetStatistics(quizExercise);
+
+            final long totalResults = resultRepository.countLatestResultsForQuizStatistics(quizExerciseId);
+            long processedResults = 0;
+            long lastResultId = 0;
+            List<QuizStatisticResult> resultPage;
+            do {
+                if (cancelled.get()) {
+                    log.info("Recalculation of the statistics of quiz exercise {} was cancelled after {} of {} results", quizExerciseId, processedResults, totalResults);
+                    return false;
+                }
+                resultPage = resultRepository.findLatestResultsForQuizStatistics(quizExerciseId, lastResultId, PageRequest.of(0, RECALCULATION_PAGE_SIZE));
+                if (resultPage.isEmpty()) {
+                    break;
+                }
+                addResultPageToStatistics(quizExercise, resultPage);
+                processedResults += resultPage.size();
+                lastResultId = resultPage.get(resultPage.size() - 1).resultId();
+                log.debug("Recalculated the statistics of quiz exercise {} for {} of {} results", quizExerciseId, processedResults, totalResults);
+                messagingTemplate.convertAndSend("/topic/statistic/" + quizExerciseId + "/recalculation",
+                        new QuizStatisticRecalculationProgressDTO(processedResults, totalResults));
+            }
+            while (resultPage.size() == RECALCULATION_PAGE_SIZE);
 
-        // reset all statistics
+            // save changed Statistics
+            quizPointStatisticRepository.saveAndFlush(quizExercise.getQuizPointStatistic());
+            List<QuizQuestionStatistic> quizQuestionStatistics = quizExercise.getQuizQuestions().stream().map(QuizQuestion::getQuizQuestionStatistic).filter(Objects::nonNull)
+                    .toList();
+            quizQuestionStatisticRepository.saveAllAndFlush(quizQuestionStatistics);
+            return true;
+        }
+        finally {
+            runningRecalculations.remove(quizExerciseId, cancelled);
+        }
+    }
+
+    /**
+     * Cancels the recalculation of the statistics of the given quiz exercise, if it is currently running on this instance
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     * @return true if a running recalculation was cancelled, false otherwise
+     */
+    public boolean cancelRecalculation(Long quizExerciseId) {
+        AtomicBoolean cancelled = runningRecalculations.get(quizExerciseId);
+        if (cancelled == null) {
+            return false;
+        }
+        cancelled.set(true);
+        return true;
+    }
+
+    private void resetStatistics(QuizExercise quizExercise) {
         if (quizExercise.getQuizPointStatistic() != null) {
             quizExercise.getQuizPointStatistic().resetStatistic();
         }
@@ -65,82 +136,196 @@ public class QuizStatisticService {
                 quizQuestion.getQuizQuestionStatistic().resetStatistic();
             }
         }
+    }
 
-        // add the Results in every participation of the given quizExercise to the statistics
-        for (Participation participation : studentParticipationRepository.findByExerciseId(quizExercise.getId())) {
-
-            Result latestRatedResult = null;
-            Result latestUnratedResult = null;
-
-            var results = resultRepository.findAllByParticipationIdOrderByCompletionDateDesc(participation.getId());
-            // update all Results of a participation
-            for (Result result : results) {
+    /**
+     * Adds one page of results to the statistics of the given quiz. Every question statistic is only changed by one thread, so the questions can be processed in parallel.
+     *
+     * @param quizExercise the quiz exercise with questions and statistics
+     * @param resultPage   the results of the current page
+     */
+    private void addResultPageToStatistics(QuizExercise quizExercise, List<QuizStatisticResult> resultPage) {
+        List<Long> submissionIds = resultPage.stream().map(QuizStatisticResult::submissionId).toList();
+        Map<Long, QuizSubmission> submissions = quizSubmissionRepository.findWithEagerSubmittedAnswersByIdIn(submissionIds).stream()
+                .collect(Collectors.toMap(QuizSubmission::getId, Function.identity(), (submission, duplicate) -> submission));
 
-                // find the latest rated Result
-                if (Boolean.TRUE.equals(result.isRated()) && (latestRatedResult == null || latestRatedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestRatedResult = result;
-                }
-                // find latest unrated Result
-                if (Boolean.FALSE.equals(result.isRated()) && (latestUnratedResult == null || latestUnratedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestUnratedResult = result;
+        QuizPointStatistic quizPointStatistic = quizExercise.getQuizPointStatistic();
+        for (QuizStatisticResult result : resultPage) {
+            quizPointStatistic.addResult(result.score(), result.rated());
+        }
+        quizExercise.getQuizQuestions().parallelStream().filter(quizQuestion -> quizQuestion.getQuizQuestionStatistic() != null).forEach(quizQuestion -> {
+            QuizQuestionStatistic quizQuestionStatistic = quizQuestion.getQuizQuestionStatistic();
+            for (QuizStatisticResult result : resultPage) {
+                QuizSubmission quizSubmission = submissions.get(result.submissionId());
+                if (quizSubmission != null) {
+                    quizQuestionStatistic.addResult(quizSubmission.getSubmittedAnswerForQuestion(quizQuestion), result.rated());
                 }
             }
-            // update statistics with the latest rated und unrated Result
-            if (latestRatedResult != null && latestRatedResult.getSubmission() != null) {
-                var latestRatedSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(latestRatedResult.getSubmission().getId());
-                quizExercise.addResultToAllStatistics(latestRatedResult, latestRatedSubmission);
+        });
+    }
+
+    /**
+     * 1. check for each result if it's rated -> true: check if there is an old Result -> true: remove the old Result from the statistics 2. add new Result to the
+     * quiz-point-statistic and all question-statistics
+     *
+     * @param results the results, which will be added to the statistics
+     * @param quiz    the quizExercise with Questions where the results should contain to
+     */
+    public void updateStatistics(Set<Result> results, QuizExercise quiz) {
+
+        if (results != null && quiz != null && quiz.getQuizQuestions() != null) {
+            addResultsToStatistics(results, quiz);
+            saveStatistics(quiz);
+            sendStatisticsToInstructors(quiz);
+        }
+    }
+
+    /**
+     * Calculates how the given results change the statistic counters of the given quiz, without saving the statistics.
+     * The statistic objects of the quiz are reset to their previous values afterwards.
+     *
+     * @param results the results, which will be added to the statistics
+     * @param quiz    the quizExercise with questions and statistics
+     * @return the changes of all statistic counters mapped by the keys of the counters, only contains counters that changed
+     */
+    public Map<String, Integer> calculateStatisticChanges(Set<Result> results, QuizExercise quiz) {
+        Map<String, Integer> countersBefore = getStatisticCounterValues(quiz);
+        addResultsToStatistics(results, quiz);
+        Map<String, Integer> changes = new HashMap<>();
+        for (StatisticCounter counter : getStatisticCounters(quiz)) {
+            int valueBefore = countersBefore.getOrDefault(counter.key(), 0);
+            int change = counter.getter().get() - valueBefore;
+            if (change != 0) {
+                changes.put(counter.key(), change);
+                counter.setter().accept(valueBefore);
             }
-            if (latestUnratedResult != null && latestUnratedResult.getSubmission() != null) {
-                var latestUnratedSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(latestUnratedResult.getSubmission().getId());
-                quizExercise.addResultToAllStatistics(latestUnratedResult, latestUnratedSubmission);
+        }
+        return changes;
+    }
+
+    /**
+     * Adds the given changes to the statistic counters of the given quiz, without saving the statistics.
+     *
+     * @param quiz    the quizExercise with questions and statistics
+     * @param changes the changes of the statistic counters mapped by the keys of the counters, see {@link #calculateStatisticChanges(Set, QuizExercise)}
+     */
+    public void applyStatisticChanges(QuizExercise quiz, Map<String, Integer> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (StatisticCounter counter : getStatisticCounters(quiz)) {
+            Integer change = changes.get(counter.key());
+            if (change != null) {
+                counter.setter().accept(counter.getter().get() + change);
             }
         }
+    }
 
-        // save changed Statistics
-        quizPointStatisticRepository.save(quizExercise.getQuizPointStatistic());
-        quizPointStatisticRepository.flush();
-        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+    /**
+     * Saves the point statistic and all question statistics of the given quiz with one call each
+     *
+     * @param quiz the quizExercise with questions and statistics
+     */
+    public void saveStatistics(QuizExercise quiz) {
+        quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
+        List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
+        for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
             if (quizQuestion.getQuizQuestionStatistic() != null) {
-                quizQuestionStatisticRepository.save(quizQuestion.getQuizQuestionStatistic());
-                quizQuestionStatisticRepository.flush();
+                quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
             }
         }
+        quizQuestionStatisticRepository.saveAll(quizQuestionStatistics);
     }
 
     /**
-     * 1. check for each result if it's rated -> true: check if there is an old Result -> true: remove the old Result from the statistics 2. add new Result to the
-     * quiz-point-statistic and all question-statistics
+     * notify users via websocket about new results for the statistics.
+     * NOTE: this filters out solution information of the given quiz
      *
-     * @param results the results, which will be added to the statistics
-     * @param quiz    the quizExercise with Questions where the results should contain to
+     * @param quiz the quizExercise with questions and statistics
      */
-    public void updateStatistics(Set<Result> results, QuizExercise quiz) {
+    public void sendStatisticsToInstructors(QuizExercise quiz) {
+        quiz.filterForStatisticWebsocket();
+        messagingTemplate.convertAndSend("/topic/statistic/" + quiz.getId(), quiz);
+    }
 
-        if (results != null && quiz != null && quiz.getQuizQuestions() != null) {
-            log.debug("update statistics with {} new results", results.size());
+    private void addResultsToStatistics(Set<Result> results, QuizExercise quiz) {
+        log.debug("update statistics with {} new results", results.size());
+        for (Result result : results) {
+            // check if the result is rated
+            // NOTE: there is never an old Result if the new result is rated
+            if (Boolean.FALSE.equals(result.isRated())) {
+                quiz.removeResultFromAllStatistics(getPreviousResult(result));
+            }
+            var quizSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(result.getSubmission().getId());
+            quiz.addResultToAllStatistics(result, quizSubmission);
+        }
+    }
 
-            for (Result result : results) {
-                // check if the result is rated
-                // NOTE: there is never an old Result if the new result is rated
-                if (Boolean.FALSE.equals(result.isRated())) {
-                    quiz.removeResultFromAllStatistics(getPreviousResult(result));
-                }
-                var quizSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(result.getSubmission().getId());
-                quiz.addResultToAllStatistics(result, quizSubmission);
+    /**
+     * A single counter of a quiz statistic, e.g. the rated participants of a question statistic or the unrated counter of an answer counter
+     *
+     * @param key    the key of the counter, unique within one quiz exercise
+     * @param getter returns the current value of the counter
+     * @param setter sets the value of the counter
+     */
+    private record StatisticCounter(String key, Supplier<Integer> getter, Consumer<Integer> setter) {
+    }
+
+    private static Map<String, Integer> getStatisticCounterValues(QuizExercise quiz) {
+        Map<String, Integer> values = new HashMap<>();
+        getStatisticCounters(quiz).forEach(counter -> values.put(counter.key(), counter.getter().get()));
+        return values;
+    }
+
+    /**
+     * Collects all counters of the point statistic and the question statistics of the given quiz.
+     * Statistic objects that have not been saved yet (i.e. without id) are skipped, as they cannot be identified across instances.
+     *
+     * @param quiz the quizExercise with questions and statistics
+     * @return all statistic counters of the quiz
+     */
+    private static List<StatisticCounter> getStatisticCounters(QuizExercise quiz) {
+        List<StatisticCounter> counters = new ArrayList<>();
+        QuizPointStatistic pointStatistic = quiz.getQuizPointStatistic();
+        if (pointStatistic != null) {
+            addStatisticCounters(counters, pointStatistic);
+            pointStatistic.getPointCounters().forEach(pointCounter -> addStatisticCounters(counters, pointCounter));
+        }
+        for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
+            QuizQuestionStatistic questionStatistic = quizQuestion.getQuizQuestionStatistic();
+            if (questionStatistic == null || questionStatistic.getId() == null) {
+                continue;
             }
-            // save statistics
-            quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
-            List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
-            for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
-                if (quizQuestion.getQuizQuestionStatistic() != null) {
-                    quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
-                }
+            addStatisticCounters(counters, questionStatistic);
+            String prefix = "S" + questionStatistic.getId();
+            counters.add(new StatisticCounter(prefix + "-correct-rated", questionStatistic::getRatedCorrectCounter, questionStatistic::setRatedCorrectCounter));
+            counters.add(new StatisticCounter(prefix + "-correct-unrated", questionStatistic::getUnRatedCorrectCounter, questionStatistic::setUnRatedCorrectCounter));
+            if (questionStatistic instanceof MultipleChoiceQuestionStatistic multipleChoiceStatistic) {
+                multipleChoiceStatistic.getAnswerCounters().forEach(answerCounter -> addStatisticCounters(counters, answerCounter));
             }
-            quizQuestionStatisticRepository.saveAll(quizQuestionStatistics);
-            // notify users via websocket about new results for the statistics.
-            // filters out solution information
-            quiz.filterForStatisticWebsocket();
-            messagingTemplate.convertAndSend("/topic/statistic/" + quiz.getId(), quiz);
+            else if (questionStatistic instanceof DragAndDropQuestionStatistic dragAndDropStatistic) {
+                dragAndDropStatistic.getDropLocationCounters().forEach(dropLocationCounter -> addStatisticCounters(counters, dropLocationCounter));
+            }
+            else if (questionStatistic instanceof ShortAnswerQuestionStatistic shortAnswerStatistic) {
+                shortAnswerStatistic.getShortAnswerSpotCounters().forEach(spotCounter -> addStatisticCounters(counters, spotCounter));
+            }
+        }
+        return counters;
+    }
+
+    private static void addStatisticCounters(List<StatisticCounter> counters, QuizStatistic statistic) {
+        if (statistic.getId() != null) {
+            String prefix = "S" + statistic.getId();
+            counters.add(new StatisticCounter(prefix + "-rated", statistic::getParticipantsRated, statistic::setParticipantsRated));
+            counters.add(new StatisticCounter(prefix + "-unrated", statistic::getParticipantsUnrated, statistic::setParticipantsUnrated));
+        }
+    }
+
+    private static void addStatisticCounters(List<StatisticCounter> counters, QuizStatisticCounter statisticCounter) {
+        if (statisticCounter.getId() != null) {
+            String prefix = "C" + statisticCounter.getId();
+            counters.add(new StatisticCounter(prefix + "-rated", statisticCounter::getRatedCounter, statisticCounter::setRatedCounter));
+            counters.add(new StatisticCounter(prefix + "-unrated", statisticCounter::getUnRatedCounter, statisticCounter::setUnRatedCounter));
         }
     }
 
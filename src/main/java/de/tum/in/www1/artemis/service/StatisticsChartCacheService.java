@@ -0,0 +1,138 @@
+package de.tum.in.www1.artemis.service;
+
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_STATISTICS_CHART_CACHE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.config.*;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsChartCacheKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the chart data of the statistics pages in a distributed map.
+ * <p>
+ * The chart data of a closed period (i.e. a period in the past) does not change anymore, so it is cached for a long time.
+ * The chart data of the current period changes with every new submission, result or post, so it is only cached for a short time to absorb repeated requests,
+ * e.g. when several instructors open the statistics page of the same course.
+ * The chart data of a course or exercise is evicted when the course or exercise is deleted.
+ */
+@Service
+public class StatisticsChartCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsChartCacheService.class);
+
+    private static final String METRIC_PREFIX = "artemis.statistics.chart_cache";
+
+    /**
+     * The maximum number of cached charts per instance, the least recently used charts are evicted first
+     */
+    private static final int MAX_SIZE_PER_NODE = 10_000;
+
+    @Value("${artemis.statistics.chart-cache.closed-period-ttl-seconds:86400}")
+    private long closedPeriodTimeToLiveSeconds;
+
+    @Value("${artemis.statistics.chart-cache.current-period-ttl-seconds:60}")
+    private long currentPeriodTimeToLiveSeconds;
+
+    private final IMap<StatisticsChartCacheKey, ArrayList<Integer>> chartData;
+
+    private final Counter closedPeriodHits;
+
+    private final Counter closedPeriodMisses;
+
+    private final Counter currentPeriodHits;
+
+    private final Counter currentPeriodMisses;
+
+    public StatisticsChartCacheService(HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+        this.chartData = hazelcastInstance.getMap(HAZELCAST_STATISTICS_CHART_CACHE);
+        this.closedPeriodHits = requestCounter(meterRegistry, "closed", "hit");
+        this.closedPeriodMisses = requestCounter(meterRegistry, "closed", "miss");
+        this.currentPeriodHits = requestCounter(meterRegistry, "current", "hit");
+        this.currentPeriodMisses = requestCounter(meterRegistry, "current", "miss");
+        Gauge.builder(METRIC_PREFIX + ".hit_ratio", this, cache -> hitRatio(cache.closedPeriodHits, cache.closedPeriodMisses)).tag("period", "closed")
+                .description("Ratio of the chart requests of closed periods that were answered from the cache on this instance").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".hit_ratio", this, cache -> hitRatio(cache.currentPeriodHits, cache.currentPeriodMisses)).tag("period", "current")
+                .description("Ratio of the chart requests of the current period that were answered from the cache on this instance").register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String period, String result) {
+        return Counter.builder(METRIC_PREFIX + ".requests").tag("period", period).tag("result", result)
+                .description("Number of chart requests of the statistics pages, by period and by whether they were answered from the cache").register(meterRegistry);
+    }
+
+    private static double hitRatio(Counter hits, Counter misses) {
+        double requests = hits.count() + misses.count();
+        return requests == 0 ? 0 : hits.count() / requests;
+    }
+
+    /**
+     * Configures the distributed map of the cached charts: the charts can always be calculated again, so they are not backed up,
+     * and the number of cached charts is limited.
+     *
+     * @param config the {@link Config} the chart cache specific configuration should be added to
+     */
+    public static void configureHazelcast(Config config) {
+        // @formatter:off
+        EvictionConfig evictionConfig = new EvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                .setSize(MAX_SIZE_PER_NODE);
+        // @formatter:on
+        config.getMapConfig(HAZELCAST_STATISTICS_CHART_CACHE).setBackupCount(0).setEvictionConfig(evictionConfig);
+    }
+
+    /**
+     * Gets the chart data of the given key from the cache, or calculates and caches it if it is not cached yet
+     *
+     * @param key          the graph and the resolved period of the chart
+     * @param closedPeriod whether the period is closed, i.e. the chart data does not change anymore
+     * @param calculation  calculates the chart data if it is not cached
+     * @return the chart data, containing the values for each bar in the graph
+     */
+    public List<Integer> getChartData(StatisticsChartCacheKey key, boolean closedPeriod, Supplier<List<Integer>> calculation) {
+        var cachedChartData = chartData.get(key);
+        if (cachedChartData != null) {
+            (closedPeriod ? closedPeriodHits : currentPeriodHits).increment();
+            return cachedChartData;
+        }
+        (closedPeriod ? closedPeriodMisses : currentPeriodMisses).increment();
+        var calculatedChartData = new ArrayList<>(calculation.get());
+        long timeToLiveSeconds = closedPeriod ? closedPeriodTimeToLiveSeconds : currentPeriodTimeToLiveSeconds;
+        chartData.set(key, calculatedChartData, timeToLiveSeconds, TimeUnit.SECONDS);
+        return calculatedChartData;
+    }
+
+    /**
+     * Evicts the cached charts of a course or exercise, e.g. when it is deleted
+     *
+     * @param view     the view of the cached charts
+     * @param entityId the id of the course or exercise, or null to evict all cached charts of the view
+     */
+    public void evictChartData(StatisticsView view, @Nullable Long entityId) {
+        Predicate<StatisticsChartCacheKey, ArrayList<Integer>> predicate = Predicates.equal("__key.view", view);
+        if (entityId != null) {
+            predicate = Predicates.and(predicate, Predicates.equal("__key.entityId", entityId));
+        }
+        chartData.removeAll(predicate);
+        log.debug("Evicted the cached statistics charts of view {} and entity {}", view, entityId);
+    }
+}
@@ -0,0 +1,486 @@
+package de.tum.in.www1.artemis.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.enumeration.SpanType;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
+import de.tum.in.www1.artemis.domain.statistics.*;
+import de.tum.in.www1.artemis.repository.StatisticsRepository;
+import de.tum.in.www1.artemis.repository.StatisticsRollupProgressRepository;
+import de.tum.in.www1.artemis.repository.StatisticsRollupRepository;
+import de.tum.in.www1.artemis.repository.StatisticsUserRollupRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+
+/**
+ * Maintains hourly rollups of the statistics graphs that are counted from large tables (submissions, results, posts and audit events),
+ * so that the statistics pages only read a small number of rollups instead of the raw data of the whole period.
+ * <p>
+ * The rollups are complete for the period stored in the {@link StatisticsRollupProgress} of each graph type.
+ * Recent hours are rolled up by a scheduled job, older hours by a backfill. Parts of the requested period outside of the rolled up period
+ * (e.g. the current hour) are still counted from the raw data, so that the charts show the same values as without rollups.
+ */
+@Service
+public class StatisticsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsRollupService.class);
+
+    /**
+     * The graph types that are rolled up. The others are counted from exercises and exams, which are small enough to be queried directly.
+     */
+    private static final Set<GraphType> ROLLED_UP_GRAPH_TYPES = EnumSet.of(GraphType.SUBMISSIONS, GraphType.ACTIVE_USERS, GraphType.LOGGED_IN_USERS, GraphType.ACTIVE_TUTORS,
+            GraphType.CREATED_RESULTS, GraphType.CREATED_FEEDBACKS, GraphType.POSTS, GraphType.RESOLVED_POSTS);
+
+    /**
+     * The graph types that count distinct users, which are rolled up as one {@link StatisticsUserRollup} per user and hour
+     */
+    private static final Set<GraphType> USER_GRAPH_TYPES = EnumSet.of(GraphType.ACTIVE_USERS, GraphType.LOGGED_IN_USERS, GraphType.ACTIVE_TUTORS);
+
+    /**
+     * The number of already rolled up hours that are rolled up again, because entries can be stored a bit after their point in time.
+     * Older rollups are recalculated explicitly when their data changes, see {@link #recalculateRollups(Collection)}.
+     */
+    private static final int RECALCULATED_HOURS = 2;
+
+    /**
+     * The rollups are calculated and saved for at most one day at once
+     */
+    private static final int MAX_HOURS_PER_CHUNK = 24;
+
+    private final StatisticsRepository statisticsRepository;
+
+    private final StatisticsRollupRepository statisticsRollupRepository;
+
+    private final StatisticsUserRollupRepository statisticsUserRollupRepository;
+
+    private final StatisticsRollupProgressRepository statisticsRollupProgressRepository;
+
+    public StatisticsRollupService(StatisticsRepository statisticsRepository, StatisticsRollupRepository statisticsRollupRepository,
+            StatisticsUserRollupRepository statisticsUserRollupRepository, StatisticsRollupProgressRepository statisticsRollupProgressRepository) {
+        this.statisticsRepository = statisticsRepository;
+        this.statisticsRollupRepository = statisticsRollupRepository;
+        this.statisticsUserRollupRepository = statisticsUserRollupRepository;
+        this.statisticsRollupProgressRepository = statisticsRollupProgressRepository;
+    }
+
+    /**
+     * Gets the number of entries for the specific graphType and the span, like {@link StatisticsRepository#getNumberOfEntriesPerTimeSlot}.
+     * The rolled up part of the period is read from the rollups, the rest is counted from the raw data.
+     *
+     * @param graphType the type of graph the data should be fetched for
+     * @param span      the spanType for which the call is executed
+     * @param startDate The startDate of which the data should be fetched
+     * @param endDate   The endDate of which the data should be fetched (inclusive)
+     * @param view      the view in which the data will be displayed (Artemis, Course, Exercise)
+     * @param entityId  the entityId which is null for a user statistics call and contains the id for the other statistics pages
+     * @return the entries which can be sorted into the time slots of the graph
+     */
+    public List<StatisticsEntry> getNumberOfEntriesPerTimeSlot(GraphType graphType, SpanType span, ZonedDateTime startDate, ZonedDateTime endDate, StatisticsView view,
+            @Nullable Long entityId) {
+        var progress = isRolledUp(graphType, view, entityId) ? statisticsRollupProgressRepository.findById(graphType) : Optional.<StatisticsRollupProgress>empty();
+        if (progress.isEmpty()) {
+            return statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+        }
+        ZonedDateTime rollupStart = latest(ceilToSlot(startDate), progress.get().getRolledUpFrom());
+        ZonedDateTime rollupEnd = earliest(toSlot(endDate), progress.get().getRolledUpUntil());
+        if (!rollupStart.isBefore(rollupEnd)) {
+            return statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+        }
+
+        // the logged-in users do not depend on the view
+        StatisticsView rollupView = graphType == GraphType.LOGGED_IN_USERS ? StatisticsView.ARTEMIS : view;
+        long rollupEntityId = rollupView == StatisticsView.ARTEMIS ? StatisticsRollup.ARTEMIS_ENTITY_ID : entityId;
+        boolean hasRawStart = startDate.isBefore(rollupStart);
+        boolean hasRawEnd = !rollupEnd.isAfter(endDate);
+
+        List<StatisticsEntry> entries = new ArrayList<>();
+        if (USER_GRAPH_TYPES.contains(graphType)) {
+            // distinct users have to be filtered over the whole time slot of the graph, so the raw entries are combined with the rolled up users
+            if (hasRawStart) {
+                entries.addAll(statisticsRepository.getEntriesOfUsers(graphType, startDate, rollupStart.minusNanos(1), view, entityId));
+            }
+            entries.addAll(statisticsUserRollupRepository.getRolledUpEntriesOfUsers(graphType, rollupView, rollupEntityId, rollupStart, rollupEnd));
+            if (hasRawEnd) {
+                entries.addAll(statisticsRepository.getEntriesOfUsers(graphType, rollupEnd, endDate, view, entityId));
+            }
+            return statisticsRepository.filterDuplicatedUsers(span, entries, startDate);
+        }
+
+        if (hasRawStart) {
+            entries.addAll(statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, rollupStart.minusNanos(1), view, entityId));
+        }
+        entries.addAll(statisticsRollupRepository.getRolledUpEntries(graphType, rollupView, rollupEntityId, rollupStart, rollupEnd));
+        if (hasRawEnd) {
+            entries.addAll(statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, rollupEnd, endDate, view, entityId));
+        }
+        return entries;
+    }
+
+    private static boolean isRolledUp(GraphType graphType, StatisticsView view, @Nullable Long entityId) {
+        if (!ROLLED_UP_GRAPH_TYPES.contains(graphType)) {
+            return false;
+        }
+        if (view == StatisticsView.ARTEMIS) {
+            // the posts are not shown in the Artemis statistics
+            return graphType != GraphType.POSTS && graphType != GraphType.RESOLVED_POSTS;
+        }
+        return entityId != null;
+    }
+
+    /**
+     * Rolls up the hours since the last rollup (and the last few rolled up hours again) for all graph types.
+     * If a graph type was never rolled up before, the rollup starts with the last few hours and older hours have to be backfilled.
+     */
+    public void rollUpRecentHours() {
+        ZonedDateTime until = toSlot(ZonedDateTime.now());
+        for (GraphType graphType : ROLLED_UP_GRAPH_TYPES) {
+            try {
+                long start = System.currentTimeMillis();
+                var progress = statisticsRollupProgressRepository.findById(graphType);
+                ZonedDateTime from = progress
+                        .map(existingProgress -> latest(existingProgress.getRolledUpFrom(), existingProgress.getRolledUpUntil().minusHours(RECALCULATED_HOURS)))
+                        .orElse(until.minusHours(RECALCULATED_HOURS));
+                rollUp(graphType, from, until);
+                if (progress.isPresent()) {
+                    statisticsRollupProgressRepository.updateRolledUpUntil(graphType, until);
+                }
+                else {
+                    statisticsRollupProgressRepository.save(new StatisticsRollupProgress(graphType, from, until));
+                }
+                log.debug("Rolled up the statistics of graph type {} from {} until {} in {} ms", graphType, from, until, System.currentTimeMillis() - start);
+            }
+            catch (Exception ex) {
+                log.error("Could not roll up the statistics of graph type {}", graphType, ex);
+            }
+        }
+    }
+
+    /**
+     * Asynchronously rolls up all hours from the given date until the start of the already rolled up period, see {@link #backfill(ZonedDateTime)}
+     *
+     * @param from the date from which the statistics should be rolled up
+     */
+    @Async
+    public void backfillAsync(ZonedDateTime from) {
+        SecurityUtils.setAuthorizationObject(); // required for async
+        backfill(from);
+    }
+
+    /**
+     * Rolls up all hours from the given date until the start of the already rolled up period, day by day backwards.
+     * The rolled up period is extended after each day, so that the statistics pages benefit from the backfill while it is running.
+     *
+     * @param from the date from which the statistics should be rolled up
+     */
+    public void backfill(ZonedDateTime from) {
+        ZonedDateTime fromSlot = toSlot(from);
+        for (GraphType graphType : ROLLED_UP_GRAPH_TYPES) {
+            try {
+                long start = System.currentTimeMillis();
+                var progress = statisticsRollupProgressRepository.findById(graphType).orElseGet(() -> {
+                    ZonedDateTime now = toSlot(ZonedDateTime.now());
+                    return statisticsRollupProgressRepository.save(new StatisticsRollupProgress(graphType, now, now));
+                });
+                ZonedDateTime chunkEnd = progress.getRolledUpFrom();
+                while (chunkEnd.isAfter(fromSlot)) {
+                    ZonedDateTime chunkStart = latest(chunkEnd.minusHours(MAX_HOURS_PER_CHUNK), fromSlot);
+                    rollUp(graphType, chunkStart, chunkEnd);
+                    statisticsRollupProgressRepository.updateRolledUpFrom(graphType, chunkStart);
+                    chunkEnd = chunkStart;
+                }
+                log.info("Backfilled the statistics of graph type {} from {} in {} ms", graphType, fromSlot, System.currentTimeMillis() - start);
+            }
+            catch (Exception ex) {
+                log.error("Could not backfill the statistics of graph type {}", graphType, ex);
+            }
+        }
+    }
+
+    /**
+     * Deletes the rollups of a course or exercise, e.g. when it is deleted
+     *
+     * @param view     COURSE or EXERCISE
+     * @param entityId the id of the course or exercise
+     */
+    public void deleteRollups(StatisticsView view, long entityId) {
+        statisticsRollupRepository.deleteAllByViewAndEntityId(view, entityId);
+        statisticsUserRollupRepository.deleteAllByViewAndEntityId(view, entityId);
+    }
+
+    /**
+     * Finds the hours for which rollups of a course or exercise exist, e.g. before its data is deleted, see {@link #recalculateRollups(Collection)}
+     *
+     * @param view     COURSE or EXERCISE
+     * @param entityId the id of the course or exercise
+     * @return the rolled up hours of all graph types
+     */
+    public Set<StatisticsRollupSlot> findRolledUpSlots(StatisticsView view, long entityId) {
+        Set<StatisticsRollupSlot> slots = new HashSet<>(statisticsRollupRepository.findSlotsByViewAndEntityId(view, entityId));
+        slots.addAll(statisticsUserRollupRepository.findSlotsByViewAndEntityId(view, entityId));
+        return slots;
+    }
+
+    /**
+     * Finds the hours in which the submissions and results of a participation are counted, e.g. before the participation is deleted
+     *
+     * @param participationId the id of the participation
+     * @return the hours of the graph types that count submissions or results
+     */
+    public Set<StatisticsRollupSlot> findSlotsOfParticipation(long participationId) {
+        Set<StatisticsRollupSlot> slots = new HashSet<>();
+        for (var submissionDate : statisticsRepository.getSubmissionDatesOfParticipation(participationId)) {
+            slots.add(new StatisticsRollupSlot(GraphType.SUBMISSIONS, toSlot(submissionDate)));
+            slots.add(new StatisticsRollupSlot(GraphType.ACTIVE_USERS, toSlot(submissionDate)));
+        }
+        for (var completionDate : statisticsRepository.getResultCompletionDatesOfParticipation(participationId)) {
+            slots.add(new StatisticsRollupSlot(GraphType.CREATED_RESULTS, toSlot(completionDate)));
+            slots.add(new StatisticsRollupSlot(GraphType.CREATED_FEEDBACKS, toSlot(completionDate)));
+            slots.add(new StatisticsRollupSlot(GraphType.ACTIVE_TUTORS, toSlot(completionDate)));
+        }
+        return slots;
+    }
+
+    /**
+     * Asynchronously recalculates the rollups of all hours of a course or exercise, see {@link #recalculateRollups(Collection)}
+     *
+     * @param view     COURSE or EXERCISE
+     * @param entityId the id of the course or exercise
+     */
+    @Async
+    public void recalculateRollupsAsync(StatisticsView view, long entityId) {
+        SecurityUtils.setAuthorizationObject(); // required for async
+        recalculateRollups(findRolledUpSlots(view, entityId));
+    }
+
+    /**
+     * Recalculates the rollups of all views (Artemis, course, exercise) for the given hours. The scheduled job only recalculates the last few hours,
+     * so older rollups have to be recalculated when their data changes, e.g. when an exercise is deleted or a course becomes a test course.
+     * Hours outside of the rolled up period are skipped, as they are counted from the raw data anyway.
+     *
+     * @param slots the hours to recalculate
+     */
+    public void recalculateRollups(Collection<StatisticsRollupSlot> slots) {
+        Map<GraphType, SortedSet<ZonedDateTime>> slotsByGraphType = slots.stream().collect(Collectors.groupingBy(StatisticsRollupSlot::graphType,
+                () -> new EnumMap<>(GraphType.class), Collectors.mapping(slot -> toSlot(slot.slot()), Collectors.toCollection(TreeSet::new))));
+        slotsByGraphType.forEach((graphType, graphTypeSlots) -> {
+            try {
+                var progress = statisticsRollupProgressRepository.findById(graphType);
+                if (progress.isEmpty()) {
+                    return;
+                }
+                long start = System.currentTimeMillis();
+                // hours that are close to each other are recalculated together, which needs fewer queries than recalculating each hour on its own
+                ZonedDateTime rangeStart = null;
+                ZonedDateTime rangeEnd = null;
+                for (ZonedDateTime slot : graphTypeSlots) {
+                    if (slot.isBefore(progress.get().getRolledUpFrom()) || !slot.isBefore(progress.get().getRolledUpUntil())) {
+                        continue;
+                    }
+                    if (rangeEnd != null && slot.isBefore(rangeEnd.plusHours(MAX_HOURS_PER_CHUNK))) {
+                        rangeEnd = slot.plusHours(1);
+                        continue;
+                    }
+                    if (rangeStart != null) {
+                        rollUp(graphType, rangeStart, rangeEnd);
+                    }
+                    rangeStart = slot;
+                    rangeEnd = slot.plusHours(1);
+                }
+                if (rangeStart != null) {
+                    rollUp(graphType, rangeStart, rangeEnd);
+                }
+                log.debug("Recalculated {} hours of the statistics of graph type {} in {} ms", graphTypeSlots.size(), graphType, System.currentTimeMillis() - start);
+            }
+            catch (Exception ex) {
+                log.error("Could not recalculate the statistics of graph type {}", graphType, ex);
+            }
+        });
+    }
+
+    /**
+     * Calculates the rollups of all hours in the given period and saves those that changed
+     *
+     * @param graphType the graph type to roll up
+     * @param from      the start of the first hour to roll up
+     * @param until     the start of the first hour that should not be rolled up
+     */
+    private void rollUp(GraphType graphType, ZonedDateTime from, ZonedDateTime until) {
+        ZonedDateTime chunkStart = from;
+        while (chunkStart.isBefore(until)) {
+            ZonedDateTime chunkEnd = earliest(chunkStart.plusHours(MAX_HOURS_PER_CHUNK), until);
+            var sources = getSources(graphType, chunkStart, chunkEnd);
+            if (USER_GRAPH_TYPES.contains(graphType)) {
+                saveUserRollups(graphType, chunkStart, chunkEnd, calculateUserRollups(graphType, sources));
+            }
+            else {
+                saveRollups(graphType, chunkStart, chunkEnd, calculateRollups(graphType, sources));
+            }
+            chunkStart = chunkEnd;
+        }
+    }
+
+    private List<StatisticsRollupSource> getSources(GraphType graphType, ZonedDateTime startDate, ZonedDateTime endDate) {
+        return switch (graphType) {
+            case SUBMISSIONS -> statisticsRepository.getSubmissionsForRollup(startDate, endDate);
+            case ACTIVE_USERS -> statisticsRepository.getActiveUsersForRollup(startDate, endDate);
+            case LOGGED_IN_USERS -> statisticsRepository.getLoggedInUsers(startDate.toInstant(), endDate.minusNanos(1).toInstant()).stream()
+                    .map(entry -> new StatisticsRollupSource(null, null, ((Instant) entry.getDay()).atZone(ZoneId.systemDefault()), 1L, entry.getUsername())).toList();
+            case ACTIVE_TUTORS -> statisticsRepository.getActiveTutorsForRollup(startDate, endDate);
+            case CREATED_RESULTS -> statisticsRepository.getCreatedResultsForRollup(startDate, endDate);
+            case CREATED_FEEDBACKS -> statisticsRepository.getResultFeedbacksForRollup(startDate, endDate);
+            case POSTS -> statisticsRepository.getPostsForRollup(startDate, endDate);
+            case RESOLVED_POSTS -> statisticsRepository.getResolvedPostsForRollup(startDate, endDate);
+            default -> throw new UnsupportedOperationException("Unsupported graph type: " + graphType);
+        };
+    }
+
+    /**
+     * Determines the views (Artemis, course, exercise) in which an entry is counted, with the same conditions as the queries of {@link StatisticsRepository}
+     */
+    private static List<RollupKey> getKeys(GraphType graphType, StatisticsRollupSource source, Map<Long, StatisticsExerciseScope> exerciseScopes) {
+        Instant slot = toSlot(source.date()).toInstant();
+        List<RollupKey> keys = new ArrayList<>(3);
+        switch (graphType) {
+            case LOGGED_IN_USERS -> keys.add(new RollupKey(StatisticsView.ARTEMIS, StatisticsRollup.ARTEMIS_ENTITY_ID, slot));
+            case POSTS, RESOLVED_POSTS -> {
+                if (source.courseId() != null) {
+                    keys.add(new RollupKey(StatisticsView.COURSE, source.courseId(), slot));
+                }
+                if (source.exerciseId() != null) {
+                    keys.add(new RollupKey(StatisticsView.EXERCISE, source.exerciseId(), slot));
+                }
+            }
+            default -> {
+                var exerciseScope = exerciseScopes.get(source.exerciseId());
+                if (exerciseScope == null) {
+                    // the exercise was deleted in the meantime
+                    return keys;
+                }
+                if (exerciseScope.isCountedForArtemis()) {
+                    keys.add(new RollupKey(StatisticsView.ARTEMIS, StatisticsRollup.ARTEMIS_ENTITY_ID, slot));
+                }
+                if (exerciseScope.courseId() != null) {
+                    keys.add(new RollupKey(StatisticsView.COURSE, exerciseScope.courseId(), slot));
+                }
+                keys.add(new RollupKey(StatisticsView.EXERCISE, exerciseScope.exerciseId(), slot));
+            }
+        }
+        return keys;
+    }
+
+    private Map<Long, StatisticsExerciseScope> getExerciseScopes(GraphType graphType, List<StatisticsRollupSource> sources) {
+        if (graphType == GraphType.LOGGED_IN_USERS || graphType == GraphType.POSTS || graphType == GraphType.RESOLVED_POSTS) {
+            return Map.of();
+        }
+        Set<Long> exerciseIds = sources.stream().map(StatisticsRollupSource::exerciseId).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (exerciseIds.isEmpty()) {
+            return Map.of();
+        }
+        return statisticsRepository.findExerciseScopes(exerciseIds).stream().collect(Collectors.toMap(StatisticsExerciseScope::exerciseId, exerciseScope -> exerciseScope));
+    }
+
+    private Map<RollupKey, Long> calculateRollups(GraphType graphType, List<StatisticsRollupSource> sources) {
+        var exerciseScopes = getExerciseScopes(graphType, sources);
+        Map<RollupKey, Long> amounts = new HashMap<>();
+        for (var source : sources) {
+            long amount = source.amount() != null ? source.amount() : 0L;
+            for (var key : getKeys(graphType, source, exerciseScopes)) {
+                amounts.merge(key, amount, Long::sum);
+            }
+        }
+        return amounts;
+    }
+
+    private Set<UserRollupKey> calculateUserRollups(GraphType graphType, List<StatisticsRollupSource> sources) {
+        var exerciseScopes = getExerciseScopes(graphType, sources);
+        Set<UserRollupKey> users = new HashSet<>();
+        for (var source : sources) {
+            for (var key : getKeys(graphType, source, exerciseScopes)) {
+                users.add(new UserRollupKey(key, source.login()));
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Saves the calculated rollups of the period, only rollups that changed are updated and rollups that no longer exist are deleted
+     */
+    private void saveRollups(GraphType graphType, ZonedDateTime startDate, ZonedDateTime endDate, Map<RollupKey, Long> calculatedAmounts) {
+        List<StatisticsRollup> rollupsToSave = new ArrayList<>();
+        List<StatisticsRollup> rollupsToDelete = new ArrayList<>();
+        Map<RollupKey, Long> newAmounts = new HashMap<>(calculatedAmounts);
+        for (var rollup : statisticsRollupRepository.findAllByGraphTypeAndSlotInRange(graphType, startDate, endDate)) {
+            Long amount = newAmounts.remove(new RollupKey(rollup.getView(), rollup.getEntityId(), rollup.getSlot().toInstant()));
+            if (amount == null) {
+                rollupsToDelete.add(rollup);
+            }
+            else if (amount != rollup.getAmount()) {
+                rollup.setAmount(amount);
+                rollupsToSave.add(rollup);
+            }
+        }
+        newAmounts.forEach((key, amount) -> rollupsToSave.add(new StatisticsRollup(graphType, key.view(), key.entityId(), toZonedDateTime(key.slot()), amount)));
+        statisticsRollupRepository.deleteAll(rollupsToDelete);
+        statisticsRollupRepository.saveAll(rollupsToSave);
+    }
+
+    /**
+     * Saves the calculated user rollups of the period, only new users are inserted and users that are no longer active are deleted
+     */
+    private void saveUserRollups(GraphType graphType, ZonedDateTime startDate, ZonedDateTime endDate, Set<UserRollupKey> calculatedUsers) {
+        List<StatisticsUserRollup> rollupsToDelete = new ArrayList<>();
+        Set<UserRollupKey> newUsers = new HashSet<>(calculatedUsers);
+        for (var rollup : statisticsUserRollupRepository.findAllByGraphTypeAndSlotInRange(graphType, startDate, endDate)) {
+            var key = new UserRollupKey(new RollupKey(rollup.getView(), rollup.getEntityId(), rollup.getSlot().toInstant()), rollup.getLogin());
+            if (!newUsers.remove(key)) {
+                rollupsToDelete.add(rollup);
+            }
+        }
+        var rollupsToSave = newUsers.stream()
+                .map(user -> new StatisticsUserRollup(graphType, user.key().view(), user.key().entityId(), toZonedDateTime(user.key().slot()), user.login())).toList();
+        statisticsUserRollupRepository.deleteAll(rollupsToDelete);
+        statisticsUserRollupRepository.saveAll(rollupsToSave);
+    }
+
+    /**
+     * @return the start of the hour of the given date in the time zone of the server, which is also used to sort the entries into the time slots of the graphs
+     */
+    private static ZonedDateTime toSlot(ZonedDateTime date) {
+        return date.withZoneSameInstant(ZoneId.systemDefault()).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static ZonedDateTime ceilToSlot(ZonedDateTime date) {
+        ZonedDateTime slot = toSlot(date);
+        return slot.isBefore(date) ? slot.plusHours(1) : slot;
+    }
+
+    private static ZonedDateTime toZonedDateTime(Instant slot) {
+        return slot.atZone(ZoneId.systemDefault());
+    }
+
+    private static ZonedDateTime latest(ZonedDateTime date, ZonedDateTime otherDate) {
+        return date.isAfter(otherDate) ? date : otherDate;
+    }
+
+    private static ZonedDateTime earliest(ZonedDateTime date, ZonedDateTime otherDate) {
+        return date.isBefore(otherDate) ? date : otherDate;
+    }
+
+    private record RollupKey(StatisticsView view, long entityId, Instant slot) {
+    }
+
+    private record UserRollupKey(RollupKey key, String login) {
+    }
+}
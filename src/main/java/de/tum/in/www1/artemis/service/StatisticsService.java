@@ -19,6 +19,7 @@ import de.tum.in.www1.artemis.domain.enumeration.SpanType;
 import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
 import de.tum.in.www1.artemis.domain.statistics.CourseStatisticsAverageScore;
 import de.tum.in.www1.artemis.domain.statistics.ScoreDistribution;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsChartCacheKey;
 import de.tum.in.www1.artemis.domain.statistics.StatisticsEntry;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.web.rest.dto.CourseManagementStatisticsDTO;
@@ -28,6 +29,11 @@ import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 @Service
 public class StatisticsService {
 
+    /**
+     * The number of hours after its end after which a period is considered closed and its chart data is cached for a long time
+     */
+    private static final int CLOSED_PERIOD_DELAY_HOURS = 1;
+
     private final StatisticsRepository statisticsRepository;
 
     private final ParticipantScoreRepository participantScoreRepository;
@@ -40,18 +46,28 @@ public class StatisticsService {
 
     private final TeamRepository teamRepository;
 
+    private final StatisticsRollupService statisticsRollupService;
+
+    private final StatisticsChartCacheService statisticsChartCacheService;
+
     public StatisticsService(StatisticsRepository statisticsRepository, ParticipantScoreRepository participantScoreRepository, CourseRepository courseRepository,
-            ExerciseRepository exerciseRepository, UserRepository userRepository, TeamRepository teamRepository) {
+            ExerciseRepository exerciseRepository, UserRepository userRepository, TeamRepository teamRepository, StatisticsRollupService statisticsRollupService,
+            StatisticsChartCacheService statisticsChartCacheService) {
         this.statisticsRepository = statisticsRepository;
         this.participantScoreRepository = participantScoreRepository;
         this.courseRepository = courseRepository;
         this.exerciseRepository = exerciseRepository;
         this.userRepository = userRepository;
         this.teamRepository = teamRepository;
+        this.statisticsRollupService = statisticsRollupService;
+        this.statisticsChartCacheService = statisticsChartCacheService;
     }
 
     /**
-     * Forwards the request to the repository, which returns a List<Map<String, Object>>. For week, month or year the map from the Repository contains a String with the column
+     * Resolves the period index to the start and end date of the period and gets the chart data of this period from the {@link StatisticsChartCacheService}.
+     * Closed periods are cached for a long time, the current period only for a short time.
+     * The chart data is calculated from the values of the {@link StatisticsRollupService}, which reads the rolled up hours and counts the rest from the repository.
+     * The repository returns a List<Map<String, Object>>. For week, month or year the map from the Repository contains a String with the column
      * name, "day" and "amount" and an Object being the value, either the date in the format "YYYY-MM-DD" or the amount of the findings. For day, the column names are "day" and
      * "amount", which then contains the date in the ZonedDateFormat as Integer and the amount as Long.
      * It then collects the amounts in an array, depending on the span value, and returns it
@@ -64,34 +80,21 @@ public class StatisticsService {
      * @return an array, containing the values for each bar in the graph
      */
     public List<Integer> getChartData(SpanType span, Integer periodIndex, GraphType graphType, StatisticsView view, @Nullable Long entityId) {
+        ZonedDateTime now = ZonedDateTime.now();
         ZonedDateTime startDate;
         ZonedDateTime endDate;
-        List<StatisticsEntry> outcome;
-        List<Integer> result = null;
-        ZonedDateTime now = ZonedDateTime.now();
-        int lengthOfMonth;
-        if (span != SpanType.MONTH) {
-            result = new ArrayList<>(Collections.nCopies(spanMap.get(span), 0));
-        }
         switch (span) {
             case DAY -> {
                 startDate = now.minusDays(-periodIndex).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = now.minusDays(-periodIndex).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
-                this.statisticsRepository.sortDataIntoHours(outcome, result);
             }
             case WEEK -> {
                 startDate = now.minusWeeks(-periodIndex).minusDays(6).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = now.minusWeeks(-periodIndex).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
-                this.statisticsRepository.sortDataIntoDays(outcome, result, startDate);
             }
             case MONTH -> {
                 startDate = now.minusMonths(1L - periodIndex).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = now.minusMonths(-periodIndex).withHour(23).withMinute(59).withSecond(59);
-                result = new ArrayList<>(Collections.nCopies((int) ChronoUnit.DAYS.between(startDate, endDate), 0));
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate.plusDays(1), endDate, view, entityId);
-                this.statisticsRepository.sortDataIntoDays(outcome, result, startDate.plusDays(1));
             }
             case QUARTER -> {
                 LocalDateTime localStartDate = now.toLocalDateTime().with(DayOfWeek.MONDAY);
@@ -100,14 +103,48 @@ public class StatisticsService {
                 startDate = localStartDate.atZone(zone).minusWeeks(11 + (12L * (-periodIndex))).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = periodIndex != 0 ? localEndDate.atZone(zone).minusWeeks(12L * (-periodIndex)).withHour(23).withMinute(59).withSecond(59)
                         : localEndDate.atZone(zone).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
-                this.statisticsRepository.sortDataIntoWeeks(outcome, result, startDate);
             }
             case YEAR -> {
                 startDate = now.minusYears(1L - periodIndex).plusMonths(1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-                lengthOfMonth = YearMonth.of(now.minusYears(-periodIndex).getYear(), now.minusYears(-periodIndex).getMonth()).lengthOfMonth();
+                int lengthOfMonth = YearMonth.of(now.minusYears(-periodIndex).getYear(), now.minusYears(-periodIndex).getMonth()).lengthOfMonth();
                 endDate = now.minusYears(-periodIndex).withDayOfMonth(lengthOfMonth).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+            }
+            default -> throw new IllegalArgumentException("Unsupported span type: " + span);
+        }
+        // entries can be stored a bit after their point in time, so a period is only considered closed some time after its end
+        boolean closedPeriod = periodIndex < 0 && endDate.isBefore(now.minusHours(CLOSED_PERIOD_DELAY_HOURS));
+        var key = new StatisticsChartCacheKey(graphType, span, startDate, endDate.truncatedTo(ChronoUnit.SECONDS), view, entityId);
+        return statisticsChartCacheService.getChartData(key, closedPeriod, () -> calculateChartData(span, graphType, view, entityId, startDate, endDate));
+    }
+
+    private List<Integer> calculateChartData(SpanType span, GraphType graphType, StatisticsView view, @Nullable Long entityId, ZonedDateTime startDate, ZonedDateTime endDate) {
+        List<StatisticsEntry> outcome;
+        List<Integer> result;
+        if (span == SpanType.MONTH) {
+            result = new ArrayList<>(Collections.nCopies((int) ChronoUnit.DAYS.between(startDate, endDate), 0));
+        }
+        else {
+            result = new ArrayList<>(Collections.nCopies(spanMap.get(span), 0));
+        }
+        switch (span) {
+            case DAY -> {
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+                this.statisticsRepository.sortDataIntoHours(outcome, result);
+            }
+            case WEEK -> {
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+                this.statisticsRepository.sortDataIntoDays(outcome, result, startDate);
+            }
+            case MONTH -> {
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate.plusDays(1), endDate, view, entityId);
+                this.statisticsRepository.sortDataIntoDays(outcome, result, startDate.plusDays(1));
+            }
+            case QUARTER -> {
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+                this.statisticsRepository.sortDataIntoWeeks(outcome, result, startDate);
+            }
+            case YEAR -> {
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
                 this.statisticsRepository.sortDataIntoMonths(outcome, result, startDate);
             }
         }
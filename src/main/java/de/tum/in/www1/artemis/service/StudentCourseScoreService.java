@@ -0,0 +1,306 @@
+package de.tum.in.www1.artemis.service;
+
+import static de.tum.in.www1.artemis.service.util.RoundingUtil.roundScoreSpecifiedByCourseSettings;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.ExerciseType;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.scores.StudentCourseScore;
+import de.tum.in.www1.artemis.domain.scores.UserExercisePoints;
+import de.tum.in.www1.artemis.repository.*;
+
+/**
+ * Maintains the {@link StudentCourseScore}s, which aggregate the participant scores and presentation scores of a student in a course.
+ * <p>
+ * A course score is always recalculated completely from the participant scores of the student (and not updated with the difference of a single participant score),
+ * so an outdated course score is corrected by the next update of the student. Changes that do not update the course scores of the affected students
+ * (e.g. changes of team members) are detected and corrected by {@link #verifyCourseScores(long)}.
+ * Course scores that do not exist yet (e.g. for results from before the course scores were introduced) are calculated when they are read for the first time.
+ */
+@Service
+public class StudentCourseScoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentCourseScoreService.class);
+
+    /**
+     * The maximum number of students whose course scores are calculated with the same queries, which limits the size of the IN clauses
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    private final StudentCourseScoreRepository studentCourseScoreRepository;
+
+    private final StudentScoreRepository studentScoreRepository;
+
+    private final TeamScoreRepository teamScoreRepository;
+
+    private final StudentParticipationRepository studentParticipationRepository;
+
+    private final ExerciseRepository exerciseRepository;
+
+    public StudentCourseScoreService(StudentCourseScoreRepository studentCourseScoreRepository, StudentScoreRepository studentScoreRepository,
+            TeamScoreRepository teamScoreRepository, StudentParticipationRepository studentParticipationRepository, ExerciseRepository exerciseRepository) {
+        this.studentCourseScoreRepository = studentCourseScoreRepository;
+        this.studentScoreRepository = studentScoreRepository;
+        this.teamScoreRepository = teamScoreRepository;
+        this.studentParticipationRepository = studentParticipationRepository;
+        this.exerciseRepository = exerciseRepository;
+    }
+
+    /**
+     * Recalculates the course scores of the given students, e.g. after their participant scores or presentation scores have changed
+     *
+     * @param courseId the id of the course
+     * @param userIds  the ids of the students whose course scores should be updated
+     */
+    public void updateCourseScores(long courseId, Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        var exerciseTypes = getExerciseTypes(courseId);
+        for (var chunk : partition(userIds)) {
+            var existingCourseScores = findCourseScoresByUserId(courseId, chunk);
+            saveChangedCourseScores(courseId, calculateCourseScores(exerciseTypes, chunk), existingCourseScores);
+        }
+    }
+
+    /**
+     * Recalculates the course scores of the students of the given exercises, once per course
+     *
+     * @param studentsByExercise the students whose participant scores or presentation scores have changed, by exercise
+     */
+    public void updateCourseScores(Map<Exercise, Set<User>> studentsByExercise) {
+        Map<Long, Set<Long>> userIdsByCourseId = new HashMap<>();
+        studentsByExercise.forEach((exercise, students) -> {
+            // Exam exercises do not count towards the course scores
+            if (exercise.isCourseExercise()) {
+                userIdsByCourseId.computeIfAbsent(exercise.getCourseViaExerciseGroupOrCourseMember().getId(), courseId -> new HashSet<>())
+                        .addAll(students.stream().map(User::getId).collect(Collectors.toSet()));
+            }
+        });
+        userIdsByCourseId.forEach(this::updateCourseScores);
+    }
+
+    /**
+     * Recalculates the course scores of the students of the given participations, e.g. after the participations have been deleted
+     *
+     * @param participations the participations whose participant scores or presentation scores have changed
+     */
+    public void updateCourseScoresOfParticipations(Collection<StudentParticipation> participations) {
+        Map<Exercise, Set<User>> studentsByExercise = new HashMap<>();
+        for (var participation : participations) {
+            studentsByExercise.computeIfAbsent(participation.getExercise(), exercise -> new HashSet<>()).addAll(participation.getStudents());
+        }
+        updateCourseScores(studentsByExercise);
+    }
+
+    /**
+     * Gets the course scores of the given students. Course scores that do not exist yet are calculated and saved.
+     *
+     * @param courseId the id of the course
+     * @param userIds  the ids of the students
+     * @return the course scores of all given students by user id
+     */
+    public Map<Long, StudentCourseScore> getCourseScores(long courseId, Set<Long> userIds) {
+        return getCourseScores(courseId, userIds, null);
+    }
+
+    private Map<Long, StudentCourseScore> getCourseScores(long courseId, Set<Long> userIds, Map<Long, ExerciseType> exerciseTypes) {
+        Map<Long, StudentCourseScore> courseScores = new HashMap<>();
+        for (var chunk : partition(userIds)) {
+            var existingCourseScores = findCourseScoresByUserId(courseId, chunk);
+            courseScores.putAll(existingCourseScores);
+            Set<Long> missingUserIds = chunk.stream().filter(userId -> !existingCourseScores.containsKey(userId)).collect(Collectors.toSet());
+            if (!missingUserIds.isEmpty()) {
+                if (exerciseTypes == null) {
+                    exerciseTypes = getExerciseTypes(courseId);
+                }
+                var calculatedCourseScores = calculateCourseScores(exerciseTypes, missingUserIds);
+                saveChangedCourseScores(courseId, calculatedCourseScores, Map.of());
+                courseScores.putAll(calculatedCourseScores);
+            }
+        }
+        return courseScores;
+    }
+
+    /**
+     * Gets the sum of the last rated points of the given students in the given exercises of the course.
+     * The points are read from the course scores, minus the points in the other exercises of the course.
+     *
+     * @param course              the course
+     * @param exercisesToConsider the exercises of the course whose points should be summed up, usually most exercises of the course
+     * @param userIds             the ids of the students
+     * @return the sum of the last rated points of all given students in the given exercises by user id
+     */
+    public Map<Long, Double> getPointsOfStudents(Course course, Set<Exercise> exercisesToConsider, Set<Long> userIds) {
+        var exerciseTypes = getExerciseTypes(course.getId());
+        var courseScores = getCourseScores(course.getId(), userIds, exerciseTypes);
+        Map<Long, Double> pointsOfStudents = new HashMap<>();
+        courseScores.forEach((userId, courseScore) -> pointsOfStudents.put(userId, courseScore.getTotalPoints()));
+
+        Set<Long> exerciseIdsToConsider = exercisesToConsider.stream().map(DomainObject::getId).collect(Collectors.toSet());
+        Set<Long> exerciseIdsNotToConsider = exerciseTypes.keySet().stream().filter(exerciseId -> !exerciseIdsToConsider.contains(exerciseId)).collect(Collectors.toSet());
+        if (!exerciseIdsNotToConsider.isEmpty()) {
+            for (var chunk : partition(userIds)) {
+                Stream.concat(studentScoreRepository.findAllUserExercisePointsByExerciseIdsAndUserIds(exerciseIdsNotToConsider, chunk).stream(),
+                        teamScoreRepository.findAllUserExercisePointsByExerciseIdsAndUserIds(exerciseIdsNotToConsider, chunk).stream())
+                        .filter(points -> points.points() != null).forEach(points -> pointsOfStudents.merge(points.userId(), -points.points(), Double::sum));
+            }
+        }
+        // Avoid rounding errors of the summation, the points of each exercise are already rounded
+        pointsOfStudents.replaceAll((userId, points) -> roundScoreSpecifiedByCourseSettings(points, course));
+        return pointsOfStudents;
+    }
+
+    /**
+     * Recalculates all existing course scores of the course and corrects those that are outdated.
+     * Outdated course scores indicate that a change of the participant scores or presentation scores did not update the course scores.
+     *
+     * @param courseId the id of the course
+     * @return the number of course scores that were outdated
+     */
+    public int verifyCourseScores(long courseId) {
+        var exerciseTypes = getExerciseTypes(courseId);
+        int outdatedCourseScores = 0;
+        Pageable pageable = PageRequest.of(0, CHUNK_SIZE);
+        Slice<Long> userIds;
+        do {
+            userIds = studentCourseScoreRepository.findUserIdsByCourseId(courseId, pageable);
+            Set<Long> chunk = new HashSet<>(userIds.getContent());
+            if (!chunk.isEmpty()) {
+                var existingCourseScores = findCourseScoresByUserId(courseId, chunk);
+                outdatedCourseScores += saveChangedCourseScores(courseId, calculateCourseScores(exerciseTypes, chunk), existingCourseScores);
+            }
+            pageable = userIds.nextPageable();
+        }
+        while (userIds.hasNext());
+        if (outdatedCourseScores > 0) {
+            log.warn("Corrected {} outdated student course scores in course {}", outdatedCourseScores, courseId);
+        }
+        return outdatedCourseScores;
+    }
+
+    private Map<Long, ExerciseType> getExerciseTypes(long courseId) {
+        return exerciseRepository.findAllExercisesByCourseId(courseId).stream().collect(Collectors.toMap(DomainObject::getId, Exercise::getExerciseType));
+    }
+
+    private Map<Long, StudentCourseScore> findCourseScoresByUserId(long courseId, Set<Long> userIds) {
+        return studentCourseScoreRepository.findAllByCourseIdAndUserIdIn(courseId, userIds).stream()
+                .collect(Collectors.toMap(courseScore -> courseScore.getUser().getId(), courseScore -> courseScore, (courseScore, duplicate) -> courseScore));
+    }
+
+    /**
+     * Calculates the course scores of the given students from their participant scores and presentation scores
+     *
+     * @param exerciseTypes the types of all exercises of the course by id
+     * @param userIds       the ids of at most {@link #CHUNK_SIZE} students
+     * @return the new (not yet saved) course scores of all given students by user id
+     */
+    private Map<Long, StudentCourseScore> calculateCourseScores(Map<Long, ExerciseType> exerciseTypes, Set<Long> userIds) {
+        Map<Long, StudentCourseScore> courseScores = new HashMap<>();
+        for (Long userId : userIds) {
+            courseScores.put(userId, new StudentCourseScore());
+        }
+        if (exerciseTypes.isEmpty()) {
+            return courseScores;
+        }
+
+        var points = Stream.concat(studentScoreRepository.findAllUserExercisePointsByExerciseIdsAndUserIds(exerciseTypes.keySet(), userIds).stream(),
+                teamScoreRepository.findAllUserExercisePointsByExerciseIdsAndUserIds(exerciseTypes.keySet(), userIds).stream());
+        points.filter(userPoints -> userPoints.points() != null).forEach(userPoints -> {
+            var courseScore = courseScores.get(userPoints.userId());
+            var exerciseType = exerciseTypes.get(userPoints.exerciseId());
+            courseScore.setPoints(exerciseType, courseScore.getPoints(exerciseType) + userPoints.points());
+        });
+
+        var presentationScores = Stream.concat(
+                studentParticipationRepository.findAllPresentationScoresOfStudentsByExerciseIdsAndUserIds(exerciseTypes.keySet(), userIds).stream(),
+                studentParticipationRepository.findAllPresentationScoresOfTeamsByExerciseIdsAndUserIds(exerciseTypes.keySet(), userIds).stream());
+        presentationScores.forEach(presentationScore -> {
+            var courseScore = courseScores.get(presentationScore.userId());
+            courseScore.setPresentationScore(courseScore.getPresentationScore() + presentationScore.points());
+        });
+        return courseScores;
+    }
+
+    /**
+     * Saves the calculated course scores that differ from the existing ones
+     *
+     * @param courseId               the id of the course
+     * @param calculatedCourseScores the calculated course scores by user id, which are not yet saved
+     * @param existingCourseScores   the existing course scores by user id
+     * @return the number of existing course scores that differed from the calculated ones
+     */
+    private int saveChangedCourseScores(long courseId, Map<Long, StudentCourseScore> calculatedCourseScores, Map<Long, StudentCourseScore> existingCourseScores) {
+        List<StudentCourseScore> courseScoresToSave = new ArrayList<>();
+        int changedCourseScores = 0;
+        for (var entry : calculatedCourseScores.entrySet()) {
+            var calculatedCourseScore = entry.getValue();
+            var existingCourseScore = existingCourseScores.get(entry.getKey());
+            if (existingCourseScore == null) {
+                var course = new Course();
+                course.setId(courseId);
+                var user = new User();
+                user.setId(entry.getKey());
+                calculatedCourseScore.setCourse(course);
+                calculatedCourseScore.setUser(user);
+                courseScoresToSave.add(calculatedCourseScore);
+            }
+            else if (!existingCourseScore.hasSameScoresAs(calculatedCourseScore)) {
+                existingCourseScore.copyScoresFrom(calculatedCourseScore);
+                courseScoresToSave.add(existingCourseScore);
+                changedCourseScores++;
+            }
+        }
+        if (courseScoresToSave.isEmpty()) {
+            return changedCourseScores;
+        }
+
+        try {
+            studentCourseScoreRepository.saveAll(courseScoresToSave);
+        }
+        catch (DataIntegrityViolationException e) {
+            // A parallel update has created the course score of one of the students in the meantime
+            log.debug("Could not save {} student course scores together, saving them one by one: {}", courseScoresToSave.size(), e.getMessage());
+            for (var courseScore : courseScoresToSave) {
+                try {
+                    studentCourseScoreRepository.save(courseScore);
+                }
+                catch (DataIntegrityViolationException ex) {
+                    // The course score created in parallel has been calculated from the same participant scores, so it can be kept
+                }
+            }
+        }
+        return changedCourseScores;
+    }
+
+    private static List<Set<Long>> partition(Set<Long> userIds) {
+        List<Set<Long>> chunks = new ArrayList<>();
+        Set<Long> chunk = new HashSet<>();
+        for (Long userId : userIds) {
+            chunk.add(userId);
+            if (chunk.size() == CHUNK_SIZE) {
+                chunks.add(chunk);
+                chunk = new HashSet<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -33,12 +33,15 @@ public class CompassService {
 
     private final FeedbackRepository feedbackRepository;
 
+    private final UMLDiagramCacheService umlDiagramCacheService;
+
     public CompassService(ModelingSubmissionRepository modelingSubmissionRepository, ModelElementRepository modelElementRepository, ModelClusterRepository modelClusterRepository,
-            FeedbackRepository feedbackRepository) {
+            FeedbackRepository feedbackRepository, UMLDiagramCacheService umlDiagramCacheService) {
         this.modelingSubmissionRepository = modelingSubmissionRepository;
         this.modelClusterRepository = modelClusterRepository;
         this.modelElementRepository = modelElementRepository;
         this.feedbackRepository = feedbackRepository;
+        this.umlDiagramCacheService = umlDiagramCacheService;
     }
 
     /**
@@ -63,7 +66,7 @@ public class CompassService {
         List<ModelingSubmission> submissions = modelingSubmissionRepository.findSubmittedByExerciseIdWithEagerResultsAndFeedback(modelingExercise.getId());
         log.info("ModelCluster: start building clusters of {} submissions for modeling exercise {}", submissions.size(), modelingExercise.getId());
 
-        ModelClusterFactory clusterFactory = new ModelClusterFactory();
+        ModelClusterFactory clusterFactory = new ModelClusterFactory(umlDiagramCacheService);
         List<ModelCluster> modelClusters = clusterFactory.buildClusters(submissions, modelingExercise);
         log.info("ModelClusterTimeLog: building clusters of {} submissions for modeling exercise {} done in {}", submissions.size(), modelingExercise.getId(),
                 TimeLogUtil.formatDurationFrom(start));
@@ -85,7 +88,7 @@ public class CompassService {
         Result result = getAutomaticResultForSubmission(modelingSubmission);
         if (result != null) {
             List<Feedback> feedbacksForSuggestion = new ArrayList<>();
-            ModelClusterFactory clusterBuilder = new ModelClusterFactory();
+            ModelClusterFactory clusterBuilder = new ModelClusterFactory(umlDiagramCacheService);
             List<UMLElement> elements = clusterBuilder.getModelElements(modelingSubmission);
 
             // elements can be null if the modeling submission does not contain a model
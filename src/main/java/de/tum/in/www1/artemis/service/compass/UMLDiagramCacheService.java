@@ -0,0 +1,251 @@
+package de.tum.in.www1.artemis.service.compass;
+
+import static com.google.gson.JsonParser.parseString;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.service.compass.umlmodel.parsers.UMLModelParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches the UML diagrams parsed from the models of modeling submissions, so that repeated clusterings, plagiarism checks and assessments of the same submissions do not
+ * parse the models again. The diagrams that are not cached yet are parsed in parallel on a dedicated fork-join pool.
+ * <p>
+ * A diagram is identified by the id of its submission and a hash of the model, so a changed model is parsed again and the outdated diagram is evicted eventually.
+ * The cache is local to this instance (the diagrams are object graphs that are expensive to serialize) and bounded by the total number of cached model elements,
+ * the least recently used diagrams are evicted first.
+ * <p>
+ * The clustering of Compass stores its state (the similarity id and the context) in the model elements. Therefore, the clustering leases its diagrams exclusively
+ * (see {@link #leaseDiagrams(List)}) and resets this state when it releases them (see {@link #releaseDiagrams(Map)}). The leased diagrams are cached separately from the
+ * diagrams that are shared between all other users, which only read them, so that the clustering never modifies a diagram that is currently read elsewhere.
+ */
+@Service
+public class UMLDiagramCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(UMLDiagramCacheService.class);
+
+    private static final String METRIC_PREFIX = "artemis.compass.diagram_cache";
+
+    private final long maxCachedElements;
+
+    private final ForkJoinPool parsingPool;
+
+    /**
+     * The cached diagrams in access order, guarded by its own lock
+     */
+    private final LinkedHashMap<DiagramKey, UMLDiagram> diagrams = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedElements;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public UMLDiagramCacheService(MeterRegistry meterRegistry, @Value("${artemis.compass.diagram-cache.max-elements:250000}") long maxCachedElements,
+            @Value("${artemis.compass.diagram-cache.parsing-parallelism:0}") int parsingParallelism) {
+        this.maxCachedElements = maxCachedElements;
+        this.parsingPool = new ForkJoinPool(parsingParallelism > 0 ? parsingParallelism : Runtime.getRuntime().availableProcessors());
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        Gauge.builder(METRIC_PREFIX + ".elements", this, UMLDiagramCacheService::getCachedElements)
+                .description("Number of model elements of the UML diagrams that are cached on this instance").register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_PREFIX + ".requests").tag("result", result)
+                .description("Number of requested UML diagrams, by whether they were taken from the cache or had to be parsed").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsingPool.shutdownNow();
+    }
+
+    /**
+     * Gets the diagrams of the given submissions from the cache, parsing the missing diagrams in parallel. The returned diagrams are shared and must not be modified.
+     *
+     * @param modelingSubmissions the submissions whose models should be parsed
+     * @return the diagrams by submission, in the order of the given submissions, without the submissions that have no (valid) model
+     */
+    public Map<ModelingSubmission, UMLDiagram> getDiagrams(List<ModelingSubmission> modelingSubmissions) {
+        return getDiagrams(modelingSubmissions, false);
+    }
+
+    /**
+     * Gets the diagram of the given submission from the cache, or parses it if it is not cached yet. The returned diagram is shared and must not be modified.
+     *
+     * @param modelingSubmission the submission whose model should be parsed
+     * @return the diagram of the submission, or null if the submission has no (valid) model
+     */
+    @Nullable
+    public UMLDiagram getDiagram(ModelingSubmission modelingSubmission) {
+        return getDiagrams(List.of(modelingSubmission)).get(modelingSubmission);
+    }
+
+    /**
+     * Leases the diagrams of the given submissions exclusively, i.e. removes the released diagrams of previous leases from the cache and parses the missing diagrams in
+     * parallel, so that the caller can modify them. Concurrent leases of the same submissions parse their own diagrams in the meantime. The diagrams should be returned with {@link #releaseDiagrams(Map)}.
+     *
+     * @param modelingSubmissions the submissions whose models should be parsed
+     * @return the diagrams by submission, in the order of the given submissions, without the submissions that have no (valid) model
+     */
+    public Map<ModelingSubmission, UMLDiagram> leaseDiagrams(List<ModelingSubmission> modelingSubmissions) {
+        return getDiagrams(modelingSubmissions, true);
+    }
+
+    /**
+     * Resets the state that the clustering stored in the model elements of the given leased diagrams and caches them again
+     *
+     * @param leasedDiagrams the diagrams by submission as returned by {@link #leaseDiagrams(List)}
+     */
+    public void releaseDiagrams(Map<ModelingSubmission, UMLDiagram> leasedDiagrams) {
+        for (var entry : leasedDiagrams.entrySet()) {
+            for (UMLElement element : entry.getValue().getAllModelElements()) {
+                element.setSimilarityID(-1);
+                element.setContext(null);
+            }
+            DiagramKey key = DiagramKey.of(entry.getKey(), true);
+            if (key != null) {
+                cache(key, entry.getValue());
+            }
+        }
+    }
+
+    private Map<ModelingSubmission, UMLDiagram> getDiagrams(List<ModelingSubmission> modelingSubmissions, boolean exclusive) {
+        List<DiagramKey> keys = modelingSubmissions.stream().map(modelingSubmission -> DiagramKey.of(modelingSubmission, exclusive)).toList();
+        Map<ModelingSubmission, UMLDiagram> result = new LinkedHashMap<>();
+        List<Integer> missingIndices = new ArrayList<>();
+        synchronized (diagrams) {
+            for (int i = 0; i < modelingSubmissions.size(); i++) {
+                DiagramKey key = keys.get(i);
+                UMLDiagram diagram = key == null ? null : exclusive ? removeCached(key) : diagrams.get(key);
+                // keep the order of the submissions, the missing diagrams are added after parsing
+                result.put(modelingSubmissions.get(i), diagram);
+                if (diagram == null) {
+                    missingIndices.add(i);
+                }
+            }
+        }
+        hits.increment(modelingSubmissions.size() - missingIndices.size());
+        misses.increment(missingIndices.size());
+
+        if (!missingIndices.isEmpty()) {
+            // a parallel stream started by a task of a fork-join pool runs on this pool instead of the common pool
+            List<UMLDiagram> parsedDiagrams = parsingPool.submit(() -> missingIndices.parallelStream().map(i -> parseDiagram(modelingSubmissions.get(i))).toList()).join();
+            for (int i = 0; i < missingIndices.size(); i++) {
+                int index = missingIndices.get(i);
+                UMLDiagram diagram = parsedDiagrams.get(i);
+                result.put(modelingSubmissions.get(index), diagram);
+                if (diagram != null && keys.get(index) != null && !exclusive) {
+                    cache(keys.get(index), diagram);
+                }
+            }
+        }
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    /**
+     * Calculates the hash of a model that identifies the parsed diagram of the model
+     *
+     * @param model the model of a modeling submission
+     * @return the SHA-256 hash of the model as hex string
+     */
+    public static String hashModel(String model) {
+        return DigestUtils.sha256Hex(model);
+    }
+
+    /**
+     * Parses the model of the given submission
+     *
+     * @param modelingSubmission the submission whose model should be parsed
+     * @return the diagram of the submission, or null if the submission has no model or it could not be parsed
+     */
+    @Nullable
+    private static UMLDiagram parseDiagram(ModelingSubmission modelingSubmission) {
+        String model = modelingSubmission.getModel();
+        if (model == null) {
+            return null;
+        }
+        try {
+            return UMLModelParser.buildModelFromJSON(parseString(model).getAsJsonObject(), modelingSubmission.getId());
+        }
+        catch (IOException e) {
+            log.error("Parsing the model of modeling submission {} did throw an exception:", modelingSubmission.getId(), e);
+            return null;
+        }
+    }
+
+    private void cache(DiagramKey key, UMLDiagram diagram) {
+        synchronized (diagrams) {
+            if (diagrams.containsKey(key)) {
+                return;
+            }
+            diagrams.put(key, diagram);
+            cachedElements += weight(diagram);
+            var iterator = diagrams.values().iterator();
+            while (cachedElements > maxCachedElements && iterator.hasNext()) {
+                cachedElements -= weight(iterator.next());
+                iterator.remove();
+            }
+        }
+    }
+
+    private UMLDiagram removeCached(DiagramKey key) {
+        UMLDiagram diagram = diagrams.remove(key);
+        if (diagram != null) {
+            cachedElements -= weight(diagram);
+        }
+        return diagram;
+    }
+
+    private long getCachedElements() {
+        synchronized (diagrams) {
+            return cachedElements;
+        }
+    }
+
+    /**
+     * The weight of a diagram in the cache is its number of model elements, but at least one, so that the number of cached empty diagrams is bounded as well
+     */
+    private static long weight(UMLDiagram diagram) {
+        return Math.max(1, diagram.getAllModelElements().size());
+    }
+
+    /**
+     * Identifies the parsed model of a submission
+     *
+     * @param submissionId the id of the submission
+     * @param modelHash    the SHA-256 hash of the model
+     * @param leased       whether the diagram is leased exclusively or shared
+     */
+    private record DiagramKey(long submissionId, String modelHash, boolean leased) {
+
+        /**
+         * @return the key of the model of the given submission, or null if the submission has no id or no model and cannot be cached
+         */
+        @Nullable
+        static DiagramKey of(ModelingSubmission modelingSubmission, boolean leased) {
+            if (modelingSubmission.getId() == null || modelingSubmission.getModel() == null) {
+                return null;
+            }
+            return new DiagramKey(modelingSubmission.getId(), hashModel(modelingSubmission.getModel()), leased);
+        }
+    }
+}
@@ -3,12 +3,13 @@ package de.tum.in.www1.artemis.service.compass.controller;
 import static com.google.gson.JsonParser.parseString;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.Nullable;
+
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,12 +17,13 @@ import org.springframework.data.util.Pair;
 
 import com.google.gson.JsonObject;
 
-import de.tum.in.www1.artemis.domain.Submission;
 import de.tum.in.www1.artemis.domain.modeling.ModelCluster;
 import de.tum.in.www1.artemis.domain.modeling.ModelElement;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
 import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.service.compass.UMLDiagramCacheService;
 import de.tum.in.www1.artemis.service.compass.assessment.Context;
+import de.tum.in.www1.artemis.service.compass.strategy.NameSimilarityMemo;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
 import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLAttribute;
@@ -33,6 +35,25 @@ public class ModelClusterFactory {
 
     private final Logger log = LoggerFactory.getLogger(ModelClusterFactory.class);
 
+    @Nullable
+    private final UMLDiagramCacheService diagramCache;
+
+    /**
+     * Creates a factory that parses the models of the submissions every time
+     */
+    public ModelClusterFactory() {
+        this(null);
+    }
+
+    /**
+     * Creates a factory that takes the parsed models of the submissions from the given cache
+     *
+     * @param diagramCache the cache of the parsed models, or null to parse the models every time
+     */
+    public ModelClusterFactory(@Nullable UMLDiagramCacheService diagramCache) {
+        this.diagramCache = diagramCache;
+    }
+
     /**
      * Finds the similar elements among submissions and puts them in a cluster
      *
@@ -41,23 +62,45 @@ public class ModelClusterFactory {
      * @return an unmodifiable list of clusters that have more than one element in them
      */
     public List<ModelCluster> buildClusters(List<ModelingSubmission> modelingSubmissions, ModelingExercise exercise) {
-        // The elements that has no other similar elements or are the first of their kind
-        HashSet<UMLElement> uniqueElements = new HashSet<>();
+        return buildClusters(modelingSubmissions, exercise, new UniqueElementIndex());
+    }
 
+    /**
+     * Finds the similar elements among submissions and puts them in a cluster, using the given index to find the known elements a new element could be similar to
+     *
+     * @param modelingSubmissions the submissions to build the clusters from
+     * @param exercise            the exercise that submissions belong to
+     * @param uniqueElements      the (empty) index of the elements that have no other similar elements or are the first of their kind
+     * @return an unmodifiable list of clusters that have more than one element in them
+     */
+    List<ModelCluster> buildClusters(List<ModelingSubmission> modelingSubmissions, ModelingExercise exercise, UniqueElementIndex uniqueElements) {
         // The map of similarity id and clusters. We are using similarity id instead of cluster id here since clusters do not exist in database yet
         Map<Integer, ModelCluster> clusters = new ConcurrentHashMap<>();
         // TODO: this should work without unproxy!
-        for (Submission submission : modelingSubmissions) {
-            // We have to unproxy here as sometimes the Submission is a Hibernate proxy resulting in a cast exception
-            // when iterating over the ModelingSubmissions directly (i.e. for (ModelingSubmission submission : submissions)).
-            ModelingSubmission modelingSubmission = (ModelingSubmission) Hibernate.unproxy(submission);
-
-            List<UMLElement> modelElements = getModelElements(modelingSubmission);
-            if (modelElements != null) {
-                for (UMLElement element : modelElements) {
-                    selectCluster(element, uniqueElements, clusters, exercise, modelingSubmission);
+        // We have to unproxy here as sometimes the Submission is a Hibernate proxy resulting in a cast exception
+        // when iterating over the ModelingSubmissions directly (i.e. for (ModelingSubmission submission : submissions)).
+        List<ModelingSubmission> unproxiedSubmissions = modelingSubmissions.stream().map(submission -> (ModelingSubmission) Hibernate.unproxy(submission)).toList();
+
+        // the clustering stores the similarity ids and contexts in the model elements, so cached diagrams are leased exclusively
+        Map<ModelingSubmission, UMLDiagram> diagrams = diagramCache != null ? diagramCache.leaseDiagrams(unproxiedSubmissions) : parseDiagrams(unproxiedSubmissions);
+        // the elements of the submissions share a small vocabulary of names, so their similarities are memoized during the clustering
+        NameSimilarityMemo nameSimilarityMemo = new NameSimilarityMemo();
+        try {
+            nameSimilarityMemo.apply(() -> {
+                for (var entry : diagrams.entrySet()) {
+                    List<UMLElement> modelElements = entry.getValue().getAllModelElements();
+                    for (UMLElement element : modelElements) {
+                        selectCluster(element, uniqueElements, clusters, exercise, entry.getKey());
+                    }
+                    setContextOfModelElements(modelElements);
                 }
-                setContextOfModelElements(modelElements);
+                return null;
+            });
+            log.debug("Built clusters of {} submissions with {}", diagrams.size(), nameSimilarityMemo);
+        }
+        finally {
+            if (diagramCache != null) {
+                diagramCache.releaseDiagrams(diagrams);
             }
         }
 
@@ -88,18 +131,33 @@ public class ModelClusterFactory {
     }
 
     /**
-     * Builds and returns the elements of the modeling submission
+     * Builds and returns the elements of the modeling submission. The elements are shared with other users of the diagram cache and must not be modified.
      *
      * @param modelingSubmission the submission that has the elements
      * @return the uml elements that submission has
      */
     public List<UMLElement> getModelElements(ModelingSubmission modelingSubmission) {
+        UMLDiagram model = diagramCache != null ? diagramCache.getDiagram(modelingSubmission) : parseDiagram(modelingSubmission);
+        return model != null ? model.getAllModelElements() : null;
+    }
+
+    private Map<ModelingSubmission, UMLDiagram> parseDiagrams(List<ModelingSubmission> modelingSubmissions) {
+        Map<ModelingSubmission, UMLDiagram> diagrams = new LinkedHashMap<>();
+        for (ModelingSubmission modelingSubmission : modelingSubmissions) {
+            UMLDiagram model = parseDiagram(modelingSubmission);
+            if (model != null) {
+                diagrams.put(modelingSubmission, model);
+            }
+        }
+        return diagrams;
+    }
+
+    private UMLDiagram parseDiagram(ModelingSubmission modelingSubmission) {
         String modelString = modelingSubmission.getModel();
         if (modelString != null) {
             JsonObject modelObject = parseString(modelString).getAsJsonObject();
             try {
-                UMLDiagram model = UMLModelParser.buildModelFromJSON(modelObject, modelingSubmission.getId());
-                return model.getAllModelElements();
+                return UMLModelParser.buildModelFromJSON(modelObject, modelingSubmission.getId());
             }
             catch (IOException e) {
                 log.error("Error while building and adding model!", e);
@@ -112,20 +170,21 @@ public class ModelClusterFactory {
      * Builds and returns the elements of the modeling submission
      *
      * @param element             the element to compare for other elements
-     * @param uniqueModelElements the elements that have no similar elements or the first of their kind
+     * @param uniqueModelElements the index of the elements that have no similar elements or the first of their kind
      * @param clusters            map of clusters and similarity ids to assign the element
      * @param exercise            the exercise that submission of element belongs to
      * @param submission          the submission that element belongs to
      */
-    private void selectCluster(UMLElement element, Set<UMLElement> uniqueModelElements, Map<Integer, ModelCluster> clusters, ModelingExercise exercise,
+    private void selectCluster(UMLElement element, UniqueElementIndex uniqueModelElements, Map<Integer, ModelCluster> clusters, ModelingExercise exercise,
             ModelingSubmission submission) {
 
         // Pair of similarity value and cluster ID
         var bestSimilarityFit = Pair.of(-1.0, -1);
 
-        for (final var knownElement : uniqueModelElements) {
+        // only the known elements that can be similar to the element are compared
+        for (final var knownElement : uniqueModelElements.getCandidates(element)) {
             final var similarity = knownElement.similarity(element);
-            if (similarity > CompassConfiguration.EQUALITY_THRESHOLD && similarity > bestSimilarityFit.getFirst()) {
+            if (similarity > CompassConfiguration.EQUALITY_THRESHOLD && isBetterFit(similarity, knownElement.getSimilarityID(), bestSimilarityFit)) {
                 // element is similar to existing element and has a higher similarity than another element
                 bestSimilarityFit = Pair.of(similarity, knownElement.getSimilarityID());
             }
@@ -157,4 +216,17 @@ public class ModelClusterFactory {
         modelElement.setKnowledge(exercise.getKnowledge());
         cluster.addModelElement(modelElement);
     }
+
+    /**
+     * Checks if a known element with the given similarity is a better fit than the best fit so far. If the similarities are equal, the element of the older similarity set
+     * (i.e. the lower similarity id) is the better fit, so that the selected cluster does not depend on the order in which the known elements are compared.
+     *
+     * @param similarity        the similarity of the known element to the new element
+     * @param similarityId      the similarity id of the known element
+     * @param bestSimilarityFit the pair of similarity value and similarity id of the best fit so far
+     * @return true if the known element is a better fit
+     */
+    private static boolean isBetterFit(double similarity, int similarityId, Pair<Double, Integer> bestSimilarityFit) {
+        return similarity > bestSimilarityFit.getFirst() || (similarity == bestSimilarityFit.getFirst() && similarityId < bestSimilarityFit.getSecond());
+    }
 }
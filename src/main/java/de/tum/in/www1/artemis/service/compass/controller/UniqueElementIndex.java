@@ -0,0 +1,180 @@
+package de.tum.in.www1.artemis.service.compass.controller;
+
+import java.util.*;
+
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.service.compass.utils.CompassConfiguration;
+
+/**
+ * Indexes the unique elements of the {@link ModelClusterFactory}, i.e. the first element of each similarity set, so that a new element is only compared to the unique elements
+ * that can be similar to it instead of to all unique elements.
+ * <p>
+ * The index uses two blocking criteria, both of which never exclude an element that is similar to the new element:
+ * <ul>
+ * <li>Every similarity implementation returns 0 if the reference element is not an instance of its own class, so the unique elements are bucketed by their class and only
+ * the buckets of classes that are assignable to or from the class of the new element are considered.</li>
+ * <li>Elements whose similarity is bounded by their name similarity (see {@link UMLElement#getNameSimilarityWeight()}) can only exceed the
+ * {@link CompassConfiguration#EQUALITY_THRESHOLD} if their names have a similarity of at least {@link #MIN_NAME_SIMILARITY_FOR_BIGRAM_BLOCKING}. Such names always share at
+ * least one bigram (including a start and an end marker), so these elements are additionally indexed by the bigrams of their names.</li>
+ * </ul>
+ * The unique elements are identified by their similarity id, which is their position in the order in which they were added.
+ */
+final class UniqueElementIndex {
+
+    /**
+     * The minimum name similarity for which two names always share a bigram. The name similarity is the rounded ratio 2 * LCS / L, with LCS the length of the longest common
+     * subsequence and L the sum of the lengths of the names. Two names with the insertion/deletion distance d = L - 2 * LCS share at least L / 2 + 1 - 2.5 * d bigrams (including
+     * the start and end markers), which is positive for d <= (1 - 0.8) * L.
+     */
+    static final double MIN_NAME_SIMILARITY_FOR_BIGRAM_BLOCKING = 0.8;
+
+    /**
+     * Covers the rounding of the name similarity to whole percents and floating point inaccuracies of the weighted similarity
+     */
+    private static final double NAME_SIMILARITY_TOLERANCE = 0.01;
+
+    private static final char NAME_START = '\u0002';
+
+    private static final char NAME_END = '\u0003';
+
+    /**
+     * The signature of elements without name, as they are only similar to other elements without name
+     */
+    private static final String NO_NAME_SIGNATURE = "\u0000";
+
+    private final boolean blocking;
+
+    private final List<UMLElement> elements = new ArrayList<>();
+
+    private final Map<Class<?>, ClassBucket> buckets = new LinkedHashMap<>();
+
+    private final Map<Class<?>, List<ClassBucket>> compatibleBuckets = new HashMap<>();
+
+    private UniqueElementIndex(boolean blocking) {
+        this.blocking = blocking;
+    }
+
+    UniqueElementIndex() {
+        this(true);
+    }
+
+    /**
+     * Creates an index without blocking, which returns all unique elements as candidates. This is the reference for the blocking index in tests and benchmarks.
+     *
+     * @return an index that does not block any element
+     */
+    static UniqueElementIndex withoutBlocking() {
+        return new UniqueElementIndex(false);
+    }
+
+    /**
+     * @return the number of unique elements, which is the similarity id of the next unique element
+     */
+    int size() {
+        return elements.size();
+    }
+
+    /**
+     * Adds the given unique element, whose similarity id must be the current {@link #size()}
+     *
+     * @param element the unique element to add
+     */
+    void add(UMLElement element) {
+        elements.add(element);
+        if (!blocking) {
+            return;
+        }
+        var bucket = buckets.get(element.getClass());
+        if (bucket == null) {
+            bucket = new ClassBucket();
+            buckets.put(element.getClass(), bucket);
+            // the compatible buckets of the known classes might include the new class
+            compatibleBuckets.clear();
+        }
+        if (isBlockedByName(element)) {
+            for (String bigram : nameSignature(element.getName())) {
+                bucket.elementsByBigram.computeIfAbsent(bigram, key -> new ArrayList<>()).add(element);
+            }
+        }
+        else {
+            bucket.unblockedElements.add(element);
+        }
+    }
+
+    /**
+     * Gets the unique elements that can be similar to the given element, i.e. all unique elements whose similarity to the given element exceeds the equality threshold,
+     * but usually also some that are not similar. Each unique element is contained at most once.
+     *
+     * @param element the element for which similar unique elements are searched
+     * @return the candidates for similar unique elements
+     */
+    List<UMLElement> getCandidates(UMLElement element) {
+        if (!blocking) {
+            return elements;
+        }
+        List<UMLElement> candidates = new ArrayList<>();
+        BitSet visited = new BitSet(elements.size());
+        Set<String> signature = nameSignature(element.getName());
+        for (ClassBucket bucket : compatibleBuckets.computeIfAbsent(element.getClass(), this::findCompatibleBuckets)) {
+            candidates.addAll(bucket.unblockedElements);
+            for (String bigram : signature) {
+                for (UMLElement candidate : bucket.elementsByBigram.getOrDefault(bigram, List.of())) {
+                    if (!visited.get(candidate.getSimilarityID())) {
+                        visited.set(candidate.getSimilarityID());
+                        candidates.add(candidate);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private List<ClassBucket> findCompatibleBuckets(Class<?> elementClass) {
+        return buckets.entrySet().stream().filter(entry -> entry.getKey().isAssignableFrom(elementClass) || elementClass.isAssignableFrom(entry.getKey()))
+                .map(Map.Entry::getValue).toList();
+    }
+
+    /**
+     * Checks if the similarity of the given element to other elements requires a name similarity of at least {@link #MIN_NAME_SIMILARITY_FOR_BIGRAM_BLOCKING}:
+     * with the name weight w, the similarity is at most w * nameSimilarity + (1 - w), which only exceeds the threshold t if nameSimilarity > 1 - (1 - t) / w.
+     *
+     * @param element the element to check
+     * @return true if the element can be indexed by the bigrams of its name
+     */
+    static boolean isBlockedByName(UMLElement element) {
+        double nameWeight = element.getNameSimilarityWeight();
+        if (nameWeight <= 0) {
+            return false;
+        }
+        double minNameSimilarity = 1 - (1 - CompassConfiguration.EQUALITY_THRESHOLD) / nameWeight - NAME_SIMILARITY_TOLERANCE;
+        return minNameSimilarity >= MIN_NAME_SIMILARITY_FOR_BIGRAM_BLOCKING;
+    }
+
+    /**
+     * Calculates the bigrams of the given name, including a start and an end marker, so that every name (also the empty name) has at least one bigram
+     *
+     * @param name the name of an element
+     * @return the distinct bigrams of the name
+     */
+    static Set<String> nameSignature(String name) {
+        if (name == null) {
+            return Set.of(NO_NAME_SIGNATURE);
+        }
+        String markedName = NAME_START + name + NAME_END;
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i < markedName.length() - 1; i++) {
+            bigrams.add(markedName.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    /**
+     * The unique elements of one class
+     */
+    private static final class ClassBucket {
+
+        private final List<UMLElement> unblockedElements = new ArrayList<>();
+
+        private final Map<String, List<UMLElement>> elementsByBigram = new HashMap<>();
+    }
+}
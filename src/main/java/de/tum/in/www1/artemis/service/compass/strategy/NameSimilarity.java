@@ -7,7 +7,8 @@ import me.xdrop.fuzzywuzzy.FuzzySearch;
 public class NameSimilarity {
 
     /**
-     * Analyzes the similarity between two given strings by calculating a Levenshtein simple ratio.
+     * Analyzes the similarity between two given strings by calculating a Levenshtein simple ratio. During a clustering or plagiarism check, the ratio is taken from the
+     * {@link NameSimilarityMemo} of the check if possible.
      *
      * @param string1 the first of the two strings that should be compared
      * @param string2 the second of the two strings that should be compared
@@ -21,6 +22,14 @@ public class NameSimilarity {
             return 0;
         }
 
+        NameSimilarityMemo memo = NameSimilarityMemo.active();
+        if (memo != null) {
+            return memo.similarity(string1, string2, NameSimilarity::fuzzyRatio);
+        }
+        return fuzzyRatio(string1, string2);
+    }
+
+    private static double fuzzyRatio(String string1, String string2) {
         // TODO longterm: think about an even more sophisticated approach that takes e.g. thesaurus and specific uml conventions into account
         return FuzzySearch.ratio(string1, string2) / 100.0;
     }
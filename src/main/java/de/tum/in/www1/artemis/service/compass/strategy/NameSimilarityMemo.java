@@ -0,0 +1,150 @@
+package de.tum.in.www1.artemis.service.compass.strategy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleBiFunction;
+
+import javax.annotation.Nullable;
+
+import de.tum.in.www1.artemis.service.compass.utils.CompassConfiguration;
+
+/**
+ * Memoizes the Levenshtein similarities of element names (see {@link NameSimilarity#levenshteinSimilarity(String, String)}) during a single clustering or plagiarism check.
+ * The diagrams of an exercise only use a small vocabulary of distinct names, so most name pairs are compared many times.
+ * <p>
+ * The memo interns the names, i.e. assigns a number to every distinct name, and stores the similarity of each pair of interned names. Both the number of names and the
+ * number of pairs are bounded, the similarities of further names and pairs are calculated every time. The memo is thread-safe, so the comparisons of a check can run in
+ * parallel. It is used by {@link NameSimilarity} while a computation passed to {@link #apply(Supplier)} runs on the current thread, which keeps the similarity
+ * implementations of the model elements unchanged.
+ */
+public class NameSimilarityMemo {
+
+    /**
+     * The memo used by the computation that currently runs on this thread, if any
+     */
+    private static final ThreadLocal<NameSimilarityMemo> ACTIVE_MEMO = new ThreadLocal<>();
+
+    private final int maxNames;
+
+    private final int maxPairs;
+
+    private final Map<String, Integer> nameIds = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextNameId = new AtomicInteger();
+
+    private final Map<Long, Double> similarities = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public NameSimilarityMemo() {
+        this(CompassConfiguration.NAME_SIMILARITY_MEMO_MAX_NAMES, CompassConfiguration.NAME_SIMILARITY_MEMO_MAX_PAIRS);
+    }
+
+    public NameSimilarityMemo(int maxNames, int maxPairs) {
+        this.maxNames = maxNames;
+        this.maxPairs = maxPairs;
+    }
+
+    /**
+     * Runs the given computation on the current thread with this memo, e.g. the clustering of some submissions or the comparison of two diagrams
+     *
+     * @param computation the computation that compares element names
+     * @param <T>         the type of the result of the computation
+     * @return the result of the computation
+     */
+    public <T> T apply(Supplier<T> computation) {
+        NameSimilarityMemo previousMemo = ACTIVE_MEMO.get();
+        ACTIVE_MEMO.set(this);
+        try {
+            return computation.get();
+        }
+        finally {
+            if (previousMemo != null) {
+                ACTIVE_MEMO.set(previousMemo);
+            }
+            else {
+                ACTIVE_MEMO.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the memo of the computation that currently runs on this thread, or null if there is none
+     */
+    @Nullable
+    static NameSimilarityMemo active() {
+        return ACTIVE_MEMO.get();
+    }
+
+    /**
+     * Gets the similarity of two names from the memo, or calculates and stores it
+     *
+     * @param name1      the first name, not null
+     * @param name2      the second name, not null
+     * @param similarity calculates the similarity of the names if it is not stored yet, must be symmetric
+     * @return the similarity of the names
+     */
+    double similarity(String name1, String name2, ToDoubleBiFunction<String, String> similarity) {
+        int nameId1 = nameId(name1);
+        int nameId2 = nameId(name2);
+        if (nameId1 < 0 || nameId2 < 0) {
+            misses.increment();
+            return similarity.applyAsDouble(name1, name2);
+        }
+        // the similarity is symmetric, so both orders of the names share an entry
+        long key = (long) Math.min(nameId1, nameId2) << 32 | Math.max(nameId1, nameId2);
+        Double storedSimilarity = similarities.get(key);
+        if (storedSimilarity != null) {
+            hits.increment();
+            return storedSimilarity;
+        }
+        misses.increment();
+        double calculatedSimilarity = similarity.applyAsDouble(name1, name2);
+        if (similarities.size() < maxPairs) {
+            similarities.put(key, calculatedSimilarity);
+        }
+        return calculatedSimilarity;
+    }
+
+    /**
+     * @return the number of the interned name, or -1 if the maximum number of names is reached
+     */
+    private int nameId(String name) {
+        Integer nameId = nameIds.get(name);
+        if (nameId != null) {
+            return nameId;
+        }
+        if (nameIds.size() >= maxNames) {
+            return -1;
+        }
+        return nameIds.computeIfAbsent(name, newName -> nextNameId.getAndIncrement());
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the share [0-1] of the requested similarities that were taken from the memo
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long requestCount = hitCount + getMisses();
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "NameSimilarityMemo{names=" + nameIds.size() + ", pairs=" + similarities.size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", hitRate="
+                + String.format("%.3f", getHitRate()) + "}";
+    }
+}
@@ -0,0 +1,117 @@
+package de.tum.in.www1.artemis.service.compass.umlmodel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A compact summary of the model elements of a UML diagram, i.e. their number and the number of elements of each element class, that bounds the similarity of two diagrams
+ * without comparing their elements (see {@link #similarityUpperBound(UMLDiagramSignature)}). It is used to skip the comparison of diagrams that cannot reach a minimum
+ * similarity.
+ * <p>
+ * The signature can be stored in the database (see {@link #serialize()}), so that diagrams that have been compared before do not need to be parsed to decide whether they
+ * have to be compared again.
+ */
+public final class UMLDiagramSignature {
+
+    private static final String PART_SEPARATOR = "|";
+
+    private static final String COUNT_SEPARATOR = "=";
+
+    private final Class<? extends UMLDiagram> diagramClass;
+
+    private final int elementCount;
+
+    private final Map<Class<? extends UMLElement>, Integer> elementCountsByClass;
+
+    private UMLDiagramSignature(Class<? extends UMLDiagram> diagramClass, int elementCount, Map<Class<? extends UMLElement>, Integer> elementCountsByClass) {
+        this.diagramClass = diagramClass;
+        this.elementCount = elementCount;
+        this.elementCountsByClass = elementCountsByClass;
+    }
+
+    /**
+     * Creates the signature of the given diagram from the model elements that are compared in {@link UMLDiagram#similarity(Similarity)}
+     *
+     * @param diagram the diagram to summarize
+     * @return the signature of the diagram
+     */
+    public static UMLDiagramSignature of(UMLDiagram diagram) {
+        Map<Class<? extends UMLElement>, Integer> elementCountsByClass = new HashMap<>();
+        var modelElements = diagram.getModelElements();
+        for (UMLElement element : modelElements) {
+            elementCountsByClass.merge(element.getClass(), 1, Integer::sum);
+        }
+        return new UMLDiagramSignature(diagram.getClass(), modelElements.size(), elementCountsByClass);
+    }
+
+    /**
+     * Serializes the signature in the format diagram class|element class=count|element class=count|..., using the fully qualified class names
+     *
+     * @return the serialized signature
+     */
+    public String serialize() {
+        return diagramClass.getName() + elementCountsByClass.entrySet().stream().map(entry -> PART_SEPARATOR + entry.getKey().getName() + COUNT_SEPARATOR + entry.getValue())
+                .sorted().collect(Collectors.joining());
+    }
+
+    /**
+     * Deserializes a signature that was serialized with {@link #serialize()}
+     *
+     * @param serializedSignature the serialized signature
+     * @return the signature, or an empty optional if the serialized signature is malformed or refers to classes that do not exist (anymore)
+     */
+    public static Optional<UMLDiagramSignature> deserialize(String serializedSignature) {
+        try {
+            String[] parts = serializedSignature.split("\\" + PART_SEPARATOR);
+            Class<? extends UMLDiagram> diagramClass = Class.forName(parts[0]).asSubclass(UMLDiagram.class);
+            Map<Class<? extends UMLElement>, Integer> elementCountsByClass = new HashMap<>();
+            int elementCount = 0;
+            for (int i = 1; i < parts.length; i++) {
+                String[] classAndCount = parts[i].split(COUNT_SEPARATOR);
+                int count = Integer.parseInt(classAndCount[1]);
+                elementCountsByClass.put(Class.forName(classAndCount[0]).asSubclass(UMLElement.class), count);
+                elementCount += count;
+            }
+            return Optional.of(new UMLDiagramSignature(diagramClass, elementCount, elementCountsByClass));
+        }
+        catch (ClassNotFoundException | ClassCastException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Calculates an upper bound of the similarity of the diagrams of this and the given signature, see {@link UMLDiagram#similarity(Similarity)}: the elements of the diagram
+     * with fewer elements are compared to the elements of the other diagram and each of them contributes at most 1 / (number of elements of the other diagram). The
+     * similarity of two elements is 0 if their classes are not compatible, so only the elements for which the other diagram contains an element of a compatible class can
+     * contribute at all.
+     *
+     * @param reference the signature of the reference diagram
+     * @return a number [0-1] that is at least the similarity of the two diagrams
+     */
+    public double similarityUpperBound(UMLDiagramSignature reference) {
+        if (!isCompatible(diagramClass, reference.diagramClass)) {
+            return 0;
+        }
+        UMLDiagramSignature smaller = elementCount > reference.elementCount ? reference : this;
+        UMLDiagramSignature larger = smaller == this ? reference : this;
+        if (larger.elementCount == 0) {
+            return 0;
+        }
+        int comparableElementCount = 0;
+        for (var elementCountOfClass : smaller.elementCountsByClass.entrySet()) {
+            if (larger.elementCountsByClass.keySet().stream().anyMatch(elementClass -> isCompatible(elementCountOfClass.getKey(), elementClass))) {
+                comparableElementCount += elementCountOfClass.getValue();
+            }
+        }
+        return Math.min(1, (double) comparableElementCount / larger.elementCount);
+    }
+
+    /**
+     * Two classes are compatible if one is assignable to the other, as every similarity implementation only compares instances of its own class
+     */
+    private static boolean isCompatible(Class<?> class1, Class<?> class2) {
+        return class1.isAssignableFrom(class2) || class2.isAssignableFrom(class1);
+    }
+}
@@ -45,6 +45,18 @@ public abstract class UMLElement implements Similarity<UMLElement>, Serializable
      */
     public abstract String getType();
 
+    /**
+     * Get the weight of the name similarity in the similarity of this element to other elements, if the similarity is at most {@code weight * nameSimilarity + (1 - weight)}.
+     * This allows to skip elements with dissimilar names when searching for similar elements. By default, the similarity of an element is the similarity of its name.
+     * IMPORTANT: Subclasses that weight other properties as well must return the weight of the name, and subclasses without a name (which return their type as name, e.g.
+     * UMLRelationship) or whose similarity is not bounded like this by the similarity of the names returned by {@link #getName()} must return 0.
+     *
+     * @return the weight of the name similarity, or 0 if the similarity of the element is not bounded by its name similarity
+     */
+    public double getNameSimilarityWeight() {
+        return 1;
+    }
+
     @Nullable
     public UMLElement getParentElement() {
         return parentElement;
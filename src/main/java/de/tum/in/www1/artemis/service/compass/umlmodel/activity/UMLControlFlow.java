@@ -46,6 +46,11 @@ public class UMLControlFlow extends UMLElement implements Serializable {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return UML_CONTROL_FLOW_TYPE;
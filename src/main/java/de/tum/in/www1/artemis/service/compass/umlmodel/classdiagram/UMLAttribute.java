@@ -107,6 +107,11 @@ public class UMLAttribute extends UMLElement implements Serializable {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return CompassConfiguration.ATTRIBUTE_NAME_WEIGHT;
+    }
+
     @Override
     public String getType() {
         return UML_ATTRIBUTE_TYPE;
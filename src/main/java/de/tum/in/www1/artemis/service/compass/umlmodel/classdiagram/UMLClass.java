@@ -155,6 +155,11 @@ public class UMLClass extends UMLElement implements Serializable {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return CompassConfiguration.CLASS_NAME_WEIGHT;
+    }
+
     @Override
     public String getType() {
         return CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, classType.name());
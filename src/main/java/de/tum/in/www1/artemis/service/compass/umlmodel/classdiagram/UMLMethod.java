@@ -134,6 +134,12 @@ public class UMLMethod extends UMLElement implements Serializable {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        // the weight of the name depends on the number of parameters of the compared methods
+        return 0;
+    }
+
     public String getCompleteName() {
         return completeName;
     }
@@ -117,6 +117,11 @@ public class UMLRelationship extends UMLElement implements Serializable {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, getRelationshipType().name());
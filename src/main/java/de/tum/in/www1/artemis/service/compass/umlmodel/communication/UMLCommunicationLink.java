@@ -69,6 +69,11 @@ public class UMLCommunicationLink extends UMLElement {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return UML_COMMUNICATION_LINK_TYPE;
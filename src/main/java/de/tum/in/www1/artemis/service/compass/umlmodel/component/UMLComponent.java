@@ -45,6 +45,11 @@ public class UMLComponent extends UMLContainerElement {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return CompassConfiguration.COMPONENT_NAME_WEIGHT;
+    }
+
     @Override
     public String getType() {
         return UML_COMPONENT_TYPE;
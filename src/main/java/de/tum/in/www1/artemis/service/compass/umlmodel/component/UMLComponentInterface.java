@@ -68,6 +68,11 @@ public class UMLComponentInterface extends UMLElement {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return CompassConfiguration.COMPONENT_NAME_WEIGHT;
+    }
+
     @Override
     public String getType() {
         return UML_COMPONENT_INTERFACE_TYPE;
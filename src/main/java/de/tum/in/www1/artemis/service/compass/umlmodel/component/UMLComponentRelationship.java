@@ -70,6 +70,11 @@ public class UMLComponentRelationship extends UMLElement {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, type.name());
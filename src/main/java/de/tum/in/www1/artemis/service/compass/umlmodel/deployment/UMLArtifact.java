@@ -44,6 +44,11 @@ public class UMLArtifact extends UMLElement {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return CompassConfiguration.COMPONENT_NAME_WEIGHT;
+    }
+
     @Override
     public String getType() {
         return UML_ARTIFACT_TYPE;
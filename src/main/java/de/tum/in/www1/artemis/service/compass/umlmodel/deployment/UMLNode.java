@@ -52,6 +52,11 @@ public class UMLNode extends UMLContainerElement {
         return stereotype;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return CompassConfiguration.NODE_NAME_WEIGHT;
+    }
+
     @Override
     public String getType() {
         return UML_NODE_TYPE;
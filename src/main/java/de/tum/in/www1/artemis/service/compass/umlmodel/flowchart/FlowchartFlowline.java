@@ -54,6 +54,11 @@ public class FlowchartFlowline extends UMLElement {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return FLOWCHART_FLOWLINE_TYPE;
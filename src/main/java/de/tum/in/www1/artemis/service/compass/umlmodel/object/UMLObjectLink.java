@@ -54,6 +54,11 @@ public class UMLObjectLink extends UMLElement {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return UML_OBJECT_LINK_TYPE;
@@ -53,6 +53,11 @@ public class PetriNetArc extends UMLElement {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return PETRI_NET_ARC_TYPE;
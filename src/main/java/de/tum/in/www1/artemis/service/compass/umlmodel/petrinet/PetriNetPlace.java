@@ -8,6 +8,8 @@ public class PetriNetPlace extends UMLElement {
 
     public static final String PETRI_NET_PLACE_TYPE = "PetriNetPlace";
 
+    private static final double NAME_WEIGHT = 0.5;
+
     private final String name;
 
     private final String amountOfTokens;
@@ -39,6 +41,11 @@ public class PetriNetPlace extends UMLElement {
         return PETRI_NET_PLACE_TYPE;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return NAME_WEIGHT;
+    }
+
     @Override
     public String toString() {
         return "PetriNetPlace " + name + "(" + amountOfTokens + " of " + capacity + ")";
@@ -52,11 +59,10 @@ public class PetriNetPlace extends UMLElement {
             return similarity;
         }
 
-        double nameWeight = 0.5;
         double amountOfTokensWeight = 0.25;
         double capacityWeight = 0.25;
 
-        similarity += NameSimilarity.levenshteinSimilarity(name, referencePlace.name) * nameWeight;
+        similarity += NameSimilarity.levenshteinSimilarity(name, referencePlace.name) * NAME_WEIGHT;
         similarity += NameSimilarity.levenshteinSimilarity(amountOfTokens, referencePlace.amountOfTokens) * amountOfTokensWeight;
         similarity += NameSimilarity.levenshteinSimilarity(capacity, referencePlace.capacity) * capacityWeight;
 
@@ -54,6 +54,11 @@ public class SyntaxTreeLink extends UMLElement {
         return getType();
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return 0;
+    }
+
     @Override
     public String getType() {
         return SYNTAX_TREE_LINK_TYPE;
@@ -22,6 +22,11 @@ public class UMLUseCase extends UMLElement {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        return CompassConfiguration.COMPONENT_NAME_WEIGHT;
+    }
+
     @Override
     public String getType() {
         return UML_USE_CASE_TYPE;
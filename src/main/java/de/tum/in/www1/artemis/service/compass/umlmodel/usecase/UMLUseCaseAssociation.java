@@ -73,6 +73,12 @@ public class UMLUseCaseAssociation extends UMLElement {
         return name;
     }
 
+    @Override
+    public double getNameSimilarityWeight() {
+        // only the names of some association types are compared
+        return 0;
+    }
+
     @Override
     public String getType() {
         return CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, type.name());
@@ -57,4 +57,13 @@ public class CompassConfiguration {
     // Threshold of the confidence of an element in a UML diagram. If the confidence for a specific model element is smaller than this threshold, no automatic feedback will be
     // created for this element.
     public static final double ELEMENT_CONFIDENCE_THRESHOLD = 0.8;
+
+    /*
+     * Performance related parameters
+     */
+    // Maximum number of distinct element names that the name similarity memo of a single clustering or plagiarism check interns, the similarities of further names are not memoized
+    public static final int NAME_SIMILARITY_MEMO_MAX_NAMES = 50_000;
+
+    // Maximum number of name pairs whose similarity the name similarity memo of a single clustering or plagiarism check stores
+    public static final int NAME_SIMILARITY_MEMO_MAX_PAIRS = 250_000;
 }
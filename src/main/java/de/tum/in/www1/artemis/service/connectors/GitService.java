@@ -297,31 +297,55 @@ public class GitService {
     }
 
     /**
-     * Get the local repository for a given participation.
-     * If the local repo does not exist yet, it will be checked out.
+     * Get the local path of the repository of a given participation for a plagiarism check with JPlag.
      * <p>
      * This method will include the participation ID in the local path of the repository so
      * JPlag can refer back to the correct participation.
      *
      * @param participation Participation the remote repository belongs to.
-     * @param targetPath    path where the repo is located on disk
-     * @return the repository if it could be checked out
-     * @throws GitAPIException      if the repository could not be checked out.
-     * @throws InvalidPathException if the repository could not be checked out Because it contains unmappable characters.
+     * @param targetPath    path where the repo should be located on disk
+     * @return the local path of the repository
+     * @throws InvalidPathException if the path of the repository contains unmappable characters.
      */
-    public Repository getOrCheckoutRepositoryForJPlag(ProgrammingExerciseParticipation participation, String targetPath) throws GitAPIException, InvalidPathException {
-        var repoUrl = participation.getVcsRepositoryUrl();
-        String repoFolderName = repoUrl.folderNameForRepositoryUrl();
+    public Path getLocalPathOfRepoForJPlag(ProgrammingExerciseParticipation participation, String targetPath) throws InvalidPathException {
+        String repoFolderName = participation.getVcsRepositoryUrl().folderNameForRepositoryUrl();
 
         // Replace the exercise name in the repository folder name with the participation ID.
         // This is necessary to be able to refer back to the correct participation after the JPlag detection run.
         String updatedRepoFolderName = repoFolderName.replaceAll("/[a-zA-Z0-9]*-", "/" + participation.getId() + "-");
-        Path localPath = Path.of(targetPath, updatedRepoFolderName);
-
-        Repository repository = getOrCheckoutRepository(repoUrl, localPath, true);
-        repository.setParticipation(participation);
+        return Path.of(targetPath, updatedRepoFolderName);
+    }
 
-        return repository;
+    /**
+     * Fetches all branches of the given remote repository into a bare mirror at the given path, or clones the mirror if it does not exist yet.
+     * The branches of the mirror are forcefully updated to the branches of the remote repository, deleted branches are removed.
+     *
+     * @param repoUrl    The remote repository.
+     * @param mirrorPath path where the bare mirror is located on disk
+     * @return true if an existing mirror was updated, false if the mirror was cloned
+     * @throws GitAPIException if the mirror could not be fetched or cloned.
+     * @throws GitException    if the remote url is invalid or the mirror could not be accessed.
+     */
+    public boolean fetchOrCloneMirror(VcsRepositoryUrl repoUrl, Path mirrorPath) throws GitAPIException, GitException {
+        try {
+            var gitUriAsString = getGitUriAsString(repoUrl);
+            if (Files.exists(mirrorPath.resolve(Constants.HEAD))) {
+                try (Git git = Git.open(mirrorPath.toFile())) {
+                    log.debug("Fetching {} into mirror {}", gitUriAsString, mirrorPath);
+                    // the remote url is passed explicitly, because it might have changed from https to ssh or ssh to https
+                    fetchCommand(git).setRemote(gitUriAsString).setRefSpecs(new RefSpec("+refs/heads/*:refs/heads/*")).setForceUpdate(true).setRemoveDeletedRefs(true).call();
+                }
+                return true;
+            }
+            log.debug("Cloning mirror from {} to {}", gitUriAsString, mirrorPath);
+            // make sure the directory to clone into is empty
+            FileUtils.deleteDirectory(mirrorPath.toFile());
+            cloneCommand().setURI(gitUriAsString).setDirectory(mirrorPath.toFile()).setMirror(true).call().close();
+            return false;
+        }
+        catch (IOException | URISyntaxException e) {
+            throw new GitException(e);
+        }
     }
 
     /**
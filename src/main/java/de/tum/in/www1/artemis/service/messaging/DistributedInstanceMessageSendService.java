@@ -13,6 +13,7 @@ import com.hazelcast.core.HazelcastInstance;
 
 import de.tum.in.www1.artemis.service.feature.Feature;
 import de.tum.in.www1.artemis.service.feature.FeatureToggle;
+import de.tum.in.www1.artemis.service.scheduled.ParticipantScoreScheduleService;
 
 /**
  * This service is only active on a node that does not run with the 'scheduling' profile.
@@ -28,8 +29,11 @@ public class DistributedInstanceMessageSendService implements InstanceMessageSen
 
     private final HazelcastInstance hazelcastInstance;
 
-    public DistributedInstanceMessageSendService(HazelcastInstance hazelcastInstance) {
+    private final ParticipantScoreScheduleService participantScoreScheduleService;
+
+    public DistributedInstanceMessageSendService(HazelcastInstance hazelcastInstance, ParticipantScoreScheduleService participantScoreScheduleService) {
         this.hazelcastInstance = hazelcastInstance;
+        this.participantScoreScheduleService = participantScoreScheduleService;
     }
 
     @Override
@@ -149,15 +153,11 @@ public class DistributedInstanceMessageSendService implements InstanceMessageSen
 
     @Override
     public void sendParticipantScoreSchedule(Long exerciseId, Long participantId, Long resultId) {
-        log.info("Sending schedule participant score update for exercise {} and participant {}.", exerciseId, participantId);
-        sendMessageDelayed(MessageTopic.PARTICIPANT_SCORE_SCHEDULE, exerciseId, participantId, resultId);
+        // the participant scores are calculated on all instances, the service forwards the update to the instance that owns the exercise
+        participantScoreScheduleService.scheduleTask(exerciseId, participantId, resultId);
     }
 
     private void sendMessageDelayed(MessageTopic topic, Long payload) {
         exec.schedule(() -> hazelcastInstance.getTopic(topic.toString()).publish(payload), 1, TimeUnit.SECONDS);
     }
-
-    private void sendMessageDelayed(MessageTopic topic, Long... payload) {
-        exec.schedule(() -> hazelcastInstance.getTopic(topic.toString()).publish(payload), 1, TimeUnit.SECONDS);
-    }
 }
@@ -141,10 +141,6 @@ public class InstanceMessageReceiveService {
             SecurityUtils.setAuthorizationObject();
             processScheduleExamMonitoringCancel(message.getMessageObject());
         });
-        hazelcastInstance.<Long[]>getTopic(MessageTopic.PARTICIPANT_SCORE_SCHEDULE.toString()).addMessageListener(message -> {
-            SecurityUtils.setAuthorizationObject();
-            processScheduleParticipantScore(message.getMessageObject()[0], message.getMessageObject()[1], message.getMessageObject()[2]);
-        });
     }
 
     public void processScheduleProgrammingExercise(Long exerciseId) {
@@ -279,6 +275,14 @@ public class InstanceMessageReceiveService {
         programmingExerciseScheduleService.rescheduleStudentExamDuringConduction(studentExamId);
     }
 
+    /**
+     * Schedules the update of a participant score. Messages of other instances are received by the {@link ParticipantScoreScheduleService} itself,
+     * because the participant scores are calculated by the instance that owns the exercise.
+     *
+     * @param exerciseId          the id of the exercise
+     * @param participantId       the id of the participant (user or team)
+     * @param resultIdToBeDeleted the id of the result that is about to be deleted (or null)
+     */
     public void processScheduleParticipantScore(Long exerciseId, Long participantId, Long resultIdToBeDeleted) {
         log.info("Received schedule participant score for exercise {} and participant {} (result to be deleted: {})", exerciseId, participantId, resultIdToBeDeleted);
         participantScoreScheduleService.scheduleTask(exerciseId, participantId, resultIdToBeDeleted);
@@ -0,0 +1,49 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import de.jplag.GreedyStringTiling;
+import de.jplag.JPlagComparison;
+import de.jplag.JPlagResult;
+import de.jplag.Submission;
+import de.jplag.SubmissionSet;
+import de.jplag.options.JPlagOptions;
+import de.jplag.strategy.AbstractComparisonStrategy;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismSubmission;
+import de.tum.in.www1.artemis.service.plagiarism.IncrementalJPlagService.SubmissionPair;
+
+/**
+ * A JPlag comparison strategy that only compares the given candidate pairs of submissions (see {@link TextCandidateIndex}) instead of all pairs. Every submission is
+ * parsed once, no matter in how many candidate pairs it occurs, and the pairs are compared in parallel like in a check of all pairs.
+ */
+public class CandidatePairComparisonStrategy extends AbstractComparisonStrategy {
+
+    private final Set<SubmissionPair> candidatePairs;
+
+    /**
+     * @param options        the options of the check
+     * @param candidatePairs the pairs of submissions to compare, pairs with a submission that is not part of the compared submission set are skipped
+     */
+    public CandidatePairComparisonStrategy(JPlagOptions options, Set<SubmissionPair> candidatePairs) {
+        super(options, new GreedyStringTiling(options));
+        this.candidatePairs = candidatePairs;
+    }
+
+    @Override
+    public JPlagResult compareSubmissions(SubmissionSet submissionSet) {
+        long timeBeforeStartInMillis = System.currentTimeMillis();
+        if (submissionSet.hasBaseCode()) {
+            compareSubmissionsToBaseCode(submissionSet);
+        }
+        // invalid submissions (e.g. too short ones) are not part of the submission set, like in a check of all pairs their pairs are skipped
+        Map<Long, Submission> submissions = submissionSet.getSubmissions().stream()
+                .collect(Collectors.toMap(PlagiarismSubmission::getSubmissionIdOfJPlagSubmission, Function.identity(), (submission1, submission2) -> submission1));
+        List<JPlagComparison> comparisons = candidatePairs.parallelStream()
+                .filter(pair -> submissions.containsKey(pair.submissionId1()) && submissions.containsKey(pair.submissionId2()))
+                .map(pair -> compareSubmissions(submissions.get(pair.submissionId1()), submissions.get(pair.submissionId2()))).flatMap(Optional::stream).toList();
+        long durationInMillis = System.currentTimeMillis() - timeBeforeStartInMillis;
+        return new JPlagResult(comparisons, submissionSet, durationInMillis, options);
+    }
+}
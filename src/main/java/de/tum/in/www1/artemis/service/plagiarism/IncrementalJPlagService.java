@@ -0,0 +1,485 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import static java.util.Comparator.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import de.jplag.JPlag;
+import de.jplag.JPlagComparison;
+import de.jplag.JPlagResult;
+import de.jplag.SubmissionSetBuilder;
+import de.jplag.exceptions.ExitException;
+import de.jplag.options.JPlagOptions;
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismMatch;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismStatus;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismSubmission;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionElement;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionFingerprint;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionSimilarity;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismComparisonRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.TextPlagiarismResultRepository;
+
+/**
+ * Runs the JPlag checks of text and programming exercises incrementally: every result stores a fingerprint of each compared submission (a hash of the text or the hash of
+ * the compared commit) and the similarities of all compared pairs. A follow-up check with the same parameters only lets JPlag compare the pairs that involve at least one
+ * new or changed submission, the unchanged submissions are passed to JPlag as old submissions, which JPlag does not compare with each other. The similarities and the
+ * comparisons of the pairs of unchanged submissions are taken from the previous result.
+ * <p>
+ * If a pair of unchanged submissions belongs to the most similar pairs, but its comparison was not stored with the previous result, all submissions are compared again.
+ * <p>
+ * If candidate pairs are given (see {@link TextCandidateIndex}), JPlag only compares these pairs instead of all pairs: all submissions are parsed once and the candidate
+ * pairs are compared in a single run with the {@link CandidatePairComparisonStrategy}.
+ */
+@Service
+public class IncrementalJPlagService {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalJPlagService.class);
+
+    /**
+     * The number of comparisons with the highest similarity that are stored with a result, see {@link TextPlagiarismResult#sortAndLimit(int)}
+     */
+    public static final int NUMBER_OF_STORED_COMPARISONS = 100;
+
+    private final TextPlagiarismResultRepository textPlagiarismResultRepository;
+
+    private final PlagiarismComparisonRepository plagiarismComparisonRepository;
+
+    public IncrementalJPlagService(TextPlagiarismResultRepository textPlagiarismResultRepository, PlagiarismComparisonRepository plagiarismComparisonRepository) {
+        this.textPlagiarismResultRepository = textPlagiarismResultRepository;
+        this.plagiarismComparisonRepository = plagiarismComparisonRepository;
+    }
+
+    /**
+     * The previous check of an exercise whose similarities can be reused
+     *
+     * @param result       the previous result including its comparisons
+     * @param fingerprints the fingerprints of the submissions compared in the previous check, by submission id
+     * @param similarities the similarities of all pairs of submissions that reached the similarity threshold in the previous check
+     */
+    public record PreviousCheck(TextPlagiarismResult result, Map<Long, String> fingerprints, List<TextSubmissionSimilarity> similarities) {
+
+        /**
+         * @param fingerprints the fingerprints of the submissions of the current check, by submission id
+         * @return the ids of the submissions that were already compared in this check and have not been changed since
+         */
+        public Set<Long> unchangedSubmissionIds(Map<Long, String> fingerprints) {
+            return fingerprints.entrySet().stream().filter(fingerprint -> fingerprint.getValue().equals(this.fingerprints.get(fingerprint.getKey()))).map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Loads the latest check of the given exercise if it was run with the given parameters
+     *
+     * @param exerciseId          the id of the text or programming exercise
+     * @param similarityThreshold the similarity threshold (in % between 0 and 100)
+     * @param minimumScore        the minimum result score of the compared submissions
+     * @param minimumSize         the minimum size of the compared submissions
+     * @param baseCodeFingerprint the hash of the commit of the template repository used as base code, or null if no base code is used
+     * @return the previous check, or an empty optional if there is none with the given parameters
+     */
+    public Optional<PreviousCheck> findPreviousCheck(long exerciseId, float similarityThreshold, int minimumScore, int minimumSize, @Nullable String baseCodeFingerprint) {
+        var previousResult = textPlagiarismResultRepository.findFirstByExerciseIdOrderByLastModifiedDateDesc(exerciseId)
+                .filter(result -> result.hasParameters(similarityThreshold, minimumScore, minimumSize, baseCodeFingerprint));
+        if (previousResult.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Long, String> fingerprints = textPlagiarismResultRepository.findSubmissionFingerprintsByPlagiarismResultId(previousResult.get().getId()).stream()
+                .collect(Collectors.toMap(TextSubmissionFingerprint::getSubmissionId, TextSubmissionFingerprint::getFingerprint, (fingerprint1, fingerprint2) -> fingerprint1));
+        if (fingerprints.isEmpty()) {
+            return Optional.empty();
+        }
+        var similarities = textPlagiarismResultRepository.findSubmissionSimilaritiesByPlagiarismResultId(previousResult.get().getId());
+        return Optional.of(new PreviousCheck(previousResult.get(), fingerprints, similarities));
+    }
+
+    /**
+     * Compares the given submissions with JPlag using the base code of the given options. The submissions that have not been changed since the previous check with the
+     * same parameters and base code are moved into the directory of the unchanged submissions first, see {@link #checkPlagiarism(JPlagOptions, File, File, PreviousCheck,
+     * Map, Exercise)}.
+     * <p>
+     * If JPlag cannot use the base code (e.g. because it is too small or cannot be parsed), the submissions are compared without base code. As the similarities with
+     * and without base code differ, all submissions are moved back and the unchanged submissions are determined again with the previous check without base code, which
+     * is the previous check of an exercise whose base code could not be used before either.
+     *
+     * @param options                      the options of the check including the base code, their submission directories are replaced
+     * @param submissionDirectory          the directory containing all submissions, whose names start with the submission id
+     * @param unchangedSubmissionDirectory the directory into which the unchanged submissions are moved
+     * @param fingerprints                 the fingerprints of all submissions of the check, by submission id, the submissions that cannot be moved are removed
+     * @param baseCodeFingerprint          the fingerprint of the base code, or null if no base code is used
+     * @param similarityThreshold          the similarity threshold (in % between 0 and 100)
+     * @param minimumScore                 the minimum result score of the compared submissions
+     * @param exercise                     the exercise to which the result should belong
+     * @return the result with the parameters of the check, including the fingerprint of the base code if it was used
+     * @throws ExitException if JPlag exits unexpectedly without base code
+     */
+    public TextPlagiarismResult checkPlagiarismWithBaseCode(JPlagOptions options, File submissionDirectory, File unchangedSubmissionDirectory, Map<Long, String> fingerprints,
+            @Nullable String baseCodeFingerprint, float similarityThreshold, int minimumScore, Exercise exercise) throws ExitException {
+        var previousCheck = findPreviousCheck(exercise.getId(), similarityThreshold, minimumScore, 0, baseCodeFingerprint).orElse(null);
+        moveUnchangedSubmissions(previousCheck, fingerprints, submissionDirectory, unchangedSubmissionDirectory);
+        TextPlagiarismResult result;
+        String usedBaseCodeFingerprint = baseCodeFingerprint;
+        try {
+            result = checkPlagiarism(options, submissionDirectory, unchangedSubmissionDirectory, previousCheck, fingerprints, exercise);
+        }
+        catch (ExitException | RuntimeException ex) {
+            if (options.baseCodeSubmissionDirectory() == null) {
+                throw ex;
+            }
+            // Handling small or invalid base codes
+            log.warn("Retrying JPlag Plagiarism Check without BaseCode: {}", ex.getMessage());
+            restoreUnchangedSubmissions(submissionDirectory, unchangedSubmissionDirectory);
+            usedBaseCodeFingerprint = null;
+            var previousCheckWithoutBaseCode = findPreviousCheck(exercise.getId(), similarityThreshold, minimumScore, 0, null).orElse(null);
+            moveUnchangedSubmissions(previousCheckWithoutBaseCode, fingerprints, submissionDirectory, unchangedSubmissionDirectory);
+            result = checkPlagiarism(options.withBaseCodeSubmissionDirectory(null), submissionDirectory, unchangedSubmissionDirectory, previousCheckWithoutBaseCode,
+                    fingerprints, exercise);
+        }
+        result.setParameters(similarityThreshold, minimumScore, 0, usedBaseCodeFingerprint);
+        return result;
+    }
+
+    /**
+     * Compares the given submissions with JPlag. If a previous check is given, only the pairs involving at least one new or changed submission are compared, otherwise
+     * or if the comparisons of the previous check are not sufficient, all pairs are compared.
+     *
+     * @param options                      the options of the check, their submission directories are replaced
+     * @param submissionDirectory          the directory containing the new or changed submissions, or all submissions if there is no previous check
+     * @param unchangedSubmissionDirectory the directory containing the unchanged submissions (see {@link PreviousCheck#unchangedSubmissionIds(Map)}), if there are any
+     * @param previousCheck                the previous check with the same parameters, or null
+     * @param fingerprints                 the fingerprints of all submissions of the check, by submission id
+     * @param exercise                     the exercise to which the result should belong, either Text or Programming
+     * @return the result with up to 500 comparisons with the highest similarity, the similarities of all pairs and the fingerprints of all submissions
+     * @throws ExitException if JPlag exits unexpectedly
+     */
+    public TextPlagiarismResult checkPlagiarism(JPlagOptions options, File submissionDirectory, File unchangedSubmissionDirectory, @Nullable PreviousCheck previousCheck,
+            Map<Long, String> fingerprints, Exercise exercise) throws ExitException {
+        return checkPlagiarism(options, submissionDirectory, unchangedSubmissionDirectory, previousCheck, fingerprints, null, exercise);
+    }
+
+    /**
+     * Compares the given submissions with JPlag like {@link #checkPlagiarism(JPlagOptions, File, File, PreviousCheck, Map, Exercise)}, but only the given candidate
+     * pairs instead of all pairs. The similarities of the other pairs are not calculated, even if they would reach the similarity threshold.
+     *
+     * @param options                      the options of the check, their submission directories are replaced
+     * @param submissionDirectory          the directory containing the new or changed submissions, or all submissions if there is no previous check
+     * @param unchangedSubmissionDirectory the directory containing the unchanged submissions (see {@link PreviousCheck#unchangedSubmissionIds(Map)}), if there are any
+     * @param previousCheck                the previous check with the same parameters, or null
+     * @param fingerprints                 the fingerprints of all submissions of the check, by submission id
+     * @param candidatePairs               the pairs of submissions to compare, or null to compare all pairs
+     * @param exercise                     the exercise to which the result should belong, either Text or Programming
+     * @return the result with up to 500 comparisons with the highest similarity, the similarities of all compared pairs and the fingerprints of all submissions
+     * @throws ExitException if JPlag exits unexpectedly
+     */
+    public TextPlagiarismResult checkPlagiarism(JPlagOptions options, File submissionDirectory, File unchangedSubmissionDirectory, @Nullable PreviousCheck previousCheck,
+            Map<Long, String> fingerprints, @Nullable Set<SubmissionPair> candidatePairs, Exercise exercise) throws ExitException {
+        Set<Long> unchangedSubmissionIds = previousCheck != null ? previousCheck.unchangedSubmissionIds(fingerprints) : Set.of();
+        if (!unchangedSubmissionIds.isEmpty()) {
+            try {
+                log.info("Compare {} new or changed submissions with {} unchanged submissions", fingerprints.size() - unchangedSubmissionIds.size(),
+                        unchangedSubmissionIds.size());
+                List<JPlagResult> jPlagResults = new ArrayList<>();
+                if (candidatePairs != null) {
+                    // the candidate pairs of unchanged submissions have already been compared in the previous check
+                    var changedCandidatePairs = candidatePairs.stream()
+                            .filter(pair -> !unchangedSubmissionIds.contains(pair.submissionId1()) || !unchangedSubmissionIds.contains(pair.submissionId2()))
+                            .collect(Collectors.toSet());
+                    jPlagResults.addAll(compareCandidatePairs(options, List.of(submissionDirectory, unchangedSubmissionDirectory), changedCandidatePairs));
+                }
+                else if (unchangedSubmissionIds.size() < fingerprints.size()) {
+                    jPlagResults.add(
+                            new JPlag(options.withSubmissionDirectories(Set.of(submissionDirectory)).withOldSubmissionDirectories(Set.of(unchangedSubmissionDirectory))).run());
+                }
+                var result = mergeResults(jPlagResults, previousCheck, unchangedSubmissionIds, exercise);
+                if (result.isPresent()) {
+                    result.get().setSubmissionFingerprints(toSubmissionFingerprints(fingerprints));
+                    return result.get();
+                }
+                log.info("The previous result does not contain all comparisons of the most similar unchanged submissions, compare all submissions");
+            }
+            catch (ExitException ex) {
+                log.warn("Incremental JPlag comparison failed, compare all submissions: {}", ex.getMessage());
+            }
+        }
+
+        // the unchanged submissions are compared as well, even if they have been moved for a previous check that cannot be used
+        Set<File> submissionDirectories = containsSubmissions(unchangedSubmissionDirectory) ? Set.of(submissionDirectory, unchangedSubmissionDirectory)
+                : Set.of(submissionDirectory);
+        List<JPlagResult> jPlagResults;
+        if (candidatePairs != null) {
+            jPlagResults = compareCandidatePairs(options, submissionDirectories, candidatePairs);
+        }
+        else {
+            jPlagResults = List.of(new JPlag(options.withSubmissionDirectories(submissionDirectories).withOldSubmissionDirectories(Set.of())).run());
+        }
+        // without a previous check, no comparisons have to be copied
+        var result = mergeResults(jPlagResults, null, Set.of(), exercise).orElseThrow();
+        result.setSubmissionFingerprints(toSubmissionFingerprints(fingerprints));
+        return result;
+    }
+
+    /**
+     * Merges the comparisons of JPlag with the similarities and comparisons of the unchanged submissions of the previous check
+     *
+     * @return the merged result, or an empty optional if a comparison of the most similar unchanged submissions is missing in the previous result
+     */
+    private Optional<TextPlagiarismResult> mergeResults(List<JPlagResult> jPlagResults, @Nullable PreviousCheck previousCheck, Set<Long> unchangedSubmissionIds,
+            Exercise exercise) {
+        TextPlagiarismResult result = new TextPlagiarismResult();
+        result.setExercise(exercise);
+        List<TextSubmissionSimilarity> similarities = new ArrayList<>();
+        long duration = 0;
+        for (JPlagResult jPlagResult : jPlagResults) {
+            result.convertJPlagResult(jPlagResult, exercise);
+            // each JPlag run adds up to 500 comparisons
+            if (jPlagResults.size() > 1) {
+                result.sortAndLimit(500);
+            }
+            duration += jPlagResult.getDuration();
+            for (JPlagComparison comparison : jPlagResult.getAllComparisons()) {
+                // Note: JPlag returns a value between 0 and 1, we store a value between 0 and 100 (percentage) like in the comparisons
+                similarities.add(new TextSubmissionSimilarity(PlagiarismSubmission.getSubmissionIdOfJPlagSubmission(comparison.firstSubmission()),
+                        PlagiarismSubmission.getSubmissionIdOfJPlagSubmission(comparison.secondSubmission()), comparison.similarity() * 100));
+            }
+        }
+        result.setDuration(duration);
+        int numberOfComparedPairs = similarities.size();
+
+        if (previousCheck != null) {
+            previousCheck.similarities().stream()
+                    .filter(similarity -> unchangedSubmissionIds.contains(similarity.getSubmissionAId()) && unchangedSubmissionIds.contains(similarity.getSubmissionBId()))
+                    .forEach(similarities::add);
+
+            // only the most similar pairs are stored, so only their comparisons have to be copied from the previous result
+            Map<SubmissionPair, Long> previousComparisonIds = previousCheck.result().getComparisons().stream()
+                    .collect(Collectors.toMap(comparison -> SubmissionPair.of(comparison.getSubmissionA().getSubmissionId(), comparison.getSubmissionB().getSubmissionId()),
+                            DomainObject::getId, (comparisonId1, comparisonId2) -> comparisonId1));
+            Set<Long> requiredComparisonIds = new HashSet<>();
+            var mostSimilarUnchangedPairs = similarities.stream().sorted(comparingDouble(TextSubmissionSimilarity::getSimilarity).reversed()).limit(NUMBER_OF_STORED_COMPARISONS)
+                    .filter(similarity -> unchangedSubmissionIds.contains(similarity.getSubmissionAId()) && unchangedSubmissionIds.contains(similarity.getSubmissionBId()))
+                    .map(similarity -> SubmissionPair.of(similarity.getSubmissionAId(), similarity.getSubmissionBId())).toList();
+            for (SubmissionPair pair : mostSimilarUnchangedPairs) {
+                Long comparisonId = previousComparisonIds.get(pair);
+                if (comparisonId == null) {
+                    return Optional.empty();
+                }
+                requiredComparisonIds.add(comparisonId);
+            }
+            var copiedComparisons = copyComparisons(requiredComparisonIds);
+            if (copiedComparisons.isEmpty()) {
+                return Optional.empty();
+            }
+            copiedComparisons.get().forEach(comparison -> {
+                comparison.setPlagiarismResult(result);
+                result.getComparisons().add(comparison);
+            });
+            log.info("Reused {} similarities and {} comparisons of the previous check", similarities.size() - numberOfComparedPairs, requiredComparisonIds.size());
+        }
+
+        result.setSubmissionSimilarities(similarities);
+        result.setSimilarityDistribution(calculateSimilarityDistribution(similarities));
+        return Optional.of(result);
+    }
+
+    /**
+     * Copies the given comparisons of the previous result including their submissions, elements and matches, as the previous result is deleted when the new one is saved
+     *
+     * @return the copied comparisons, or an empty optional if a comparison does not exist anymore
+     */
+    private Optional<List<PlagiarismComparison<TextSubmissionElement>>> copyComparisons(Set<Long> comparisonIds) {
+        if (comparisonIds.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        Map<Long, PlagiarismComparison<?>> comparisonsWithElementsA = plagiarismComparisonRepository.findAllWithSubmissionsAndElementsAByIdIn(comparisonIds).stream()
+                .collect(Collectors.toMap(DomainObject::getId, Function.identity()));
+        Map<Long, PlagiarismComparison<?>> comparisonsWithElementsB = plagiarismComparisonRepository.findAllWithSubmissionsAndElementsBByIdIn(comparisonIds).stream()
+                .collect(Collectors.toMap(DomainObject::getId, Function.identity()));
+
+        List<PlagiarismComparison<TextSubmissionElement>> copiedComparisons = new ArrayList<>();
+        for (Long comparisonId : comparisonIds) {
+            var previousComparisonA = comparisonsWithElementsA.get(comparisonId);
+            var previousComparisonB = comparisonsWithElementsB.get(comparisonId);
+            if (previousComparisonA == null || previousComparisonB == null) {
+                return Optional.empty();
+            }
+            PlagiarismComparison<TextSubmissionElement> comparison = new PlagiarismComparison<>();
+            comparison.setSubmissionA(copySubmission(previousComparisonA.getSubmissionA()));
+            comparison.setSubmissionB(copySubmission(previousComparisonB.getSubmissionB()));
+            comparison.setMatches(previousComparisonA.getMatches().stream().map(IncrementalJPlagService::copyMatch).collect(Collectors.toSet()));
+            comparison.setSimilarity(previousComparisonA.getSimilarity());
+            comparison.setStatus(PlagiarismStatus.NONE);
+            copiedComparisons.add(comparison);
+        }
+        return Optional.of(copiedComparisons);
+    }
+
+    private static PlagiarismSubmission<TextSubmissionElement> copySubmission(PlagiarismSubmission<?> previousSubmission) {
+        PlagiarismSubmission<TextSubmissionElement> submission = new PlagiarismSubmission<>();
+        submission.setSubmissionId(previousSubmission.getSubmissionId());
+        submission.setStudentLogin(previousSubmission.getStudentLogin());
+        submission.setSize(previousSubmission.getSize());
+        submission.setScore(previousSubmission.getScore());
+        // the matches refer to the positions of the elements, which were stored in this order
+        submission.setElements(previousSubmission.getElements().stream().map(element -> (TextSubmissionElement) element)
+                .sorted(comparing(DomainObject::getId, nullsLast(naturalOrder()))).map(element -> copyElement(element, submission))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return submission;
+    }
+
+    private static TextSubmissionElement copyElement(TextSubmissionElement previousElement, PlagiarismSubmission<TextSubmissionElement> submission) {
+        TextSubmissionElement element = new TextSubmissionElement();
+        element.setColumn(previousElement.getColumn());
+        element.setLine(previousElement.getLine());
+        element.setFile(previousElement.getFile());
+        element.setType(previousElement.getType());
+        element.setLength(previousElement.getLength());
+        element.setPlagiarismSubmission(submission);
+        return element;
+    }
+
+    private static PlagiarismMatch copyMatch(PlagiarismMatch previousMatch) {
+        PlagiarismMatch match = new PlagiarismMatch();
+        match.setStartA(previousMatch.getStartA());
+        match.setStartB(previousMatch.getStartB());
+        match.setLength(previousMatch.getLength());
+        return match;
+    }
+
+    private static Set<TextSubmissionFingerprint> toSubmissionFingerprints(Map<Long, String> fingerprints) {
+        return fingerprints.entrySet().stream().map(fingerprint -> new TextSubmissionFingerprint(fingerprint.getKey(), fingerprint.getValue()))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Calculate the similarity distribution of all compared pairs, as the comparisons of the result are limited.
+     */
+    private static int[] calculateSimilarityDistribution(List<TextSubmissionSimilarity> similarities) {
+        int[] similarityDistribution = new int[10];
+
+        similarities.stream().map(TextSubmissionSimilarity::getSimilarity).map(percent -> percent / 10).map(Double::intValue).map(index -> index == 10 ? 9 : index)
+                .forEach(index -> similarityDistribution[index]++);
+
+        return similarityDistribution;
+    }
+
+    /**
+     * Compares the given candidate pairs of submissions in a single run, in which every submission is parsed once, see {@link CandidatePairComparisonStrategy}.
+     *
+     * @param options               the options of the check, their submission directories are replaced
+     * @param submissionDirectories the directories containing the submissions, whose names start with the submission id
+     * @param candidatePairs        the pairs of submissions to compare
+     * @return the result of the run, or no result if there is no pair to compare
+     * @throws ExitException if JPlag exits unexpectedly
+     */
+    private List<JPlagResult> compareCandidatePairs(JPlagOptions options, Collection<File> submissionDirectories, Set<SubmissionPair> candidatePairs) throws ExitException {
+        Set<File> nonEmptySubmissionDirectories = submissionDirectories.stream().filter(IncrementalJPlagService::containsSubmissions).collect(Collectors.toSet());
+        if (candidatePairs.isEmpty() || nonEmptySubmissionDirectories.isEmpty()) {
+            return List.of();
+        }
+        var candidateOptions = options.withSubmissionDirectories(nonEmptySubmissionDirectories).withOldSubmissionDirectories(Set.of());
+        var submissionSet = new SubmissionSetBuilder(candidateOptions).buildSubmissionSet();
+        var jPlagResult = new CandidatePairComparisonStrategy(candidateOptions, candidatePairs).compareSubmissions(submissionSet);
+        log.info("Compared {} candidate pairs of {} submissions in one JPlag run", candidatePairs.size(), submissionSet.numberOfSubmissions());
+        return List.of(jPlagResult);
+    }
+
+    /**
+     * Moves the submissions that have not been changed since the given previous check into the directory of the unchanged submissions, which JPlag does not compare with
+     * each other. Submissions that cannot be moved are compared as changed submissions and their fingerprint is removed, so that they are also compared in the next check.
+     */
+    private void moveUnchangedSubmissions(@Nullable PreviousCheck previousCheck, Map<Long, String> fingerprints, File submissionDirectory, File unchangedSubmissionDirectory) {
+        if (previousCheck == null) {
+            return;
+        }
+        Set<Long> unchangedSubmissionIds = previousCheck.unchangedSubmissionIds(fingerprints);
+        File[] files = submissionDirectory.listFiles();
+        if (unchangedSubmissionIds.isEmpty() || files == null) {
+            return;
+        }
+        for (File file : files) {
+            var submissionId = submissionIdOfFile(file);
+            if (submissionId.isEmpty() || !unchangedSubmissionIds.contains(submissionId.get())) {
+                continue;
+            }
+            try {
+                Files.createDirectories(unchangedSubmissionDirectory.toPath());
+                Files.move(file.toPath(), unchangedSubmissionDirectory.toPath().resolve(file.getName()));
+            }
+            catch (IOException ex) {
+                log.warn("Could not move the unchanged submission {}, it is compared as changed submission: {}", file.getName(), ex.getMessage());
+                fingerprints.remove(submissionId.get());
+            }
+        }
+    }
+
+    /**
+     * Moves all submissions in the directory of the unchanged submissions back into the directory of the submissions
+     */
+    private static void restoreUnchangedSubmissions(File submissionDirectory, File unchangedSubmissionDirectory) {
+        File[] files = unchangedSubmissionDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            try {
+                Files.move(file.toPath(), submissionDirectory.toPath().resolve(file.getName()));
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Could not move the unchanged submission " + file.getName() + " back", ex);
+            }
+        }
+    }
+
+    private static boolean containsSubmissions(File directory) {
+        File[] files = directory.listFiles();
+        return files != null && files.length > 0;
+    }
+
+    /**
+     * The names of the submission files and folders start with the submission id, followed by the participant identifier, see
+     * {@link PlagiarismSubmission#getSubmissionIdOfJPlagSubmission(de.jplag.Submission)}
+     */
+    private static Optional<Long> submissionIdOfFile(File file) {
+        String name = file.getName();
+        int separatorIndex = name.indexOf('-');
+        if (separatorIndex <= 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(name.substring(0, separatorIndex)));
+        }
+        catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A pair of compared submissions, independent of their order
+     */
+    public record SubmissionPair(long submissionId1, long submissionId2) {
+
+        /**
+         * @param submissionAId the id of one submission
+         * @param submissionBId the id of the other submission
+         * @return the pair of both submissions, the smaller id first
+         */
+        public static SubmissionPair of(long submissionAId, long submissionBId) {
+            return new SubmissionPair(Math.min(submissionAId, submissionBId), Math.max(submissionAId, submissionBId));
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package de.tum.in.www1.artemis.service.plagiarism;
 
-import static com.google.gson.JsonParser.parseString;
-
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,8 +26,13 @@ import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismSubmission;
 import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingPlagiarismResult;
 import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingSubmissionElement;
+import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingSubmissionSignature;
+import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingSubmissionSimilarity;
+import de.tum.in.www1.artemis.repository.plagiarism.ModelingPlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.compass.UMLDiagramCacheService;
+import de.tum.in.www1.artemis.service.compass.strategy.NameSimilarityMemo;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
-import de.tum.in.www1.artemis.service.compass.umlmodel.parsers.UMLModelParser;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagramSignature;
 import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismCacheService;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 
@@ -30,13 +41,39 @@ public class ModelingPlagiarismDetectionService {
 
     private final Logger log = LoggerFactory.getLogger(ModelingPlagiarismDetectionService.class);
 
+    /**
+     * The minimum time between two progress messages of the comparison, so that large checks do not flood the websocket
+     */
+    private static final long PROGRESS_NOTIFICATION_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Covers floating point inaccuracies of the summed up element similarities when comparing the upper bound of a similarity to the minimum similarity
+     */
+    private static final double SIMILARITY_BOUND_TOLERANCE = 1e-9;
+
     private final PlagiarismWebsocketService plagiarismWebsocketService;
 
     private final PlagiarismCacheService plagiarismCacheService;
 
-    public ModelingPlagiarismDetectionService(PlagiarismWebsocketService plagiarismWebsocketService, PlagiarismCacheService plagiarismCacheService) {
+    private final UMLDiagramCacheService umlDiagramCacheService;
+
+    private final ModelingPlagiarismResultRepository modelingPlagiarismResultRepository;
+
+    private final ForkJoinPool comparisonPool;
+
+    public ModelingPlagiarismDetectionService(PlagiarismWebsocketService plagiarismWebsocketService, PlagiarismCacheService plagiarismCacheService,
+            UMLDiagramCacheService umlDiagramCacheService, ModelingPlagiarismResultRepository modelingPlagiarismResultRepository,
+            @Value("${artemis.plagiarism.modeling.comparison-parallelism:0}") int comparisonParallelism) {
         this.plagiarismWebsocketService = plagiarismWebsocketService;
         this.plagiarismCacheService = plagiarismCacheService;
+        this.umlDiagramCacheService = umlDiagramCacheService;
+        this.modelingPlagiarismResultRepository = modelingPlagiarismResultRepository;
+        this.comparisonPool = new ForkJoinPool(comparisonParallelism > 0 ? comparisonParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        comparisonPool.shutdownNow();
     }
 
     /**
@@ -63,7 +100,17 @@ public class ModelingPlagiarismDetectionService {
             log.info("Found {} modeling submissions in exercise {}", modelingSubmissions.size(), exerciseWithParticipationsSubmissionsResults.getId());
 
             Long exerciseId = exerciseWithParticipationsSubmissionsResults.getId();
-            ModelingPlagiarismResult result = checkPlagiarism(modelingSubmissions, minimumSimilarity, minimumModelSize, minimumScore, exerciseId);
+            // a previous check with the same parameters allows to only compare the new or changed submissions
+            var previousResult = modelingPlagiarismResultRepository.findFirstByExerciseIdOrderByLastModifiedDateDesc(exerciseId)
+                    .filter(plagiarismResult -> plagiarismResult.hasParameters(minimumSimilarity, minimumModelSize, minimumScore));
+            List<ModelingSubmissionSignature> previousSignatures = previousResult
+                    .map(plagiarismResult -> modelingPlagiarismResultRepository.findSubmissionSignaturesByPlagiarismResultId(plagiarismResult.getId())).orElse(List.of());
+            List<ModelingSubmissionSimilarity> previousSimilarities = previousResult
+                    .map(plagiarismResult -> modelingPlagiarismResultRepository.findSubmissionSimilaritiesByPlagiarismResultId(plagiarismResult.getId())).orElse(List.of());
+            log.info("Reusing {} submission signatures and {} similarities of the previous plagiarism check", previousSignatures.size(), previousSimilarities.size());
+
+            ModelingPlagiarismResult result = checkPlagiarism(modelingSubmissions, minimumSimilarity, minimumModelSize, minimumScore, exerciseId, previousSignatures,
+                    previousSimilarities);
 
             result.setExercise(exerciseWithParticipationsSubmissionsResults);
 
@@ -87,7 +134,7 @@ public class ModelingPlagiarismDetectionService {
     }
 
     /**
-     * Pairwise comparison of text submissions using a TextComparisonStrategy
+     * Pairwise comparison of modeling submissions
      *
      * @param modelingSubmissions List of modeling submissions
      * @param minimumSimilarity   the minimum similarity so that the result is considered
@@ -98,90 +145,160 @@ public class ModelingPlagiarismDetectionService {
      */
     public ModelingPlagiarismResult checkPlagiarism(List<ModelingSubmission> modelingSubmissions, double minimumSimilarity, int minimumModelSize, int minimumScore,
             Long exerciseId) {
+        return checkPlagiarism(modelingSubmissions, minimumSimilarity, minimumModelSize, minimumScore, exerciseId, List.of(), List.of());
+    }
+
+    /**
+     * Pairwise comparison of modeling submissions that only compares the submissions that are new or have been changed since a previous check with the same parameters.
+     * The similarities of the unchanged submissions are taken from the previous check, so the result equals the result of comparing all submissions.
+     *
+     * @param modelingSubmissions  List of modeling submissions
+     * @param minimumSimilarity    the minimum similarity so that the result is considered
+     * @param minimumModelSize     the minimum number of model elements to be considered as plagiarism
+     * @param minimumScore         the minimum result score (if available) to be considered as plagiarism
+     * @param exerciseId           the id of the exercise for which the modeling submissions are compared
+     * @param previousSignatures   the signatures of the submissions compared in the previous check, empty to compare all submissions
+     * @param previousSimilarities the similarities found in the previous check
+     * @return List of submission id pairs and similarity score
+     */
+    public ModelingPlagiarismResult checkPlagiarism(List<ModelingSubmission> modelingSubmissions, double minimumSimilarity, int minimumModelSize, int minimumScore,
+            Long exerciseId, Collection<ModelingSubmissionSignature> previousSignatures, Collection<ModelingSubmissionSimilarity> previousSimilarities) {
         String topic = plagiarismWebsocketService.getModelingExercisePlagiarismCheckTopic(exerciseId);
 
         ModelingPlagiarismResult result = new ModelingPlagiarismResult();
 
-        Map<UMLDiagram, ModelingSubmission> models = new HashMap<>();
         ObjectMapper objectMapper = new ObjectMapper();
 
-        AtomicInteger processedSubmissionCount = new AtomicInteger(1);
-        modelingSubmissions.stream().filter(modelingSubmission -> !modelingSubmission.isEmpty(objectMapper))
+        List<ModelingSubmission> submissionsToCompare = modelingSubmissions.stream().filter(modelingSubmission -> !modelingSubmission.isEmpty(objectMapper))
                 .filter(modelingSubmission -> minimumScore == 0 || modelingSubmission.getLatestResult() != null && modelingSubmission.getLatestResult().getScore() != null
                         && modelingSubmission.getLatestResult().getScore() >= minimumScore)
-                .forEach(modelingSubmission -> {
-                    String progressMessage = "Getting UML diagram for submission: " + processedSubmissionCount + "/" + modelingSubmissions.size();
-                    plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
-
-                    try {
-                        log.debug("Build UML diagram from json");
-                        UMLDiagram model = UMLModelParser.buildModelFromJSON(parseString(modelingSubmission.getModel()).getAsJsonObject(), modelingSubmission.getId());
-
-                        if (model.getAllModelElements().size() >= minimumModelSize) {
-                            models.put(model, modelingSubmission);
-                        }
-                    }
-                    catch (IOException e) {
-                        log.error("Parsing the modeling submission {} did throw an exception:", modelingSubmission.getId(), e);
-                    }
+                .toList();
+
+        // the submissions whose model has not changed since the previous check keep their signature and do not have to be parsed unless they are similar to a new one
+        Map<Long, ModelingSubmissionSignature> previousSignaturesBySubmissionId = previousSignatures.stream()
+                .collect(Collectors.toMap(ModelingSubmissionSignature::getSubmissionId, Function.identity(), (signature1, signature2) -> signature1));
+        Map<ModelingSubmission, String> modelHashes = new HashMap<>();
+        Map<ModelingSubmission, UMLDiagramSignature> unchangedSubmissions = new LinkedHashMap<>();
+        List<ModelingSubmission> newSubmissions = new ArrayList<>();
+        for (ModelingSubmission modelingSubmission : submissionsToCompare) {
+            String modelHash = UMLDiagramCacheService.hashModel(modelingSubmission.getModel());
+            modelHashes.put(modelingSubmission, modelHash);
+            var previousSignature = previousSignaturesBySubmissionId.get(modelingSubmission.getId());
+            Optional<UMLDiagramSignature> signature = previousSignature != null && previousSignature.getModelHash().equals(modelHash)
+                    ? UMLDiagramSignature.deserialize(previousSignature.getDiagramSignature())
+                    : Optional.empty();
+            signature.ifPresentOrElse(unchangedSignature -> unchangedSubmissions.put(modelingSubmission, unchangedSignature), () -> newSubmissions.add(modelingSubmission));
+        }
 
-                    processedSubmissionCount.getAndIncrement();
-                });
+        String progressMessage = "Getting UML diagrams for " + newSubmissions.size() + "/" + modelingSubmissions.size() + " submissions";
+        plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+
+        // the diagrams are only read, so the cached diagrams can be shared with other users of the cache
+        Map<ModelingSubmission, UMLDiagram> models = new HashMap<>();
+        List<ModelingSubmission> comparedSubmissions = new ArrayList<>();
+        List<UMLDiagramSignature> signatures = new ArrayList<>();
+        umlDiagramCacheService.getDiagrams(newSubmissions).forEach((modelingSubmission, model) -> {
+            if (model.getAllModelElements().size() >= minimumModelSize) {
+                models.put(modelingSubmission, model);
+                comparedSubmissions.add(modelingSubmission);
+                signatures.add(UMLDiagramSignature.of(model));
+            }
+        });
+        int numberOfNewSubmissions = comparedSubmissions.size();
+        comparedSubmissions.addAll(unchangedSubmissions.keySet());
+        signatures.addAll(unchangedSubmissions.values());
 
-        log.info("Found {} modeling submissions with at least {} elements to compare", models.size(), minimumModelSize);
-
-        Set<PlagiarismComparison<ModelingSubmissionElement>> comparisons = new HashSet<>();
-        List<UMLDiagram> nonEmptyDiagrams = new ArrayList<>(models.keySet());
+        log.info("Found {} new or changed and {} unchanged modeling submissions with at least {} elements to compare", numberOfNewSubmissions, unchangedSubmissions.size(),
+                minimumModelSize);
 
         long timeBeforeStartInMillis = System.currentTimeMillis();
 
-        // It is intended to use the classic for loop here, because we only want to check
-        // similarity between two different submissions once
-        for (int i = 0; i < nonEmptyDiagrams.size(); i++) {
-            String progressMessage = "Comparing submissions: " + (i + 1) + "/" + nonEmptyDiagrams.size();
-            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
-
-            for (int j = i + 1; j < nonEmptyDiagrams.size(); j++) {
-
-                UMLDiagram model1 = nonEmptyDiagrams.get(i);
-                UMLDiagram model2 = nonEmptyDiagrams.get(j);
-
-                final double similarity = model1.similarity(model2);
-                log.debug("Compare result {} with {}: {}", i, j, similarity);
+        // only the pairs with at least one new submission whose similarity can reach the minimum similarity are compared, encoded as (index of the first submission << 32 |
+        // index of the second submission). As the new submissions come first, these are the pairs (i, j) with i < j and i < number of new submissions.
+        long[] candidatePairs = LongStream.range(0, numberOfNewSubmissions).flatMap(i -> LongStream.range(i + 1, comparedSubmissions.size())
+                .filter(j -> signatures.get((int) i).similarityUpperBound(signatures.get((int) j)) + SIMILARITY_BOUND_TOLERANCE >= minimumSimilarity).map(j -> i << 32 | j))
+                .toArray();
+        long numberOfPairs = (long) numberOfNewSubmissions * (numberOfNewSubmissions - 1) / 2 + (long) numberOfNewSubmissions * unchangedSubmissions.size();
+        log.info("Comparing {} of {} pairs of modeling submissions, the others cannot reach the minimum similarity {}", candidatePairs.length, numberOfPairs, minimumSimilarity);
+
+        // the unchanged submissions are only parsed if they are compared to a new submission
+        parseMissingDiagrams(Arrays.stream(candidatePairs).mapToInt(pair -> (int) pair).mapToObj(comparedSubmissions::get), models);
+
+        // the diagrams of an exercise share a small vocabulary of names, so their similarities are memoized during the check
+        NameSimilarityMemo nameSimilarityMemo = new NameSimilarityMemo();
+        AtomicInteger comparedPairs = new AtomicInteger();
+        AtomicLong lastProgressNotification = new AtomicLong();
+        // a parallel stream started by a task of a fork-join pool runs on this pool instead of the common pool
+        double[] similarities = comparisonPool.submit(() -> Arrays.stream(candidatePairs).parallel().mapToDouble(pair -> {
+            int i = (int) (pair >>> 32);
+            int j = (int) pair;
+            UMLDiagram model1 = models.get(comparedSubmissions.get(i));
+            UMLDiagram model2 = models.get(comparedSubmissions.get(j));
+            final double similarity = model1 != null && model2 != null ? nameSimilarityMemo.apply(() -> model1.similarity(model2)) : 0;
+            log.debug("Compare result {} with {}: {}", i, j, similarity);
+            notifyAboutComparisonProgress(topic, comparedPairs.incrementAndGet(), candidatePairs.length, lastProgressNotification);
+            return similarity;
+        }).toArray()).join();
+
+        log.info("Compared {} pairs of modeling submissions with {}", candidatePairs.length, nameSimilarityMemo);
+
+        // merge the similarities of the unchanged submissions from the previous check with the new ones
+        Map<Long, ModelingSubmission> unchangedSubmissionsById = unchangedSubmissions.keySet().stream()
+                .collect(Collectors.toMap(ModelingSubmission::getId, Function.identity(), (submission1, submission2) -> submission1));
+        List<ModelingSubmissionSimilarity> submissionSimilarities = new ArrayList<>();
+        List<ModelingSubmission[]> similarSubmissions = new ArrayList<>();
+        for (ModelingSubmissionSimilarity previousSimilarity : previousSimilarities) {
+            ModelingSubmission modelingSubmissionA = unchangedSubmissionsById.get(previousSimilarity.getSubmissionAId());
+            ModelingSubmission modelingSubmissionB = unchangedSubmissionsById.get(previousSimilarity.getSubmissionBId());
+            if (modelingSubmissionA != null && modelingSubmissionB != null) {
+                submissionSimilarities.add(previousSimilarity);
+                similarSubmissions.add(new ModelingSubmission[] { modelingSubmissionA, modelingSubmissionB });
+            }
+        }
+        for (int k = 0; k < candidatePairs.length; k++) {
+            if (similarities[k] < minimumSimilarity) {
+                // ignore comparison results with too small similarity
+                continue;
+            }
+            ModelingSubmission modelingSubmissionA = comparedSubmissions.get((int) (candidatePairs[k] >>> 32));
+            ModelingSubmission modelingSubmissionB = comparedSubmissions.get((int) candidatePairs[k]);
+            submissionSimilarities.add(new ModelingSubmissionSimilarity(modelingSubmissionA.getId(), modelingSubmissionB.getId(), similarities[k]));
+            similarSubmissions.add(new ModelingSubmission[] { modelingSubmissionA, modelingSubmissionB });
+        }
 
-                if (similarity < minimumSimilarity) {
-                    // ignore comparison results with too small similarity
-                    continue;
-                }
+        parseMissingDiagrams(similarSubmissions.stream().flatMap(Arrays::stream), models);
 
-                ModelingSubmission modelingSubmissionA = models.get(model1);
-                ModelingSubmission modelingSubmissionB = models.get(model2);
+        Set<PlagiarismComparison<ModelingSubmissionElement>> comparisons = new HashSet<>();
+        for (int k = 0; k < submissionSimilarities.size(); k++) {
+            final double similarity = submissionSimilarities.get(k).getSimilarity();
+            ModelingSubmission modelingSubmissionA = similarSubmissions.get(k)[0];
+            ModelingSubmission modelingSubmissionB = similarSubmissions.get(k)[1];
+            UMLDiagram model1 = models.get(modelingSubmissionA);
+            UMLDiagram model2 = models.get(modelingSubmissionB);
 
-                log.info("Found similar models {} with {}: {}", i, j, similarity);
+            log.info("Found similar models {} with {}: {}", modelingSubmissionA.getId(), modelingSubmissionB.getId(), similarity);
 
-                PlagiarismSubmission<ModelingSubmissionElement> submissionA = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionA);
-                submissionA.setSize(model1.getAllModelElements().size());
-                submissionA.setElements(model1.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).toList());
+            PlagiarismSubmission<ModelingSubmissionElement> submissionA = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionA);
+            submissionA.setSize(model1.getAllModelElements().size());
+            submissionA.setElements(model1.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).toList());
 
-                PlagiarismSubmission<ModelingSubmissionElement> submissionB = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionB);
-                submissionB.setSize(model2.getAllModelElements().size());
-                submissionB.setElements(model2.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).toList());
+            PlagiarismSubmission<ModelingSubmissionElement> submissionB = PlagiarismSubmission.fromModelingSubmission(modelingSubmissionB);
+            submissionB.setSize(model2.getAllModelElements().size());
+            submissionB.setElements(model2.getAllModelElements().stream().map(ModelingSubmissionElement::fromUMLElement).toList());
 
-                PlagiarismComparison<ModelingSubmissionElement> comparison = new PlagiarismComparison<>();
+            PlagiarismComparison<ModelingSubmissionElement> comparison = new PlagiarismComparison<>();
 
-                comparison.setPlagiarismResult(result);
-                comparison.setSimilarity(similarity * 100);
-                comparison.setSubmissionA(submissionA);
-                comparison.setSubmissionB(submissionB);
-                // TODO: Add matches to highlight similar modeling elements
-                comparison.setMatches(new HashSet<>());
+            comparison.setPlagiarismResult(result);
+            comparison.setSimilarity(similarity * 100);
+            comparison.setSubmissionA(submissionA);
+            comparison.setSubmissionB(submissionB);
+            // TODO: Add matches to highlight similar modeling elements
+            comparison.setMatches(new HashSet<>());
 
-                comparisons.add(comparison);
-            }
+            comparisons.add(comparison);
         }
 
         log.info("Found {} similar modeling submission combinations (>{})", comparisons.size(), minimumSimilarity);
-        plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.COMPLETED, List.of());
 
         long durationInMillis = System.currentTimeMillis() - timeBeforeStartInMillis;
         int[] similarityDistribution = calculateSimilarityDistribution(comparisons);
@@ -189,10 +306,46 @@ public class ModelingPlagiarismDetectionService {
         result.setComparisons(comparisons);
         result.setDuration(durationInMillis);
         result.setSimilarityDistribution(similarityDistribution);
+        result.setParameters(minimumSimilarity, minimumModelSize, minimumScore);
+        Set<ModelingSubmissionSignature> submissionSignatures = new HashSet<>();
+        for (int i = 0; i < comparedSubmissions.size(); i++) {
+            ModelingSubmission modelingSubmission = comparedSubmissions.get(i);
+            submissionSignatures.add(new ModelingSubmissionSignature(modelingSubmission.getId(), modelHashes.get(modelingSubmission), signatures.get(i).serialize()));
+        }
+        result.setSubmissionSignatures(submissionSignatures);
+        result.setSubmissionSimilarities(submissionSimilarities);
 
         return result;
     }
 
+    /**
+     * Parses the diagrams of the given submissions that are not parsed yet
+     *
+     * @param modelingSubmissions the submissions whose diagrams are needed
+     * @param models              the parsed diagrams by submission, the missing diagrams are added
+     */
+    private void parseMissingDiagrams(Stream<ModelingSubmission> modelingSubmissions, Map<ModelingSubmission, UMLDiagram> models) {
+        List<ModelingSubmission> missingSubmissions = modelingSubmissions.filter(modelingSubmission -> !models.containsKey(modelingSubmission)).distinct().toList();
+        models.putAll(umlDiagramCacheService.getDiagrams(missingSubmissions));
+    }
+
+    /**
+     * Notifies the instructor about the progress of the comparison, but at most once per {@link #PROGRESS_NOTIFICATION_INTERVAL_MILLIS}. Called concurrently by the comparisons.
+     *
+     * @param topic                    the websocket topic of the plagiarism check
+     * @param comparedPairs            the number of pairs that have been compared so far
+     * @param numberOfPairs            the number of pairs to compare
+     * @param lastProgressNotification the time of the last progress message in milliseconds
+     */
+    private void notifyAboutComparisonProgress(String topic, int comparedPairs, int numberOfPairs, AtomicLong lastProgressNotification) {
+        long now = System.currentTimeMillis();
+        long last = lastProgressNotification.get();
+        if (now - last >= PROGRESS_NOTIFICATION_INTERVAL_MILLIS && lastProgressNotification.compareAndSet(last, now)) {
+            String progressMessage = "Comparing submissions: " + comparedPairs + "/" + numberOfPairs;
+            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+        }
+    }
+
     /**
      * Reduce a ModelingExercise Object to a list of latest modeling submissions.
      *
@@ -0,0 +1,95 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import de.jplag.exceptions.ExitException;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJob;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
+import de.tum.in.www1.artemis.repository.ModelingExerciseRepository;
+import de.tum.in.www1.artemis.repository.TextExerciseRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
+import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Runs the plagiarism check of a {@link PlagiarismCheckJob} with the detection service of its exercise type and saves its result.
+ */
+@Service
+public class PlagiarismCheckJobService {
+
+    private final Logger log = LoggerFactory.getLogger(PlagiarismCheckJobService.class);
+
+    private final TextExerciseRepository textExerciseRepository;
+
+    private final ModelingExerciseRepository modelingExerciseRepository;
+
+    private final PlagiarismResultRepository plagiarismResultRepository;
+
+    private final TextPlagiarismDetectionService textPlagiarismDetectionService;
+
+    private final ModelingPlagiarismDetectionService modelingPlagiarismDetectionService;
+
+    private final ProgrammingPlagiarismDetectionService programmingPlagiarismDetectionService;
+
+    public PlagiarismCheckJobService(TextExerciseRepository textExerciseRepository, ModelingExerciseRepository modelingExerciseRepository,
+            PlagiarismResultRepository plagiarismResultRepository, TextPlagiarismDetectionService textPlagiarismDetectionService,
+            ModelingPlagiarismDetectionService modelingPlagiarismDetectionService, ProgrammingPlagiarismDetectionService programmingPlagiarismDetectionService) {
+        this.textExerciseRepository = textExerciseRepository;
+        this.modelingExerciseRepository = modelingExerciseRepository;
+        this.plagiarismResultRepository = plagiarismResultRepository;
+        this.textPlagiarismDetectionService = textPlagiarismDetectionService;
+        this.modelingPlagiarismDetectionService = modelingPlagiarismDetectionService;
+        this.programmingPlagiarismDetectionService = programmingPlagiarismDetectionService;
+    }
+
+    /**
+     * Checks the exercise of the given job for plagiarism with the parameters of the job. The result is not saved yet, so that a job that is cancelled in the meantime
+     * does not replace the previous result.
+     *
+     * @param job the job to run
+     * @return the unsaved result of the check
+     * @throws ExitException is thrown if JPlag exits unexpectedly
+     * @throws IOException   is thrown for file handling errors
+     */
+    public PlagiarismResult<?> checkPlagiarism(PlagiarismCheckJob job) throws ExitException, IOException {
+        long exerciseId = job.getExerciseId();
+        long start = System.nanoTime();
+        log.info("Start the plagiarism check of {} exercise {} in job {}", job.getExerciseType(), exerciseId, job.getId());
+        PlagiarismResult<?> plagiarismResult = switch (job.getExerciseType()) {
+            case TEXT -> {
+                var textExercise = textExerciseRepository.findByIdWithStudentParticipationsAndSubmissionsElseThrow(exerciseId);
+                yield textPlagiarismDetectionService.checkPlagiarism(textExercise, job.getSimilarityThreshold(), job.getMinimumScore(), job.getMinimumSize());
+            }
+            case MODELING -> {
+                var modelingExercise = modelingExerciseRepository.findByIdWithStudentParticipationsSubmissionsResultsElseThrow(exerciseId);
+                yield modelingPlagiarismDetectionService.checkPlagiarism(modelingExercise, job.getSimilarityThreshold() / 100, job.getMinimumSize(), job.getMinimumScore());
+            }
+            case PROGRAMMING -> programmingPlagiarismDetectionService.checkPlagiarism(exerciseId, job.getSimilarityThreshold(), job.getMinimumScore());
+            default -> throw new BadRequestAlertException("Plagiarism checks are not supported for exercises of type " + job.getExerciseType(), "Plagiarism Check",
+                    "exerciseTypeNotSupported");
+        };
+        log.info("Finished the plagiarism check of exercise {} with {} comparisons in {}", exerciseId, plagiarismResult.getComparisons().size(),
+                TimeLogUtil.formatDurationFrom(start));
+        return plagiarismResult;
+    }
+
+    /**
+     * Saves the given result of a check and removes the previous result of the exercise
+     *
+     * @param plagiarismResult the result of the check
+     * @return the saved result
+     */
+    public PlagiarismResult<?> saveResult(PlagiarismResult<?> plagiarismResult) {
+        // TODO: limit the amount temporarily because of database issues
+        plagiarismResult.sortAndLimit(100);
+        log.info("Limited number of comparisons to {} to avoid performance issues when saving to database", plagiarismResult.getComparisons().size());
+        long start = System.nanoTime();
+        var savedResult = plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(plagiarismResult);
+        log.info("Finished plagiarismResultRepository.savePlagiarismResultAndRemovePrevious call in {}", TimeLogUtil.formatDurationFrom(start));
+        return savedResult;
+    }
+}
@@ -0,0 +1,280 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.VcsRepositoryUrl;
+import de.tum.in.www1.artemis.exception.GitException;
+import de.tum.in.www1.artemis.service.connectors.GitService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps bare mirrors of the repositories compared in plagiarism checks on the local disk, so that a repeated check only fetches the new commits of each repository
+ * instead of cloning all repositories again. The files of the default branch are exported from the mirrors into the folders that JPlag compares.
+ * <p>
+ * The mirrors are identified by a hash of the repository url. The pool is bounded by the disk usage of the mirrors, the least recently used mirrors are deleted first.
+ * The mirrors are fetched in parallel on a dedicated fork-join pool, whose parallelism should be chosen according to the number of concurrent requests the version
+ * control system can handle.
+ */
+@Service
+public class PlagiarismRepositoryMirrorService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlagiarismRepositoryMirrorService.class);
+
+    private static final String METRIC_PREFIX = "artemis.plagiarism.repository_mirrors";
+
+    private final GitService gitService;
+
+    private final Path mirrorPath;
+
+    private final long maxDiskUsageInBytes;
+
+    private final ForkJoinPool fetchPool;
+
+    /**
+     * The disk usage of the mirrors by mirror name in access order, guarded by its own lock. It is loaded from the disk on first use.
+     */
+    private final LinkedHashMap<String, Long> mirrorSizes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private boolean mirrorSizesLoaded;
+
+    /**
+     * The locks of the mirrors, a mirror must not be fetched concurrently or deleted while it is fetched or exported
+     */
+    private final Map<String, ReentrantLock> mirrorLocks = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public PlagiarismRepositoryMirrorService(GitService gitService, MeterRegistry meterRegistry, @Value("${artemis.repo-mirror-path:./repos-mirror}") String mirrorPath,
+            @Value("${artemis.plagiarism.repository-mirrors.max-disk-usage-in-mb:10240}") long maxDiskUsageInMb,
+            @Value("${artemis.plagiarism.repository-mirrors.fetch-parallelism:4}") int fetchParallelism) {
+        this.gitService = gitService;
+        this.mirrorPath = Path.of(mirrorPath);
+        this.maxDiskUsageInBytes = maxDiskUsageInMb * FileUtils.ONE_MB;
+        this.fetchPool = new ForkJoinPool(Math.max(1, fetchParallelism));
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        Gauge.builder(METRIC_PREFIX + ".disk_usage", this, PlagiarismRepositoryMirrorService::getDiskUsage).baseUnit("bytes")
+                .description("Disk usage of the repository mirrors for plagiarism checks on this instance").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".mirrors", this, PlagiarismRepositoryMirrorService::getNumberOfMirrors)
+                .description("Number of repository mirrors for plagiarism checks on this instance").register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_PREFIX + ".requests").tag("result", result)
+                .description("Number of requested repositories, by whether an existing mirror was fetched or the repository had to be cloned").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchPool.shutdownNow();
+    }
+
+    /**
+     * Fetches the mirrors of the given repositories in parallel and exports the files of their default branches into the given target folders. Afterwards, the least
+     * recently used mirrors are deleted until the disk usage is within the limit.
+     *
+     * @param targetPaths the folder into which the files of each repository should be exported, by repository url
+     * @param onExported  called with the repository url after each successful export, e.g. to notify about the progress
+     * @return the exported commit of each repository whose files were exported, repositories that could not be fetched are logged and skipped
+     */
+    public Map<VcsRepositoryUrl, String> exportRepositories(Map<VcsRepositoryUrl, Path> targetPaths, Consumer<VcsRepositoryUrl> onExported) {
+        Map<VcsRepositoryUrl, String> exportedRepositories = new ConcurrentHashMap<>();
+        try {
+            // a parallel stream started by a task of a fork-join pool runs on this pool instead of the common pool
+            fetchPool.submit(() -> targetPaths.entrySet().parallelStream().forEach(target -> {
+                try {
+                    exportedRepositories.put(target.getKey(), exportRepository(target.getKey(), target.getValue()));
+                    onExported.accept(target.getKey());
+                }
+                catch (GitException | GitAPIException | IOException ex) {
+                    log.error("Export of repository {} to {} did not work as expected: {}", target.getKey(), target.getValue(), ex.getMessage());
+                }
+            })).join();
+        }
+        finally {
+            evictLeastRecentlyUsedMirrors();
+        }
+        return exportedRepositories;
+    }
+
+    /**
+     * Fetches the mirror of the given repository, or clones it if it does not exist yet, and exports the files of its default branch into the given folder
+     *
+     * @param repositoryUrl the url of the remote repository
+     * @param targetPath    the folder into which the files should be exported
+     * @return the hash of the exported commit, or the zero id if the repository is empty
+     * @throws GitAPIException if the mirror could not be fetched or cloned
+     * @throws GitException    if the mirror could not be accessed
+     * @throws IOException     if the files could not be exported
+     */
+    public String exportRepository(VcsRepositoryUrl repositoryUrl, Path targetPath) throws GitAPIException, GitException, IOException {
+        String mirrorName = DigestUtils.sha256Hex(repositoryUrl.toString());
+        Path localMirrorPath = mirrorPath.resolve(mirrorName);
+        ReentrantLock lock = mirrorLocks.computeIfAbsent(mirrorName, name -> new ReentrantLock());
+        lock.lock();
+        try {
+            boolean existed;
+            try {
+                existed = gitService.fetchOrCloneMirror(repositoryUrl, localMirrorPath);
+            }
+            catch (GitAPIException | GitException ex) {
+                // a broken mirror is cloned again by the next check
+                FileUtils.deleteQuietly(localMirrorPath.toFile());
+                updateMirrorSize(mirrorName, 0);
+                throw ex;
+            }
+            (existed ? hits : misses).increment();
+            updateMirrorSize(mirrorName, FileUtils.sizeOfDirectory(localMirrorPath.toFile()));
+            return exportDefaultBranch(localMirrorPath, targetPath);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the regular files of the default branch (HEAD) of the given bare mirror into the given folder, without a git directory. Symbolic links and submodules are
+     * skipped, as JPlag only compares the files.
+     *
+     * @return the hash of the exported commit, or the zero id if the mirror is empty
+     */
+    private static String exportDefaultBranch(Path localMirrorPath, Path targetPath) throws IOException {
+        Path normalizedTargetPath = targetPath.toAbsolutePath().normalize();
+        Files.createDirectories(normalizedTargetPath);
+        try (Repository mirror = new FileRepositoryBuilder().setGitDir(localMirrorPath.toFile()).setMustExist(true).build();
+                RevWalk revWalk = new RevWalk(mirror);
+                TreeWalk treeWalk = new TreeWalk(mirror)) {
+            ObjectId head = mirror.resolve(Constants.HEAD);
+            if (head == null) {
+                log.debug("The mirror {} is empty, nothing to export", localMirrorPath);
+                return ObjectId.zeroId().name();
+            }
+            treeWalk.addTree(revWalk.parseCommit(head).getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                FileMode fileMode = treeWalk.getFileMode(0);
+                if (fileMode != FileMode.REGULAR_FILE && fileMode != FileMode.EXECUTABLE_FILE) {
+                    continue;
+                }
+                Path file = normalizedTargetPath.resolve(treeWalk.getPathString()).normalize();
+                if (!file.startsWith(normalizedTargetPath)) {
+                    log.warn("Skip file {} of mirror {} outside of the target folder", treeWalk.getPathString(), localMirrorPath);
+                    continue;
+                }
+                Files.createDirectories(file.getParent());
+                try (OutputStream outputStream = Files.newOutputStream(file)) {
+                    mirror.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB).copyTo(outputStream);
+                }
+            }
+            return head.name();
+        }
+    }
+
+    private void updateMirrorSize(String mirrorName, long size) {
+        synchronized (mirrorSizes) {
+            loadMirrorSizes();
+            if (size > 0) {
+                mirrorSizes.put(mirrorName, size);
+            }
+            else {
+                mirrorSizes.remove(mirrorName);
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used mirrors that are not in use until the disk usage of the mirrors is within the limit
+     */
+    private void evictLeastRecentlyUsedMirrors() {
+        synchronized (mirrorSizes) {
+            loadMirrorSizes();
+            long diskUsage = mirrorSizes.values().stream().mapToLong(Long::longValue).sum();
+            var iterator = mirrorSizes.entrySet().iterator();
+            while (diskUsage > maxDiskUsageInBytes && iterator.hasNext()) {
+                var mirror = iterator.next();
+                ReentrantLock lock = mirrorLocks.computeIfAbsent(mirror.getKey(), name -> new ReentrantLock());
+                if (!lock.tryLock()) {
+                    // the mirror is fetched or exported right now
+                    continue;
+                }
+                try {
+                    File mirrorFolder = mirrorPath.resolve(mirror.getKey()).toFile();
+                    if (!FileUtils.deleteQuietly(mirrorFolder) && mirrorFolder.exists()) {
+                        log.warn("Could not delete the least recently used repository mirror {}", mirrorFolder);
+                        continue;
+                    }
+                    log.debug("Deleted the least recently used repository mirror {}", mirrorFolder);
+                    diskUsage -= mirror.getValue();
+                    iterator.remove();
+                }
+                finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the disk usage of the mirrors that exist on the disk, e.g. from before a restart, ordered by their last modification. Must be called while holding the lock of
+     * {@link #mirrorSizes}.
+     */
+    private void loadMirrorSizes() {
+        if (mirrorSizesLoaded) {
+            return;
+        }
+        mirrorSizesLoaded = true;
+        File[] mirrorFolders = mirrorPath.toFile().listFiles(File::isDirectory);
+        if (mirrorFolders == null) {
+            return;
+        }
+        Arrays.sort(mirrorFolders, Comparator.comparingLong(File::lastModified));
+        for (File mirrorFolder : mirrorFolders) {
+            mirrorSizes.putIfAbsent(mirrorFolder.getName(), FileUtils.sizeOfDirectory(mirrorFolder));
+        }
+        log.info("Found {} repository mirrors in {}", mirrorFolders.length, mirrorPath);
+    }
+
+    private long getDiskUsage() {
+        synchronized (mirrorSizes) {
+            loadMirrorSizes();
+            return mirrorSizes.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private int getNumberOfMirrors() {
+        synchronized (mirrorSizes) {
+            loadMirrorSizes();
+            return mirrorSizes.size();
+        }
+    }
+}
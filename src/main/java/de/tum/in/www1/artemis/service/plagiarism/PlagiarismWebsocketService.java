@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.tum.in.www1.artemis.domain.PlagiarismCheckState;
+import de.tum.in.www1.artemis.domain.enumeration.ExerciseType;
 import de.tum.in.www1.artemis.service.WebsocketMessagingService;
 
 @Service
@@ -21,6 +24,11 @@ public class PlagiarismWebsocketService {
 
     private final WebsocketMessagingService websocketMessagingService;
 
+    /**
+     * The latest progress message of each topic of a running check on this instance, which the plagiarism check jobs store as their progress
+     */
+    private final Map<String, String> latestProgressMessages = new ConcurrentHashMap<>();
+
     public PlagiarismWebsocketService(WebsocketMessagingService websocketMessagingService) {
         this.websocketMessagingService = websocketMessagingService;
     }
@@ -36,6 +44,12 @@ public class PlagiarismWebsocketService {
         Map<String, String> payload = new HashMap<>();
         payload.put("state", plagiarismCheckState.toString());
         payload.put("messages", String.join("\n", messages));
+        if (plagiarismCheckState == PlagiarismCheckState.RUNNING) {
+            latestProgressMessages.put(topic, payload.get("messages"));
+        }
+        else {
+            latestProgressMessages.remove(topic);
+        }
 
         ObjectMapper mapper = new ObjectMapper();
         try {
@@ -46,6 +60,41 @@ public class PlagiarismWebsocketService {
         }
     }
 
+    /**
+     * Return the latest progress message sent to the given topic while the check was running on this instance
+     *
+     * @param topic the topic of the check
+     * @return the latest progress message, or empty if the check is not running on this instance
+     */
+    public Optional<String> getLatestProgressMessage(String topic) {
+        return Optional.ofNullable(latestProgressMessages.get(topic));
+    }
+
+    /**
+     * Forget the latest progress message of the given topic, e.g. because the check failed without sending a final state
+     *
+     * @param topic the topic of the check
+     */
+    public void clearLatestProgressMessage(String topic) {
+        latestProgressMessages.remove(topic);
+    }
+
+    /**
+     * Return the topic of the plagiarism check for the exercise with the given type
+     *
+     * @param exerciseType the type of the exercise
+     * @param exerciseId   the id of the exercise
+     * @return the topic
+     */
+    public String getPlagiarismCheckTopic(ExerciseType exerciseType, Long exerciseId) {
+        return switch (exerciseType) {
+            case PROGRAMMING -> getProgrammingExercisePlagiarismCheckTopic(exerciseId);
+            case TEXT -> getTextExercisePlagiarismCheckTopic(exerciseId);
+            case MODELING -> getModelingExercisePlagiarismCheckTopic(exerciseId);
+            default -> throw new IllegalArgumentException("Plagiarism checks are not supported for exercises of type " + exerciseType);
+        };
+    }
+
     /**
      * Return the topic of the plagiarism check for the programming exercise
      *
@@ -4,16 +4,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.validation.constraints.NotNull;
 
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,25 +23,27 @@ import de.jplag.options.JPlagOptions;
 import de.jplag.reporting.reportobject.ReportObjectFactory;
 import de.tum.in.www1.artemis.domain.PlagiarismCheckState;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
-import de.tum.in.www1.artemis.domain.Repository;
 import de.tum.in.www1.artemis.domain.Submission;
+import de.tum.in.www1.artemis.domain.VcsRepositoryUrl;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
-import de.tum.in.www1.artemis.exception.GitException;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
-import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
 import de.tum.in.www1.artemis.service.FileService;
 import de.tum.in.www1.artemis.service.UrlService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismCacheService;
-import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseExportService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 
 @Service
 public class ProgrammingPlagiarismDetectionService {
 
+    /**
+     * The folder within the download folder of a check into which the unchanged repositories are moved
+     */
+    private static final String UNCHANGED_REPOSITORIES_FOLDER = "unchanged";
+
     @Value("${artemis.repo-download-clone-path}")
     private String repoDownloadClonePath;
 
@@ -60,46 +57,43 @@ public class ProgrammingPlagiarismDetectionService {
 
     private final StudentParticipationRepository studentParticipationRepository;
 
-    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
-
-    private final ProgrammingExerciseExportService programmingExerciseExportService;
-
-    private final PlagiarismResultRepository plagiarismResultRepository;
-
     private final PlagiarismWebsocketService plagiarismWebsocketService;
 
     private final PlagiarismCacheService plagiarismCacheService;
 
     private final UrlService urlService;
 
+    private final PlagiarismRepositoryMirrorService repositoryMirrorService;
+
+    private final IncrementalJPlagService incrementalJPlagService;
+
     public ProgrammingPlagiarismDetectionService(ProgrammingExerciseRepository programmingExerciseRepository, FileService fileService, GitService gitService,
-            StudentParticipationRepository studentParticipationRepository, PlagiarismResultRepository plagiarismResultRepository,
-            ProgrammingExerciseExportService programmingExerciseExportService, PlagiarismWebsocketService plagiarismWebsocketService, PlagiarismCacheService plagiarismCacheService,
-            UrlService urlService) {
+            StudentParticipationRepository studentParticipationRepository, PlagiarismWebsocketService plagiarismWebsocketService, PlagiarismCacheService plagiarismCacheService,
+            UrlService urlService, PlagiarismRepositoryMirrorService repositoryMirrorService, IncrementalJPlagService incrementalJPlagService) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.fileService = fileService;
         this.gitService = gitService;
         this.studentParticipationRepository = studentParticipationRepository;
-        this.programmingExerciseExportService = programmingExerciseExportService;
-        this.plagiarismResultRepository = plagiarismResultRepository;
         this.plagiarismWebsocketService = plagiarismWebsocketService;
         this.plagiarismCacheService = plagiarismCacheService;
         this.urlService = urlService;
+        this.repositoryMirrorService = repositoryMirrorService;
+        this.incrementalJPlagService = incrementalJPlagService;
     }
 
     /**
-     * downloads all repos of the exercise and runs JPlag
+     * downloads all repos of the exercise and runs JPlag. If the previous check of the exercise used the same parameters and base code, JPlag only compares the
+     * new or changed repositories with each other and with the unchanged repositories, see {@link IncrementalJPlagService}.
      *
      * @param programmingExerciseId the id of the programming exercises which should be checked
      * @param similarityThreshold   ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
      * @param minimumScore          consider only submissions whose score is greater or equal to this value
-     * @return the text plagiarism result container with up to 500 comparisons with the highest similarity values
+     * @return the unsaved text plagiarism result container with up to 500 comparisons with the highest similarity values
      * @throws ExitException is thrown if JPlag exits unexpectedly
      * @throws IOException   is thrown for file handling errors
      */
     public TextPlagiarismResult checkPlagiarism(long programmingExerciseId, float similarityThreshold, int minimumScore) throws ExitException, IOException {
         long start = System.nanoTime();
-        String topic = plagiarismWebsocketService.getProgrammingExercisePlagiarismCheckTopic(programmingExerciseId);
 
         final var programmingExercise = programmingExerciseRepository.findByIdWithTemplateAndSolutionParticipationElseThrow(programmingExerciseId);
 
@@ -112,27 +106,11 @@ public class ProgrammingPlagiarismDetectionService {
             }
             plagiarismCacheService.setActivePlagiarismCheck(courseId);
 
-            JPlagResult jPlagResult = computeJPlagResult(programmingExercise, similarityThreshold, minimumScore);
-            if (jPlagResult == null) {
-                log.info("Insufficient amount of submissions for plagiarism detection. Return empty result.");
-                TextPlagiarismResult textPlagiarismResult = new TextPlagiarismResult();
-                textPlagiarismResult.setExercise(programmingExercise);
-                textPlagiarismResult.setSimilarityDistribution(new int[0]);
-
-                log.info("Finished programmingExerciseExportService.checkPlagiarism call for {} comparisons in {}", textPlagiarismResult.getComparisons().size(),
-                        TimeLogUtil.formatDurationFrom(start));
-                limitAndSavePlagiarismResult(textPlagiarismResult);
-                log.info("Finished plagiarismResultRepository.savePlagiarismResultAndRemovePrevious call in {}", TimeLogUtil.formatDurationFrom(start));
-                return textPlagiarismResult;
-            }
-
-            log.info("JPlag programming comparison finished with {} comparisons for programming exercise {}", jPlagResult.getAllComparisons().size(), programmingExerciseId);
-            TextPlagiarismResult textPlagiarismResult = new TextPlagiarismResult();
-            textPlagiarismResult.convertJPlagResult(jPlagResult, programmingExercise);
+            TextPlagiarismResult textPlagiarismResult = computePlagiarismResult(programmingExercise, similarityThreshold, minimumScore);
+            log.info("JPlag programming comparison finished with {} similar pairs for programming exercise {}", textPlagiarismResult.getSubmissionSimilarities().size(),
+                    programmingExerciseId);
 
             log.info("JPlag programming comparison done in {}", TimeLogUtil.formatDurationFrom(start));
-            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.COMPLETED, List.of());
-            limitAndSavePlagiarismResult(textPlagiarismResult);
             return textPlagiarismResult;
         }
         finally {
@@ -177,21 +155,10 @@ public class ProgrammingPlagiarismDetectionService {
             throw new BadRequestAlertException("Insufficient amount of valid and long enough submissions available for comparison", "Plagiarism Check", "notEnoughSubmissions");
         }
 
-        List<Repository> repositories = downloadRepositories(programmingExercise, participations, targetPath);
-        log.info("Downloading repositories done for programming exercise {}", programmingExerciseId);
+        var exportedCommits = downloadRepositories(programmingExercise, participations, targetPath);
+        log.info("Downloading {} repositories done for programming exercise {}", exportedCommits.size(), programmingExerciseId);
 
-        final var projectKey = programmingExercise.getProjectKey();
-        final var repoFolder = Path.of(targetPath, projectKey).toFile();
-        final var programmingLanguage = getJPlagProgrammingLanguage(programmingExercise);
-        final var templateRepoName = urlService.getRepositorySlugFromRepositoryUrl(programmingExercise.getTemplateParticipation().getVcsRepositoryUrl());
-
-        JPlagOptions options = new JPlagOptions(programmingLanguage, Set.of(repoFolder), Set.of())
-                // JPlag expects a value between 0.0 and 1.0
-                .withSimilarityThreshold(similarityThreshold / 100.0).withClusteringOptions(new ClusteringOptions().withEnabled(false));
-        if (templateRepoName != null) {
-            var templateFolder = Path.of(targetPath, projectKey, templateRepoName).toFile();
-            options = options.withBaseCodeSubmissionDirectory(templateFolder);
-        }
+        JPlagOptions options = createJPlagOptions(programmingExercise, targetPath, similarityThreshold);
 
         log.info("Start JPlag programming comparison for programming exercise {}", programmingExerciseId);
         String topic = plagiarismWebsocketService.getProgrammingExercisePlagiarismCheckTopic(programmingExerciseId);
@@ -218,21 +185,80 @@ public class ProgrammingPlagiarismDetectionService {
             }
         }
 
-        cleanupResourcesAsync(programmingExercise, repositories, targetPath);
+        cleanupResourcesAsync(programmingExercise, targetPath);
         return result;
     }
 
     /**
-     * Sorts and limits the text plagiarism result amount to 500 and saves it into the database.
-     * Removes the previously saved result.
+     * Checks for plagiarism and returns the plagiarism result. The repositories that have not been changed since the previous check with the same parameters are moved
+     * into a separate folder, so that JPlag only compares the pairs that involve at least one new or changed repository.
      *
-     * @param textPlagiarismResult the plagiarism result to save
+     * @param programmingExercise the programming exercise to check
+     * @param similarityThreshold the similarity threshold (in % between 0 and 100)
+     * @param minimumScore        the minimum score
+     * @return the plagiarism result with the parameters and the fingerprints of the check
      */
-    private void limitAndSavePlagiarismResult(TextPlagiarismResult textPlagiarismResult) {
-        // TODO: limit the amount temporarily because of database issues
-        textPlagiarismResult.sortAndLimit(100);
-        log.info("Limited number of comparisons to {} to avoid performance issues when saving to database", textPlagiarismResult.getComparisons().size());
-        plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(textPlagiarismResult);
+    private TextPlagiarismResult computePlagiarismResult(ProgrammingExercise programmingExercise, float similarityThreshold, int minimumScore) {
+        long programmingExerciseId = programmingExercise.getId();
+        final var targetPath = fileService.getUniquePathString(repoDownloadClonePath);
+        List<ProgrammingExerciseParticipation> participations = filterStudentParticipationsForComparison(programmingExercise, minimumScore);
+        log.info("Download repositories for JPlag for programming exercise {} to compare {} participations", programmingExerciseId, participations.size());
+
+        if (participations.size() < 2) {
+            throw new BadRequestAlertException("Insufficient amount of valid and long enough submissions available for comparison", "Plagiarism Check", "notEnoughSubmissions");
+        }
+
+        var exportedCommits = downloadRepositories(programmingExercise, participations, targetPath);
+        log.info("Downloading {} repositories done for programming exercise {}", exportedCommits.size(), programmingExerciseId);
+
+        // the exported commits identify the versions of the repositories, the participation id is used as submission id in the plagiarism result
+        Map<Long, String> fingerprints = new HashMap<>();
+        for (ProgrammingExerciseParticipation participation : participations) {
+            var exportedCommit = exportedCommits.get(participation.getVcsRepositoryUrl());
+            if (exportedCommit != null) {
+                fingerprints.put(participation.getId(), exportedCommit);
+            }
+        }
+        JPlagOptions options = createJPlagOptions(programmingExercise, targetPath, similarityThreshold);
+        String baseCodeFingerprint = options.baseCodeSubmissionDirectory() != null ? exportedCommits.get(programmingExercise.getTemplateParticipation().getVcsRepositoryUrl())
+                : null;
+
+        log.info("Start JPlag programming comparison for programming exercise {}", programmingExerciseId);
+        String topic = plagiarismWebsocketService.getProgrammingExercisePlagiarismCheckTopic(programmingExerciseId);
+        plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of("Running JPlag..."));
+
+        final var repoFolder = Path.of(targetPath, programmingExercise.getProjectKey()).toFile();
+        final var unchangedRepoFolder = Path.of(targetPath, UNCHANGED_REPOSITORIES_FOLDER, programmingExercise.getProjectKey()).toFile();
+        TextPlagiarismResult result;
+        try {
+            // the unchanged repositories are moved into their own folder, if the base code cannot be used, the repositories are compared without it
+            result = incrementalJPlagService.checkPlagiarismWithBaseCode(options, repoFolder, unchangedRepoFolder, fingerprints, baseCodeFingerprint, similarityThreshold,
+                    minimumScore, programmingExercise);
+        }
+        catch (Exception ex) {
+            log.info("FAILED: JPlag Plagiarism Check");
+            log.error(ex.getMessage(), ex);
+            throw new BadRequestAlertException(ex.getMessage(), "Plagiarism Check", "jplagException");
+        }
+
+        cleanupResourcesAsync(programmingExercise, targetPath);
+        return result;
+    }
+
+    private JPlagOptions createJPlagOptions(ProgrammingExercise programmingExercise, String targetPath, float similarityThreshold) {
+        final var projectKey = programmingExercise.getProjectKey();
+        final var repoFolder = Path.of(targetPath, projectKey).toFile();
+        final var programmingLanguage = getJPlagProgrammingLanguage(programmingExercise);
+        final var templateRepoName = urlService.getRepositorySlugFromRepositoryUrl(programmingExercise.getTemplateParticipation().getVcsRepositoryUrl());
+
+        JPlagOptions options = new JPlagOptions(programmingLanguage, Set.of(repoFolder), Set.of())
+                // JPlag expects a value between 0.0 and 1.0
+                .withSimilarityThreshold(similarityThreshold / 100.0).withClusteringOptions(new ClusteringOptions().withEnabled(false));
+        if (templateRepoName != null) {
+            var templateFolder = Path.of(targetPath, projectKey, templateRepoName).toFile();
+            options = options.withBaseCodeSubmissionDirectory(templateFolder);
+        }
+        return options;
     }
 
     /**
@@ -265,44 +291,10 @@ public class ProgrammingPlagiarismDetectionService {
         return zipFile;
     }
 
-    private void cleanupResourcesAsync(final ProgrammingExercise programmingExercise, final List<Repository> repositories, final String targetPath) {
-        executor.schedule(() -> {
-            log.info("Will delete local repositories for programming exercise {}", programmingExercise.getId());
-            deleteLocalRepositories(repositories);
-            // delete project root folder in the repos download folder
-            programmingExerciseExportService.deleteReposDownloadProjectRootDirectory(programmingExercise, targetPath);
-            log.info("Delete repositories done for programming exercise {}", programmingExercise.getId());
-        }, 10, TimeUnit.SECONDS);
-    }
-
-    private void deleteLocalRepositories(List<Repository> repositories) {
-        repositories.parallelStream().forEach(repository -> {
-            var localPath = repository.getLocalPath();
-            try {
-                deleteTempLocalRepository(repository);
-            }
-            catch (GitException ex) {
-                log.error("Delete repository {} did not work as expected: {}", localPath, ex.getMessage());
-            }
-        });
-    }
-
-    /**
-     * Deletes the locally checked out repository.
-     *
-     * @param repository The repository that should get deleted
-     */
-    public void deleteTempLocalRepository(Repository repository) {
-        // we do some cleanup here to prevent future errors with file handling
-        // We can always delete the repository as it won't be used by the student (separate path)
-        if (repository != null) {
-            try {
-                gitService.deleteLocalRepository(repository);
-            }
-            catch (IOException ex) {
-                log.warn("Could not delete temporary repository {}: {}", repository.getLocalPath().toString(), ex.getMessage());
-            }
-        }
+    private void cleanupResourcesAsync(final ProgrammingExercise programmingExercise, final String targetPath) {
+        // delete the download folder of the check including the unchanged repositories, the repository mirrors are kept for the next check
+        log.info("Will delete local repositories for programming exercise {}", programmingExercise.getId());
+        fileService.scheduleForDirectoryDeletion(Path.of(targetPath), 1);
     }
 
     private Language getJPlagProgrammingLanguage(ProgrammingExercise programmingExercise) {
@@ -341,41 +333,35 @@ public class ProgrammingPlagiarismDetectionService {
                 }).toList();
     }
 
-    private List<Repository> downloadRepositories(ProgrammingExercise programmingExercise, List<ProgrammingExerciseParticipation> participations, String targetPath) {
+    /**
+     * Exports the files of the student repositories and the template repository from the local repository mirrors, which are fetched first
+     *
+     * @return the exported commit of each exported repository
+     */
+    private Map<VcsRepositoryUrl, String> downloadRepositories(ProgrammingExercise programmingExercise, List<ProgrammingExerciseParticipation> participations, String targetPath) {
         // Used for sending progress notifications
         var topic = plagiarismWebsocketService.getProgrammingExercisePlagiarismCheckTopic(programmingExercise.getId());
 
-        int maxRepositories = participations.size() + 1;
-        List<Repository> downloadedRepositories = new ArrayList<>();
-        participations.parallelStream().forEach(participation -> {
+        Map<VcsRepositoryUrl, Path> targetPaths = new LinkedHashMap<>();
+        for (ProgrammingExerciseParticipation participation : participations) {
             try {
-                var progressMessage = "Downloading repositories: " + (downloadedRepositories.size() + 1) + "/" + maxRepositories;
-                plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
-
-                Repository repo = gitService.getOrCheckoutRepositoryForJPlag(participation, targetPath);
-                gitService.resetToOriginHead(repo); // start with clean state
-                downloadedRepositories.add(repo);
+                targetPaths.put(participation.getVcsRepositoryUrl(), gitService.getLocalPathOfRepoForJPlag(participation, targetPath));
             }
-            catch (GitException | GitAPIException | InvalidPathException ex) {
+            catch (InvalidPathException ex) {
                 log.error("Clone student repository {} in exercise '{}' did not work as expected: {}", participation.getVcsRepositoryUrl(), programmingExercise.getTitle(),
                         ex.getMessage());
             }
-        });
-
-        // clone the template repo
-        try {
-            var progressMessage = "Downloading repositories: " + maxRepositories + "/" + maxRepositories;
-            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
-
-            Repository templateRepo = gitService.getOrCheckoutRepository(programmingExercise.getTemplateParticipation(), targetPath);
-            gitService.resetToOriginHead(templateRepo); // start with clean state
-            downloadedRepositories.add(templateRepo);
         }
-        catch (GitException | GitAPIException ex) {
-            log.error("Clone template repository {} in exercise '{}' did not work as expected: {}", programmingExercise.getTemplateParticipation().getVcsRepositoryUrl(),
-                    programmingExercise.getTitle(), ex.getMessage());
+        var templateRepositoryUrl = programmingExercise.getTemplateParticipation().getVcsRepositoryUrl();
+        if (templateRepositoryUrl != null) {
+            targetPaths.put(templateRepositoryUrl, Path.of(targetPath, templateRepositoryUrl.folderNameForRepositoryUrl()));
         }
 
-        return downloadedRepositories;
+        int maxRepositories = targetPaths.size();
+        AtomicInteger downloadedRepositories = new AtomicInteger();
+        return repositoryMirrorService.exportRepositories(targetPaths, repositoryUrl -> {
+            var progressMessage = "Downloading repositories: " + downloadedRepositories.incrementAndGet() + "/" + maxRepositories;
+            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+        });
     }
 }
@@ -0,0 +1,163 @@
+package de.tum.in.www1.artemis.service.plagiarism;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import de.tum.in.www1.artemis.service.plagiarism.IncrementalJPlagService.SubmissionPair;
+
+/**
+ * Finds the pairs of text submissions that are worth comparing in detail, without comparing every pair. Each text is split into overlapping sequences of words
+ * (shingles), of which a MinHash signature is calculated. Two signatures agree in a single value with the probability of the Jaccard similarity of the shingles of
+ * both texts. The signature is split into bands of several rows, two submissions become a candidate pair if all rows of at least one band agree (locality-sensitive
+ * hashing).
+ * <p>
+ * A pair with the Jaccard similarity s becomes a candidate with the probability 1 - (1 - s^rows)^bands, see {@link #candidateProbability(double)}. More bands or
+ * fewer rows find more similar pairs (higher recall) at the cost of more candidate pairs that are not similar.
+ */
+public class TextCandidateIndex {
+
+    /**
+     * The seed of the hash functions, fixed so that repeated checks of the same submissions yield the same candidate pairs
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int shingleSize;
+
+    private final int bands;
+
+    private final int rows;
+
+    private final long[] hashSeeds;
+
+    /**
+     * The submission ids by the hash of their rows, one map per band
+     */
+    private final List<Map<Long, List<Long>>> buckets;
+
+    private int numberOfSubmissions;
+
+    /**
+     * @param shingleSize the number of consecutive words that form a shingle
+     * @param bands       the number of bands of the signature
+     * @param rows        the number of rows per band
+     */
+    public TextCandidateIndex(int shingleSize, int bands, int rows) {
+        if (shingleSize < 1 || bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("The shingle size, the number of bands and the number of rows must be positive");
+        }
+        this.shingleSize = shingleSize;
+        this.bands = bands;
+        this.rows = rows;
+        Random random = new Random(SEED);
+        this.hashSeeds = random.longs((long) bands * rows).toArray();
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds the given submission to the index. Submissions without words never become candidates.
+     *
+     * @param submissionId the id of the submission
+     * @param text         the text of the submission
+     */
+    public void add(long submissionId, @Nullable String text) {
+        long[] shingles = shingles(text, shingleSize);
+        if (shingles.length == 0) {
+            return;
+        }
+        long[] signature = signature(shingles);
+        for (int band = 0; band < bands; band++) {
+            long bandHash = band;
+            for (int row = 0; row < rows; row++) {
+                bandHash = mix(bandHash * 31 + signature[band * rows + row]);
+            }
+            buckets.get(band).computeIfAbsent(bandHash, hash -> new ArrayList<>(2)).add(submissionId);
+        }
+        numberOfSubmissions++;
+    }
+
+    /**
+     * @return the pairs of submissions that agree in all rows of at least one band
+     */
+    public Set<SubmissionPair> candidatePairs() {
+        Set<SubmissionPair> candidatePairs = new HashSet<>();
+        for (var bandBuckets : buckets) {
+            for (var submissionIds : bandBuckets.values()) {
+                for (int i = 0; i < submissionIds.size(); i++) {
+                    for (int j = i + 1; j < submissionIds.size(); j++) {
+                        candidatePairs.add(SubmissionPair.of(submissionIds.get(i), submissionIds.get(j)));
+                    }
+                }
+            }
+        }
+        return candidatePairs;
+    }
+
+    /**
+     * @return the number of added submissions that have at least one shingle
+     */
+    public int getNumberOfSubmissions() {
+        return numberOfSubmissions;
+    }
+
+    /**
+     * @param jaccardSimilarity the Jaccard similarity of the shingles of two submissions (between 0 and 1)
+     * @return the probability that the two submissions become a candidate pair
+     */
+    public double candidateProbability(double jaccardSimilarity) {
+        return 1 - Math.pow(1 - Math.pow(jaccardSimilarity, rows), bands);
+    }
+
+    private long[] signature(long[] shingles) {
+        long[] signature = new long[hashSeeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < hashSeeds.length; i++) {
+                long hash = mix(shingle ^ hashSeeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Splits the given text into lower case words and hashes every sequence of the given number of consecutive words. Texts with fewer words form a single shingle.
+     *
+     * @param text        the text of a submission
+     * @param shingleSize the number of consecutive words that form a shingle
+     * @return the distinct hashes of the shingles of the text
+     */
+    static long[] shingles(@Nullable String text, int shingleSize) {
+        if (text == null) {
+            return new long[0];
+        }
+        String[] words = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")).filter(word -> !word.isEmpty()).toArray(String[]::new);
+        if (words.length == 0) {
+            return new long[0];
+        }
+        int numberOfShingles = Math.max(1, words.length - shingleSize + 1);
+        Set<Long> shingles = new HashSet<>(numberOfShingles * 2);
+        for (int start = 0; start < numberOfShingles; start++) {
+            long hash = 0;
+            for (int i = start; i < Math.min(start + shingleSize, words.length); i++) {
+                hash = mix(hash * 31 + words[i].hashCode());
+            }
+            shingles.add(hash);
+        }
+        return shingles.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * The finalizer of SplitMix64, which distributes similar inputs uniformly over all 64-bit values
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
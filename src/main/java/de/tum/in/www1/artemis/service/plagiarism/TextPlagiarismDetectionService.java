@@ -4,17 +4,22 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
-import de.jplag.JPlag;
-import de.jplag.JPlagResult;
 import de.jplag.Language;
 import de.jplag.clustering.ClusteringOptions;
 import de.jplag.exceptions.ExitException;
@@ -26,6 +31,7 @@ import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
 import de.tum.in.www1.artemis.service.TextSubmissionExportService;
+import de.tum.in.www1.artemis.service.plagiarism.IncrementalJPlagService.SubmissionPair;
 import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismCacheService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
@@ -41,11 +47,33 @@ public class TextPlagiarismDetectionService {
 
     private final PlagiarismCacheService plagiarismCacheService;
 
+    private final IncrementalJPlagService incrementalJPlagService;
+
+    /**
+     * The minimum number of submissions from which JPlag only compares the candidate pairs of a {@link TextCandidateIndex}, 0 to always compare all pairs
+     */
+    private final int candidateIndexMinSubmissions;
+
+    private final int candidateIndexShingleSize;
+
+    private final int candidateIndexBands;
+
+    private final int candidateIndexRows;
+
     public TextPlagiarismDetectionService(TextSubmissionExportService textSubmissionExportService, PlagiarismWebsocketService plagiarismWebsocketService,
-            PlagiarismCacheService plagiarismCacheService) {
+            PlagiarismCacheService plagiarismCacheService, IncrementalJPlagService incrementalJPlagService,
+            @Value("${artemis.plagiarism.text.candidate-index.min-submissions:500}") int candidateIndexMinSubmissions,
+            @Value("${artemis.plagiarism.text.candidate-index.shingle-size:3}") int candidateIndexShingleSize,
+            @Value("${artemis.plagiarism.text.candidate-index.bands:120}") int candidateIndexBands,
+            @Value("${artemis.plagiarism.text.candidate-index.rows:3}") int candidateIndexRows) {
         this.textSubmissionExportService = textSubmissionExportService;
         this.plagiarismWebsocketService = plagiarismWebsocketService;
         this.plagiarismCacheService = plagiarismCacheService;
+        this.incrementalJPlagService = incrementalJPlagService;
+        this.candidateIndexMinSubmissions = candidateIndexMinSubmissions;
+        this.candidateIndexShingleSize = candidateIndexShingleSize;
+        this.candidateIndexBands = candidateIndexBands;
+        this.candidateIndexRows = candidateIndexRows;
     }
 
     /**
@@ -70,7 +98,9 @@ public class TextPlagiarismDetectionService {
     }
 
     /**
-     * Download all submissions of the exercise, run JPlag, and return the result
+     * Download all submissions of the exercise, run JPlag, and return the result. If the previous check of the exercise used the same parameters, JPlag only compares
+     * the new or changed submissions with each other and with the unchanged submissions, see {@link IncrementalJPlagService}. Exercises with many submissions only
+     * compare the candidate pairs of a {@link TextCandidateIndex} instead of all pairs.
      *
      * @param textExercise        to detect plagiarism for
      * @param similarityThreshold ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
@@ -96,6 +126,8 @@ public class TextPlagiarismDetectionService {
             final var submissionsFolderName = "./tmp/submissions";
             final var submissionFolderFile = new File(submissionsFolderName);
             submissionFolderFile.mkdirs();
+            final var unchangedSubmissionsFolderName = "./tmp/submissions-unchanged";
+            final var unchangedSubmissionFolderFile = new File(unchangedSubmissionsFolderName);
 
             final List<TextSubmission> textSubmissions = textSubmissionsForComparison(textExercise, minimumScore, minimumSize);
             final var submissionsSize = textSubmissions.size();
@@ -106,6 +138,14 @@ public class TextPlagiarismDetectionService {
                 throw new BadRequestAlertException("Insufficient amount of valid and long enough submissions available for comparison", "Plagiarism Check", "notEnoughSubmissions");
             }
 
+            Map<Long, String> fingerprints = textSubmissions.stream().collect(Collectors.toMap(TextSubmission::getId,
+                    submission -> DigestUtils.sha256Hex(Objects.requireNonNullElse(submission.getText(), "")), (fingerprint1, fingerprint2) -> fingerprint1));
+            var previousCheck = incrementalJPlagService.findPreviousCheck(textExercise.getId(), similarityThreshold, minimumScore, minimumSize, null).orElse(null);
+            Set<Long> unchangedSubmissionIds = previousCheck != null ? previousCheck.unchangedSubmissionIds(fingerprints) : Set.of();
+            if (!unchangedSubmissionIds.isEmpty()) {
+                unchangedSubmissionFolderFile.mkdirs();
+            }
+
             AtomicInteger processedSubmissionCount = new AtomicInteger(1);
             textSubmissions.forEach(submission -> {
                 var progressMessage = "Getting submission: " + processedSubmissionCount + "/" + textSubmissions.size();
@@ -122,7 +162,9 @@ public class TextPlagiarismDetectionService {
                 }
 
                 try {
-                    textSubmissionExportService.saveSubmissionToFile(submission, participantIdentifier, submissionsFolderName);
+                    // the unchanged submissions are only compared with the new or changed ones
+                    var folderName = unchangedSubmissionIds.contains(submission.getId()) ? unchangedSubmissionsFolderName : submissionsFolderName;
+                    textSubmissionExportService.saveSubmissionToFile(submission, participantIdentifier, folderName);
                 }
                 catch (IOException e) {
                     log.error(e.getMessage());
@@ -141,20 +183,24 @@ public class TextPlagiarismDetectionService {
                     .withSimilarityThreshold(similarityThreshold / 100.0).withClusteringOptions(new ClusteringOptions().withEnabled(false));
 
             log.info("Start JPlag Text comparison");
-            JPlag jplag = new JPlag(options);
-            JPlagResult jPlagResult = jplag.run();
-            log.info("JPlag Text comparison finished with {} comparisons. Will limit the number of comparisons to 500", jPlagResult.getAllComparisons().size());
-
-            log.info("Delete submission folder");
-            if (submissionFolderFile.exists()) {
-                FileSystemUtils.deleteRecursively(submissionFolderFile);
+            TextPlagiarismResult textPlagiarismResult;
+            try {
+                textPlagiarismResult = incrementalJPlagService.checkPlagiarism(options, submissionFolderFile, unchangedSubmissionFolderFile, previousCheck, fingerprints,
+                        findCandidatePairs(textSubmissions), textExercise);
             }
-
-            TextPlagiarismResult textPlagiarismResult = new TextPlagiarismResult();
-            textPlagiarismResult.convertJPlagResult(jPlagResult, textExercise);
+            finally {
+                log.info("Delete submission folder");
+                if (submissionFolderFile.exists()) {
+                    FileSystemUtils.deleteRecursively(submissionFolderFile);
+                }
+                if (unchangedSubmissionFolderFile.exists()) {
+                    FileSystemUtils.deleteRecursively(unchangedSubmissionFolderFile);
+                }
+            }
+            textPlagiarismResult.setParameters(similarityThreshold, minimumScore, minimumSize, null);
+            log.info("JPlag Text comparison finished with {} similar pairs. Will limit the number of comparisons to 500", textPlagiarismResult.getSubmissionSimilarities().size());
 
             log.info("JPlag text comparison for {} submissions done in {}", submissionsSize, TimeLogUtil.formatDurationFrom(start));
-            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.COMPLETED, List.of());
             return textPlagiarismResult;
         }
         catch (Exception ex) {
@@ -165,4 +211,26 @@ public class TextPlagiarismDetectionService {
             plagiarismCacheService.setInactivePlagiarismCheck(courseId);
         }
     }
+
+    /**
+     * Finds the candidate pairs of the given submissions if there are enough submissions that comparing all pairs would be too expensive
+     *
+     * @param textSubmissions the submissions of the check
+     * @return the candidate pairs, or null if all pairs should be compared
+     */
+    @Nullable
+    private Set<SubmissionPair> findCandidatePairs(List<TextSubmission> textSubmissions) {
+        if (candidateIndexMinSubmissions <= 0 || textSubmissions.size() < candidateIndexMinSubmissions) {
+            return null;
+        }
+        long start = System.nanoTime();
+        var candidateIndex = new TextCandidateIndex(candidateIndexShingleSize, candidateIndexBands, candidateIndexRows);
+        textSubmissions.forEach(submission -> candidateIndex.add(submission.getId(), submission.getText()));
+        var candidatePairs = candidateIndex.candidatePairs();
+        long numberOfPairs = (long) textSubmissions.size() * (textSubmissions.size() - 1) / 2;
+        log.info("Found {} candidate pairs of {} pairs in {}, pairs with a shingle similarity of 30% / 50% are candidates with a probability of {}% / {}%",
+                candidatePairs.size(), numberOfPairs, TimeLogUtil.formatDurationFrom(start), Math.round(candidateIndex.candidateProbability(0.3) * 100),
+                Math.round(candidateIndex.candidateProbability(0.5) * 100));
+        return candidatePairs;
+    }
 }
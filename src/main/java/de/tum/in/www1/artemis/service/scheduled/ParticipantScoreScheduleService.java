@@ -1,12 +1,14 @@
 package de.tum.in.www1.artemis.service.scheduled;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -15,11 +17,17 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.partition.MigrationListener;
+import com.hazelcast.partition.MigrationState;
+import com.hazelcast.partition.ReplicaMigrationEvent;
+
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.Team;
@@ -27,40 +35,92 @@ import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.participation.Participant;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.scores.ParticipantScore;
+import de.tum.in.www1.artemis.domain.scores.ParticipantScoreResult;
 import de.tum.in.www1.artemis.domain.scores.StudentScore;
 import de.tum.in.www1.artemis.domain.scores.TeamScore;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.LearningGoalProgressService;
+import de.tum.in.www1.artemis.service.StudentCourseScoreService;
+import de.tum.in.www1.artemis.service.messaging.MessageTopic;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Scheduled service for the calculation of the participant scores.
- * Note: Only active on the main instance with "scheduling" profile.
+ * Note: Active on all instances, each instance calculates the participant scores of the exercises whose Hazelcast partition (by exercise id) it owns.
+ * When instances join or leave the cluster, the pending updates of partitions that moved are handed over to their new owner.
  * <p>
  * The approach is two-sided, to make the participant scores eventually consistent within seconds without overloading the database.
- * Using a listener on the {@link Result} entity, changes are detected and forwarded (via the broker if not on the main instance) to this service.
+ * Using a listener on the {@link Result} entity, changes are detected and forwarded (via the broker if the exercise is owned by another instance) to this service.
  * This method is fast, but not 100% reliable. Therefore, a cron job regularly checks for invalid participant scores and updates them.
  * In all cases, using asynchronous scheduled tasks speeds up all requests that modify results.
+ * <p>
+ * The updates are enqueued in a coalescing queue keyed by the combination of exercise and participant, so that many changes of the same participant score
+ * (e.g. when all results of an exercise are regraded) only lead to one update. The queue is drained in batches, which load everything they need
+ * for all participant scores of the batch with a few queries and save the participant scores together.
  *
  * @see de.tum.in.www1.artemis.service.listeners.ResultListener
  */
 @Service
-@Profile("scheduling")
 public class ParticipantScoreScheduleService {
 
+    /**
+     * The time in ms without a new update for the same participant score after which a pending update is processed
+     */
     public static int DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS = 500;
 
+    /**
+     * The maximum time in ms an update can be pending, even if the participant score is updated continuously
+     */
+    private static final long MAXIMUM_DELAY_OF_UPDATES = 10_000;
+
+    /**
+     * The interval in ms in which the queue is checked for due updates
+     */
+    private static final long QUEUE_CHECK_INTERVAL = 50;
+
+    /**
+     * The maximum number of participant scores that are updated together
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * How far the next run of the cron job looks back additionally after the partition ownership changed, to recover the pending updates of instances that left
+     */
+    private static final Duration LOOKBACK_AFTER_OWNERSHIP_CHANGE = Duration.ofMinutes(5);
+
+    private static final String METRIC_PREFIX = "artemis.participant_scores.updates";
+
     private final Logger logger = LoggerFactory.getLogger(ParticipantScoreScheduleService.class);
 
     private final TaskScheduler scheduler;
 
-    private final Map<Integer, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
+    private final HazelcastInstance hazelcastInstance;
+
+    private final Map<ParticipantScoreId, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean isProcessingBatch = new AtomicBoolean(false);
+
+    private ScheduledFuture<?> queueProcessor;
+
+    private UUID messageListenerId;
+
+    private UUID migrationListenerId;
+
+    private final Counter processedUpdates;
+
+    private final Timer batchTimer;
 
-    private Optional<Instant> lastScheduledRun = Optional.empty();
+    private volatile Optional<Instant> lastScheduledRun = Optional.empty();
 
     private final LearningGoalProgressService learningGoalProgressService;
 
+    private final StudentCourseScoreService studentCourseScoreService;
+
     private final ParticipantScoreRepository participantScoreRepository;
 
     private final StudentScoreRepository studentScoreRepository;
@@ -81,11 +141,14 @@ public class ParticipantScoreScheduleService {
      */
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
 
-    public ParticipantScoreScheduleService(@Qualifier("taskScheduler") TaskScheduler scheduler, LearningGoalProgressService learningGoalProgressService,
-            ParticipantScoreRepository participantScoreRepository, StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository,
-            ExerciseRepository exerciseRepository, ResultRepository resultRepository, UserRepository userRepository, TeamRepository teamRepository) {
+    public ParticipantScoreScheduleService(@Qualifier("taskScheduler") TaskScheduler scheduler, HazelcastInstance hazelcastInstance,
+            LearningGoalProgressService learningGoalProgressService, StudentCourseScoreService studentCourseScoreService, ParticipantScoreRepository participantScoreRepository,
+            StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository, ExerciseRepository exerciseRepository, ResultRepository resultRepository,
+            UserRepository userRepository, TeamRepository teamRepository, MeterRegistry meterRegistry) {
         this.scheduler = scheduler;
+        this.hazelcastInstance = hazelcastInstance;
         this.learningGoalProgressService = learningGoalProgressService;
+        this.studentCourseScoreService = studentCourseScoreService;
         this.participantScoreRepository = participantScoreRepository;
         this.studentScoreRepository = studentScoreRepository;
         this.teamScoreRepository = teamScoreRepository;
@@ -93,6 +156,9 @@ public class ParticipantScoreScheduleService {
         this.resultRepository = resultRepository;
         this.userRepository = userRepository;
         this.teamRepository = teamRepository;
+        this.processedUpdates = Counter.builder(METRIC_PREFIX + ".processed").description("Number of processed participant score updates").register(meterRegistry);
+        this.batchTimer = Timer.builder(METRIC_PREFIX + ".batch.duration").description("Duration of the update of one batch of participant scores").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".pending", pendingUpdates, Map::size).description("Number of participant score updates waiting to be processed").register(meterRegistry);
     }
 
     /**
@@ -104,7 +170,8 @@ public class ParticipantScoreScheduleService {
         if (!isRunning.get()) {
             return true;
         }
-        return scheduledTasks.isEmpty();
+        // check the queue first, as a batch is marked as being processed before its updates are removed from the queue
+        return pendingUpdates.isEmpty() && !isProcessingBatch.get();
     }
 
     /**
@@ -112,7 +179,7 @@ public class ParticipantScoreScheduleService {
      */
     @PostConstruct
     public void startup() {
-        isRunning.set(true);
+        activate();
         try {
             // this should never prevent the application start of Artemis
             scheduleTasks();
@@ -122,19 +189,75 @@ public class ParticipantScoreScheduleService {
         }
     }
 
-    public void activate() {
+    /**
+     * Start processing the queue of pending updates and listen for updates from other instances and for changes of the partition ownership
+     */
+    public synchronized void activate() {
         isRunning.set(true);
+        if (queueProcessor == null) {
+            queueProcessor = scheduler.scheduleWithFixedDelay(this::processPendingUpdates, Duration.ofMillis(QUEUE_CHECK_INTERVAL));
+        }
+        if (messageListenerId == null) {
+            // updates of exercises owned by this instance that were sent by other instances
+            messageListenerId = hazelcastInstance.<Long[]>getTopic(MessageTopic.PARTICIPANT_SCORE_SCHEDULE.toString()).addMessageListener(message -> {
+                var payload = message.getMessageObject();
+                if (isRunning.get() && isOwnedByThisInstance(payload[0])) {
+                    scheduleTask(payload[0], payload[1], Instant.now(), payload[2]);
+                }
+            });
+        }
+        if (migrationListenerId == null) {
+            migrationListenerId = hazelcastInstance.getPartitionService().addMigrationListener(new MigrationListener() {
+
+                @Override
+                public void migrationStarted(MigrationState state) {
+                    // nothing to do before the partitions moved
+                }
+
+                @Override
+                public void migrationFinished(MigrationState state) {
+                    onPartitionOwnershipChanged();
+                }
+
+                @Override
+                public void replicaMigrationCompleted(ReplicaMigrationEvent event) {
+                    // handled once for all partitions when the migration finished
+                }
+
+                @Override
+                public void replicaMigrationFailed(ReplicaMigrationEvent event) {
+                    // the partition stays with its previous owner
+                }
+            });
+        }
     }
 
     /**
-     * Before shutdown, cancel all running or scheduled tasks.
+     * Before shutdown, cancel the processing of the queue, remove the listeners and discard all pending updates.
      */
     @PreDestroy
-    public void shutdown() {
+    public synchronized void shutdown() {
         isRunning.set(false);
-        // Stop all running tasks, we will reschedule them on startup again
-        scheduledTasks.values().forEach(future -> future.cancel(true));
-        scheduledTasks.clear();
+        // Stop the processing, the pending updates will be scheduled again on startup
+        if (queueProcessor != null) {
+            queueProcessor.cancel(true);
+            queueProcessor = null;
+        }
+        try {
+            if (messageListenerId != null) {
+                hazelcastInstance.getTopic(MessageTopic.PARTICIPANT_SCORE_SCHEDULE.toString()).removeMessageListener(messageListenerId);
+            }
+            if (migrationListenerId != null) {
+                hazelcastInstance.getPartitionService().removeMigrationListener(migrationListenerId);
+            }
+        }
+        catch (HazelcastInstanceNotActiveException ex) {
+            // the listeners are removed with the Hazelcast instance anyway
+            logger.debug("Hazelcast is already shut down, the listeners of the participant score updates are removed with it");
+        }
+        messageListenerId = null;
+        migrationListenerId = null;
+        pendingUpdates.clear();
     }
 
     /**
@@ -165,7 +288,10 @@ public class ParticipantScoreScheduleService {
         // Update last run time before we continue with time-consuming operations
         lastScheduledRun = Optional.of(Instant.now());
 
-        var resultsToProcess = resultRepository.findAllByLastModifiedDateAfter(latestRun);
+        // Only the results and participant scores of exercises owned by this instance are loaded, the other instances process the rest
+        var ownedExerciseIdsWithResults = filterOwnedExerciseIds(resultRepository.findExerciseIdsByLastModifiedDateAfter(latestRun));
+        List<Result> resultsToProcess = ownedExerciseIdsWithResults.isEmpty() ? List.of()
+                : resultRepository.findAllByLastModifiedDateAfterAndExerciseIdIn(latestRun, ownedExerciseIdsWithResults);
         resultsToProcess.forEach(result -> {
             if (result.getParticipation() instanceof StudentParticipation studentParticipation) {
                 var lastModified = result.getLastModifiedDate() == null ? Instant.now() : result.getLastModifiedDate();
@@ -174,16 +300,18 @@ public class ParticipantScoreScheduleService {
         });
 
         // Find all outdated participant scores where the last result is null (because it was deleted)
-        var participantScoresToProcess = participantScoreRepository.findAllOutdated();
-        participantScoresToProcess.forEach(participantScore -> {
-            scheduleTask(participantScore.getExercise().getId(), participantScore.getParticipant().getId(), Instant.now(), null);
-        });
+        var ownedExerciseIdsWithOutdatedScores = filterOwnedExerciseIds(participantScoreRepository.findExerciseIdsOfOutdated());
+        List<ParticipantScore> participantScoresToProcess = ownedExerciseIdsWithOutdatedScores.isEmpty() ? List.of()
+                : participantScoreRepository.findAllOutdatedByExerciseIdIn(ownedExerciseIdsWithOutdatedScores);
+        participantScoresToProcess.forEach(
+                participantScore -> scheduleTask(participantScore.getExercise().getId(), participantScore.getParticipant().getId(), Instant.now(), null));
 
         logger.debug("Processing of {} results and {} participant scores.", resultsToProcess.size(), participantScoresToProcess.size());
     }
 
     /**
      * Schedule a task to update the participant score for the given combination of exercise and participant.
+     * If the exercise is owned by another instance, the task is forwarded to it via the broker.
      *
      * @param exerciseId          the id of the exercise
      * @param participantId       the id of the participant (user or team, determined by the exercise)
@@ -194,11 +322,63 @@ public class ParticipantScoreScheduleService {
             logger.debug("Cannot schedule task, because the service is not running");
             return;
         }
-        scheduleTask(exerciseId, participantId, Instant.now(), resultIdToBeDeleted);
+        if (isOwnedByThisInstance(exerciseId)) {
+            scheduleTask(exerciseId, participantId, Instant.now(), resultIdToBeDeleted);
+        }
+        else {
+            sendToOwner(exerciseId, participantId, resultIdToBeDeleted);
+        }
     }
 
     /**
-     * Schedule a task to update the participant score for the given combination of exercise and participant.
+     * Check if the participant scores of the given exercise are calculated by this instance, i.e. if this instance owns the Hazelcast partition of the exercise id
+     *
+     * @param exerciseId the id of the exercise
+     * @return true if this instance owns the exercise, or if the owner is not known (while the partitions are assigned) so that no update is lost
+     */
+    private boolean isOwnedByThisInstance(Long exerciseId) {
+        Member owner = hazelcastInstance.getPartitionService().getPartition(exerciseId).getOwner();
+        return owner == null || owner.localMember();
+    }
+
+    private Set<Long> filterOwnedExerciseIds(Set<Long> exerciseIds) {
+        return exerciseIds.stream().filter(this::isOwnedByThisInstance).collect(Collectors.toSet());
+    }
+
+    private void sendToOwner(Long exerciseId, Long participantId, Long resultIdToBeDeleted) {
+        logger.debug("Forwarding update for exercise {} and participant {} to the owning instance.", exerciseId, participantId);
+        hazelcastInstance.getTopic(MessageTopic.PARTICIPANT_SCORE_SCHEDULE.toString()).publish(new Long[] { exerciseId, participantId, resultIdToBeDeleted });
+    }
+
+    /**
+     * Hand over the pending updates of exercises that are owned by another instance now, and make the next run of the cron job look further back,
+     * so that the updates that were pending on instances that left the cluster are scheduled again by the new owners of their exercises.
+     */
+    private void onPartitionOwnershipChanged() {
+        if (!isRunning.get()) {
+            return;
+        }
+        int handedOver = 0;
+        for (var entry : pendingUpdates.entrySet()) {
+            var id = entry.getKey();
+            if (!isOwnedByThisInstance(id.exerciseId()) && pendingUpdates.remove(id, entry.getValue())) {
+                var resultIdsToBeDeleted = entry.getValue().resultIdsToBeDeleted();
+                if (resultIdsToBeDeleted.isEmpty()) {
+                    sendToOwner(id.exerciseId(), id.participantId(), null);
+                }
+                else {
+                    resultIdsToBeDeleted.forEach(resultId -> sendToOwner(id.exerciseId(), id.participantId(), resultId));
+                }
+                handedOver++;
+            }
+        }
+        lastScheduledRun = lastScheduledRun.map(lastRun -> lastRun.minus(LOOKBACK_AFTER_OWNERSHIP_CHANGE));
+        logger.info("Partition ownership changed, handed over {} pending participant score updates to other instances.", handedOver);
+    }
+
+    /**
+     * Enqueue the update of the participant score for the given combination of exercise and participant.
+     * If an update for the same combination is already pending, both are coalesced into one update.
      *
      * @param exerciseId          the id of the exercise
      * @param participantId       the id of the participant (user or team, determined by the exercise)
@@ -206,207 +386,291 @@ public class ParticipantScoreScheduleService {
      * @param resultIdToBeDeleted the id of the result that is about to be deleted (or null, if result is created/updated)
      */
     private void scheduleTask(Long exerciseId, Long participantId, Instant resultLastModified, Long resultIdToBeDeleted) {
-        final int participantScoreHash = new ParticipantScoreId(exerciseId, participantId).hashCode();
-        var task = scheduledTasks.get(participantScoreHash);
-        if (task != null) {
-            // If a task is already scheduled, cancel it and reschedule it with the latest result
-            task.cancel(true);
-            scheduledTasks.remove(participantScoreHash);
-        }
-
-        var schedulingTime = ZonedDateTime.now().plus(DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS, ChronoUnit.MILLIS);
-        var future = scheduler.schedule(() -> this.executeTask(exerciseId, participantId, resultLastModified, resultIdToBeDeleted), schedulingTime.toInstant());
-        scheduledTasks.put(participantScoreHash, future);
-        logger.debug("Scheduled task for exercise {} and participant {} at {}.", exerciseId, participantId, schedulingTime);
+        var newUpdate = new PendingUpdate(resultLastModified, resultIdToBeDeleted == null ? Set.of() : Set.of(resultIdToBeDeleted), System.currentTimeMillis());
+        pendingUpdates.merge(new ParticipantScoreId(exerciseId, participantId), newUpdate, PendingUpdate::coalesce);
+        logger.debug("Enqueued update for exercise {} and participant {}.", exerciseId, participantId);
     }
 
     /**
-     * Execute the task to update the participant score for the given combination of exercise and participant.
-     *
-     * @param exerciseId          the id of the exercise
-     * @param participantId       the id of the participant (user or team, determined by the exercise)
-     * @param resultLastModified  the last modified date of the result that triggered the update
-     * @param resultIdToBeDeleted the id of the result that is about to be deleted (optional)
+     * Process all pending updates that are due in batches. An update is due if there was no new update for the same participant score for
+     * {@link #DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS} ms, or if it has been pending for {@link #MAXIMUM_DELAY_OF_UPDATES} ms.
      */
-    private void executeTask(Long exerciseId, Long participantId, Instant resultLastModified, Long resultIdToBeDeleted) {
-        long start = System.currentTimeMillis();
-        logger.info("Processing exercise {} and participant {} to update participant scores.", exerciseId, participantId);
+    private void processPendingUpdates() {
+        if (!isRunning.get()) {
+            return;
+        }
+        SecurityUtils.setAuthorizationObject();
+        // set before removing the updates from the queue, so that isIdle() never sees an empty queue while a batch is processed
+        isProcessingBatch.set(true);
         try {
-            SecurityUtils.setAuthorizationObject();
+            Map<ParticipantScoreId, PendingUpdate> batch;
+            while (isRunning.get() && !(batch = removeDueUpdates()).isEmpty()) {
+                long start = System.nanoTime();
+                try {
+                    processBatch(batch);
+                }
+                catch (Exception e) {
+                    logger.error("Exception while updating {} participant scores:", batch.size(), e);
+                }
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                processedUpdates.increment(batch.size());
+                logger.info("Updating {} participant scores took {} ms, {} updates are pending.", batch.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        pendingUpdates.size());
+            }
+        }
+        finally {
+            isProcessingBatch.set(false);
+        }
+    }
 
-            var exercise = exerciseRepository.findById(exerciseId).orElse(null);
-            if (exercise == null) {
+    /**
+     * Remove at most {@link #BATCH_SIZE} due updates from the queue
+     *
+     * @return the removed updates
+     */
+    private Map<ParticipantScoreId, PendingUpdate> removeDueUpdates() {
+        long now = System.currentTimeMillis();
+        Map<ParticipantScoreId, PendingUpdate> batch = new HashMap<>();
+        for (var entry : pendingUpdates.entrySet()) {
+            if (batch.size() >= BATCH_SIZE) {
+                break;
+            }
+            var update = entry.getValue();
+            boolean isDue = update.lastEnqueued() + DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS <= now || update.firstEnqueued() + MAXIMUM_DELAY_OF_UPDATES <= now;
+            // only remove the update if it was not coalesced with a newer one in the meantime, otherwise it is processed later
+            if (isDue && pendingUpdates.remove(entry.getKey(), update)) {
+                batch.put(entry.getKey(), update);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Update the participant scores for a batch of combinations of exercise and participant.
+     * Exercises, participants, existing participant scores and candidates for the last (rated) results are loaded with a few queries for the whole batch.
+     *
+     * @param batch the pending updates
+     */
+    private void processBatch(Map<ParticipantScoreId, PendingUpdate> batch) {
+        Set<Long> exerciseIds = batch.keySet().stream().map(ParticipantScoreId::exerciseId).collect(Collectors.toSet());
+        Map<Long, Exercise> exercises = exerciseRepository.findAllById(exerciseIds).stream().collect(Collectors.toMap(Exercise::getId, Function.identity()));
+        for (Long exerciseId : exerciseIds) {
+            if (!exercises.containsKey(exerciseId)) {
                 // If the exercise was deleted, we can delete all participant scores for it as well and skip
                 logger.debug("Exercise {} no longer exists, deleting all participant scores for it.", exerciseId);
                 participantScoreRepository.deleteAllByExerciseId(exerciseId);
-                return;
             }
+        }
 
-            Participant participant;
-            Optional<ParticipantScore> participantScore;
-            if (exercise.isTeamMode()) {
-                // Fetch the team and its score for the given exercise
-                participant = teamRepository.findById(participantId).orElse(null);
-                if (participant == null) {
-                    // If the team was deleted, we can delete all participant scores for it as well and skip
-                    logger.debug("Team {} no longer exists, deleting all participant scores for it.", participantId);
-                    teamScoreRepository.deleteAllByTeamId(participantId);
-                    return;
-                }
-                participantScore = teamScoreRepository.findByExercise_IdAndTeam_Id(exerciseId, participantId).map(score -> score);
-            }
-            else {
-                // Fetch the student and its score for the given exercise
-                participant = userRepository.findById(participantId).orElse(null);
-                if (participant == null) {
-                    // If the user was deleted, we can delete all participant scores for it as well and skip
-                    logger.debug("User {} no longer exists, deleting all participant scores for them.", participantId);
-                    studentScoreRepository.deleteAllByUserId(participantId);
-                    return;
-                }
-                participantScore = studentScoreRepository.findByExercise_IdAndUser_Id(exerciseId, participantId).map(score -> score);
+        Map<ParticipantScoreId, PendingUpdate> studentUpdates = new HashMap<>();
+        Map<ParticipantScoreId, PendingUpdate> teamUpdates = new HashMap<>();
+        batch.forEach((id, update) -> {
+            var exercise = exercises.get(id.exerciseId());
+            if (exercise != null) {
+                (exercise.isTeamMode() ? teamUpdates : studentUpdates).put(id, update);
             }
+        });
 
-            if (participantScore.isPresent()) {
-                var lastModified = participantScore.get().getLastModifiedDate();
-                if (lastModified != null && lastModified.isAfter(resultLastModified)) {
-                    // The participant score was already updated after the last modified date of the result that initiated this task
-                    // We assume we already processed the result with the last task that ran and therefore skip the processing
-                    logger.debug("Participant score {} is already up-to-date, skipping.", participantScore.get().getId());
-                    return;
+        var changes = new ParticipantScoreChanges();
+        if (!studentUpdates.isEmpty()) {
+            Set<Long> studentExerciseIds = studentUpdates.keySet().stream().map(ParticipantScoreId::exerciseId).collect(Collectors.toSet());
+            Set<Long> userIds = studentUpdates.keySet().stream().map(ParticipantScoreId::participantId).collect(Collectors.toSet());
+            Map<Long, User> users = userRepository.findAllById(userIds).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+            for (Long userId : userIds) {
+                if (!users.containsKey(userId)) {
+                    // If the user was deleted, we can delete all participant scores for it as well and skip
+                    logger.debug("User {} no longer exists, deleting all participant scores for them.", userId);
+                    studentScoreRepository.deleteAllByUserId(userId);
                 }
             }
-            else {
-                if (resultIdToBeDeleted != null) {
-                    // A participant score for this exercise/participant combination does not exist and this task was triggered because a result will be deleted
-                    // It is very likely that the whole participation or exercise is about to be deleted and their participant scores were already removed
-                    // We do not need to do anything in that case
-                    logger.debug("Result {} will be deleted and participant score for its participation is already gone, skipping.", resultIdToBeDeleted);
-                    return;
+            Map<ParticipantScoreId, ParticipantScore> existingScores = studentScoreRepository.findAllByExercise_IdInAndUser_IdIn(studentExerciseIds, userIds).stream()
+                    .collect(Collectors.toMap(score -> new ParticipantScoreId(score.getExercise().getId(), score.getUser().getId()), Function.identity(),
+                            (score, duplicate) -> score));
+            var results = resultRepository.getParticipantScoreResultsForStudents(studentExerciseIds, userIds);
+            prepareParticipantScores(studentUpdates, exercises, users, existingScores, results, changes);
+        }
+        if (!teamUpdates.isEmpty()) {
+            Set<Long> teamExerciseIds = teamUpdates.keySet().stream().map(ParticipantScoreId::exerciseId).collect(Collectors.toSet());
+            Set<Long> teamIds = teamUpdates.keySet().stream().map(ParticipantScoreId::participantId).collect(Collectors.toSet());
+            Map<Long, Team> teams = teamRepository.findAllById(teamIds).stream().collect(Collectors.toMap(Team::getId, Function.identity()));
+            for (Long teamId : teamIds) {
+                if (!teams.containsKey(teamId)) {
+                    // If the team was deleted, we can delete all participant scores for it as well and skip
+                    logger.debug("Team {} no longer exists, deleting all participant scores for it.", teamId);
+                    teamScoreRepository.deleteAllByTeamId(teamId);
                 }
             }
+            Map<ParticipantScoreId, ParticipantScore> existingScores = teamScoreRepository.findAllByExercise_IdInAndTeam_IdIn(teamExerciseIds, teamIds).stream()
+                    .collect(Collectors.toMap(score -> new ParticipantScoreId(score.getExercise().getId(), score.getTeam().getId()), Function.identity(),
+                            (score, duplicate) -> score));
+            var results = resultRepository.getParticipantScoreResultsForTeams(teamExerciseIds, teamIds);
+            prepareParticipantScores(teamUpdates, exercises, teams, existingScores, results, changes);
+        }
 
-            // Either use the existing participant score or create a new one
-            var score = participantScore.orElseGet(() -> {
-                if (participant instanceof Team team) {
-                    var teamScore = new TeamScore();
-                    teamScore.setTeam(team);
-                    teamScore.setExercise(exercise);
-                    return teamScore;
-                }
-                else if (participant instanceof User user) {
-                    var studentScore = new StudentScore();
-                    studentScore.setUser(user);
-                    studentScore.setExercise(exercise);
-                    return studentScore;
-                }
-                else {
-                    return null;
-                }
-            });
+        saveParticipantScores(changes);
 
-            // Now do the heavy lifting and calculate the latest score based on all results for this exercise
-            // The result that is about to be deleted is excluded from the calculation
-            if (resultIdToBeDeleted != null) {
-                updateParticipantScore(score, resultIdToBeDeleted);
-            }
-            else {
-                updateParticipantScore(score);
-            }
+        Map<Exercise, Set<User>> studentsByExercise = new HashMap<>();
+        changes.participantsByExercise.forEach((exercise, participants) -> studentsByExercise.put(exercise,
+                participants.stream().flatMap(participant -> participant.getParticipants().stream()).collect(Collectors.toSet())));
+
+        // Update the progress for learning goals linked to the exercises, once per exercise for all affected participants
+        studentsByExercise.forEach(learningGoalProgressService::updateProgressByLearningObject);
 
-            // Update the progress for learning goals linked to this exercise
-            learningGoalProgressService.updateProgressByLearningObject(score.getExercise(), score.getParticipant().getParticipants());
+        // Update the course scores of all affected students, once per course
+        try {
+            studentCourseScoreService.updateCourseScores(studentsByExercise);
         }
         catch (Exception e) {
-            logger.error("Exception while processing participant score for exercise {} and participant {} for participant scores:", exerciseId, participantId, e);
+            logger.error("Exception while updating the student course scores", e);
         }
-        finally {
-            scheduledTasks.remove(new ParticipantScoreId(exerciseId, participantId).hashCode());
-        }
-        long end = System.currentTimeMillis();
-        logger.info("Updating the participant score for exercise {} and participant {} took {} ms.", exerciseId, participantId, end - start);
     }
 
     /**
-     * Updates the given participant score by fetching the last (rated) results from the database.
-     * If both no result and no rated result is found, the participant score is deleted.
+     * Determine the new last (rated) results of the participant scores of the given updates and collect the participant scores that have to be saved or deleted
      *
-     * @param participantScore  The participant score to update (with the exercise eager loaded)
-     * @param resultIdsToIgnore A list of result ids to ignore when calculating the score
+     * @param updates        the pending updates of either only students or only teams
+     * @param exercises      the exercises of the batch by id
+     * @param participants   the students or teams of the updates by id
+     * @param existingScores the existing participant scores of the updates
+     * @param results        the candidates for the last (rated) results, ordered as required by {@link #selectLastResults(List, Set)}
+     * @param changes        collects the changed participant scores
      */
-    private void updateParticipantScore(ParticipantScore participantScore, Long... resultIdsToIgnore) {
-        var lastRatedResult = getLastRatedResultForParticipantScore(participantScore, resultIdsToIgnore).orElse(null);
-        setLastRatedAttributes(participantScore, lastRatedResult, participantScore.getExercise());
-
-        var lastResult = getLastResultForParticipantScore(participantScore, resultIdsToIgnore).orElse(null);
-        setLastAttributes(participantScore, lastResult, participantScore.getExercise());
-
-        // Persist the changes or delete the participant score if it is not needed anymore
-        if (participantScore.getLastRatedResult() == null && participantScore.getLastResult() == null) {
-            if (participantScore.getId() != null) {
-                // Delete the participant score if it exists in the database
-                participantScoreRepository.delete(participantScore);
-                logger.debug("Deleted participant score {}.", participantScore.getId());
+    private void prepareParticipantScores(Map<ParticipantScoreId, PendingUpdate> updates, Map<Long, Exercise> exercises, Map<Long, ? extends Participant> participants,
+            Map<ParticipantScoreId, ParticipantScore> existingScores, List<ParticipantScoreResult> results, ParticipantScoreChanges changes) {
+        Map<ParticipantScoreId, List<ParticipantScoreResult>> resultsById = results.stream()
+                .collect(Collectors.groupingBy(result -> new ParticipantScoreId(result.exerciseId(), result.participantId())));
+
+        updates.forEach((id, update) -> {
+            var exercise = exercises.get(id.exerciseId());
+            var participant = participants.get(id.participantId());
+            if (participant == null) {
+                return;
             }
-        }
-        else {
-            participantScoreRepository.save(participantScore);
-            logger.debug("Updated participant score {}.", participantScore.getId());
-        }
+            var existingScore = existingScores.get(id);
+            if (existingScore != null) {
+                var lastModified = existingScore.getLastModifiedDate();
+                if (lastModified != null && lastModified.isAfter(update.resultLastModified())) {
+                    // The participant score was already updated after the last modified date of the result that initiated this update
+                    // We assume we already processed the result with the last update and therefore skip the processing
+                    logger.debug("Participant score {} is already up-to-date, skipping.", existingScore.getId());
+                    return;
+                }
+            }
+            else if (!update.resultIdsToBeDeleted().isEmpty()) {
+                // A participant score for this exercise/participant combination does not exist and this update was triggered because a result will be deleted
+                // It is very likely that the whole participation or exercise is about to be deleted and their participant scores were already removed
+                // We do not need to do anything in that case
+                logger.debug("Results {} will be deleted and participant score for its participation is already gone, skipping.", update.resultIdsToBeDeleted());
+                return;
+            }
+
+            // Either use the existing participant score or create a new one
+            var score = existingScore != null ? existingScore : createParticipantScore(participant, exercise);
+            // The results that are about to be deleted are excluded from the calculation
+            var lastResults = selectLastResults(resultsById.getOrDefault(id, List.of()), update.resultIdsToBeDeleted());
+            changes.add(score, exercise, participant, lastResults);
+        });
     }
 
     /**
-     * Get the result that can replace the currently set last result for a participant score
+     * Select the last result and the last rated result from the candidates of one participant score
      *
-     * @param participantScore  the participant score to update (user/team and exercise must be set)
-     * @param resultIdsToIgnore a list of ids to ignore when fetching the last result
-     * @return optional of new result
-     * @author Stefan Waldhauser
+     * @param results           the candidates ordered descending by participation id, submission id and result id
+     * @param resultIdsToIgnore the ids of results that are about to be deleted
+     * @return the ids of the last result and the last rated result, each null if there is none
      */
-    private Optional<Result> getLastResultForParticipantScore(ParticipantScore participantScore, Long[] resultIdsToIgnore) {
-        // the new last result (result with the highest id of submission with the highest id) will be at the beginning of the list
-        Optional<Result> resultOrdered;
-        if (participantScore instanceof StudentScore studentScore) {
-            resultOrdered = resultRepository
-                    .getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudent(participantScore.getExercise().getId(), studentScore.getUser().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
-        }
-        else if (participantScore instanceof TeamScore teamScore) {
-            resultOrdered = resultRepository
-                    .getResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(participantScore.getExercise().getId(), teamScore.getTeam().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
+    private static LastResults selectLastResults(List<ParticipantScoreResult> results, Set<Long> resultIdsToIgnore) {
+        Long lastResultId = null;
+        Long lastRatedResultId = null;
+        for (var result : results) {
+            if (resultIdsToIgnore.contains(result.resultId())) {
+                continue;
+            }
+            if (lastResultId == null) {
+                lastResultId = result.resultId();
+            }
+            if (lastRatedResultId == null && Boolean.TRUE.equals(result.rated())) {
+                lastRatedResultId = result.resultId();
+            }
+            if (lastRatedResultId != null) {
+                break;
+            }
         }
-        else {
-            return Optional.empty();
+        return new LastResults(lastResultId, lastRatedResultId);
+    }
+
+    private static ParticipantScore createParticipantScore(Participant participant, Exercise exercise) {
+        if (participant instanceof Team team) {
+            var teamScore = new TeamScore();
+            teamScore.setTeam(team);
+            teamScore.setExercise(exercise);
+            return teamScore;
         }
-        return resultOrdered;
+        var studentScore = new StudentScore();
+        studentScore.setUser((User) participant);
+        studentScore.setExercise(exercise);
+        return studentScore;
     }
 
     /**
-     * Get the result that can replace the currently set last rated result for a participant score
+     * Set the last (rated) results of the changed participant scores and save them with one call, or delete them if they have no result anymore.
+     * If saving the whole batch fails, the participant scores are saved one by one, so that one invalid participant score does not prevent the others from being updated.
      *
-     * @param participantScore  the participant score to update (user/team and exercise must be set)
-     * @param resultIdsToIgnore a list of ids to ignore when fetching the last rated result
-     * @return optional of new result
-     * @author Stefan Waldhauser
+     * @param changes the changed participant scores
      */
-    private Optional<Result> getLastRatedResultForParticipantScore(ParticipantScore participantScore, Long[] resultIdsToIgnore) {
-        // the new last rated result (rated result with the highest id of submission with the highest id) will be at the beginning of the list
-        Optional<Result> ratedResultsOrdered;
-        if (participantScore instanceof StudentScore studentScore) {
-            ratedResultsOrdered = resultRepository
-                    .getRatedResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForStudent(participantScore.getExercise().getId(), studentScore.getUser().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
-        }
-        else if (participantScore instanceof TeamScore teamScore) {
-            ratedResultsOrdered = resultRepository
-                    .getRatedResultsOrderedByParticipationIdLegalSubmissionIdResultIdDescForTeam(participantScore.getExercise().getId(), teamScore.getTeam().getId()).stream()
-                    .filter(result -> Arrays.stream(resultIdsToIgnore).noneMatch(id -> id.equals(result.getId()))).findFirst();
+    private void saveParticipantScores(ParticipantScoreChanges changes) {
+        Set<Long> resultIds = new HashSet<>();
+        for (var lastResults : changes.lastResults.values()) {
+            if (lastResults.lastResultId() != null) {
+                resultIds.add(lastResults.lastResultId());
+            }
+            if (lastResults.lastRatedResultId() != null) {
+                resultIds.add(lastResults.lastRatedResultId());
+            }
         }
-        else {
-            return Optional.empty();
+        Map<Long, Result> results = resultIds.isEmpty() ? Map.of()
+                : resultRepository.findAllById(resultIds).stream().collect(Collectors.toMap(Result::getId, Function.identity()));
+
+        List<ParticipantScore> scoresToSave = new ArrayList<>();
+        List<ParticipantScore> scoresToDelete = new ArrayList<>();
+        changes.lastResults.forEach((participantScore, lastResults) -> {
+            var exercise = changes.exercises.get(participantScore);
+            var lastRatedResult = lastResults.lastRatedResultId() != null ? results.get(lastResults.lastRatedResultId()) : null;
+            setLastRatedAttributes(participantScore, lastRatedResult, exercise);
+            var lastResult = lastResults.lastResultId() != null ? results.get(lastResults.lastResultId()) : null;
+            setLastAttributes(participantScore, lastResult, exercise);
+
+            // Persist the changes or delete the participant score if it is not needed anymore
+            if (participantScore.getLastRatedResult() == null && participantScore.getLastResult() == null) {
+                if (participantScore.getId() != null) {
+                    // Delete the participant score if it exists in the database
+                    scoresToDelete.add(participantScore);
+                }
+            }
+            else {
+                scoresToSave.add(participantScore);
+            }
+        });
+
+        if (!scoresToDelete.isEmpty()) {
+            participantScoreRepository.deleteAll(scoresToDelete);
+            logger.debug("Deleted {} participant scores.", scoresToDelete.size());
+        }
+        try {
+            participantScoreRepository.saveAll(scoresToSave);
+        }
+        catch (Exception e) {
+            logger.warn("Could not save {} participant scores together, saving them one by one: {}", scoresToSave.size(), e.getMessage());
+            for (var participantScore : scoresToSave) {
+                try {
+                    participantScoreRepository.save(participantScore);
+                }
+                catch (Exception ex) {
+                    logger.error("Exception while saving participant score {}:", participantScore, ex);
+                }
+            }
         }
-        return ratedResultsOrdered;
+        logger.debug("Updated {} participant scores.", scoresToSave.size());
     }
 
     /**
@@ -449,4 +713,53 @@ public class ParticipantScoreScheduleService {
      */
     public record ParticipantScoreId(Long exerciseId, Long participantId) {
     }
+
+    /**
+     * A pending update of one participant score, which coalesces all updates for the same participant score that were enqueued before it was processed
+     *
+     * @param resultLastModified   the latest last modified date of the results that triggered the updates
+     * @param resultIdsToBeDeleted the ids of all results that are about to be deleted
+     * @param firstEnqueued        the time in ms when the first of the coalesced updates was enqueued
+     * @param lastEnqueued         the time in ms when the last of the coalesced updates was enqueued
+     */
+    private record PendingUpdate(Instant resultLastModified, Set<Long> resultIdsToBeDeleted, long firstEnqueued, long lastEnqueued) {
+
+        PendingUpdate(Instant resultLastModified, Set<Long> resultIdsToBeDeleted, long enqueued) {
+            this(resultLastModified, resultIdsToBeDeleted, enqueued, enqueued);
+        }
+
+        PendingUpdate coalesce(PendingUpdate newerUpdate) {
+            var latestResultLastModified = resultLastModified.isAfter(newerUpdate.resultLastModified) ? resultLastModified : newerUpdate.resultLastModified;
+            Set<Long> allResultIdsToBeDeleted = resultIdsToBeDeleted;
+            if (!newerUpdate.resultIdsToBeDeleted.isEmpty()) {
+                allResultIdsToBeDeleted = new HashSet<>(resultIdsToBeDeleted);
+                allResultIdsToBeDeleted.addAll(newerUpdate.resultIdsToBeDeleted);
+            }
+            return new PendingUpdate(latestResultLastModified, allResultIdsToBeDeleted, firstEnqueued, newerUpdate.lastEnqueued);
+        }
+    }
+
+    /**
+     * The ids of the new last result and last rated result of a participant score, each null if there is none
+     */
+    private record LastResults(Long lastResultId, Long lastRatedResultId) {
+    }
+
+    /**
+     * Collects the participant scores of a batch that have to be saved or deleted
+     */
+    private static class ParticipantScoreChanges {
+
+        private final Map<ParticipantScore, LastResults> lastResults = new IdentityHashMap<>();
+
+        private final Map<ParticipantScore, Exercise> exercises = new IdentityHashMap<>();
+
+        private final Map<Exercise, Set<Participant>> participantsByExercise = new HashMap<>();
+
+        void add(ParticipantScore participantScore, Exercise exercise, Participant participant, LastResults newLastResults) {
+            lastResults.put(participantScore, newLastResults);
+            exercises.put(participantScore, exercise);
+            participantsByExercise.computeIfAbsent(exercise, key -> new HashSet<>()).add(participant);
+        }
+    }
 }
@@ -0,0 +1,499 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import static de.tum.in.www1.artemis.config.Constants.HAZELCAST_PLAGIARISM_CHECK_JOB_DISPATCH_LOCK;
+import static de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJobStatus.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.PlagiarismCheckState;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJob;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJobStatus;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCheckJobRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.plagiarism.PlagiarismCheckJobService;
+import de.tum.in.www1.artemis.service.plagiarism.PlagiarismWebsocketService;
+import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import de.tum.in.www1.artemis.web.rest.errors.HttpStatusException;
+import de.tum.in.www1.artemis.web.rest.errors.InternalServerErrorException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Scheduled service that runs the plagiarism checks of programming, text and modeling exercises as persisted {@link PlagiarismCheckJob}s.
+ * Note: Active on all instances, each instance starts queued jobs while the cluster and the instance are below their limits of concurrently running checks.
+ * <p>
+ * A check is queued as job in the database and started by the dispatcher of an instance, which runs regularly and right after a job was queued or finished.
+ * The dispatchers of all instances claim jobs under a cluster-wide lock, so that the number of running jobs never exceeds the global limit. Each instance runs its jobs
+ * in a fixed pool of threads, which limits the number of checks per instance, and only starts another check if enough heap memory is free. Only one check per course
+ * runs at the same time.
+ * <p>
+ * While a job runs, the instance regularly stores a heartbeat and the latest progress message in the job, so that the progress can be resumed by clients that
+ * reconnect (see {@link de.tum.in.www1.artemis.web.rest.plagiarism.PlagiarismCheckJobResource}) and jobs of instances that stopped are queued again.
+ * A running job is cancelled by interrupting its thread. JPlag does not react to interrupts, therefore the check of a cancelled job might run until its end, but its
+ * result is discarded.
+ */
+@Service
+public class PlagiarismCheckJobScheduleService {
+
+    /**
+     * The interval in ms in which the dispatcher starts queued jobs and the running jobs send heartbeats
+     */
+    private static final long DISPATCH_INTERVAL = 5_000;
+
+    /**
+     * The interval in ms in which a request waiting for a job checks its status
+     */
+    private static final long AWAIT_INTERVAL = 500;
+
+    /**
+     * The time without heartbeat after which a running job is considered stale, because the instance running it stopped
+     */
+    private static final Duration HEARTBEAT_TIMEOUT = Duration.ofMinutes(5);
+
+    /**
+     * The maximum number of times a job is started, a job whose instances stopped this often fails
+     */
+    private static final int MAX_ATTEMPTS = 2;
+
+    private static final String METRIC_PREFIX = "artemis.plagiarism.check_jobs";
+
+    private final Logger log = LoggerFactory.getLogger(PlagiarismCheckJobScheduleService.class);
+
+    private final PlagiarismCheckJobRepository plagiarismCheckJobRepository;
+
+    private final PlagiarismResultRepository plagiarismResultRepository;
+
+    private final PlagiarismCheckJobService plagiarismCheckJobService;
+
+    private final PlagiarismWebsocketService plagiarismWebsocketService;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final int maxConcurrentJobs;
+
+    private final int maxConcurrentJobsPerNode;
+
+    private final long minFreeMemoryInBytes;
+
+    private final Duration awaitTimeout;
+
+    private final ExecutorService jobExecutor;
+
+    /**
+     * The jobs running on this instance
+     */
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The threads of the running jobs of this instance, which are interrupted when a job is cancelled
+     */
+    private final Map<Long, Thread> jobThreads = new ConcurrentHashMap<>();
+
+    /**
+     * The running jobs of this instance that have been cancelled, their results are discarded
+     */
+    private final Set<Long> cancelledJobs = ConcurrentHashMap.newKeySet();
+
+    private final Map<PlagiarismCheckJobStatus, Counter> finishedJobs = new EnumMap<>(PlagiarismCheckJobStatus.class);
+
+    private final Timer waitingTimer;
+
+    private final Timer runningTimer;
+
+    private String node;
+
+    private volatile boolean isShuttingDown = false;
+
+    public PlagiarismCheckJobScheduleService(PlagiarismCheckJobRepository plagiarismCheckJobRepository, PlagiarismResultRepository plagiarismResultRepository,
+            PlagiarismCheckJobService plagiarismCheckJobService, PlagiarismWebsocketService plagiarismWebsocketService, HazelcastInstance hazelcastInstance,
+            MeterRegistry meterRegistry, @Value("${artemis.plagiarism.jobs.max-concurrent-jobs:2}") int maxConcurrentJobs,
+            @Value("${artemis.plagiarism.jobs.max-concurrent-jobs-per-node:1}") int maxConcurrentJobsPerNode,
+            @Value("${artemis.plagiarism.jobs.min-free-memory-in-mb:1024}") long minFreeMemoryInMb,
+            @Value("${artemis.plagiarism.jobs.await-timeout-in-seconds:120}") long awaitTimeoutInSeconds) {
+        this.plagiarismCheckJobRepository = plagiarismCheckJobRepository;
+        this.plagiarismResultRepository = plagiarismResultRepository;
+        this.plagiarismCheckJobService = plagiarismCheckJobService;
+        this.plagiarismWebsocketService = plagiarismWebsocketService;
+        this.hazelcastInstance = hazelcastInstance;
+        this.maxConcurrentJobs = Math.max(1, maxConcurrentJobs);
+        this.maxConcurrentJobsPerNode = Math.max(1, maxConcurrentJobsPerNode);
+        this.minFreeMemoryInBytes = minFreeMemoryInMb * 1024 * 1024;
+        this.awaitTimeout = Duration.ofSeconds(Math.max(0, awaitTimeoutInSeconds));
+        this.jobExecutor = Executors.newFixedThreadPool(this.maxConcurrentJobsPerNode);
+
+        for (PlagiarismCheckJobStatus status : List.of(COMPLETED, FAILED, CANCELLED)) {
+            finishedJobs.put(status, Counter.builder(METRIC_PREFIX + ".finished").tag("status", status.name()).description("Number of finished plagiarism check jobs")
+                    .register(meterRegistry));
+        }
+        this.waitingTimer = Timer.builder(METRIC_PREFIX + ".waiting.duration").description("Time plagiarism check jobs waited in the queue until they started")
+                .register(meterRegistry);
+        this.runningTimer = Timer.builder(METRIC_PREFIX + ".running.duration").description("Time plagiarism check jobs ran until they finished").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".running", runningJobs, Set::size).description("Number of plagiarism check jobs running on this instance").register(meterRegistry);
+    }
+
+    /**
+     * Queue the jobs that were running on this instance before it restarted, and start the queued jobs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startup() {
+        try {
+            SecurityUtils.setAuthorizationObject();
+            int staleJobs = plagiarismCheckJobRepository.requeueStaleJobs(Instant.now().minus(HEARTBEAT_TIMEOUT), getNode(), MAX_ATTEMPTS, Instant.now());
+            if (staleJobs > 0) {
+                log.info("Handled {} plagiarism check jobs that were running on this instance before it restarted", staleJobs);
+            }
+            dispatch();
+        }
+        catch (Exception ex) {
+            // this should never prevent the application start of Artemis
+            log.error("Cannot start the plagiarism check jobs", ex);
+        }
+    }
+
+    /**
+     * Interrupt the jobs running on this instance, they are queued again by another instance once their heartbeats are missing.
+     */
+    @PreDestroy
+    public void shutdown() {
+        isShuttingDown = true;
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue a plagiarism check of the given exercise. If a check of the exercise with the same parameters is already queued or running, the new check waits for this
+     * job instead.
+     *
+     * @param exercise            the exercise to check
+     * @param similarityThreshold ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
+     * @param minimumScore        consider only submissions whose score is greater or equal to this value
+     * @param minimumSize         consider only submissions whose size is greater or equal to this value
+     * @return the queued or running job of the check
+     */
+    public PlagiarismCheckJob submit(Exercise exercise, float similarityThreshold, int minimumScore, int minimumSize) {
+        var activeJobs = plagiarismCheckJobRepository.findAllByExerciseIdAndStatusIn(exercise.getId(), Set.of(QUEUED, RUNNING));
+        for (PlagiarismCheckJob activeJob : activeJobs) {
+            if (!activeJob.hasParameters(similarityThreshold, minimumScore, minimumSize) || activeJob.isCancellationRequested()) {
+                throw new BadRequestAlertException("Only one active plagiarism check per exercise allowed", "Plagiarism Check", "oneActivePlagiarismCheck");
+            }
+            log.info("Plagiarism check of exercise {} waits for the active job {} with the same parameters", exercise.getId(), activeJob.getId());
+            return activeJob;
+        }
+
+        var job = plagiarismCheckJobRepository.save(new PlagiarismCheckJob(exercise, similarityThreshold, minimumScore, minimumSize));
+        log.info("Queued plagiarism check job {} for exercise {}", job.getId(), exercise.getId());
+        dispatch();
+        notifyAboutQueuePosition(plagiarismCheckJobRepository.findByIdElseThrow(job.getId()));
+        return job;
+    }
+
+    /**
+     * Wait until the given job finished and return its result. The request thread waits at most for the configured timeout, afterwards the client resumes the check
+     * through the job, whose completion is also announced via websocket.
+     *
+     * @param job the queued or running job
+     * @return the result saved by the job or an empty optional if the job did not finish within the timeout
+     * @throws BadRequestAlertException if the job failed or was cancelled
+     * @throws EntityNotFoundException  if the result of the job has been deleted in the meantime, e.g. by a newer check of the exercise
+     */
+    public Optional<PlagiarismResult<?>> awaitResult(PlagiarismCheckJob job) {
+        var finishedJob = awaitCompletion(job).orElse(null);
+        if (finishedJob == null) {
+            log.info("Plagiarism check job {} did not finish within {}, the client resumes it through the job", job.getId(), awaitTimeout);
+            return Optional.empty();
+        }
+        if (finishedJob.getStatus() == FAILED) {
+            throw new BadRequestAlertException(finishedJob.getErrorMessage(), "Plagiarism Check", Objects.requireNonNullElse(finishedJob.getErrorKey(), "jplagException"));
+        }
+        if (finishedJob.getStatus() == CANCELLED) {
+            throw new BadRequestAlertException("The plagiarism check was cancelled", "Plagiarism Check", "plagiarismCheckCancelled");
+        }
+        Long plagiarismResultId = finishedJob.getPlagiarismResultId();
+        if (plagiarismResultId == null) {
+            throw new EntityNotFoundException("The plagiarism check job " + finishedJob.getId() + " has no result");
+        }
+        // a concurrent check of the exercise could have saved a newer result, so the result of this job is loaded by its id
+        var plagiarismResult = plagiarismResultRepository.findWithComparisonsById(plagiarismResultId)
+                .orElseThrow(() -> new EntityNotFoundException("PlagiarismResult", plagiarismResultId));
+        return Optional.of(plagiarismResult);
+    }
+
+    private Optional<PlagiarismCheckJob> awaitCompletion(PlagiarismCheckJob job) {
+        Instant deadline = Instant.now().plus(awaitTimeout);
+        while (true) {
+            var currentJob = plagiarismCheckJobRepository.findByIdElseThrow(job.getId());
+            if (currentJob.getStatus().isFinished()) {
+                return Optional.of(currentJob);
+            }
+            long remainingMillis = Duration.between(Instant.now(), deadline).toMillis();
+            if (remainingMillis <= 0) {
+                return Optional.empty();
+            }
+            try {
+                Thread.sleep(Math.min(AWAIT_INTERVAL, remainingMillis));
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InternalServerErrorException("Interrupted while waiting for the plagiarism check job " + job.getId());
+            }
+        }
+    }
+
+    /**
+     * Cancel the given job. A queued job is cancelled immediately, a running job is cancelled by the instance running it.
+     *
+     * @param job the job to cancel
+     * @return the job after the cancellation was requested
+     */
+    public PlagiarismCheckJob cancel(PlagiarismCheckJob job) {
+        if (!plagiarismCheckJobRepository.cancel(job.getId(), Instant.now())) {
+            throw new BadRequestAlertException("The plagiarism check job already finished", "Plagiarism Check", "plagiarismCheckJobFinished");
+        }
+        log.info("Requested the cancellation of plagiarism check job {}", job.getId());
+        var cancelledJob = plagiarismCheckJobRepository.findByIdElseThrow(job.getId());
+        if (cancelledJob.getStatus() == CANCELLED) {
+            finishedJobs.get(CANCELLED).increment();
+            notifyAboutCompletion(cancelledJob, "The plagiarism check was cancelled");
+        }
+        else {
+            cancelRequestedJobs();
+        }
+        return cancelledJob;
+    }
+
+    /**
+     * Regularly store the heartbeats of the running jobs, cancel and requeue jobs, and start queued jobs.
+     */
+    @Scheduled(fixedDelay = DISPATCH_INTERVAL, initialDelay = DISPATCH_INTERVAL)
+    public void processJobs() {
+        SecurityUtils.setAuthorizationObject();
+        try {
+            sendHeartbeats();
+            cancelRequestedJobs();
+            int staleJobs = plagiarismCheckJobRepository.requeueStaleJobs(Instant.now().minus(HEARTBEAT_TIMEOUT), null, MAX_ATTEMPTS, Instant.now());
+            if (staleJobs > 0) {
+                log.warn("Handled {} plagiarism check jobs whose instance stopped sending heartbeats", staleJobs);
+            }
+            dispatch();
+        }
+        catch (Exception ex) {
+            log.error("Cannot process the plagiarism check jobs", ex);
+        }
+    }
+
+    /**
+     * Start queued jobs on this instance until the limits of the cluster or the instance are reached. Queued jobs of courses with a running job are skipped.
+     */
+    public synchronized void dispatch() {
+        if (runningJobs.size() >= maxConcurrentJobsPerNode) {
+            return;
+        }
+        var queuedJobs = plagiarismCheckJobRepository.findAllQueued();
+        if (queuedJobs.isEmpty()) {
+            return;
+        }
+        // the running jobs of all instances are counted under a cluster-wide lock, so that two instances cannot exceed the global limit together
+        IMap<String, Boolean> dispatchLock = hazelcastInstance.getMap(HAZELCAST_PLAGIARISM_CHECK_JOB_DISPATCH_LOCK);
+        try {
+            if (!dispatchLock.tryLock(HAZELCAST_PLAGIARISM_CHECK_JOB_DISPATCH_LOCK, 1, TimeUnit.SECONDS, 1, TimeUnit.MINUTES)) {
+                // another instance is dispatching, the next run of the dispatcher tries again
+                return;
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            var runningJobsOfCluster = plagiarismCheckJobRepository.findAllRunning();
+            int numberOfRunningJobs = runningJobsOfCluster.size();
+            Set<Long> coursesWithRunningJob = runningJobsOfCluster.stream().map(PlagiarismCheckJob::getCourseId).collect(Collectors.toSet());
+            for (PlagiarismCheckJob job : queuedJobs) {
+                if (numberOfRunningJobs >= maxConcurrentJobs || runningJobs.size() >= maxConcurrentJobsPerNode) {
+                    break;
+                }
+                if (coursesWithRunningJob.contains(job.getCourseId())) {
+                    continue;
+                }
+                if (!hasEnoughFreeMemory()) {
+                    log.info("Not enough free memory to start another plagiarism check job on this instance");
+                    break;
+                }
+                if (plagiarismCheckJobRepository.claim(job.getId(), getNode(), Instant.now())) {
+                    numberOfRunningJobs++;
+                    coursesWithRunningJob.add(job.getCourseId());
+                    start(job);
+                }
+            }
+        }
+        finally {
+            dispatchLock.unlock(HAZELCAST_PLAGIARISM_CHECK_JOB_DISPATCH_LOCK);
+        }
+    }
+
+    /**
+     * An instance without running jobs always starts a job, otherwise a job could never start if the heap is small. Used memory includes garbage that has not
+     * been collected yet, so the free memory is rather underestimated.
+     */
+    private boolean hasEnoughFreeMemory() {
+        if (runningJobs.isEmpty()) {
+            return true;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long freeMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return freeMemory >= minFreeMemoryInBytes;
+    }
+
+    private void start(PlagiarismCheckJob job) {
+        log.info("Start plagiarism check job {} for exercise {} on instance {}", job.getId(), job.getExerciseId(), getNode());
+        waitingTimer.record(Duration.between(job.getCreatedDate(), Instant.now()));
+        plagiarismWebsocketService.clearLatestProgressMessage(getTopic(job));
+        runningJobs.add(job.getId());
+        jobExecutor.execute(() -> run(job));
+    }
+
+    private void run(PlagiarismCheckJob job) {
+        long jobId = job.getId();
+        Instant start = Instant.now();
+        PlagiarismCheckJobStatus status = FAILED;
+        String errorMessage = null;
+        String errorKey = null;
+        Long plagiarismResultId = null;
+        jobThreads.put(jobId, Thread.currentThread());
+        try {
+            SecurityUtils.setAuthorizationObject();
+            if (isCancelled(jobId)) {
+                throw new CancellationException("The job was cancelled before it started");
+            }
+            var plagiarismResult = plagiarismCheckJobService.checkPlagiarism(job);
+            if (isCancelled(jobId)) {
+                status = CANCELLED;
+            }
+            else {
+                plagiarismResultId = plagiarismCheckJobService.saveResult(plagiarismResult).getId();
+                status = COMPLETED;
+            }
+        }
+        catch (Exception ex) {
+            if (isCancelled(jobId)) {
+                status = CANCELLED;
+            }
+            else {
+                log.error("Plagiarism check job {} failed", jobId, ex);
+                errorMessage = StringUtils.abbreviate(ex instanceof HttpStatusException httpStatusException ? httpStatusException.getTitle() : ex.getMessage(), 1000);
+                errorKey = ex instanceof BadRequestAlertException badRequestAlertException ? badRequestAlertException.getErrorKey() : "jplagException";
+            }
+        }
+        finally {
+            // the thread is not interrupted anymore once it is removed, the interrupt flag is cleared so that it does not affect the following database calls
+            jobThreads.remove(jobId);
+            Thread.interrupted();
+            try {
+                // on shutdown, the job stays running and is queued again, because it did not fail on its own
+                if (!isShuttingDown) {
+                    plagiarismCheckJobRepository.finish(jobId, getNode(), Instant.now(), status, errorMessage, errorKey, plagiarismResultId);
+                    finishedJobs.get(status).increment();
+                    runningTimer.record(Duration.between(start, Instant.now()));
+                    log.info("Plagiarism check job {} finished with status {}", jobId, status);
+                    // the completion is only sent once the result is saved and the job is finished, so that the client can load the result right away
+                    notifyAboutCompletion(job, switch (status) {
+                        case CANCELLED -> "The plagiarism check was cancelled";
+                        case FAILED -> errorMessage;
+                        default -> null;
+                    });
+                }
+            }
+            finally {
+                runningJobs.remove(jobId);
+                cancelledJobs.remove(jobId);
+                plagiarismWebsocketService.clearLatestProgressMessage(getTopic(job));
+            }
+        }
+        if (!isShuttingDown) {
+            // start the next queued job right away instead of waiting for the next run of the dispatcher
+            processJobs();
+        }
+    }
+
+    private boolean isCancelled(long jobId) {
+        return cancelledJobs.contains(jobId);
+    }
+
+    private void sendHeartbeats() {
+        for (Long jobId : runningJobs) {
+            var job = plagiarismCheckJobRepository.findById(jobId);
+            job.ifPresent(runningJob -> {
+                String progress = plagiarismWebsocketService.getLatestProgressMessage(getTopic(runningJob)).map(message -> StringUtils.abbreviate(message, 255)).orElse(null);
+                plagiarismCheckJobRepository.updateHeartbeat(jobId, getNode(), Instant.now(), progress);
+            });
+        }
+    }
+
+    private void cancelRequestedJobs() {
+        if (runningJobs.isEmpty()) {
+            return;
+        }
+        for (Long jobId : plagiarismCheckJobRepository.findIdsWithCancellationRequested(runningJobs)) {
+            if (runningJobs.contains(jobId) && cancelledJobs.add(jobId)) {
+                log.info("Cancel plagiarism check job {}", jobId);
+                // the thread is only interrupted while it runs the job, and not anymore once it runs the next job
+                jobThreads.computeIfPresent(jobId, (id, thread) -> {
+                    thread.interrupt();
+                    return thread;
+                });
+            }
+        }
+    }
+
+    private void notifyAboutQueuePosition(PlagiarismCheckJob job) {
+        if (job.getStatus() != QUEUED) {
+            return;
+        }
+        long jobsBefore = plagiarismCheckJobRepository.countQueuedBefore(job.getId());
+        String message = "Queued at position " + (jobsBefore + 1) + ", waiting for other plagiarism checks to finish...";
+        plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(getTopic(job), PlagiarismCheckState.RUNNING, List.of(message));
+        // the message is not the progress of a check running on this instance
+        plagiarismWebsocketService.clearLatestProgressMessage(getTopic(job));
+    }
+
+    private void notifyAboutCompletion(PlagiarismCheckJob job, String message) {
+        plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(getTopic(job), PlagiarismCheckState.COMPLETED, message != null ? List.of(message) : List.of());
+    }
+
+    private String getTopic(PlagiarismCheckJob job) {
+        return plagiarismWebsocketService.getPlagiarismCheckTopic(job.getExerciseType(), job.getExerciseId());
+    }
+
+    /**
+     * The address of this instance in the cluster, which identifies the instance running a job, also after a restart
+     */
+    private String getNode() {
+        if (node == null) {
+            node = hazelcastInstance.getCluster().getLocalMember().getAddress().toString();
+        }
+        return node;
+    }
+}
@@ -0,0 +1,29 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.service.StatisticsRollupService;
+
+/**
+ * Rolls up the statistics of the last hour(s) every hour, see {@link StatisticsRollupService}
+ */
+@Service
+@Profile("scheduling")
+public class StatisticsRollupScheduleService {
+
+    private final StatisticsRollupService statisticsRollupService;
+
+    public StatisticsRollupScheduleService(StatisticsRollupService statisticsRollupService) {
+        this.statisticsRollupService = statisticsRollupService;
+    }
+
+    /**
+     * Rolls up the statistics of the hours since the last execution, a few minutes after the hour so that recent entries are already stored
+     */
+    @Scheduled(cron = "0 5 * * * *") // execute this every hour at minute 5
+    public void rollUpRecentHours() {
+        statisticsRollupService.rollUpRecentHours();
+    }
+}
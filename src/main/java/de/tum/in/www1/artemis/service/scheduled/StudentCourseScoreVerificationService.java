@@ -0,0 +1,66 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import java.time.ZonedDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.service.StudentCourseScoreService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Verifies the incrementally maintained course scores of all active courses every night and corrects those that drifted from the participant scores.
+ */
+@Service
+@Profile("scheduling")
+public class StudentCourseScoreVerificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentCourseScoreVerificationService.class);
+
+    private static final String METRIC_PREFIX = "artemis.course_scores.verification";
+
+    private final CourseRepository courseRepository;
+
+    private final StudentCourseScoreService studentCourseScoreService;
+
+    private final Counter checkedCourses;
+
+    private final Counter driftedCourseScores;
+
+    public StudentCourseScoreVerificationService(CourseRepository courseRepository, StudentCourseScoreService studentCourseScoreService, MeterRegistry meterRegistry) {
+        this.courseRepository = courseRepository;
+        this.studentCourseScoreService = studentCourseScoreService;
+        this.checkedCourses = Counter.builder(METRIC_PREFIX + ".checked").description("Number of courses whose course scores were verified").register(meterRegistry);
+        this.driftedCourseScores = Counter.builder(METRIC_PREFIX + ".drifted").description("Number of course scores that were outdated and had to be corrected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recalculates the course scores of all active courses at 3:30:00 am in the night, after the participant scores are settled
+     */
+    @Scheduled(cron = "0 30 3 * * *") // execute this every night at 3:30:00 am
+    public void verifyCourseScoresOfActiveCourses() {
+        long start = System.currentTimeMillis();
+        int driftedInTotal = 0;
+        var activeCourses = courseRepository.findAllActive(ZonedDateTime.now());
+        for (Course course : activeCourses) {
+            try {
+                int drifted = studentCourseScoreService.verifyCourseScores(course.getId());
+                checkedCourses.increment();
+                driftedCourseScores.increment(drifted);
+                driftedInTotal += drifted;
+            }
+            catch (Exception ex) {
+                log.error("Could not verify the course scores of course {}", course.getId(), ex);
+            }
+        }
+        log.info("Verified the course scores of {} active courses in {} ms, {} course scores had to be corrected", activeCourses.size(), System.currentTimeMillis() - start,
+                driftedInTotal);
+    }
+}
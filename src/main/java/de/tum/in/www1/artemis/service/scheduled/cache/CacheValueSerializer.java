@@ -0,0 +1,54 @@
+package de.tum.in.www1.artemis.service.scheduled.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A compact binary representation of the values of a distributed cache map, see {@link SerializedValueMap}.
+ * <p>
+ * The representation only needs to contain the data the cache is used for, not the whole entity graph.
+ *
+ * @param <V> the type of the values
+ */
+public interface CacheValueSerializer<V> {
+
+    /**
+     * @param value the value to serialize, never null
+     * @return the binary representation of the value
+     * @throws IOException if the value cannot be serialized
+     */
+    byte[] serialize(V value) throws IOException;
+
+    /**
+     * @param bytes the binary representation created by {@link #serialize(Object)}
+     * @return the deserialized value
+     * @throws IOException if the bytes cannot be deserialized
+     */
+    V deserialize(byte[] bytes) throws IOException;
+
+    /**
+     * Writes a nullable long for binary serializers, read it with {@link #readNullableLong(DataInput)}.
+     *
+     * @param out   the output of the serializer
+     * @param value the value to write, can be null
+     * @throws IOException if the value cannot be written
+     */
+    static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    /**
+     * Reads a nullable long written by {@link #writeNullableLong(DataOutput, Long)}.
+     *
+     * @param in the input of the serializer
+     * @return the value, or null if null was written
+     * @throws IOException if the value cannot be read
+     */
+    static Long readNullableLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
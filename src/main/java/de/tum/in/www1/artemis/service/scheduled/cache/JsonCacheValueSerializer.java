@@ -0,0 +1,54 @@
+package de.tum.in.www1.artemis.service.scheduled.cache;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Serializes cache values as JSON, which is much more compact than the Java serialization of the whole entity graph.
+ * <p>
+ * Only the properties visible to Jackson are preserved, so this should only be used for values that are received from or sent to the client as JSON anyway.
+ * Back references ignored by Jackson have to be restored after the deserialization.
+ *
+ * @param <V> the type of the values
+ */
+public class JsonCacheValueSerializer<V> implements CacheValueSerializer<V> {
+
+    private final ObjectMapper objectMapper;
+
+    private final Class<V> valueType;
+
+    public JsonCacheValueSerializer(Class<V> valueType) {
+        this(createObjectMapper(), valueType);
+    }
+
+    public JsonCacheValueSerializer(ObjectMapper objectMapper, Class<V> valueType) {
+        this.objectMapper = objectMapper;
+        this.valueType = valueType;
+    }
+
+    /**
+     * Creates an object mapper with the same modules as the one for the client (see JacksonConfiguration), but dates are written as compact timestamps
+     *
+     * @return a new object mapper, which can be customized further (e.g. with mix-ins) before it is passed to {@link #JsonCacheValueSerializer(ObjectMapper, Class)}
+     */
+    public static ObjectMapper createObjectMapper() {
+        return JsonMapper.builder().addModule(new JavaTimeModule()).addModule(new Jdk8Module()).addModule(new Hibernate5Module())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+    }
+
+    @Override
+    public byte[] serialize(V value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public V deserialize(byte[] bytes) throws IOException {
+        return objectMapper.readValue(bytes, valueType);
+    }
+}
@@ -0,0 +1,216 @@
+package de.tum.in.www1.artemis.service.scheduled.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+import com.hazelcast.map.IMap;
+
+/**
+ * A map view that stores its values in a compact binary form in the given backing map, usually a Hazelcast {@link com.hazelcast.map.IMap IMap}.
+ * <p>
+ * Hazelcast would otherwise use the Java serialization of the whole entity graph of a value (e.g. a participation including the exercise with all questions)
+ * for every put and get. With the {@link CacheValueSerializer} of the view, only the data needed by the cache is transferred and stored, and
+ * Hazelcast only has to copy a byte array. Like for every Hazelcast map, every read returns a new deserialized object.
+ * <p>
+ * The view is not backed by the {@link #keySet()} and {@link #entrySet()} of the backing map regarding modifications, use the methods of the view instead.
+ * <p>
+ * Like for every map, {@link #put(Object, Object)} and {@link #remove(Object)} return the previous value, which is transferred and deserialized for that purpose.
+ * Callers that do not need the previous value should use {@link #set(Object, Object)} and {@link #delete(Object)} instead.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class SerializedValueMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, byte[]> backingMap;
+
+    private final CacheValueSerializer<V> serializer;
+
+    public SerializedValueMap(Map<K, byte[]> backingMap, CacheValueSerializer<V> serializer) {
+        this.backingMap = backingMap;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public int size() {
+        return backingMap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return backingMap.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return backingMap.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return deserialize(backingMap.get(key));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return deserialize(backingMap.put(key, serialize(value)));
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return deserialize(backingMap.putIfAbsent(key, serialize(value)));
+    }
+
+    @Override
+    public V remove(Object key) {
+        return deserialize(backingMap.remove(key));
+    }
+
+    /**
+     * Stores the given value like {@link #put(Object, Object)}, but without returning the previous value. A Hazelcast {@link IMap} then neither transfers nor
+     * deserializes the previous value.
+     *
+     * @param key   the key
+     * @param value the value to store, must not be null
+     */
+    public void set(K key, V value) {
+        byte[] bytes = serialize(value);
+        if (backingMap instanceof IMap<K, byte[]> map) {
+            map.set(key, bytes);
+        }
+        else {
+            backingMap.put(key, bytes);
+        }
+    }
+
+    /**
+     * Removes the value of the given key like {@link #remove(Object)}, but without returning the previous value. A Hazelcast {@link IMap} then neither transfers nor
+     * deserializes the previous value.
+     *
+     * @param key the key
+     */
+    public void delete(Object key) {
+        if (backingMap instanceof IMap<K, byte[]> map) {
+            map.delete(key);
+        }
+        else {
+            backingMap.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        backingMap.clear();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return backingMap.keySet();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, byte[]>> serializedEntries = backingMap.entrySet();
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                Iterator<Entry<K, byte[]>> iterator = serializedEntries.iterator();
+                return new Iterator<>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        Entry<K, byte[]> entry = iterator.next();
+                        return new SimpleImmutableEntry<>(entry.getKey(), deserialize(entry.getValue()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return serializedEntries.size();
+            }
+        };
+    }
+
+    /**
+     * Stores the given value in the given map without reading the previous value, see {@link #set(Object, Object)}. Other maps than a {@link SerializedValueMap} or a
+     * Hazelcast {@link IMap} store the value with {@link Map#put(Object, Object)}.
+     *
+     * @param map   the map to store the value in
+     * @param key   the key
+     * @param value the value to store
+     * @param <K>   the type of the keys
+     * @param <V>   the type of the values
+     */
+    public static <K, V> void setValue(Map<K, V> map, K key, V value) {
+        if (map instanceof SerializedValueMap<K, V> serializedValueMap) {
+            serializedValueMap.set(key, value);
+        }
+        else if (map instanceof IMap<K, V> hazelcastMap) {
+            hazelcastMap.set(key, value);
+        }
+        else {
+            map.put(key, value);
+        }
+    }
+
+    /**
+     * Removes the value of the given key from the given map without reading the previous value, see {@link #delete(Object)}. Other maps than a
+     * {@link SerializedValueMap} or a Hazelcast {@link IMap} remove the value with {@link Map#remove(Object)}.
+     *
+     * @param map the map to remove the value from
+     * @param key the key
+     */
+    public static void deleteValue(Map<?, ?> map, Object key) {
+        if (map instanceof SerializedValueMap<?, ?> serializedValueMap) {
+            serializedValueMap.delete(key);
+        }
+        else if (map instanceof IMap<?, ?> hazelcastMap) {
+            hazelcastMap.delete(key);
+        }
+        else {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * Serializes the given value with the serializer of this map, e.g. to write it to the backing map directly
+     *
+     * @param value the value to serialize, must not be null
+     * @return the serialized value
+     */
+    public byte[] serialize(V value) {
+        Objects.requireNonNull(value, "value must not be null");
+        try {
+            return serializer.serialize(value);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize cache value " + value, e);
+        }
+    }
+
+    /**
+     * Deserializes the given bytes with the serializer of this map, e.g. after reading them from the backing map directly
+     *
+     * @param bytes the serialized value or null
+     * @return the deserialized value or null if the given bytes are null
+     */
+    public V deserialize(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return serializer.deserialize(bytes);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not deserialize cache value", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package de.tum.in.www1.artemis.service.scheduled.cache.monitoring;
+
+import static de.tum.in.www1.artemis.service.scheduled.cache.CacheValueSerializer.readNullableLong;
+import static de.tum.in.www1.artemis.service.scheduled.cache.CacheValueSerializer.writeNullableLong;
+
+import java.io.*;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamAction;
+import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.service.scheduled.cache.CacheValueSerializer;
+import de.tum.in.www1.artemis.service.scheduled.cache.JsonCacheValueSerializer;
+
+/**
+ * The serializer for the values of the activity map of an {@link ExamMonitoringDistributedCache}.
+ * <p>
+ * The actions are written as JSON (as they are sent to the client), the activity itself only consists of its id and the id of the student exam.
+ * The activity cannot be written as JSON directly, because its actions are a managed reference without back reference.
+ */
+final class ExamActivityCacheValueSerializer implements CacheValueSerializer<ExamActivity> {
+
+    private static final TypeReference<List<ExamAction>> EXAM_ACTIONS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectWriter examActionsWriter;
+
+    private final ObjectReader examActionsReader;
+
+    ExamActivityCacheValueSerializer() {
+        ObjectMapper objectMapper = JsonCacheValueSerializer.createObjectMapper();
+        // the writer needs the declared type, otherwise the type information of the polymorphic actions would be missing
+        this.examActionsWriter = objectMapper.writerFor(EXAM_ACTIONS_TYPE);
+        this.examActionsReader = objectMapper.readerFor(EXAM_ACTIONS_TYPE);
+    }
+
+    @Override
+    public byte[] serialize(ExamActivity activity) throws IOException {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            writeNullableLong(out, activity.getId());
+            writeNullableLong(out, activity.getStudentExamId());
+            out.write(examActionsWriter.writeValueAsBytes(activity.getExamActions()));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public ExamActivity deserialize(byte[] bytes) throws IOException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            ExamActivity activity = new ExamActivity();
+            activity.setId(readNullableLong(in));
+            activity.setStudentExamId(readNullableLong(in));
+            List<ExamAction> examActions = examActionsReader.readValue(in.readAllBytes());
+            activity.addExamActions(examActions);
+            return activity;
+        }
+    }
+}
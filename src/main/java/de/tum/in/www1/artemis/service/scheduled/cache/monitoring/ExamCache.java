@@ -2,7 +2,7 @@ package de.tum.in.www1.artemis.service.scheduled.cache.monitoring;
 
 import java.util.function.UnaryOperator;
 
-import com.hazelcast.config.Config;
+import com.hazelcast.config.*;
 import com.hazelcast.core.HazelcastInstance;
 
 import de.tum.in.www1.artemis.config.Constants;
@@ -21,7 +21,8 @@ import de.tum.in.www1.artemis.service.scheduled.cache.CacheHandler;
  * and that allow for {@linkplain #performCacheWrite(Long, UnaryOperator) atomic writes} (including an
  * {@linkplain #performCacheWriteIfPresent(Long, UnaryOperator) if-present variant}).
  * <p>
- * Additionally, we don't need any near cache configuration since reloading all actions from the cache is a very rare case.
+ * The exam monitoring caches are read for every action of every student, but only written when the monitoring of an exam starts or ends,
+ * so they are kept in a near cache like the quiz exercise caches. The activities themselves are not affected by this, they are stored in separate maps.
  */
 final class ExamCache extends CacheHandler<Long> {
 
@@ -41,6 +42,21 @@ final class ExamCache extends CacheHandler<Long> {
      */
     static void configureHazelcast(Config config) {
         ExamMonitoringCache.registerSerializers(config);
+        // Avoids a remote get and the deserialization of the exam monitoring cache for every action
+        // @formatter:off
+        EvictionConfig evictionConfig = new EvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.NONE);
+        NearCacheConfig nearCacheConfig = new NearCacheConfig()
+                .setName(Constants.HAZELCAST_MONITORING_CACHE + "-local")
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setSerializeKeys(true)
+                .setInvalidateOnChange(true)
+                .setTimeToLiveSeconds(0)
+                .setMaxIdleSeconds(0)
+                .setEvictionConfig(evictionConfig)
+                .setCacheLocalEntries(true);
+        // @formatter:on
+        config.getMapConfig(Constants.HAZELCAST_MONITORING_CACHE).setNearCacheConfig(nearCacheConfig);
     }
 
     @Override
@@ -21,22 +21,29 @@ import com.hazelcast.nio.serialization.StreamSerializer;
 
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.exam.monitoring.ExamActivity;
+import de.tum.in.www1.artemis.service.scheduled.cache.SerializedValueMap;
 
 /**
  * This class represents the cache for a single exam monitoring.
  * <p>
+ * The activities are stored in a compact form (see {@link ExamActivityCacheValueSerializer}) instead of the Java serialization of the entities,
+ * as every action of a student rewrites the whole activity of the student.
  */
 public class ExamMonitoringDistributedCache extends ExamMonitoringCache implements HazelcastInstanceAware {
 
     private final Logger logger = LoggerFactory.getLogger(ExamMonitoringDistributedCache.class);
 
+    private static final ExamActivityCacheValueSerializer ACTIVITY_SERIALIZER = new ExamActivityCacheValueSerializer();
+
     private static final String HAZELCAST_CACHE_ACTIVITIES = "-activities";
 
     /**
      * This IMap is a distributed Hazelcast object and must not be (de-)serialized, it is set in the
      * setHazelcastInstance method.
      */
-    private transient IMap<Long, ExamActivity> activities;
+    private transient IMap<Long, byte[]> activities;
+
+    private transient SerializedValueMap<Long, ExamActivity> activitiesView;
 
     public ExamMonitoringDistributedCache(Long examId) {
         super(Objects.requireNonNull(examId, "examId must not be null"));
@@ -45,7 +52,7 @@ public class ExamMonitoringDistributedCache extends ExamMonitoringCache implemen
 
     @Override
     Map<Long, ExamActivity> getActivities() {
-        return activities;
+        return activitiesView;
     }
 
     @Override
@@ -64,6 +71,7 @@ public class ExamMonitoringDistributedCache extends ExamMonitoringCache implemen
          * lightweight operation.
          */
         activities = hazelcastInstance.getMap(Constants.HAZELCAST_MONITORING_PREFIX + getExamId() + HAZELCAST_CACHE_ACTIVITIES);
+        activitiesView = new SerializedValueMap<>(activities, ACTIVITY_SERIALIZER);
     }
 
     static class ExamMonitoringDistributedCacheStreamSerializer implements StreamSerializer<ExamMonitoringDistributedCache> {
@@ -96,7 +104,8 @@ public class ExamMonitoringDistributedCache extends ExamMonitoringCache implemen
     public void updateActivity(Long activityId, UnaryOperator<ExamActivity> writeOperation) {
         activities.lock(activityId);
         try {
-            activities.set(activityId, writeOperation.apply(activities.get(activityId)));
+            ExamActivity activity = writeOperation.apply(activitiesView.deserialize(activities.get(activityId)));
+            activities.set(activityId, activitiesView.serialize(activity));
         }
         finally {
             activities.unlock(activityId);
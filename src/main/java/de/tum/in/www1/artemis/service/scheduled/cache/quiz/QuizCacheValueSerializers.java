@@ -0,0 +1,158 @@
+package de.tum.in.www1.artemis.service.scheduled.cache.quiz;
+
+import static de.tum.in.www1.artemis.service.scheduled.cache.CacheValueSerializer.readNullableLong;
+import static de.tum.in.www1.artemis.service.scheduled.cache.CacheValueSerializer.writeNullableLong;
+
+import java.io.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.service.scheduled.cache.CacheValueSerializer;
+import de.tum.in.www1.artemis.service.scheduled.cache.JsonCacheValueSerializer;
+
+/**
+ * The serializers for the values of the distributed maps of a {@link QuizExerciseDistributedCache}.
+ * <p>
+ * Each serializer only keeps the data the {@link QuizScheduleService} needs from the cached value, instead of the whole entity graph that the
+ * Java serialization would write (e.g. the quiz exercise with all questions and statistics for every participation).
+ */
+final class QuizCacheValueSerializers {
+
+    private QuizCacheValueSerializers() {
+        // only static serializers
+    }
+
+    /**
+     * The submissions are sent by the client as JSON, so they contain everything that is needed to save them afterwards.
+     * The back references ignored by Jackson are restored after the deserialization.
+     */
+    static final CacheValueSerializer<QuizSubmission> SUBMISSION = new JsonCacheValueSerializer<>(QuizSubmission.class) {
+
+        @Override
+        public QuizSubmission deserialize(byte[] bytes) throws IOException {
+            QuizSubmission quizSubmission = super.deserialize(bytes);
+            for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+                submittedAnswer.setSubmission(quizSubmission);
+                if (submittedAnswer instanceof DragAndDropSubmittedAnswer dragAndDropSubmittedAnswer) {
+                    dragAndDropSubmittedAnswer.getMappings().forEach(mapping -> mapping.setSubmittedAnswer(dragAndDropSubmittedAnswer));
+                }
+                else if (submittedAnswer instanceof ShortAnswerSubmittedAnswer shortAnswerSubmittedAnswer) {
+                    shortAnswerSubmittedAnswer.getSubmittedTexts().forEach(submittedText -> submittedText.setSubmittedAnswer(shortAnswerSubmittedAnswer));
+                }
+            }
+            return quizSubmission;
+        }
+    };
+
+    /**
+     * The participations are only cached to send them to the participants at the end of the quiz. The exercise is sent separately
+     * and the submissions are already part of the results, so only the participation with its results and the login of the participant are kept.
+     */
+    static final CacheValueSerializer<StudentParticipation> PARTICIPATION = new CacheValueSerializer<>() {
+
+        private final CacheValueSerializer<StudentParticipation> json = new JsonCacheValueSerializer<>(createParticipationObjectMapper(), StudentParticipation.class);
+
+        @Override
+        public byte[] serialize(StudentParticipation participation) throws IOException {
+            var bytes = new ByteArrayOutputStream(1024);
+            try (var out = new DataOutputStream(bytes)) {
+                String login = participation.getParticipantIdentifier();
+                out.writeBoolean(login != null);
+                if (login != null) {
+                    out.writeUTF(login);
+                }
+                out.write(json.serialize(participation));
+            }
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public StudentParticipation deserialize(byte[] bytes) throws IOException {
+            try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                String login = in.readBoolean() ? in.readUTF() : null;
+                StudentParticipation participation = json.deserialize(in.readAllBytes());
+                if (login != null) {
+                    User student = new User();
+                    student.setLogin(login);
+                    participation.setParticipant(student);
+                }
+                return participation;
+            }
+        }
+    };
+
+    /**
+     * The results are only cached to update the statistics, which only needs the scalar values of the result and the ids of its participation and submission.
+     */
+    static final CacheValueSerializer<Result> RESULT = new CacheValueSerializer<>() {
+
+        @Override
+        public byte[] serialize(Result result) throws IOException {
+            var bytes = new ByteArrayOutputStream(64);
+            try (var out = new DataOutputStream(bytes)) {
+                writeNullableLong(out, result.getId());
+                out.writeByte(result.isRated() == null ? -1 : result.isRated() ? 1 : 0);
+                out.writeBoolean(result.getScore() != null);
+                if (result.getScore() != null) {
+                    out.writeDouble(result.getScore());
+                }
+                ZonedDateTime completionDate = result.getCompletionDate();
+                out.writeBoolean(completionDate != null);
+                if (completionDate != null) {
+                    out.writeLong(completionDate.toEpochSecond());
+                    out.writeInt(completionDate.getNano());
+                    out.writeUTF(completionDate.getZone().getId());
+                }
+                writeNullableLong(out, result.getParticipation() != null ? result.getParticipation().getId() : null);
+                writeNullableLong(out, result.getSubmission() != null ? result.getSubmission().getId() : null);
+            }
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public Result deserialize(byte[] bytes) throws IOException {
+            try (var in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                Result result = new Result();
+                result.setId(readNullableLong(in));
+                byte rated = in.readByte();
+                result.setRated(rated == -1 ? null : rated == 1);
+                if (in.readBoolean()) {
+                    result.setScore(in.readDouble());
+                }
+                if (in.readBoolean()) {
+                    Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                    result.setCompletionDate(ZonedDateTime.ofInstant(instant, ZoneId.of(in.readUTF())));
+                }
+                Long participationId = readNullableLong(in);
+                if (participationId != null) {
+                    StudentParticipation participation = new StudentParticipation();
+                    participation.setId(participationId);
+                    result.setParticipation(participation);
+                }
+                Long submissionId = readNullableLong(in);
+                if (submissionId != null) {
+                    QuizSubmission submission = new QuizSubmission();
+                    submission.setId(submissionId);
+                    result.setSubmission(submission);
+                }
+                return result;
+            }
+        }
+    };
+
+    private static ObjectMapper createParticipationObjectMapper() {
+        return JsonCacheValueSerializer.createObjectMapper().addMixIn(StudentParticipation.class, CachedParticipationMixin.class);
+    }
+
+    @JsonIgnoreProperties({ "exercise", "submissions", "student", "team" })
+    private abstract static class CachedParticipationMixin {
+    }
+}
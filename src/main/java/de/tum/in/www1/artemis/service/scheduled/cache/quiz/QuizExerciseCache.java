@@ -61,6 +61,11 @@ abstract class QuizExerciseCache implements Cache {
      */
     abstract Map<Long, Result> getResults();
 
+    /**
+     * The changes of the statistic counters that have not been saved to the database yet, by the key of the counter
+     */
+    abstract Map<String, Integer> getStatisticCounters();
+
     /**
      * Set the cached {@link QuizExercise} object
      */
@@ -24,12 +24,16 @@ import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.service.scheduled.cache.SerializedValueMap;
 
 /**
  * This class represents the cache for a single quiz exercise.
  * <p>
  * This includes the participations, submissions and results, but also the quiz exercise object itself and handlers for
  * the distributed start task {@link QuizStartTask}.
+ * <p>
+ * The participations, submissions and results are stored in a compact form (see {@link QuizCacheValueSerializers}) instead of the
+ * Java serialization of the whole entity graph, the maps returned by the getters convert them transparently.
  */
 final class QuizExerciseDistributedCache extends QuizExerciseCache implements HazelcastInstanceAware {
 
@@ -43,6 +47,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
 
     private static final String HAZELCAST_CACHE_RESULTS = "-results";
 
+    private static final String HAZELCAST_CACHE_STATISTIC_COUNTERS = "-statistic-counters";
+
     /**
      * All {@link List} classes that are supported by Hazelcast {@link SerializationServiceV1}
      */
@@ -59,19 +65,30 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
     private transient QuizExercise exercise;
 
     /*
-     * All three IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
+     * All IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
      */
 
     private transient IMap<String, Long> batches;
 
-    private transient IMap<String, StudentParticipation> participations;
+    private transient IMap<String, byte[]> participations;
 
-    private transient IMap<String, QuizSubmission> submissions;
+    private transient IMap<String, byte[]> submissions;
 
     /**
      * Must be a Map because Hazelcast uses serialized objects for set operations and not hashCode()/equals()
      */
-    private transient IMap<Long, Result> results;
+    private transient IMap<Long, byte[]> results;
+
+    private transient Map<String, StudentParticipation> participationsView;
+
+    private transient Map<String, QuizSubmission> submissionsView;
+
+    private transient Map<Long, Result> resultsView;
+
+    /**
+     * The counters are distributed over the partitions by their key, changes are applied with atomic compare-and-set operations, so no locks are needed
+     */
+    private transient IMap<String, Integer> statisticCounters;
 
     QuizExerciseDistributedCache(Long exerciseId, List<ScheduledTaskHandler> quizStart, QuizExercise exercise) {
         super(Objects.requireNonNull(exerciseId, "exerciseId must not be null"));
@@ -100,12 +117,12 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
 
     @Override
     Map<String, QuizSubmission> getSubmissions() {
-        return submissions;
+        return submissionsView;
     }
 
     @Override
     Map<String, StudentParticipation> getParticipations() {
-        return participations;
+        return participationsView;
     }
 
     @Override
@@ -115,7 +132,12 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
 
     @Override
     Map<Long, Result> getResults() {
-        return results;
+        return resultsView;
+    }
+
+    @Override
+    Map<String, Integer> getStatisticCounters() {
+        return statisticCounters;
     }
 
     @Override
@@ -140,6 +162,7 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         int participationsSize = participations.size();
         int submissionsSize = submissions.size();
         int resultsSize = results.size();
+        int statisticCountersSize = statisticCounters.size();
         if (batchesSize > 0) {
             log.warn("Cache for Quiz {} destroyed with {} batches cached", getExerciseId(), participationsSize);
         }
@@ -152,10 +175,14 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         if (resultsSize > 0) {
             log.warn("Cache for Quiz {} destroyed with {} results cached", getExerciseId(), resultsSize);
         }
+        if (statisticCountersSize > 0) {
+            log.warn("Cache for Quiz {} destroyed with {} unsaved statistic counters cached", getExerciseId(), statisticCountersSize);
+        }
         batches.destroy();
         participations.destroy();
         submissions.destroy();
         results.destroy();
+        statisticCounters.destroy();
         exercise = null;
     }
 
@@ -169,6 +196,10 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         participations = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_PARTICIPATIONS);
         submissions = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_SUBMISSIONS);
         results = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_RESULTS);
+        statisticCounters = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_STATISTIC_COUNTERS);
+        participationsView = new SerializedValueMap<>(participations, QuizCacheValueSerializers.PARTICIPATION);
+        submissionsView = new SerializedValueMap<>(submissions, QuizCacheValueSerializers.SUBMISSION);
+        resultsView = new SerializedValueMap<>(results, QuizCacheValueSerializers.RESULT);
     }
 
     /**
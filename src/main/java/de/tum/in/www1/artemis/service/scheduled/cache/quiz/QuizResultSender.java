@@ -0,0 +1,179 @@
+package de.tum.in.www1.artemis.service.scheduled.cache.quiz;
+
+import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Sends the results of a synchronized quiz to the participants in parallel, so that the last student does not receive the result many seconds after the first one
+ * and the processing of the cached quiz submissions does not have to wait for the send out.
+ * <p>
+ * The messages are sent by a fixed number of lanes with one thread each. All messages for the same user are sent by the same lane (based on the username),
+ * so they are sent in the order in which they were {@linkplain #send(SendOut, String, StudentParticipation) enqueued}. Each lane has a bounded queue, if it is
+ * full, enqueuing blocks until there is space again.
+ */
+final class QuizResultSender {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizResultSender.class);
+
+    private static final String METRIC_PREFIX = "artemis.quiz.results.send";
+
+    private static final int NUMBER_OF_LANES = 8;
+
+    private static final int LANE_QUEUE_CAPACITY = 10_000;
+
+    /**
+     * A send out logs its progress after each time this number of messages has been sent
+     */
+    private static final int PROGRESS_LOG_INTERVAL = 1_000;
+
+    private final ThreadPoolExecutor[] lanes = new ThreadPoolExecutor[NUMBER_OF_LANES];
+
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+
+    private final Counter sentMessages;
+
+    private final Counter failedMessages;
+
+    private final Timer sendOutTimer;
+
+    QuizResultSender(MeterRegistry meterRegistry) {
+        for (int i = 0; i < NUMBER_OF_LANES; i++) {
+            String threadName = "quiz-result-sender-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(LANE_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }, QuizResultSender::enqueueBlocking);
+        }
+        this.sentMessages = Counter.builder(METRIC_PREFIX + ".sent").description("Number of quiz results sent to the participants").register(meterRegistry);
+        this.failedMessages = Counter.builder(METRIC_PREFIX + ".failed").description("Number of quiz results that could not be sent to the participants")
+                .register(meterRegistry);
+        this.sendOutTimer = Timer.builder(METRIC_PREFIX + ".duration").description("Duration from the start of a send out of quiz results until the last result was sent")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".pending", pendingMessages, AtomicInteger::get).description("Number of quiz results waiting to be sent to the participants")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a new send out of the results of one quiz
+     *
+     * @param quizTitle the title of the quiz for logging
+     * @param sender    sends the result of one participant, it has to handle its exceptions itself
+     * @return the send out to pass to {@link #send(SendOut, String, StudentParticipation)} for every participant
+     */
+    SendOut startSendOut(String quizTitle, Consumer<StudentParticipation> sender) {
+        return new SendOut(quizTitle, sender);
+    }
+
+    /**
+     * Enqueues the result of the given participant to be sent in the background after all previously enqueued results of the same participant
+     *
+     * @param sendOut       the send out the result belongs to
+     * @param username      the username of the participant
+     * @param participation the participation including the result
+     */
+    void send(SendOut sendOut, String username, StudentParticipation participation) {
+        sendOut.total.incrementAndGet();
+        pendingMessages.incrementAndGet();
+        lanes[Math.floorMod(username.hashCode(), NUMBER_OF_LANES)].execute(() -> {
+            try {
+                sendOut.sender.accept(participation);
+                sentMessages.increment();
+            }
+            catch (Exception e) {
+                failedMessages.increment();
+                log.error("Exception while sending the result of user {} in quiz {}: {}", username, sendOut.quizTitle, e.getMessage(), e);
+            }
+            finally {
+                pendingMessages.decrementAndGet();
+                sendOut.messageDone();
+            }
+        });
+    }
+
+    /**
+     * Stops the lanes, results that have not been sent yet are discarded (students can still load them)
+     */
+    void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    /**
+     * Blocks the caller until there is space in the queue of the lane, instead of running the task in the calling thread, which would violate the ordering
+     */
+    private static void enqueueBlocking(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("The quiz result sender has been shut down");
+        }
+        try {
+            lane.getQueue().put(task);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to enqueue a quiz result", e);
+        }
+    }
+
+    /**
+     * The send out of the results of one quiz, which tracks its progress and records its duration once all enqueued results have been sent
+     */
+    final class SendOut {
+
+        private final String quizTitle;
+
+        private final Consumer<StudentParticipation> sender;
+
+        private final long start = System.nanoTime();
+
+        private final AtomicInteger total = new AtomicInteger();
+
+        private final AtomicInteger done = new AtomicInteger();
+
+        private volatile boolean allEnqueued;
+
+        private SendOut(String quizTitle, Consumer<StudentParticipation> sender) {
+            this.quizTitle = quizTitle;
+            this.sender = sender;
+        }
+
+        /**
+         * Marks that all results of this send out have been enqueued, so the send out is complete after they have been sent
+         */
+        void allEnqueued() {
+            allEnqueued = true;
+            completeIfDone(done.get());
+        }
+
+        private void messageDone() {
+            int doneMessages = done.incrementAndGet();
+            if (doneMessages % PROGRESS_LOG_INTERVAL == 0) {
+                log.info("Sent out {} of {} participations in {} for quiz {}", doneMessages, total.get(), formatDurationFrom(start), quizTitle);
+            }
+            completeIfDone(doneMessages);
+        }
+
+        private void completeIfDone(int doneMessages) {
+            // only the thread that observes the last message after all messages have been enqueued records the send out (compareAndSet guards against the race)
+            if (allEnqueued && doneMessages == total.get() && done.compareAndSet(doneMessages, -1)) {
+                sendOutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (doneMessages > 0) {
+                    log.info("Sent out {} participations in {} for quiz {}", doneMessages, formatDurationFrom(start), quizTitle);
+                }
+            }
+        }
+    }
+}
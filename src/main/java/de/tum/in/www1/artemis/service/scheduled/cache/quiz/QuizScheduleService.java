@@ -1,25 +1,32 @@
 package de.tum.in.www1.artemis.service.scheduled.cache.quiz;
 
+import static de.tum.in.www1.artemis.service.scheduled.cache.SerializedValueMap.deleteValue;
+import static de.tum.in.www1.artemis.service.scheduled.cache.SerializedValueMap.setValue;
 import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.cp.IAtomicReference;
@@ -37,11 +44,13 @@ import de.tum.in.www1.artemis.domain.quiz.QuizBatch;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.QuizMessagingService;
 import de.tum.in.www1.artemis.service.QuizStatisticService;
 import de.tum.in.www1.artemis.service.scheduled.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class QuizScheduleService {
@@ -50,6 +59,22 @@ public class QuizScheduleService {
 
     private static final String HAZELCAST_PROCESS_CACHE_HANDLER = QuizProcessCacheTask.HAZELCAST_PROCESS_CACHE_TASK + "-handler";
 
+    /**
+     * The number of participations and submissions that are saved with one repository call when processing the cached submissions
+     */
+    private static final int SUBMISSION_PERSISTENCE_CHUNK_SIZE = 50;
+
+    /**
+     * The interval in which the saved (but not submitted) quiz submissions buffered on this instance are written to the distributed cache.
+     * This needs to be clearly shorter than the {@link Constants#QUIZ_GRACE_PERIOD_IN_SECONDS grace period} at the end of a quiz.
+     */
+    private static final Duration SUBMISSION_BUFFER_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * The interval in which the cached statistic changes of a running quiz are saved, so that at most the changes of this interval are lost if the cluster restarts
+     */
+    private static final Duration STATISTIC_CHANGES_SAVE_INTERVAL = Duration.ofSeconds(30);
+
     private final IScheduledExecutorService threadPoolTaskScheduler;
 
     private final IAtomicReference<ScheduledTaskHandler> scheduledProcessQuizSubmissions;
@@ -64,16 +89,24 @@ public class QuizScheduleService {
 
     private final QuizStatisticService quizStatisticService;
 
-    private final SimpMessageSendingOperations messagingTemplate;
-
     private final QuizCache quizCache;
 
     private final QuizExerciseRepository quizExerciseRepository;
 
-    public QuizScheduleService(SimpMessageSendingOperations messagingTemplate, StudentParticipationRepository studentParticipationRepository, UserRepository userRepository,
-            QuizSubmissionRepository quizSubmissionRepository, HazelcastInstance hazelcastInstance, QuizExerciseRepository quizExerciseRepository,
-            QuizMessagingService quizMessagingService, QuizStatisticService quizStatisticService) {
-        this.messagingTemplate = messagingTemplate;
+    private final QuizSubmissionBuffer submissionBuffer;
+
+    private final QuizResultSender resultSender;
+
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * The time the cached statistic changes of a quiz exercise were last saved by the processing on this instance, by the id of the quiz exercise
+     */
+    private final Map<Long, Instant> lastStatisticChangesSave = new ConcurrentHashMap<>();
+
+    public QuizScheduleService(StudentParticipationRepository studentParticipationRepository, UserRepository userRepository, QuizSubmissionRepository quizSubmissionRepository,
+            HazelcastInstance hazelcastInstance, QuizExerciseRepository quizExerciseRepository, QuizMessagingService quizMessagingService,
+            QuizStatisticService quizStatisticService, MeterRegistry meterRegistry, @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
         this.studentParticipationRepository = studentParticipationRepository;
         this.userRepository = userRepository;
         this.quizSubmissionRepository = quizSubmissionRepository;
@@ -83,6 +116,9 @@ public class QuizScheduleService {
         this.scheduledProcessQuizSubmissions = hazelcastInstance.getCPSubsystem().getAtomicReference(HAZELCAST_PROCESS_CACHE_HANDLER);
         this.threadPoolTaskScheduler = hazelcastInstance.getScheduledExecutorService(Constants.HAZELCAST_QUIZ_SCHEDULER);
         this.quizCache = new QuizCache(hazelcastInstance);
+        this.submissionBuffer = new QuizSubmissionBuffer(meterRegistry);
+        this.resultSender = new QuizResultSender(meterRegistry);
+        this.taskScheduler = taskScheduler;
     }
 
     /**
@@ -101,10 +137,23 @@ public class QuizScheduleService {
         // activate Quiz Schedule Service
         SecurityUtils.setAuthorizationObject();
         startSchedule(5 * 1000);                          // every 5 seconds
+        // the buffer is local to each instance, so it is flushed by a local task on every instance
+        taskScheduler.scheduleAtFixedRate(this::flushSubmissionBuffer, SUBMISSION_BUFFER_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Stops sending quiz results that have not been sent yet, the participants can still load them
+     */
+    @PreDestroy
+    public void shutdown() {
+        resultSender.shutdown();
     }
 
     /**
      * add a quizSubmission to the submissionHashMap
+     * <p>
+     * Submissions that are not submitted yet are only buffered on this instance and written to the submissionHashMap periodically (latest wins),
+     * submitted submissions are written to the submissionHashMap directly.
      *
      * @param quizExerciseId the quizExerciseId of the quiz the submission belongs to (first Key)
      * @param username       the username of the user, who submitted the submission (second Key)
@@ -112,10 +161,31 @@ public class QuizScheduleService {
      */
     public void updateSubmission(Long quizExerciseId, String username, QuizSubmission quizSubmission) {
         if (quizSubmission != null && quizExerciseId != null && username != null) {
-            ((QuizExerciseCache) quizCache.getTransientWriteCacheFor(quizExerciseId)).getSubmissions().put(username, quizSubmission);
+            if (quizSubmission.isSubmitted()) {
+                submissionBuffer.writeThrough(quizExerciseId, username, quizSubmission, getSubmissionsForWrite(quizExerciseId));
+            }
+            else {
+                submissionBuffer.add(quizExerciseId, username, quizSubmission);
+            }
         }
     }
 
+    /**
+     * Writes all quiz submissions buffered on this instance to the submissionHashMaps
+     */
+    public void flushSubmissionBuffer() {
+        try {
+            submissionBuffer.flush(this::getSubmissionsForWrite);
+        }
+        catch (Exception e) {
+            log.error("Exception while flushing the buffered quiz submissions: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<String, QuizSubmission> getSubmissionsForWrite(Long quizExerciseId) {
+        return ((QuizExerciseCache) quizCache.getTransientWriteCacheFor(quizExerciseId)).getSubmissions();
+    }
+
     /**
      * add a result to resultHashMap for a statistic-update
      * this should only be invoked once, when the quiz was submitted
@@ -126,7 +196,7 @@ public class QuizScheduleService {
     public void addResultForStatisticUpdate(Long quizExerciseId, Result result) {
         log.debug("add result for statistic update for quiz {}: {}", quizExerciseId, result);
         if (quizExerciseId != null && result != null) {
-            ((QuizExerciseCache) quizCache.getTransientWriteCacheFor(quizExerciseId)).getResults().put(result.getId(), result);
+            setValue(((QuizExerciseCache) quizCache.getTransientWriteCacheFor(quizExerciseId)).getResults(), result.getId(), result);
         }
     }
 
@@ -138,7 +208,7 @@ public class QuizScheduleService {
      */
     private void addParticipation(Long quizExerciseId, StudentParticipation participation) {
         if (quizExerciseId != null && participation != null) {
-            ((QuizExerciseCache) quizCache.getTransientWriteCacheFor(quizExerciseId)).getParticipations().put(participation.getParticipantIdentifier(), participation);
+            setValue(((QuizExerciseCache) quizCache.getTransientWriteCacheFor(quizExerciseId)).getParticipations(), participation.getParticipantIdentifier(), participation);
         }
     }
 
@@ -154,7 +224,11 @@ public class QuizScheduleService {
         if (quizExerciseId == null || username == null) {
             return null;
         }
-        QuizSubmission quizSubmission = ((QuizExerciseCache) quizCache.getReadCacheFor(quizExerciseId)).getSubmissions().get(username);
+        QuizSubmission quizSubmission = submissionBuffer.get(quizExerciseId, username);
+        if (quizSubmission != null) {
+            return quizSubmission;
+        }
+        quizSubmission = ((QuizExerciseCache) quizCache.getReadCacheFor(quizExerciseId)).getSubmissions().get(username);
         if (quizSubmission != null) {
             return quizSubmission;
         }
@@ -380,6 +454,8 @@ public class QuizScheduleService {
      * This will cause cached submissions, participations and results to be lost!
      */
     public void clearAllQuizData() {
+        submissionBuffer.clear();
+        lastStatisticChangesSave.clear();
         quizCache.clear();
     }
 
@@ -391,6 +467,8 @@ public class QuizScheduleService {
      * @param quizExerciseId refers to one specific quiz exercise for which the data should be cleared
      */
     public void clearQuizData(Long quizExerciseId) {
+        submissionBuffer.clear(quizExerciseId);
+        lastStatisticChangesSave.remove(quizExerciseId);
         quizCache.removeAndClear(quizExerciseId);
     }
 
@@ -403,12 +481,16 @@ public class QuizScheduleService {
      *      a. Process all cached Submissions that belong to this quiz i. set “isSubmitted” to “true” and submissionType to “SubmissionType.TIMEOUT”
      *          ii. Create Participation and Result and save to Database (DB WRITE)
      *          iii. Remove processed Submissions from cache and write the Participations with Result and the Results into the cache
-     *      b. Send out cached Participations (including QuizExercise and Result) from to each participant and remove them from the cache (WEBSOCKET SEND)
-     * 3. Update Statistics with Results from ResultHashMap (DB READ and DB WRITE) and remove from cache
-     * 4. Send out new Statistics to instructors (WEBSOCKET SEND)
+     *      b. Remove cached Participations (including QuizExercise and Result) from the cache and send them out to each participant in the background (WEBSOCKET SEND)
+     * 3. Update the cached statistic counters with the changes of the Results from ResultHashMap (DB READ) and remove them from cache
+     *      a. If Quiz has ended or the changes have not been saved for {@link #STATISTIC_CHANGES_SAVE_INTERVAL}: add the cached statistic changes to the statistics
+     *          and save them in one batch (DB WRITE)
+     * 4. Send out new Statistics (saved values and cached changes) to instructors (WEBSOCKET SEND)
      */
     public void processCachedQuizSubmissions() {
         log.info("Process cached quiz submissions");
+        // make sure the submissions buffered on this instance are processed as well
+        flushSubmissionBuffer();
         // global try-catch for error logging
         try {
             for (Cache cache : quizCache.getAllCaches()) {
@@ -448,8 +530,14 @@ public class QuizScheduleService {
                 if (!hasNewSubmissions && !hasNewParticipations && !hasNewResults) {
                     // Remove quiz if it has ended
                     if (hasEnded) {
+                        // make sure no statistic changes get lost, usually they have already been saved at the end of the quiz
+                        saveStatisticChanges(cachedQuiz, quizExercise);
                         removeCachedQuiz(cachedQuiz);
                     }
+                    else if (isStatisticChangesSaveDue(quizExerciseId)) {
+                        // the last results of a running quiz are saved as well, even if no further results follow until the quiz ends
+                        saveStatisticChanges(cachedQuiz, quizExercise);
+                    }
                     continue;
                 }
 
@@ -478,39 +566,53 @@ public class QuizScheduleService {
                 start = System.nanoTime();
 
                 if (hasNewParticipations && hasEnded) {
-                    // Send the participation with containing result and quiz back to the users via websocket and remove the participation from the ParticipationHashMap
+                    // Remove the participation with containing result and quiz from the ParticipationHashMap and send it back to the user via websocket.
+                    // The participations are sent in parallel in the background (see QuizResultSender), so the next quiz does not need to wait for the send out.
+                    // They are removed when they are enqueued, so that the next processing does not send them again.
                     Collection<Entry<String, StudentParticipation>> finishedParticipations = cachedQuiz.getParticipations().entrySet();
-                    // TODO maybe find a better way to optimize the performance (use an executor service with e.g. X parallel threads)
-                    finishedParticipations.parallelStream().forEach(entry -> {
+                    // the quiz exercise is the same for all participants, so we only serialize it once
+                    byte[] sharedExercise = quizMessagingService.serializeSharedExercise(quizExercise);
+                    var sendOut = resultSender.startSendOut(quizExercise.getTitle(), participation -> sendQuizResultToUser(quizExerciseId, participation, sharedExercise));
+                    for (var entry : finishedParticipations) {
                         StudentParticipation participation = entry.getValue();
                         if (participation.getParticipant() == null || participation.getParticipantIdentifier() == null) {
                             log.error("Participation is missing student (or student is missing username): {}", participation);
                         }
-                        else {
-                            sendQuizResultToUser(quizExerciseId, participation);
-                            cachedQuiz.getParticipations().remove(entry.getKey());
+                        else if (cachedQuiz.getParticipations().remove(entry.getKey()) != null) {
+                            resultSender.send(sendOut, participation.getParticipantIdentifier(), participation);
                         }
-                    });
+                    }
+                    sendOut.allEnqueued();
                     if (!finishedParticipations.isEmpty()) {
-                        log.info("Sent out {} participations in {} for quiz {}", finishedParticipations.size(), formatDurationFrom(start), quizExercise.getTitle());
+                        log.info("Enqueued {} participations for the send out in {} for quiz {}", finishedParticipations.size(), formatDurationFrom(start), quizExercise.getTitle());
                     }
                 }
 
-                // Update Statistics with Results (DB Read and DB Write) and remove the results from the cache
+                // Update Statistics with Results (DB Read) and remove the results from the cache, the statistics are saved periodically and at the end of the quiz (DB Write)
                 start = System.nanoTime();
 
                 if (hasNewResults) {
-                    // Fetch a new quiz exercise here including deeper attribute paths (this is relatively expensive, so we only do that if necessary)
                     try {
                         // Get a Set because QuizStatisticService needs one (currently)
                         Set<Result> newResultsForQuiz = Set.copyOf(cachedQuiz.getResults().values());
-                        // Update the statistics
-                        quizStatisticService.updateStatistics(newResultsForQuiz, quizExercise);
-                        log.info("Updated statistics with {} new results in {} for quiz {}", newResultsForQuiz.size(), formatDurationFrom(start), quizExercise.getTitle());
+                        // Only add the changes of the new results to the cached statistic counters
+                        Map<String, Integer> statisticChanges = quizStatisticService.calculateStatisticChanges(newResultsForQuiz, quizExercise);
+                        statisticChanges.forEach((key, change) -> cachedQuiz.getStatisticCounters().merge(key, change, QuizScheduleService::sumOrRemove));
                         // Remove only processed results
                         for (Result result : newResultsForQuiz) {
-                            cachedQuiz.getResults().remove(result.getId());
+                            deleteValue(cachedQuiz.getResults(), result.getId());
+                        }
+                        log.info("Updated statistics with {} new results in {} for quiz {}", newResultsForQuiz.size(), formatDurationFrom(start), quizExercise.getTitle());
+
+                        // The statistics of the exercise only contain the saved values, so we add all cached changes
+                        if (hasEnded || isStatisticChangesSaveDue(quizExerciseId)) {
+                            saveStatisticChanges(cachedQuiz, quizExercise);
                         }
+                        else {
+                            quizStatisticService.applyStatisticChanges(quizExercise, Map.copyOf(cachedQuiz.getStatisticCounters()));
+                        }
+                        // Send out the live statistics to the instructors (WEBSOCKET SEND)
+                        quizStatisticService.sendStatisticsToInstructors(quizExercise);
                     }
                     catch (Exception e) {
                         log.error("Exception in StatisticService.updateStatistics(): {}", e.getMessage(), e);
@@ -533,27 +635,94 @@ public class QuizScheduleService {
         return Optional.ofNullable(quizExerciseCache.getBatches().get(login));
     }
 
+    /**
+     * Discards the cached statistic changes of the given quiz, e.g. because the statistics are recalculated from the saved results
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     */
+    public void clearStatisticChanges(Long quizExerciseId) {
+        var cachedQuiz = (QuizExerciseCache) quizCache.getCacheFor(quizExerciseId);
+        if (cachedQuiz != null) {
+            cachedQuiz.getStatisticCounters().clear();
+        }
+    }
+
+    /**
+     * Adds the cached statistic changes, which are only saved periodically and at the end of the quiz, to the statistics of the given quiz exercise without saving them
+     *
+     * @param quizExercise the quiz exercise with questions and statistics
+     */
+    public void addCachedStatisticChanges(QuizExercise quizExercise) {
+        Map<String, Integer> statisticChanges = ((QuizExerciseCache) quizCache.getReadCacheFor(quizExercise.getId())).getStatisticCounters();
+        if (!statisticChanges.isEmpty()) {
+            quizStatisticService.applyStatisticChanges(quizExercise, Map.copyOf(statisticChanges));
+        }
+    }
+
+    /**
+     * Adds the cached statistic changes to the saved statistics of the given quiz exercise and saves them in one batch.
+     * Only the saved changes are removed from the cache afterwards, so concurrent changes do not get lost.
+     *
+     * @param cachedQuiz   the cache of the quiz exercise
+     * @param quizExercise the quiz exercise with questions and statistics loaded from the database
+     */
+    private void saveStatisticChanges(QuizExerciseCache cachedQuiz, QuizExercise quizExercise) {
+        lastStatisticChangesSave.put(cachedQuiz.getExerciseId(), Instant.now());
+        Map<String, Integer> statisticChanges = Map.copyOf(cachedQuiz.getStatisticCounters());
+        if (statisticChanges.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        quizStatisticService.applyStatisticChanges(quizExercise, statisticChanges);
+        quizStatisticService.saveStatistics(quizExercise);
+        statisticChanges.forEach((key, change) -> cachedQuiz.getStatisticCounters().merge(key, -change, QuizScheduleService::sumOrRemove));
+        log.info("Saved {} statistic counter changes in {} for quiz {}", statisticChanges.size(), formatDurationFrom(start), quizExercise.getTitle());
+    }
+
+    /**
+     * Checks if the cached statistic changes of the given quiz exercise are due to be saved, i.e. if they have not been saved by this instance within the last
+     * {@link #STATISTIC_CHANGES_SAVE_INTERVAL}, e.g. because the processing moved to this instance
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     * @return true if the cached statistic changes should be saved now
+     */
+    private boolean isStatisticChangesSaveDue(Long quizExerciseId) {
+        Instant lastSave = lastStatisticChangesSave.get(quizExerciseId);
+        return lastSave == null || !lastSave.plus(STATISTIC_CHANGES_SAVE_INTERVAL).isAfter(Instant.now());
+    }
+
+    /**
+     * Remapping function for the cached statistic counters, which removes counters without any changes
+     */
+    private static Integer sumOrRemove(Integer oldValue, Integer change) {
+        int sum = oldValue + change;
+        return sum == 0 ? null : sum;
+    }
+
     private void removeCachedQuiz(QuizExerciseCache cachedQuiz) {
+        lastStatisticChangesSave.remove(cachedQuiz.getExerciseId());
         cancelScheduledQuizStart(cachedQuiz.getExerciseId());
         quizCache.remove(cachedQuiz.getExerciseId());
     }
 
-    private void sendQuizResultToUser(long quizExerciseId, StudentParticipation participation) {
+    private void sendQuizResultToUser(long quizExerciseId, StudentParticipation participation, byte[] sharedExercise) {
         var user = participation.getParticipantIdentifier();
         removeUnnecessaryObjectsBeforeSendingToClient(participation);
-        messagingTemplate.convertAndSendToUser(user, "/topic/exercise/" + quizExerciseId + "/participation", participation);
+        try {
+            quizMessagingService.sendParticipationWithSharedExercise(user, quizExerciseId, participation, sharedExercise);
+        }
+        catch (JsonProcessingException e) {
+            log.error("Exception occurred while serializing the participation of user {} in quiz {}", user, quizExerciseId, e);
+        }
     }
 
     private void removeUnnecessaryObjectsBeforeSendingToClient(StudentParticipation participation) {
-        if (participation.getExercise() != null) {
-            var quizExercise = (QuizExercise) participation.getExercise();
-            // we do not need the course and lectures
-            quizExercise.setCourse(null);
-            // students should not see statistics
-            // TODO: this would be useful, but leads to problems when the quiz schedule service wants to access the statistics again later on
-            // quizExercise.setQuizPointStatistic(null);
-            // quizExercise.getQuizQuestions().forEach(quizQuestion -> quizQuestion.setQuizQuestionStatistic(null));
-        }
+        // the exercise is sent as shared, already serialized part (without the course), see QuizMessagingService#serializeSharedExercise
+        // students should not see statistics
+        // TODO: this would be useful, but leads to problems when the quiz schedule service wants to access the statistics again later on
+        // quizExercise.setQuizPointStatistic(null);
+        // quizExercise.getQuizQuestions().forEach(quizQuestion -> quizQuestion.setQuizQuestionStatistic(null));
+
         // submissions are part of results, so we do not need them twice
         participation.setSubmissions(null);
         participation.setParticipant(null);
@@ -574,6 +743,11 @@ public class QuizScheduleService {
     /**
      * check if the user submitted the submission or if the quiz has ended: if true: -> Create Participation and Result and save to Database (DB Write) Remove processed Submissions
      * from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
+     * <p>
+     * The users of all processed submissions are loaded with one query and the participations and submissions are saved in chunks of
+     * {@link #SUBMISSION_PERSISTENCE_CHUNK_SIZE}, so that a quiz end with many students does not need several round trips per student.
+     * If saving a chunk fails (e.g. because of a duplicated key), the submissions of this chunk are saved individually again, so that one
+     * exception cannot destroy multiple student answers.
      *
      * @param quizExercise      the quiz which should be checked
      * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
@@ -583,113 +757,263 @@ public class QuizScheduleService {
      */
     private int saveQuizSubmissionWithParticipationAndResultToDatabase(@NotNull QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap, Map<String, Long> userBatchMap, Map<Long, QuizBatch> batchCache) {
 
-        int count = 0;
-
+        // 1. collect all submissions that were submitted by the user or whose quiz (batch) has ended
+        List<Entry<String, QuizSubmission>> finishedSubmissions = new ArrayList<>();
         for (String username : userSubmissionMap.keySet()) {
-            try {
-                // first case: the user submitted the quizSubmission
-                QuizSubmission quizSubmission = userSubmissionMap.get(username);
-                QuizBatch quizBatch = batchCache.get(userBatchMap.getOrDefault(username, 0L));
-                if (quizSubmission.isSubmitted()) {
-                    if (quizSubmission.getType() == null) {
-                        quizSubmission.setType(SubmissionType.MANUAL);
-                    }
-                } // second case: the quiz or batch has ended
-                else if (quizExercise.isQuizEnded() || quizBatch != null && quizBatch.isEnded()) {
-                    quizSubmission.setSubmitted(true);
-                    quizSubmission.setType(SubmissionType.TIMEOUT);
-                    quizSubmission.setSubmissionDate(ZonedDateTime.now());
-                }
-                else {
-                    // the quiz is running and the submission was not yet submitted.
-                    continue;
+            QuizSubmission quizSubmission = userSubmissionMap.get(username);
+            if (quizSubmission == null) {
+                // the submission has been processed concurrently in the meantime
+                continue;
+            }
+            QuizBatch quizBatch = batchCache.get(userBatchMap.getOrDefault(username, 0L));
+            // first case: the user submitted the quizSubmission
+            if (quizSubmission.isSubmitted()) {
+                if (quizSubmission.getType() == null) {
+                    quizSubmission.setType(SubmissionType.MANUAL);
                 }
+            } // second case: the quiz or batch has ended
+            else if (quizExercise.isQuizEnded() || quizBatch != null && quizBatch.isEnded()) {
+                quizSubmission.setSubmitted(true);
+                quizSubmission.setType(SubmissionType.TIMEOUT);
+                quizSubmission.setSubmissionDate(ZonedDateTime.now());
+            }
+            else {
+                // the quiz is running and the submission was not yet submitted.
+                continue;
+            }
 
-                if (quizBatch != null) {
-                    // record which batch the submission belongs to
-                    quizSubmission.setQuizBatch(quizBatch.getId());
-                }
+            if (quizBatch != null) {
+                // record which batch the submission belongs to
+                quizSubmission.setQuizBatch(quizBatch.getId());
+            }
+            finishedSubmissions.add(Map.entry(username, quizSubmission));
+        }
 
-                count++;
-                // Create Participation and Result and save to Database (DB Write)
-                // Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
-
-                StudentParticipation participation = new StudentParticipation();
-                // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
-                participation.setInitializationDate(quizSubmission.getSubmissionDate());
-                Optional<User> user = userRepository.findOneByLogin(username);
-                if (user.isEmpty()) {
-                    log.error("Cannot find the user for username {}", username);
-                } else {
-                    participation.setParticipant(user.get());
-                }
-                // add the quizExercise to the participation
-                participation.setExercise(quizExercise);
-                participation.setInitializationState(InitializationState.FINISHED);
+        if (finishedSubmissions.isEmpty()) {
+            return 0;
+        }
 
-                // create new result
-                Result result = new Result().participation(participation);
-                result.setRated(true);
-                result.setAssessmentType(AssessmentType.AUTOMATIC);
-                result.setCompletionDate(quizSubmission.getSubmissionDate());
-                result.setSubmission(quizSubmission);
+        // 2. load all users of the processed submissions with one query
+        Set<String> usernames = finishedSubmissions.stream().map(Entry::getKey).collect(Collectors.toSet());
+        Map<String, User> usersByLogin = userRepository.findAllByLoginIn(usernames).stream().collect(Collectors.toMap(User::getLogin, user -> user));
 
-                // calculate scores and update result and submission accordingly
-                quizSubmission.calculateAndUpdateScores(quizExercise);
-                result.evaluateQuizSubmission();
+        // 3. calculate the scores of all processed submissions in parallel, the scoring plan is compiled only once for all of them
+        QuizScoringPlan scoringPlan = QuizScoringPlan.compile(quizExercise);
+        finishedSubmissions.parallelStream().forEach(entry -> scoringPlan.calculateAndUpdateScores(entry.getValue()));
 
-                // add result to participation
-                participation.addResult(result);
+        // 4. save the participations, submissions and results chunk by chunk
+        int count = 0;
+        for (int fromIndex = 0; fromIndex < finishedSubmissions.size(); fromIndex += SUBMISSION_PERSISTENCE_CHUNK_SIZE) {
+            var chunk = finishedSubmissions.subList(fromIndex, Math.min(fromIndex + SUBMISSION_PERSISTENCE_CHUNK_SIZE, finishedSubmissions.size()));
+            count += saveQuizSubmissionChunk(quizExercise, scoringPlan, chunk, usersByLogin, userSubmissionMap, userBatchMap);
+        }
+        return count;
+    }
 
-                // add submission to participation
-                participation.setSubmissions(Set.of(quizSubmission));
+    /**
+     * Saves the participations and afterwards the submissions (including the results due to CascadeType.ALL) of one chunk with one repository call each.
+     * Falls back to {@link #saveSingleQuizSubmission} for the submissions of the chunk if one of the calls fails.
+     *
+     * @param quizExercise      the quiz the submissions belong to
+     * @param scoringPlan       the scoring plan of the quiz, the submissions have already been scored with it
+     * @param chunk             the submissions of this chunk mapped by the username
+     * @param usersByLogin      the users of all processed submissions mapped by their login
+     * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
+     * @param userBatchMap      a Map of the username to quiz batch id for the given quizExercise
+     * @return the number of saved submissions
+     */
+    private int saveQuizSubmissionChunk(QuizExercise quizExercise, QuizScoringPlan scoringPlan, List<Entry<String, QuizSubmission>> chunk, Map<String, User> usersByLogin,
+            Map<String, QuizSubmission> userSubmissionMap, Map<String, Long> userBatchMap) {
+        List<StudentParticipation> participations = new ArrayList<>(chunk.size());
+        for (var entry : chunk) {
+            participations.add(createParticipationWithResult(quizExercise, scoringPlan, entry.getKey(), entry.getValue(), usersByLogin.get(entry.getKey())));
+        }
 
-                // NOTE: we save (1) participation and (2) submission (in this particular order) here individually so that one exception (e.g. duplicated key) cannot
-                // destroy multiple student answers
-                participation = studentParticipationRepository.save(participation);
-                quizSubmission.addResult(result);
-                quizSubmission.setParticipation(participation);
-                // this automatically saves the results due to CascadeType.ALL
-                quizSubmission = quizSubmissionRepository.save(quizSubmission);
-
-                log.info("Successfully saved submission in quiz {} for user {}", quizExercise.getTitle(), username);
-
-                // reconnect entities after save
-                participation.setSubmissions(Set.of(quizSubmission));
-                participation.setResults(Set.of(result));
-                result.setSubmission(quizSubmission);
-                result.setParticipation(participation);
-
-                // no point in keeping the participation around for non-synchronized modes where the due date may only be in a week
-                if (quizExercise.getQuizMode() == QuizMode.SYNCHRONIZED) {
-                    // add the participation to the participationHashMap for the send out at the end of the quiz
-                    addParticipation(quizExercise.getId(), participation);
-                }
+        List<StudentParticipation> savedParticipations;
+        try {
+            savedParticipations = studentParticipationRepository.saveAll(participations);
+        }
+        catch (Exception e) {
+            log.warn("Could not save {} participations at once in quiz {}, falling back to saving them individually: {}", chunk.size(), quizExercise.getId(), e.getMessage());
+            // the participations have not been saved (the whole call is rolled back), therefore we start from scratch for each user
+            int count = 0;
+            for (var entry : chunk) {
+                resetGeneratedIds(entry.getValue());
+                count += saveSingleQuizSubmission(quizExercise, scoringPlan, entry.getKey(), entry.getValue(), null, usersByLogin, userSubmissionMap, userBatchMap);
+            }
+            return count;
+        }
 
-                // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
-                // the same user
-                userSubmissionMap.remove(username);
-                // clean up the batch association
-                userBatchMap.remove(username);
+        List<QuizSubmission> quizSubmissions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            QuizSubmission quizSubmission = chunk.get(i).getValue();
+            StudentParticipation participation = savedParticipations.get(i);
+            Result result = participation.getResults().iterator().next();
+            result.setParticipation(participation);
+            quizSubmission.addResult(result);
+            quizSubmission.setParticipation(participation);
+            quizSubmissions.add(quizSubmission);
+        }
 
-                // add the result of the participation resultHashMap for the statistic-Update
-                addResultForStatisticUpdate(quizExercise.getId(), result);
+        List<QuizSubmission> savedQuizSubmissions;
+        try {
+            // this automatically saves the results due to CascadeType.ALL
+            savedQuizSubmissions = quizSubmissionRepository.saveAll(quizSubmissions);
+        }
+        catch (Exception e) {
+            log.warn("Could not save {} submissions at once in quiz {}, falling back to saving them individually: {}", chunk.size(), quizExercise.getId(), e.getMessage());
+            // the participations have already been saved, so we reuse them and only save the submissions individually
+            int count = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                QuizSubmission quizSubmission = chunk.get(i).getValue();
+                resetGeneratedIds(quizSubmission);
+                savedParticipations.get(i).getResults().forEach(result -> result.setId(null));
+                count += saveSingleQuizSubmission(quizExercise, scoringPlan, chunk.get(i).getKey(), quizSubmission, savedParticipations.get(i), usersByLogin,
+                        userSubmissionMap, userBatchMap);
             }
-            catch (ConstraintViolationException constraintViolationException) {
-                log.error("ConstraintViolationException in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), constraintViolationException.getMessage(), constraintViolationException);
-                // We got a ConstraintViolationException -> The "User-Quiz" pair is already saved in the database, but for some reason was not removed from the maps
-                // We remove it from the maps now to prevent this error from occurring again
-                // We do NOT add it to the participation map, as this should have been done already earlier (when the entry was added to the database)
+            return count;
+        }
 
-                userSubmissionMap.remove(username);
+        for (int i = 0; i < chunk.size(); i++) {
+            StudentParticipation participation = savedParticipations.get(i);
+            finishSavedQuizSubmission(quizExercise, chunk.get(i).getKey(), participation, savedQuizSubmissions.get(i), participation.getResults().iterator().next(),
+                    userSubmissionMap, userBatchMap);
+        }
+        log.info("Successfully saved {} submissions in quiz {}", chunk.size(), quizExercise.getTitle());
+        return chunk.size();
+    }
 
-                // clean up the batch association
-                userBatchMap.remove(username);
-            }
-            catch (Exception e) {
-                log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), e.getMessage(), e);
+    /**
+     * Saves the participation (if it has not been saved yet) and the submission of one user individually.
+     *
+     * @param quizExercise          the quiz the submission belongs to
+     * @param scoringPlan           the scoring plan of the quiz, the submission has already been scored with it
+     * @param username              the username of the user, who submitted the submission
+     * @param quizSubmission        the submission which should be saved
+     * @param existingParticipation the already saved participation of the user, or null if it still has to be created
+     * @param usersByLogin          the users of all processed submissions mapped by their login
+     * @param userSubmissionMap     a Map with all submissions for the given quizExercise mapped by the username
+     * @param userBatchMap          a Map of the username to quiz batch id for the given quizExercise
+     * @return 1 if the submission was saved, 0 otherwise
+     */
+    private int saveSingleQuizSubmission(QuizExercise quizExercise, QuizScoringPlan scoringPlan, String username, QuizSubmission quizSubmission,
+            @Nullable StudentParticipation existingParticipation, Map<String, User> usersByLogin, Map<String, QuizSubmission> userSubmissionMap, Map<String, Long> userBatchMap) {
+        try {
+            StudentParticipation participation = existingParticipation;
+            if (participation == null) {
+                // NOTE: we save (1) participation and (2) submission (in this particular order) here individually so that one exception (e.g. duplicated key) cannot
+                // destroy multiple student answers
+                participation = studentParticipationRepository.save(createParticipationWithResult(quizExercise, scoringPlan, username, quizSubmission, usersByLogin.get(username)));
             }
+            Result result = participation.getResults().iterator().next();
+            result.setParticipation(participation);
+            quizSubmission.addResult(result);
+            quizSubmission.setParticipation(participation);
+            // this automatically saves the results due to CascadeType.ALL
+            quizSubmission = quizSubmissionRepository.save(quizSubmission);
+
+            log.info("Successfully saved submission in quiz {} for user {}", quizExercise.getTitle(), username);
+            finishSavedQuizSubmission(quizExercise, username, participation, quizSubmission, result, userSubmissionMap, userBatchMap);
+            return 1;
+        }
+        catch (ConstraintViolationException constraintViolationException) {
+            log.error("ConstraintViolationException in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), constraintViolationException.getMessage(), constraintViolationException);
+            // We got a ConstraintViolationException -> The "User-Quiz" pair is already saved in the database, but for some reason was not removed from the maps
+            // We remove it from the maps now to prevent this error from occurring again
+            // We do NOT add it to the participation map, as this should have been done already earlier (when the entry was added to the database)
+
+            userSubmissionMap.remove(username);
+
+            // clean up the batch association
+            userBatchMap.remove(username);
+        }
+        catch (Exception e) {
+            log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    /**
+     * Creates a new (not yet saved) participation including a new, evaluated result for the given submission
+     *
+     * @param quizExercise   the quiz the submission belongs to
+     * @param scoringPlan    the scoring plan of the quiz, the submission has already been scored with it
+     * @param username       the username of the user, who submitted the submission
+     * @param quizSubmission the submission for which the participation should be created
+     * @param user           the user, or null if the user could not be found
+     * @return the new participation containing the result and the submission
+     */
+    private StudentParticipation createParticipationWithResult(QuizExercise quizExercise, QuizScoringPlan scoringPlan, String username, QuizSubmission quizSubmission,
+            @Nullable User user) {
+        StudentParticipation participation = new StudentParticipation();
+        // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
+        participation.setInitializationDate(quizSubmission.getSubmissionDate());
+        if (user == null) {
+            log.error("Cannot find the user for username {}", username);
+        }
+        else {
+            participation.setParticipant(user);
+        }
+        // add the quizExercise to the participation
+        participation.setExercise(quizExercise);
+        participation.setInitializationState(InitializationState.FINISHED);
+
+        // create new result
+        Result result = new Result().participation(participation);
+        result.setRated(true);
+        result.setAssessmentType(AssessmentType.AUTOMATIC);
+        result.setCompletionDate(quizSubmission.getSubmissionDate());
+        result.setSubmission(quizSubmission);
+
+        // update the result with the score of the submission (calculated with the scoring plan before)
+        result.setScore(scoringPlan.getScore(quizSubmission.getScoreInPoints()), quizExercise.getCourseViaExerciseGroupOrCourseMember());
+
+        // add result to participation
+        participation.addResult(result);
+
+        // add submission to participation
+        participation.setSubmissions(Set.of(quizSubmission));
+        return participation;
+    }
+
+    /**
+     * Reconnects the saved entities, adds them to the cache for the send out and the statistic update and removes the processed submission from the maps
+     */
+    private void finishSavedQuizSubmission(QuizExercise quizExercise, String username, StudentParticipation participation, QuizSubmission quizSubmission, Result result,
+            Map<String, QuizSubmission> userSubmissionMap, Map<String, Long> userBatchMap) {
+        // reconnect entities after save
+        participation.setSubmissions(Set.of(quizSubmission));
+        participation.setResults(Set.of(result));
+        result.setSubmission(quizSubmission);
+        result.setParticipation(participation);
+
+        // no point in keeping the participation around for non-synchronized modes where the due date may only be in a week
+        if (quizExercise.getQuizMode() == QuizMode.SYNCHRONIZED) {
+            // add the participation to the participationHashMap for the send out at the end of the quiz
+            addParticipation(quizExercise.getId(), participation);
+        }
+
+        // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
+        // the same user
+        userSubmissionMap.remove(username);
+        // clean up the batch association
+        userBatchMap.remove(username);
+
+        // add the result of the participation resultHashMap for the statistic-Update
+        addResultForStatisticUpdate(quizExercise.getId(), result);
+    }
+
+    /**
+     * Hibernate assigns the generated ids already when inserting, even if the transaction is rolled back afterwards.
+     * We remove them again so that the submission is inserted as new entity when saving it individually.
+     *
+     * @param quizSubmission the submission that could not be saved
+     */
+    private static void resetGeneratedIds(QuizSubmission quizSubmission) {
+        quizSubmission.setId(null);
+        quizSubmission.setResults(new ArrayList<>());
+        if (quizSubmission.getSubmittedAnswers() != null) {
+            quizSubmission.getSubmittedAnswers().forEach(submittedAnswer -> submittedAnswer.setId(null));
         }
-        return count;
     }
 }
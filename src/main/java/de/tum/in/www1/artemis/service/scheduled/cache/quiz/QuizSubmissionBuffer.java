@@ -0,0 +1,161 @@
+package de.tum.in.www1.artemis.service.scheduled.cache.quiz;
+
+import static de.tum.in.www1.artemis.service.scheduled.cache.SerializedValueMap.setValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Buffers the quiz submissions that students save (but did not submit yet) on this instance only.
+ * <p>
+ * Students save their quiz submission on every change of an answer, which would otherwise lead to one distributed map operation
+ * (including the serialization of the whole {@link QuizSubmission}) per click. This buffer only keeps the latest submission per
+ * user (latest wins) and writes it to the distributed submission map of the {@link QuizExerciseCache} when it is {@linkplain #flush(Function) flushed},
+ * so that the load on the distributed cache depends on the number of students and not on the number of clicks.
+ * <p>
+ * Submitted submissions are never buffered but {@linkplain #writeThrough(Long, String, QuizSubmission, Map) written through} directly,
+ * replacing a buffered submission of the same user.
+ */
+final class QuizSubmissionBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizSubmissionBuffer.class);
+
+    private static final String METRIC_PREFIX = "artemis.quiz.submissions.buffer";
+
+    /**
+     * The buffered submissions by username, by the id of the quiz exercise
+     */
+    private final Map<Long, Map<String, QuizSubmission>> bufferedSubmissions = new ConcurrentHashMap<>();
+
+    private final Counter avoidedPuts;
+
+    private final Counter flushedSubmissions;
+
+    private final Timer flushTimer;
+
+    QuizSubmissionBuffer(MeterRegistry meterRegistry) {
+        this.avoidedPuts = Counter.builder(METRIC_PREFIX + ".puts.avoided").description("Number of quiz submission updates that replaced a buffered update of the same user")
+                .register(meterRegistry);
+        this.flushedSubmissions = Counter.builder(METRIC_PREFIX + ".puts").description("Number of buffered quiz submissions written to the distributed cache")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_PREFIX + ".flush").description("Duration of writing the buffered quiz submissions to the distributed cache")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, QuizSubmissionBuffer::size).description("Number of quiz submissions currently buffered on this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers the given (not submitted) submission, replacing a previously buffered submission of the same user
+     *
+     * @param quizExerciseId the id of the quiz exercise the submission belongs to
+     * @param username       the username of the user who saved the submission
+     * @param quizSubmission the submission to buffer
+     */
+    void add(Long quizExerciseId, String username, QuizSubmission quizSubmission) {
+        // the submission is added while holding the entry of the quiz exercise, so that a concurrent flush cannot remove the buffer in the meantime
+        bufferedSubmissions.compute(quizExerciseId, (id, exerciseBuffer) -> {
+            var buffer = exerciseBuffer != null ? exerciseBuffer : new ConcurrentHashMap<String, QuizSubmission>();
+            if (buffer.put(username, quizSubmission) != null) {
+                avoidedPuts.increment();
+            }
+            return buffer;
+        });
+    }
+
+    /**
+     * Writes the given submission directly to the given distributed submission map and discards a buffered submission of the same user.
+     * This is done atomically with respect to {@link #flush(Function)}, so an older buffered submission can never overwrite the given one.
+     *
+     * @param quizExerciseId the id of the quiz exercise the submission belongs to
+     * @param username       the username of the user who submitted the submission
+     * @param quizSubmission the submission to write
+     * @param submissions    the distributed submission map of the quiz exercise
+     */
+    void writeThrough(Long quizExerciseId, String username, QuizSubmission quizSubmission, Map<String, QuizSubmission> submissions) {
+        var exerciseBuffer = bufferedSubmissions.get(quizExerciseId);
+        if (exerciseBuffer == null) {
+            setValue(submissions, username, quizSubmission);
+            return;
+        }
+        exerciseBuffer.compute(username, (user, bufferedSubmission) -> {
+            setValue(submissions, user, quizSubmission);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the buffered submission of the given user
+     *
+     * @param quizExerciseId the id of the quiz exercise the submission belongs to
+     * @param username       the username of the user
+     * @return the buffered submission or null if no submission of the user is buffered on this instance
+     */
+    @Nullable
+    QuizSubmission get(Long quizExerciseId, String username) {
+        var exerciseBuffer = bufferedSubmissions.get(quizExerciseId);
+        return exerciseBuffer != null ? exerciseBuffer.get(username) : null;
+    }
+
+    /**
+     * Writes all buffered submissions to the distributed submission maps of their quiz exercises and removes them from the buffer
+     *
+     * @param submissionMapProvider provides the distributed submission map for the id of a quiz exercise
+     */
+    void flush(Function<Long, Map<String, QuizSubmission>> submissionMapProvider) {
+        if (bufferedSubmissions.isEmpty()) {
+            return;
+        }
+        flushTimer.record(() -> {
+            for (var exerciseEntry : bufferedSubmissions.entrySet()) {
+                var exerciseBuffer = exerciseEntry.getValue();
+                if (exerciseBuffer.isEmpty()) {
+                    // remove empty buffers of quiz exercises atomically with respect to add, new submissions will create a new one
+                    bufferedSubmissions.computeIfPresent(exerciseEntry.getKey(), (id, buffer) -> buffer.isEmpty() ? null : buffer);
+                    continue;
+                }
+                var submissions = submissionMapProvider.apply(exerciseEntry.getKey());
+                for (String username : exerciseBuffer.keySet()) {
+                    // the submission is written while holding the entry, so a concurrent write through cannot be overwritten by an older submission
+                    exerciseBuffer.computeIfPresent(username, (user, quizSubmission) -> {
+                        setValue(submissions, user, quizSubmission);
+                        flushedSubmissions.increment();
+                        return null;
+                    });
+                }
+            }
+        });
+        log.debug("Flushed buffered quiz submissions");
+    }
+
+    /**
+     * Discards all buffered submissions of the given quiz exercise
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     */
+    void clear(Long quizExerciseId) {
+        bufferedSubmissions.remove(quizExerciseId);
+    }
+
+    /**
+     * Discards all buffered submissions
+     */
+    void clear() {
+        bufferedSubmissions.clear();
+    }
+
+    private double size() {
+        return bufferedSubmissions.values().stream().mapToInt(Map::size).sum();
+    }
+}
@@ -27,13 +27,14 @@ import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.service.feature.Feature;
 import de.tum.in.www1.artemis.service.feature.FeatureToggle;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationScheduleService;
-import de.tum.in.www1.artemis.service.plagiarism.ModelingPlagiarismDetectionService;
+import de.tum.in.www1.artemis.service.scheduled.PlagiarismCheckJobScheduleService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
 import de.tum.in.www1.artemis.web.rest.dto.SearchResultPageDTO;
 import de.tum.in.www1.artemis.web.rest.dto.SubmissionExportOptionsDTO;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.rest.errors.ConflictException;
+import de.tum.in.www1.artemis.web.rest.plagiarism.PlagiarismCheckJobResource;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import de.tum.in.www1.artemis.web.rest.util.ResponseUtil;
 
@@ -79,7 +80,7 @@ public class ModelingExerciseResource {
 
     private final GradingCriterionRepository gradingCriterionRepository;
 
-    private final ModelingPlagiarismDetectionService modelingPlagiarismDetectionService;
+    private final PlagiarismCheckJobScheduleService plagiarismCheckJobScheduleService;
 
     private final ModelAssessmentKnowledgeService modelAssessmentKnowledgeService;
 
@@ -88,7 +89,7 @@ public class ModelingExerciseResource {
             ModelingExerciseService modelingExerciseService, ExerciseDeletionService exerciseDeletionService, PlagiarismResultRepository plagiarismResultRepository,
             ModelingExerciseImportService modelingExerciseImportService, SubmissionExportService modelingSubmissionExportService, ExerciseService exerciseService,
             GroupNotificationScheduleService groupNotificationScheduleService, GradingCriterionRepository gradingCriterionRepository,
-            ModelingPlagiarismDetectionService modelingPlagiarismDetectionService, ModelAssessmentKnowledgeService modelAssessmentKnowledgeService) {
+            PlagiarismCheckJobScheduleService plagiarismCheckJobScheduleService, ModelAssessmentKnowledgeService modelAssessmentKnowledgeService) {
         this.modelingExerciseRepository = modelingExerciseRepository;
         this.courseService = courseService;
         this.modelingExerciseService = modelingExerciseService;
@@ -103,7 +104,7 @@ public class ModelingExerciseResource {
         this.groupNotificationScheduleService = groupNotificationScheduleService;
         this.exerciseService = exerciseService;
         this.gradingCriterionRepository = gradingCriterionRepository;
-        this.modelingPlagiarismDetectionService = modelingPlagiarismDetectionService;
+        this.plagiarismCheckJobScheduleService = plagiarismCheckJobScheduleService;
         this.modelAssessmentKnowledgeService = modelAssessmentKnowledgeService;
     }
 
@@ -356,32 +357,31 @@ public class ModelingExerciseResource {
     /**
      * GET modeling-exercises/{exerciseId}/check-plagiarism
      * <p>
-     * Start the automated plagiarism detection for the given exercise and return its result.
+     * Queue the automated plagiarism detection for the given exercise, wait until it finished and return its result.
+     * If a check of the exercise with the same parameters is already queued or running, the result of this check is returned.
      *
      * @param exerciseId          for which all submission should be checked
      * @param similarityThreshold ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
      * @param minimumScore        consider only submissions whose score is greater or equal to this value
      * @param minimumSize         consider only submissions whose size is greater or equal to this value
      * @return the ResponseEntity with status 200 (OK) and the list of at most 500 pair-wise submissions with a similarity above the given threshold (e.g. 50%).
+     *         or with status 202 (Accepted) and the location of the plagiarism check job if the check did not finish in time
      */
     @GetMapping("modeling-exercises/{exerciseId}/check-plagiarism")
     @FeatureToggle(Feature.PlagiarismChecks)
     @PreAuthorize("hasRole('INSTRUCTOR')")
     public ResponseEntity<ModelingPlagiarismResult> checkPlagiarism(@PathVariable long exerciseId, @RequestParam float similarityThreshold, @RequestParam int minimumScore,
             @RequestParam int minimumSize) {
-        var modelingExercise = modelingExerciseRepository.findByIdWithStudentParticipationsSubmissionsResultsElseThrow(exerciseId);
+        var modelingExercise = modelingExerciseRepository.findByIdElseThrow(exerciseId);
         authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.INSTRUCTOR, modelingExercise, null);
         long start = System.nanoTime();
-        log.info("Start modelingPlagiarismDetectionService.checkPlagiarism for exercise {}", exerciseId);
-        var plagiarismResult = modelingPlagiarismDetectionService.checkPlagiarism(modelingExercise, similarityThreshold / 100, minimumSize, minimumScore);
-        log.info("Finished modelingPlagiarismDetectionService.checkPlagiarism call for {} comparisons in {}", plagiarismResult.getComparisons().size(),
-                TimeLogUtil.formatDurationFrom(start));
-        // TODO: limit the amount temporarily because of database issues
-        plagiarismResult.sortAndLimit(100);
-        log.info("Limited number of comparisons to {} to avoid performance issues when saving to database", plagiarismResult.getComparisons().size());
-        start = System.nanoTime();
-        plagiarismResultRepository.savePlagiarismResultAndRemovePrevious(plagiarismResult);
-        log.info("Finished plagiarismResultRepository.savePlagiarismResultAndRemovePrevious call in {}", TimeLogUtil.formatDurationFrom(start));
+        var job = plagiarismCheckJobScheduleService.submit(modelingExercise, similarityThreshold, minimumScore, minimumSize);
+        var awaitedResult = plagiarismCheckJobScheduleService.awaitResult(job);
+        if (awaitedResult.isEmpty()) {
+            return PlagiarismCheckJobResource.acceptedCheck(job);
+        }
+        var plagiarismResult = (ModelingPlagiarismResult) awaitedResult.get();
+        log.info("Finished plagiarism check job {} for exercise {} in {}", job.getId(), exerciseId, TimeLogUtil.formatDurationFrom(start));
         plagiarismResultRepository.prepareResultForClient(plagiarismResult);
         return ResponseEntity.ok(plagiarismResult);
     }
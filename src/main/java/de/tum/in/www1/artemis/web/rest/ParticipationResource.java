@@ -29,6 +29,7 @@ import de.tum.in.www1.artemis.config.GuidedTourConfiguration;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
 import de.tum.in.www1.artemis.domain.participation.*;
 import de.tum.in.www1.artemis.domain.quiz.QuizBatch;
@@ -116,6 +117,12 @@ public class ParticipationResource {
 
     private final GradingScaleService gradingScaleService;
 
+    private final StudentCourseScoreService studentCourseScoreService;
+
+    private final StatisticsRollupService statisticsRollupService;
+
+    private final StatisticsChartCacheService statisticsChartCacheService;
+
     public ParticipationResource(ParticipationService participationService, ProgrammingExerciseParticipationService programmingExerciseParticipationService,
             CourseRepository courseRepository, QuizExerciseRepository quizExerciseRepository, ExerciseRepository exerciseRepository,
             ProgrammingExerciseRepository programmingExerciseRepository, AuthorizationCheckService authCheckService,
@@ -125,7 +132,8 @@ public class ParticipationResource {
             ProgrammingExerciseStudentParticipationRepository programmingExerciseStudentParticipationRepository, SubmissionRepository submissionRepository,
             ResultRepository resultRepository, ExerciseDateService exerciseDateService, InstanceMessageSendService instanceMessageSendService, QuizBatchService quizBatchService,
             QuizScheduleService quizScheduleService, SubmittedAnswerRepository submittedAnswerRepository, GroupNotificationService groupNotificationService,
-            QuizSubmissionService quizSubmissionService, GradingScaleService gradingScaleService) {
+            QuizSubmissionService quizSubmissionService, GradingScaleService gradingScaleService, StudentCourseScoreService studentCourseScoreService,
+            StatisticsRollupService statisticsRollupService, StatisticsChartCacheService statisticsChartCacheService) {
         this.participationService = participationService;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
         this.quizExerciseRepository = quizExerciseRepository;
@@ -152,6 +160,9 @@ public class ParticipationResource {
         this.groupNotificationService = groupNotificationService;
         this.quizSubmissionService = quizSubmissionService;
         this.gradingScaleService = gradingScaleService;
+        this.studentCourseScoreService = studentCourseScoreService;
+        this.statisticsRollupService = statisticsRollupService;
+        this.statisticsChartCacheService = statisticsChartCacheService;
     }
 
     /**
@@ -445,6 +456,10 @@ public class ParticipationResource {
         }
 
         Participation updatedParticipation = studentParticipationRepository.saveAndFlush(participation);
+        // the presentation scores are part of the course scores of the students
+        if (!Objects.equals(currentParticipation.getPresentationScore(), participation.getPresentationScore())) {
+            studentCourseScoreService.updateCourseScoresOfParticipations(List.of(originalParticipation));
+        }
         return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, participation.getParticipant().getName()))
                 .body(updatedParticipation);
     }
@@ -812,7 +827,14 @@ public class ParticipationResource {
         var auditEvent = new AuditEvent(user.getLogin(), Constants.DELETE_PARTICIPATION, logMessage);
         auditEventRepository.add(auditEvent);
         log.info(logMessage);
+        // the rollups of the hours with submissions or results of the participation still count them after the deletion
+        var rolledUpSlots = statisticsRollupService.findSlotsOfParticipation(participation.getId());
         participationService.delete(participation.getId(), deleteBuildPlan, deleteRepository, true);
+        statisticsRollupService.recalculateRollups(rolledUpSlots);
+        var exercise = participation.getExercise();
+        statisticsChartCacheService.evictChartData(StatisticsView.EXERCISE, exercise.getId());
+        statisticsChartCacheService.evictChartData(StatisticsView.COURSE, exercise.getCourseViaExerciseGroupOrCourseMember().getId());
+        statisticsChartCacheService.evictChartData(StatisticsView.ARTEMIS, null);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, "participation", name)).build();
     }
 
@@ -17,7 +17,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import de.jplag.exceptions.ExitException;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
 import de.tum.in.www1.artemis.domain.enumeration.ProgrammingLanguage;
 import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
@@ -30,8 +29,10 @@ import de.tum.in.www1.artemis.service.feature.FeatureToggle;
 import de.tum.in.www1.artemis.service.plagiarism.ProgrammingPlagiarismDetectionService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingLanguageFeature;
 import de.tum.in.www1.artemis.service.programming.ProgrammingLanguageFeatureService;
+import de.tum.in.www1.artemis.service.scheduled.PlagiarismCheckJobScheduleService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+import de.tum.in.www1.artemis.web.rest.plagiarism.PlagiarismCheckJobResource;
 
 /**
  * REST controller for managing ProgrammingExercise.
@@ -57,14 +58,17 @@ public class ProgrammingExercisePlagiarismResource {
 
     private final ProgrammingPlagiarismDetectionService programmingPlagiarismDetectionService;
 
+    private final PlagiarismCheckJobScheduleService plagiarismCheckJobScheduleService;
+
     public ProgrammingExercisePlagiarismResource(ProgrammingExerciseRepository programmingExerciseRepository, AuthorizationCheckService authCheckService,
             PlagiarismResultRepository plagiarismResultRepository, Optional<ProgrammingLanguageFeatureService> programmingLanguageFeatureService,
-            ProgrammingPlagiarismDetectionService programmingPlagiarismDetectionService) {
+            ProgrammingPlagiarismDetectionService programmingPlagiarismDetectionService, PlagiarismCheckJobScheduleService plagiarismCheckJobScheduleService) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.authCheckService = authCheckService;
         this.plagiarismResultRepository = plagiarismResultRepository;
         this.programmingLanguageFeatureService = programmingLanguageFeatureService;
         this.programmingPlagiarismDetectionService = programmingPlagiarismDetectionService;
+        this.plagiarismCheckJobScheduleService = plagiarismCheckJobScheduleService;
     }
 
     /**
@@ -86,20 +90,19 @@ public class ProgrammingExercisePlagiarismResource {
     }
 
     /**
-     * GET /programming-exercises/{exerciseId}/check-plagiarism : Start the automated plagiarism detection for the given exercise and return its result.
+     * GET /programming-exercises/{exerciseId}/check-plagiarism : Queue the automated plagiarism detection for the given exercise, wait until it finished and return its
+     * result. If a check of the exercise with the same parameters is already queued or running, the result of this check is returned.
      *
      * @param exerciseId          The ID of the programming exercise for which the plagiarism check should be executed
      * @param similarityThreshold ignore comparisons whose similarity is below this threshold (in % between 0 and 100)
      * @param minimumScore        consider only submissions whose score is greater or equal to this value
      * @return the ResponseEntity with status 200 (OK) and the list of at most 500 pair-wise submissions with a similarity above the given threshold (e.g. 50%).
-     * @throws ExitException is thrown if JPlag exits unexpectedly
-     * @throws IOException   is thrown for file handling errors
+     *         or with status 202 (Accepted) and the location of the plagiarism check job if the check did not finish in time
      */
     @GetMapping(CHECK_PLAGIARISM)
     @PreAuthorize("hasRole('EDITOR')")
     @FeatureToggle({ Feature.ProgrammingExercises, Feature.PlagiarismChecks })
-    public ResponseEntity<TextPlagiarismResult> checkPlagiarism(@PathVariable long exerciseId, @RequestParam float similarityThreshold, @RequestParam int minimumScore)
-            throws ExitException, IOException {
+    public ResponseEntity<TextPlagiarismResult> checkPlagiarism(@PathVariable long exerciseId, @RequestParam float similarityThreshold, @RequestParam int minimumScore) {
         ProgrammingExercise programmingExercise = programmingExerciseRepository.findByIdElseThrow(exerciseId);
         authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.EDITOR, programmingExercise, null);
         ProgrammingLanguage language = programmingExercise.getProgrammingLanguage();
@@ -111,10 +114,14 @@ public class ProgrammingExercisePlagiarismResource {
         }
 
         long start = System.nanoTime();
-        log.info("Start programmingPlagiarismDetectionService.checkPlagiarism for exercise {}", exerciseId);
-        var plagiarismResult = programmingPlagiarismDetectionService.checkPlagiarism(exerciseId, similarityThreshold, minimumScore);
-        log.info("Finished programmingExerciseExportService.checkPlagiarism call for {} comparisons in {}", plagiarismResult.getComparisons().size(),
-                TimeLogUtil.formatDurationFrom(start));
+        // the minimum size is not used for programming exercises
+        var job = plagiarismCheckJobScheduleService.submit(programmingExercise, similarityThreshold, minimumScore, 0);
+        var awaitedResult = plagiarismCheckJobScheduleService.awaitResult(job);
+        if (awaitedResult.isEmpty()) {
+            return PlagiarismCheckJobResource.acceptedCheck(job);
+        }
+        var plagiarismResult = (TextPlagiarismResult) awaitedResult.get();
+        log.info("Finished plagiarism check job {} for exercise {} in {}", job.getId(), exerciseId, TimeLogUtil.formatDurationFrom(start));
         plagiarismResultRepository.prepareResultForClient(plagiarismResult);
         return ResponseEntity.ok(plagiarismResult);
     }
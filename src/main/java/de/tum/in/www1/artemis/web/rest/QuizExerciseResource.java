@@ -277,6 +277,8 @@ public class QuizExerciseResource {
         else if (!authCheckService.isAllowedToSeeExercise(quizExercise, null)) {
             throw new AccessForbiddenException();
         }
+        // include the statistic changes of a running quiz that have not been saved yet
+        quizScheduleService.addCachedStatisticChanges(quizExercise);
         setQuizBatches(user, quizExercise);
         return ResponseEntity.ok(quizExercise);
     }
@@ -295,11 +297,33 @@ public class QuizExerciseResource {
         if (!authCheckService.isAllowedToSeeExercise(quizExercise, null)) {
             throw new AccessForbiddenException();
         }
+        // the recalculation includes all saved results, so cached statistic changes would be counted twice
+        quizScheduleService.clearStatisticChanges(quizExercise.getId());
         quizStatisticService.recalculateStatistics(quizExercise);
         // fetch the quiz exercise again to make sure the latest changes are included
         return ResponseEntity.ok(quizExerciseRepository.findByIdWithQuestionsAndStatisticsElseThrow(quizExercise.getId()));
     }
 
+    /**
+     * DELETE /quiz-exercises/:quizExerciseId/recalculate-statistics : cancel the running recalculation of the statistics, the statistics are not changed in this case
+     *
+     * @param quizExerciseId the id of the quizExercise for which the recalculation of the statistics should be cancelled
+     * @return the ResponseEntity with status 200 (OK) if a running recalculation was cancelled, or with status 404 (Not Found) if no recalculation is running
+     */
+    @DeleteMapping("/quiz-exercises/{quizExerciseId}/recalculate-statistics")
+    @PreAuthorize("hasRole('TA')")
+    public ResponseEntity<Void> cancelRecalculationOfStatistics(@PathVariable Long quizExerciseId) {
+        log.info("REST request to cancel the recalculation of quiz statistics : {}", quizExerciseId);
+        QuizExercise quizExercise = quizExerciseRepository.findByIdElseThrow(quizExerciseId);
+        if (!authCheckService.isAllowedToSeeExercise(quizExercise, null)) {
+            throw new AccessForbiddenException();
+        }
+        if (!quizStatisticService.cancelRecalculation(quizExerciseId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
     /**
      * GET /quiz-exercises/:quizExerciseId/for-student : get the quizExercise with a particular batch. (information filtered for students)
      *
@@ -1,11 +1,13 @@
 package de.tum.in.www1.artemis.web.rest.admin;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,6 +16,7 @@ import de.tum.in.www1.artemis.domain.enumeration.GraphType;
 import de.tum.in.www1.artemis.domain.enumeration.SpanType;
 import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
 import de.tum.in.www1.artemis.security.annotations.EnforceAdmin;
+import de.tum.in.www1.artemis.service.StatisticsRollupService;
 import de.tum.in.www1.artemis.service.StatisticsService;
 
 /**
@@ -27,8 +30,11 @@ public class AdminStatisticsResource {
 
     private final StatisticsService statisticsService;
 
-    public AdminStatisticsResource(StatisticsService statisticsService) {
+    private final StatisticsRollupService statisticsRollupService;
+
+    public AdminStatisticsResource(StatisticsService statisticsService, StatisticsRollupService statisticsRollupService) {
         this.statisticsService = statisticsService;
+        this.statisticsRollupService = statisticsRollupService;
     }
 
     /**
@@ -45,4 +51,19 @@ public class AdminStatisticsResource {
         log.debug("REST request to get graph data");
         return ResponseEntity.ok(this.statisticsService.getChartData(span, periodIndex, graphType, StatisticsView.ARTEMIS, null));
     }
+
+    /**
+     * POST admin/management/statistics/rollups/backfill : roll up the statistics of all hours from the given date on, which were created before the hourly rollup was active.
+     * The backfill runs asynchronously, so this will always return 200.
+     *
+     * @param from the date from which the statistics should be rolled up
+     * @return the ResponseEntity with status 200 (OK)
+     */
+    @PostMapping("management/statistics/rollups/backfill")
+    @EnforceAdmin
+    public ResponseEntity<Void> backfillStatisticsRollups(@RequestParam ZonedDateTime from) {
+        log.info("REST request to backfill the statistics rollups from {}", from);
+        statisticsRollupService.backfillAsync(from);
+        return ResponseEntity.ok().build();
+    }
 }
@@ -0,0 +1,30 @@
+package de.tum.in.www1.artemis.web.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismStatus;
+
+/**
+ * A DTO with the fields of a plagiarism comparison that are shown in the list of comparisons of a plagiarism result. The matches and the elements of the submissions
+ * are not included, they are loaded on demand for a single comparison.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record PlagiarismComparisonDTO(long id, double similarity, PlagiarismStatus status, PlagiarismSubmissionDTO submissionA, PlagiarismSubmissionDTO submissionB) {
+
+    /**
+     * Constructor used by the JPQL constructor expression of the paged comparison queries
+     */
+    public PlagiarismComparisonDTO(long id, double similarity, PlagiarismStatus status, long submissionAId, long submissionASubmissionId, String submissionAStudentLogin,
+            int submissionASize, Double submissionAScore, long submissionBId, long submissionBSubmissionId, String submissionBStudentLogin, int submissionBSize,
+            Double submissionBScore) {
+        this(id, similarity, status, new PlagiarismSubmissionDTO(submissionAId, submissionASubmissionId, submissionAStudentLogin, submissionASize, submissionAScore),
+                new PlagiarismSubmissionDTO(submissionBId, submissionBSubmissionId, submissionBStudentLogin, submissionBSize, submissionBScore));
+    }
+
+    /**
+     * A DTO with the fields of a compared submission without its elements
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record PlagiarismSubmissionDTO(long id, long submissionId, String studentLogin, int size, Double score) {
+    }
+}
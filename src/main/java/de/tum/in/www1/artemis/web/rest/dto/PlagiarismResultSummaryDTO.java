@@ -0,0 +1,14 @@
+package de.tum.in.www1.artemis.web.rest.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A DTO with the summary of a plagiarism result, without its comparisons. The similarity distribution is calculated over all compared pairs when the check runs and
+ * stored with the result.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record PlagiarismResultSummaryDTO(long id, Instant createdDate, long duration, long numberOfComparisons, List<Integer> similarityDistribution) {
+}
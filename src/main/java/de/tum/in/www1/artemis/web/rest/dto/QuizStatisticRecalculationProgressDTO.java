@@ -0,0 +1,13 @@
+package de.tum.in.www1.artemis.web.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The progress of a running recalculation of the statistics of a quiz exercise
+ *
+ * @param processedResults the number of results that have already been added to the statistics
+ * @param totalResults     the number of results that are included in the statistics
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record QuizStatisticRecalculationProgressDTO(long processedResults, long totalResults) {
+}
@@ -0,0 +1,111 @@
+package de.tum.in.www1.artemis.web.rest.plagiarism;
+
+import java.net.URI;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJob;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCheckJobRepository;
+import de.tum.in.www1.artemis.security.Role;
+import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.scheduled.PlagiarismCheckJobScheduleService;
+import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+
+/**
+ * REST controller for the queued, running and finished plagiarism check jobs of an exercise.
+ */
+@RestController
+@RequestMapping("api/")
+public class PlagiarismCheckJobResource {
+
+    private static final String ENTITY_NAME = "plagiarismCheckJob";
+
+    private final Logger log = LoggerFactory.getLogger(PlagiarismCheckJobResource.class);
+
+    private final ExerciseRepository exerciseRepository;
+
+    private final AuthorizationCheckService authCheckService;
+
+    private final PlagiarismCheckJobRepository plagiarismCheckJobRepository;
+
+    private final PlagiarismCheckJobScheduleService plagiarismCheckJobScheduleService;
+
+    public PlagiarismCheckJobResource(ExerciseRepository exerciseRepository, AuthorizationCheckService authCheckService,
+            PlagiarismCheckJobRepository plagiarismCheckJobRepository, PlagiarismCheckJobScheduleService plagiarismCheckJobScheduleService) {
+        this.exerciseRepository = exerciseRepository;
+        this.authCheckService = authCheckService;
+        this.plagiarismCheckJobRepository = plagiarismCheckJobRepository;
+        this.plagiarismCheckJobScheduleService = plagiarismCheckJobScheduleService;
+    }
+
+    /**
+     * GET exercises/{exerciseId}/plagiarism-check-jobs : Return the history of the plagiarism checks of the given exercise, including the queued and running checks.
+     *
+     * @param exerciseId the id of the exercise
+     * @return the ResponseEntity with status 200 (OK) and the jobs of the exercise, the latest job first
+     */
+    @GetMapping("exercises/{exerciseId}/plagiarism-check-jobs")
+    @PreAuthorize("hasRole('EDITOR')")
+    public ResponseEntity<List<PlagiarismCheckJob>> getPlagiarismCheckJobs(@PathVariable long exerciseId) {
+        log.debug("REST request to get the plagiarism check jobs of the exercise with id: {}", exerciseId);
+        var exercise = exerciseRepository.findByIdElseThrow(exerciseId);
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.EDITOR, exercise, null);
+        return ResponseEntity.ok(plagiarismCheckJobRepository.findAllByExerciseIdOrderByIdDesc(exerciseId));
+    }
+
+    /**
+     * GET exercises/{exerciseId}/plagiarism-check-jobs/{jobId} : Return the given plagiarism check job, e.g. to resume showing the progress of a running check.
+     *
+     * @param exerciseId the id of the exercise
+     * @param jobId      the id of the job
+     * @return the ResponseEntity with status 200 (OK) and the job with its status and latest progress
+     */
+    @GetMapping("exercises/{exerciseId}/plagiarism-check-jobs/{jobId}")
+    @PreAuthorize("hasRole('EDITOR')")
+    public ResponseEntity<PlagiarismCheckJob> getPlagiarismCheckJob(@PathVariable long exerciseId, @PathVariable long jobId) {
+        log.debug("REST request to get the plagiarism check job {} of the exercise with id: {}", jobId, exerciseId);
+        return ResponseEntity.ok(findJobOfExerciseElseThrow(exerciseId, jobId));
+    }
+
+    /**
+     * POST exercises/{exerciseId}/plagiarism-check-jobs/{jobId}/cancel : Cancel the given queued or running plagiarism check job.
+     *
+     * @param exerciseId the id of the exercise
+     * @param jobId      the id of the job
+     * @return the ResponseEntity with status 200 (OK) and the job, which is cancelled or whose cancellation has been requested
+     */
+    @PostMapping("exercises/{exerciseId}/plagiarism-check-jobs/{jobId}/cancel")
+    @PreAuthorize("hasRole('EDITOR')")
+    public ResponseEntity<PlagiarismCheckJob> cancelPlagiarismCheckJob(@PathVariable long exerciseId, @PathVariable long jobId) {
+        log.info("REST request to cancel the plagiarism check job {} of the exercise with id: {}", jobId, exerciseId);
+        var job = findJobOfExerciseElseThrow(exerciseId, jobId);
+        return ResponseEntity.ok(plagiarismCheckJobScheduleService.cancel(job));
+    }
+
+    /**
+     * Creates the response of a plagiarism check whose job did not finish while the request waited for it. The client resumes the check through the returned job.
+     *
+     * @param job the queued or running job of the check
+     * @param <T> the type of the plagiarism result the check would have returned
+     * @return the ResponseEntity with status 202 (Accepted) and the location of the job
+     */
+    public static <T> ResponseEntity<T> acceptedCheck(PlagiarismCheckJob job) {
+        return ResponseEntity.accepted().location(URI.create("/api/exercises/" + job.getExerciseId() + "/plagiarism-check-jobs/" + job.getId())).build();
+    }
+
+    private PlagiarismCheckJob findJobOfExerciseElseThrow(long exerciseId, long jobId) {
+        var exercise = exerciseRepository.findByIdElseThrow(exerciseId);
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.EDITOR, exercise, null);
+        var job = plagiarismCheckJobRepository.findByIdElseThrow(jobId);
+        if (job.getExerciseId() != exerciseId) {
+            throw new BadRequestAlertException("The plagiarism check job does not belong to the given exercise", ENTITY_NAME, "idMismatch");
+        }
+        return job;
+    }
+}
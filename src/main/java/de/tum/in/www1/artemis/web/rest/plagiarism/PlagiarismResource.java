@@ -1,12 +1,19 @@
 package de.tum.in.www1.artemis.web.rest.plagiarism;
 
+import java.util.List;
 import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Exercise;
@@ -19,9 +26,13 @@ import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.plagiarism.PlagiarismService;
+import de.tum.in.www1.artemis.web.rest.dto.PlagiarismComparisonDTO;
 import de.tum.in.www1.artemis.web.rest.dto.PlagiarismComparisonStatusDTO;
+import de.tum.in.www1.artemis.web.rest.dto.PlagiarismResultSummaryDTO;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+import io.swagger.annotations.ApiParam;
+import tech.jhipster.web.util.PaginationUtil;
 
 /**
  * REST controller for managing Plagiarism Cases.
@@ -130,6 +141,51 @@ public class PlagiarismResource {
         return ResponseEntity.ok(comparisonA);
     }
 
+    /**
+     * GET exercises/{exerciseId}/plagiarism-result/summary : Return the summary of the latest plagiarism result of the given exercise without its comparisons,
+     * including the similarity distribution of all compared pairs, which is stored with the result.
+     *
+     * @param exerciseId the id of the exercise
+     * @return the ResponseEntity with status 200 (OK) and the summary, or null if the exercise has not been checked yet
+     */
+    @GetMapping("exercises/{exerciseId}/plagiarism-result/summary")
+    @PreAuthorize("hasRole('EDITOR')")
+    public ResponseEntity<PlagiarismResultSummaryDTO> getPlagiarismResultSummary(@PathVariable("exerciseId") long exerciseId) {
+        log.debug("REST request to get the summary of the latest plagiarism result of the exercise with id: {}", exerciseId);
+        Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.EDITOR, exercise, null);
+
+        var summary = plagiarismResultRepository.findTopByExerciseIdOrderByLastModifiedDateDesc(exerciseId)
+                .map(result -> new PlagiarismResultSummaryDTO(result.getId(), result.getCreatedDate(), result.getDuration(),
+                        plagiarismComparisonRepository.countByPlagiarismResultId(result.getId()), result.getSimilarityDistribution()))
+                .orElse(null);
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * GET exercises/{exerciseId}/plagiarism-results/{plagiarismResultId}/plagiarism-comparisons : Return a page of the comparisons of the given plagiarism result, the
+     * most similar comparisons first. The comparisons do not contain their matches and the elements of their submissions, which can be loaded for a single comparison
+     * with {@link #getPlagiarismComparisonForSplitView(long, Long)}.
+     *
+     * @param exerciseId         the id of the exercise
+     * @param plagiarismResultId the id of the plagiarism result
+     * @param pageable           the page number and size, the comparisons are always sorted by their similarity
+     * @return the ResponseEntity with status 200 (OK), the comparisons on the page and the pagination headers
+     */
+    @GetMapping("exercises/{exerciseId}/plagiarism-results/{plagiarismResultId}/plagiarism-comparisons")
+    @PreAuthorize("hasRole('EDITOR')")
+    public ResponseEntity<List<PlagiarismComparisonDTO>> getPlagiarismComparisons(@PathVariable("exerciseId") long exerciseId,
+            @PathVariable("plagiarismResultId") long plagiarismResultId, @ApiParam Pageable pageable) {
+        log.debug("REST request to get the plagiarism comparisons of the plagiarism result {} of the exercise with id: {}", plagiarismResultId, exerciseId);
+        Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
+        authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.EDITOR, exercise, null);
+
+        Page<PlagiarismComparisonDTO> page = plagiarismComparisonRepository.findAllByPlagiarismResultIdAndExerciseIdOrderBySimilarityDesc(plagiarismResultId, exerciseId,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * Check if the passed userLogin is related to the plagiarism comparison. If this is not the case, the user is now allowed to access.
      * Also anonymizes the comparison for the student view.
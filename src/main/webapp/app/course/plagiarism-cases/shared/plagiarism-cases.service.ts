@@ -7,6 +7,7 @@ import { PlagiarismComparison } from 'app/exercises/shared/plagiarism/types/Plag
 import { PlagiarismSubmissionElement } from 'app/exercises/shared/plagiarism/types/PlagiarismSubmissionElement';
 import { PlagiarismVerdict } from 'app/exercises/shared/plagiarism/types/PlagiarismVerdict';
 import { PlagiarismCaseInfo } from 'app/exercises/shared/plagiarism/types/PlagiarismCaseInfo';
+import { PlagiarismResultSummary } from 'app/exercises/shared/plagiarism/types/PlagiarismResultSummary';
 
 export type EntityResponseType = HttpResponse<PlagiarismCase>;
 export type EntityArrayResponseType = HttpResponse<PlagiarismCase[]>;
@@ -105,6 +106,30 @@ export class PlagiarismCasesService {
         });
     }
 
+    /**
+     * Get the summary of the latest plagiarism result of the exercise with the given id, without its comparisons
+     * @param { number } exerciseId id of the exercise
+     */
+    public getPlagiarismResultSummary(exerciseId: number): Observable<HttpResponse<PlagiarismResultSummary>> {
+        return this.http.get<PlagiarismResultSummary>(`${this.resourceUrlExercises}/${exerciseId}/plagiarism-result/summary`, { observe: 'response' });
+    }
+
+    /**
+     * Get a page of the comparisons of the given plagiarism result, the most similar comparisons first.
+     * The comparisons do not contain their matches and the elements of their submissions, see {@link getPlagiarismComparisonForSplitView}.
+     * @param { number } exerciseId id of the exercise
+     * @param { number } plagiarismResultId id of the plagiarism result
+     * @param { number } page the index of the page
+     * @param { number } size the number of comparisons per page
+     */
+    public getPlagiarismComparisons(exerciseId: number, plagiarismResultId: number, page: number, size: number): Observable<HttpResponse<Comparison[]>> {
+        const params = new HttpParams().set('page', page).set('size', size);
+        return this.http.get<Comparison[]>(`${this.resourceUrlExercises}/${exerciseId}/plagiarism-results/${plagiarismResultId}/plagiarism-comparisons`, {
+            params,
+            observe: 'response',
+        });
+    }
+
     /**
      * Update the status of the plagiarism comparison with given id
      * @param { number } courseId
@@ -15,7 +15,8 @@ import { TextSubmissionElement } from 'app/exercises/shared/plagiarism/types/tex
 import { ProgrammingExerciseService } from 'app/exercises/programming/manage/services/programming-exercise.service';
 import { PlagiarismOptions } from 'app/exercises/shared/plagiarism/types/PlagiarismOptions';
 import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
-import { tap } from 'rxjs/operators';
+import { map, switchMap, tap } from 'rxjs/operators';
+import { Observable, forkJoin, of } from 'rxjs';
 import { TranslateService } from '@ngx-translate/core';
 import { faChevronRight, faExclamationTriangle, faQuestionCircle } from '@fortawesome/free-solid-svg-icons';
 import { FeatureToggle } from 'app/shared/feature-toggle/feature-toggle.service';
@@ -24,6 +25,12 @@ import { PlagiarismInspectorService } from 'app/exercises/shared/plagiarism/plag
 import { PlagiarismCasesService } from 'app/course/plagiarism-cases/shared/plagiarism-cases.service';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 import { AlertService, AlertType } from 'app/core/util/alert.service';
+import { PlagiarismResultSummary } from 'app/exercises/shared/plagiarism/types/PlagiarismResultSummary';
+
+/**
+ * Number of comparisons loaded per request, which is the number of comparisons shown per page of the sidebar
+ */
+export const COMPARISONS_PAGE_SIZE = 100;
 
 export type PlagiarismCheckState = {
     state: 'COMPLETED' | 'RUNNING';
@@ -194,36 +201,53 @@ export class PlagiarismInspectorComponent implements OnInit {
 
     /**
      * Fetch the latest plagiarism result. There might be no plagiarism result for the given exercise yet.
+     * Only the summary of the result and its comparisons without their matches and submission elements are loaded, the details of the selected comparison are
+     * loaded by the split view.
      */
     getLatestPlagiarismResult() {
         this.detectionInProgress = true;
 
-        switch (this.exercise.type) {
-            case ExerciseType.MODELING: {
-                this.modelingExerciseService.getLatestPlagiarismResult(this.exercise.id!).subscribe({
-                    next: (result) => this.handlePlagiarismResult(result),
-                    error: () => this.handleError(),
-                });
-                return;
-            }
-            case ExerciseType.PROGRAMMING: {
-                this.programmingExerciseService.getLatestPlagiarismResult(this.exercise.id!).subscribe({
-                    next: (result) => this.handlePlagiarismResult(result),
-                    error: () => this.handleError(),
-                });
-                return;
-            }
-            case ExerciseType.TEXT: {
-                this.textExerciseService.getLatestPlagiarismResult(this.exercise.id!).subscribe({
-                    next: (result) => this.handlePlagiarismResult(result),
-                    error: () => this.handleError(),
-                });
-                return;
-            }
-            default: {
-                this.detectionInProgress = false;
-            }
+        this.plagiarismCasesService
+            .getPlagiarismResultSummary(this.exercise.id!)
+            .pipe(
+                switchMap((response) => {
+                    const summary = response.body;
+                    if (!summary) {
+                        return of(undefined);
+                    }
+                    return this.getComparisons(summary).pipe(
+                        map(
+                            (comparisons) =>
+                                ({
+                                    id: summary.id,
+                                    duration: summary.duration,
+                                    similarityDistribution: summary.similarityDistribution,
+                                    comparisons,
+                                } as TextPlagiarismResult | ModelingPlagiarismResult),
+                        ),
+                    );
+                }),
+            )
+            .subscribe({
+                next: (result) => this.handlePlagiarismResult(result),
+                error: () => this.handleError(),
+            });
+    }
+
+    /**
+     * Load all pages of the comparisons of the given plagiarism result.
+     *
+     * @param summary the summary of the plagiarism result
+     */
+    private getComparisons(summary: PlagiarismResultSummary): Observable<PlagiarismComparison<any>[]> {
+        const numberOfPages = Math.ceil(summary.numberOfComparisons / COMPARISONS_PAGE_SIZE);
+        if (numberOfPages === 0) {
+            return of([]);
         }
+        const pages = [...Array(numberOfPages).keys()].map((page) =>
+            this.plagiarismCasesService.getPlagiarismComparisons(this.exercise.id!, summary.id, page, COMPARISONS_PAGE_SIZE).pipe(map((response) => response.body ?? [])),
+        );
+        return forkJoin(pages).pipe(map((comparisonPages) => comparisonPages.flat()));
     }
 
     checkPlagiarism() {
@@ -284,12 +308,12 @@ export class PlagiarismInspectorComponent implements OnInit {
 
         if (this.exercise.type === ExerciseType.TEXT) {
             this.textExerciseService.checkPlagiarism(this.exercise.id!, options).subscribe({
-                next: (result) => this.handlePlagiarismResult(result),
+                next: (result) => this.handleCheckPlagiarismResult(result),
                 error: () => this.handleError(),
             });
         } else {
             this.programmingExerciseService.checkPlagiarism(this.exercise.id!, options).subscribe({
-                next: (result) => this.handlePlagiarismResult(result),
+                next: (result) => this.handleCheckPlagiarismResult(result),
                 error: () => this.handleError(),
             });
         }
@@ -306,12 +330,24 @@ export class PlagiarismInspectorComponent implements OnInit {
         this.detectionInProgress = true;
 
         this.modelingExerciseService.checkPlagiarism(this.exercise.id!, options).subscribe({
-            next: (result: ModelingPlagiarismResult) => this.handlePlagiarismResult(result),
+            next: (result: ModelingPlagiarismResult) => this.handleCheckPlagiarismResult(result),
             error: () => this.handleError(),
         });
     }
 
-    handlePlagiarismResult(result: ModelingPlagiarismResult | TextPlagiarismResult) {
+    /**
+     * Handles the response of a triggered plagiarism detection. If the detection did not finish while the request waited for it, the server answers without a result
+     * and the detection stays in progress until the websocket reports its completion, which fetches the latest result.
+     *
+     * @param result the result of the plagiarism detection or undefined if it is still queued or running
+     */
+    handleCheckPlagiarismResult(result?: ModelingPlagiarismResult | TextPlagiarismResult) {
+        if (result) {
+            this.handlePlagiarismResult(result);
+        }
+    }
+
+    handlePlagiarismResult(result?: ModelingPlagiarismResult | TextPlagiarismResult) {
         this.detectionInProgress = false;
 
         if (result?.comparisons) {
@@ -0,0 +1,21 @@
+/**
+ * A DTO with the summary of a plagiarism result without its comparisons, which are loaded page by page.
+ */
+export class PlagiarismResultSummary {
+    public id: number;
+
+    /**
+     * Duration of the plagiarism detection run in milliseconds.
+     */
+    public duration: number;
+
+    /**
+     * Number of comparisons of the result.
+     */
+    public numberOfComparisons: number;
+
+    /**
+     * Similarity distribution of all compared pairs, see {@link PlagiarismResult#similarityDistribution}.
+     */
+    public similarityDistribution?: number[];
+}
@@ -6,7 +6,9 @@ import static org.awaitility.Awaitility.await;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,14 +30,16 @@ import de.tum.in.www1.artemis.domain.enumeration.SpanType;
 import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
 import de.tum.in.www1.artemis.domain.metis.AnswerPost;
 import de.tum.in.www1.artemis.domain.metis.Post;
-import de.tum.in.www1.artemis.repository.ParticipantScoreRepository;
-import de.tum.in.www1.artemis.repository.TextExerciseRepository;
-import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.repository.metis.AnswerPostRepository;
 import de.tum.in.www1.artemis.repository.metis.PostRepository;
+import de.tum.in.www1.artemis.service.ExerciseDeletionService;
+import de.tum.in.www1.artemis.service.StatisticsChartCacheService;
+import de.tum.in.www1.artemis.service.StatisticsRollupService;
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.web.rest.dto.CourseManagementStatisticsDTO;
 import de.tum.in.www1.artemis.web.rest.dto.ExerciseManagementStatisticsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 
 class StatisticsIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
@@ -56,6 +60,27 @@ class StatisticsIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
     @Autowired
     private ParticipantScoreRepository participantScoreRepository;
 
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private StatisticsRollupRepository statisticsRollupRepository;
+
+    @Autowired
+    private StatisticsUserRollupRepository statisticsUserRollupRepository;
+
+    @Autowired
+    private StatisticsRollupProgressRepository statisticsRollupProgressRepository;
+
+    @Autowired
+    private StatisticsChartCacheService statisticsChartCacheService;
+
+    @Autowired
+    private ExerciseDeletionService exerciseDeletionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private Course course;
 
     private TextExercise exercise;
@@ -166,6 +191,119 @@ class StatisticsIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         }
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetChartDataForExercise_withRollups_shouldEqualRawData() throws Exception {
+        SpanType span = SpanType.MONTH;
+        var view = StatisticsView.EXERCISE;
+        var exerciseId = exercise.getId();
+        Map<GraphType, Integer[]> rawResults = new HashMap<>();
+        for (GraphType graph : exerciseGraphs) {
+            var parameters = buildParameters(span, 0, graph, view, exerciseId);
+            rawResults.put(graph, request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters));
+        }
+
+        try {
+            statisticsRollupService.backfill(ZonedDateTime.now().minusMonths(1).minusDays(1));
+            statisticsChartCacheService.evictChartData(view, exerciseId);
+            assertThat(statisticsRollupRepository.findAll()).isNotEmpty();
+            for (GraphType graph : exerciseGraphs) {
+                var parameters = buildParameters(span, 0, graph, view, exerciseId);
+                Integer[] result = request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+                assertThat(result).as("chart data of " + graph).containsExactly(rawResults.get(graph));
+            }
+        }
+        finally {
+            // other tests add data in the past, which would not be contained in the rollups
+            statisticsRollupProgressRepository.deleteAll();
+            statisticsRollupRepository.deleteAll();
+            statisticsUserRollupRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetChartDataForCourse_withRollups_afterExerciseDeletion_shouldEqualRawData() throws Exception {
+        SpanType span = SpanType.MONTH;
+        var view = StatisticsView.COURSE;
+        var courseId = course.getId();
+        // a submission and a result before the current hour, which are rolled up
+        TextSubmission textSubmission = new TextSubmission();
+        textSubmission.submissionDate(ZonedDateTime.now().minusDays(2));
+        var submission = database.addSubmission(exercise, textSubmission, TEST_PREFIX + "student2");
+        database.addResultToSubmission(submission, AssessmentType.MANUAL);
+
+        try {
+            statisticsRollupService.backfill(ZonedDateTime.now().minusMonths(1).minusDays(1));
+            assertThat(statisticsRollupRepository.findSlotsByViewAndEntityId(view, courseId)).isNotEmpty();
+
+            exerciseDeletionService.delete(exercise.getId(), false, false);
+            statisticsChartCacheService.evictChartData(view, courseId);
+            // the course rollups of the deleted exercise are recalculated, not only its exercise rollups are deleted
+            assertThat(statisticsRollupRepository.findSlotsByViewAndEntityId(view, courseId)).isEmpty();
+            assertThat(statisticsUserRollupRepository.findSlotsByViewAndEntityId(view, courseId)).isEmpty();
+            Map<GraphType, Integer[]> rolledUpResults = new HashMap<>();
+            for (GraphType graph : courseGraphs) {
+                var parameters = buildParameters(span, 0, graph, view, courseId);
+                rolledUpResults.put(graph, request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters));
+            }
+
+            // without the progress, the charts are counted from the raw data only
+            statisticsRollupProgressRepository.deleteAll();
+            statisticsChartCacheService.evictChartData(view, courseId);
+            for (GraphType graph : courseGraphs) {
+                var parameters = buildParameters(span, 0, graph, view, courseId);
+                Integer[] rawResult = request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+                assertThat(rolledUpResults.get(graph)).as("chart data of " + graph).containsExactly(rawResult);
+            }
+        }
+        finally {
+            statisticsRollupProgressRepository.deleteAll();
+            statisticsRollupRepository.deleteAll();
+            statisticsUserRollupRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetChartDataForExercise_closedPeriod_shouldBeCachedUntilEvicted() throws Exception {
+        var view = StatisticsView.EXERCISE;
+        var exerciseId = exercise.getId();
+        var parameters = buildParameters(SpanType.WEEK, -1, GraphType.SUBMISSIONS, view, exerciseId);
+        var hits = meterRegistry.get("artemis.statistics.chart_cache.requests").tag("period", "closed").tag("result", "hit").counter();
+        var misses = meterRegistry.get("artemis.statistics.chart_cache.requests").tag("period", "closed").tag("result", "miss").counter();
+        double hitsBefore = hits.count();
+        double missesBefore = misses.count();
+
+        Integer[] calculatedResult = request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+        Integer[] cachedResult = request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+        assertThat(cachedResult).containsExactly(calculatedResult);
+        assertThat(misses.count() - missesBefore).isEqualTo(1);
+        assertThat(hits.count() - hitsBefore).isEqualTo(1);
+
+        statisticsChartCacheService.evictChartData(view, exerciseId);
+        request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+        assertThat(misses.count() - missesBefore).isEqualTo(2);
+        assertThat(hits.count() - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetChartDataForCourse_closedPeriod_shouldBeEvictedOnExerciseDeletion() throws Exception {
+        var view = StatisticsView.COURSE;
+        var parameters = buildParameters(SpanType.WEEK, -1, GraphType.SUBMISSIONS, view, course.getId());
+        var misses = meterRegistry.get("artemis.statistics.chart_cache.requests").tag("period", "closed").tag("result", "miss").counter();
+        double missesBefore = misses.count();
+
+        request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+        request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+        assertThat(misses.count() - missesBefore).isEqualTo(1);
+
+        exerciseDeletionService.delete(exercise.getId(), false, false);
+        request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+        assertThat(misses.count() - missesBefore).isEqualTo(2);
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
     void testGetCourseStatistics() throws Exception {
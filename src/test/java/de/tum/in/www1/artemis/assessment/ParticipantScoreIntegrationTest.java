@@ -16,11 +16,13 @@ import org.springframework.security.test.context.support.WithMockUser;
 
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ExerciseType;
 import de.tum.in.www1.artemis.domain.exam.Exam;
 import de.tum.in.www1.artemis.domain.exam.ExamUser;
 import de.tum.in.www1.artemis.domain.lecture.ExerciseUnit;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.StudentCourseScoreService;
 import de.tum.in.www1.artemis.service.TextAssessmentKnowledgeService;
 import de.tum.in.www1.artemis.service.scheduled.ParticipantScoreScheduleService;
 import de.tum.in.www1.artemis.util.ModelFactory;
@@ -82,6 +84,12 @@ class ParticipantScoreIntegrationTest extends AbstractSpringIntegrationBambooBit
     @Autowired
     private ParticipantScoreRepository participantScoreRepository;
 
+    @Autowired
+    private StudentCourseScoreService studentCourseScoreService;
+
+    @Autowired
+    private StudentCourseScoreRepository studentCourseScoreRepository;
+
     @BeforeEach
     void setupTestScenario() {
         ParticipantScoreScheduleService.DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS = 50;
@@ -159,6 +167,23 @@ class ParticipantScoreIntegrationTest extends AbstractSpringIntegrationBambooBit
         ParticipantScoreScheduleService.DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS = 500;
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void scheduleTask_shouldCoalesceUpdatesOfTheSameParticipantScore() {
+        for (int i = 0; i < 10; i++) {
+            participantScoreScheduleService.scheduleTask(idOfIndividualTextExercise, idOfStudent1, null);
+            participantScoreScheduleService.scheduleTask(idOfTeamTextExercise, idOfTeam1, null);
+        }
+        await().until(() -> participantScoreScheduleService.isIdle());
+
+        var individualExercise = exerciseRepository.findById(idOfIndividualTextExercise).get();
+        assertThat(participantScoreRepository.findAllByExercise(individualExercise)).hasSize(1)
+                .allSatisfy(participantScore -> assertThat(participantScore.getLastRatedScore()).isEqualTo(50.0));
+        var teamExercise = exerciseRepository.findById(idOfTeamTextExercise).get();
+        assertThat(participantScoreRepository.findAllByExercise(teamExercise)).hasSize(1)
+                .allSatisfy(participantScore -> assertThat(participantScore.getLastRatedScore()).isEqualTo(50.0));
+    }
+
     private void testAllPreAuthorize() throws Exception {
         request.getList("/api/courses/" + courseId + "/course-scores", HttpStatus.FORBIDDEN, ScoreDTO.class);
         request.getList("/api/exams/" + idOfExam + "/exam-scores", HttpStatus.FORBIDDEN, ScoreDTO.class);
@@ -225,6 +250,32 @@ class ParticipantScoreIntegrationTest extends AbstractSpringIntegrationBambooBit
         assertThat(scoreOfStudent1.regularPointsAchievable).isEqualTo(20.0);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void updateParticipantScores_shouldUpdateCourseScores() {
+        await().until(() -> participantScoreScheduleService.isIdle());
+
+        var courseScore = studentCourseScoreService.getCourseScores(courseId, Set.of(idOfStudent1)).get(idOfStudent1);
+        // 5 points in the individual exercise and 5 points in the team exercise, the exam exercise does not count towards the course
+        assertThat(courseScore.getPoints(ExerciseType.TEXT)).isEqualTo(10.0);
+        assertThat(courseScore.getTotalPoints()).isEqualTo(10.0);
+        assertThat(courseScore.getPresentationScore()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void verifyCourseScores_shouldCorrectOutdatedCourseScores() {
+        await().until(() -> participantScoreScheduleService.isIdle());
+        var courseScore = studentCourseScoreService.getCourseScores(courseId, Set.of(idOfStudent1)).get(idOfStudent1);
+        courseScore.setPoints(ExerciseType.TEXT, 42.0);
+        studentCourseScoreRepository.save(courseScore);
+
+        assertThat(studentCourseScoreService.verifyCourseScores(courseId)).isEqualTo(1);
+        var correctedCourseScore = studentCourseScoreRepository.findAllByCourseIdAndUserIdIn(courseId, Set.of(idOfStudent1)).get(0);
+        assertThat(correctedCourseScore.getPoints(ExerciseType.TEXT)).isEqualTo(10.0);
+        assertThat(studentCourseScoreService.verifyCourseScores(courseId)).isZero();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void getExamScores_asInstructorOfCourse_shouldReturnExamScores() throws Exception {
@@ -0,0 +1,200 @@
+package de.tum.in.www1.artemis.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
+
+class QuizScoringPlanTest {
+
+    private static final int NUMBER_OF_SUBMISSIONS = 500;
+
+    private final Random random = new Random(42);
+
+    private long nextId = 1;
+
+    @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
+    @EnumSource(ScoringType.class)
+    void testScoresAreIdenticalToScoringStrategies(ScoringType scoringType) {
+        for (int quiz = 0; quiz < 20; quiz++) {
+            QuizExercise quizExercise = createQuizExercise(scoringType);
+            QuizScoringPlan scoringPlan = QuizScoringPlan.compile(quizExercise);
+
+            for (int i = 0; i < NUMBER_OF_SUBMISSIONS; i++) {
+                QuizSubmission submission = createRandomSubmission(quizExercise);
+
+                submission.calculateAndUpdateScores(quizExercise);
+                double expectedScoreInPoints = submission.getScoreInPoints();
+                Map<SubmittedAnswer, Double> expectedAnswerScores = new HashMap<>();
+                submission.getSubmittedAnswers().forEach(answer -> expectedAnswerScores.put(answer, answer.getScoreInPoints()));
+                double expectedScore = quizExercise.getScoreForSubmission(submission);
+
+                submission.getSubmittedAnswers().forEach(answer -> answer.setScoreInPoints(null));
+                double scoreInPoints = scoringPlan.calculateAndUpdateScores(submission);
+
+                assertThat(scoreInPoints).isEqualTo(expectedScoreInPoints);
+                assertThat(submission.getScoreInPoints()).isEqualTo(expectedScoreInPoints);
+                assertThat(scoringPlan.getScore(scoreInPoints)).isEqualTo(expectedScore);
+                for (SubmittedAnswer answer : submission.getSubmittedAnswers()) {
+                    assertThat(answer.getScoreInPoints()).as("score of " + answer.getQuizQuestion()).isEqualTo(expectedAnswerScores.get(answer));
+                }
+            }
+        }
+    }
+
+    private QuizExercise createQuizExercise(ScoringType scoringType) {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.addQuestions(createMultipleChoiceQuestion(scoringType));
+        quizExercise.addQuestions(createMultipleChoiceQuestion(scoringType));
+        quizExercise.addQuestions(createDragAndDropQuestion(scoringType));
+        quizExercise.addQuestions(createDragAndDropQuestion(scoringType));
+        quizExercise.addQuestions(createShortAnswerQuestion(scoringType));
+        return quizExercise;
+    }
+
+    private void initQuestion(QuizQuestion question, ScoringType scoringType) {
+        question.setId(nextId++);
+        question.setPoints(1 + random.nextInt(5));
+        question.setScoringType(scoringType);
+        question.setInvalid(random.nextInt(10) == 0);
+    }
+
+    private MultipleChoiceQuestion createMultipleChoiceQuestion(ScoringType scoringType) {
+        MultipleChoiceQuestion question = new MultipleChoiceQuestion();
+        initQuestion(question, scoringType);
+        List<AnswerOption> answerOptions = new ArrayList<>();
+        int numberOfOptions = 1 + random.nextInt(8);
+        for (int i = 0; i < numberOfOptions; i++) {
+            AnswerOption answerOption = new AnswerOption();
+            answerOption.setId(nextId++);
+            answerOption.setIsCorrect(random.nextBoolean());
+            answerOption.setInvalid(random.nextInt(6) == 0);
+            answerOptions.add(answerOption);
+        }
+        question.setAnswerOptions(answerOptions);
+        return question;
+    }
+
+    private DragAndDropQuestion createDragAndDropQuestion(ScoringType scoringType) {
+        DragAndDropQuestion question = new DragAndDropQuestion();
+        initQuestion(question, scoringType);
+        int numberOfDropLocations = 1 + random.nextInt(6);
+        for (int i = 0; i < numberOfDropLocations; i++) {
+            DropLocation dropLocation = new DropLocation();
+            dropLocation.setId(nextId++);
+            dropLocation.setInvalid(random.nextInt(8) == 0);
+            question.addDropLocation(dropLocation);
+        }
+        int numberOfDragItems = 1 + random.nextInt(7);
+        for (int i = 0; i < numberOfDragItems; i++) {
+            DragItem dragItem = new DragItem();
+            dragItem.setId(nextId++);
+            dragItem.setInvalid(random.nextInt(8) == 0);
+            question.addDragItem(dragItem);
+        }
+        for (DropLocation dropLocation : question.getDropLocations()) {
+            // some drop locations are meant to stay empty, others accept several drag items
+            int numberOfCorrectDragItems = random.nextInt(3);
+            for (int i = 0; i < numberOfCorrectDragItems; i++) {
+                question.addCorrectMapping(createMapping(dropLocation, randomElement(question.getDragItems())));
+            }
+        }
+        return question;
+    }
+
+    private ShortAnswerQuestion createShortAnswerQuestion(ScoringType scoringType) {
+        ShortAnswerQuestion question = new ShortAnswerQuestion();
+        initQuestion(question, scoringType);
+        List<ShortAnswerSpot> spots = new ArrayList<>();
+        List<ShortAnswerSolution> solutions = new ArrayList<>();
+        List<ShortAnswerMapping> correctMappings = new ArrayList<>();
+        int numberOfSpots = 1 + random.nextInt(4);
+        for (int i = 0; i < numberOfSpots; i++) {
+            ShortAnswerSpot spot = new ShortAnswerSpot();
+            spot.setId(nextId++);
+            spot.setInvalid(random.nextInt(8) == 0);
+            spots.add(spot);
+
+            ShortAnswerSolution solution = new ShortAnswerSolution();
+            solution.setId(nextId++);
+            solution.setText("solution" + i);
+            solutions.add(solution);
+
+            ShortAnswerMapping mapping = new ShortAnswerMapping();
+            mapping.setSpot(spot);
+            mapping.setSolution(solution);
+            correctMappings.add(mapping);
+        }
+        question.setSpots(spots);
+        question.setSolutions(solutions);
+        question.setCorrectMappings(correctMappings);
+        return question;
+    }
+
+    private QuizSubmission createRandomSubmission(QuizExercise quizExercise) {
+        QuizSubmission submission = new QuizSubmission();
+        for (QuizQuestion question : quizExercise.getQuizQuestions()) {
+            if (random.nextInt(8) == 0) {
+                // the user did not answer this question
+                continue;
+            }
+            if (question instanceof MultipleChoiceQuestion mcQuestion) {
+                MultipleChoiceSubmittedAnswer answer = new MultipleChoiceSubmittedAnswer();
+                for (AnswerOption answerOption : mcQuestion.getAnswerOptions()) {
+                    if (random.nextBoolean()) {
+                        answer.addSelectedOptions(answerOption);
+                    }
+                }
+                addAnswer(submission, answer, question);
+            }
+            else if (question instanceof DragAndDropQuestion dndQuestion) {
+                DragAndDropSubmittedAnswer answer = new DragAndDropSubmittedAnswer();
+                for (DropLocation dropLocation : dndQuestion.getDropLocations()) {
+                    if (random.nextBoolean()) {
+                        DragAndDropMapping mapping = createMapping(dropLocation, randomElement(dndQuestion.getDragItems()));
+                        mapping.setId(nextId++);
+                        answer.addMappings(mapping);
+                    }
+                }
+                addAnswer(submission, answer, question);
+            }
+            else if (question instanceof ShortAnswerQuestion saQuestion) {
+                ShortAnswerSubmittedAnswer answer = new ShortAnswerSubmittedAnswer();
+                Set<ShortAnswerSubmittedText> submittedTexts = new HashSet<>();
+                for (int i = 0; i < saQuestion.getSpots().size(); i++) {
+                    ShortAnswerSubmittedText submittedText = new ShortAnswerSubmittedText();
+                    submittedText.setId(nextId++);
+                    submittedText.setSpot(saQuestion.getSpots().get(i));
+                    submittedText.setText(random.nextBoolean() ? "solution" + i : "wrong");
+                    submittedTexts.add(submittedText);
+                }
+                answer.setSubmittedTexts(submittedTexts);
+                addAnswer(submission, answer, question);
+            }
+        }
+        return submission;
+    }
+
+    private void addAnswer(QuizSubmission submission, SubmittedAnswer answer, QuizQuestion question) {
+        answer.setId(nextId++);
+        answer.setQuizQuestion(question);
+        submission.addSubmittedAnswers(answer);
+    }
+
+    private DragAndDropMapping createMapping(DropLocation dropLocation, DragItem dragItem) {
+        DragAndDropMapping mapping = new DragAndDropMapping();
+        mapping.setDropLocation(dropLocation);
+        mapping.setDragItem(dragItem);
+        return mapping;
+    }
+
+    private <T> T randomElement(List<T> elements) {
+        return elements.get(random.nextInt(elements.size()));
+    }
+}
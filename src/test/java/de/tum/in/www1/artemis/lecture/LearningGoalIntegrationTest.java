@@ -35,6 +35,7 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.LearningGoalProgressService;
 import de.tum.in.www1.artemis.service.LectureUnitService;
 import de.tum.in.www1.artemis.service.ModelAssessmentKnowledgeService;
 import de.tum.in.www1.artemis.service.ParticipationService;
@@ -98,6 +99,12 @@ class LearningGoalIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
     @Autowired
     private LectureUnitService lectureUnitService;
 
+    @Autowired
+    private LearningGoalProgressService learningGoalProgressService;
+
+    @Autowired
+    private LearningGoalProgressRepository learningGoalProgressRepository;
+
     private Long idOfCourse;
 
     private Long idOfCourseTwo;
@@ -689,6 +696,30 @@ class LearningGoalIntegrationTest extends AbstractSpringIntegrationBambooBitbuck
         assertThat(studentLearningGoalProgress2.getConfidence()).isEqualTo(85.0);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void updateLearningGoalProgress_forMultipleUsers_shouldUpdateProgressOfAllUsers() {
+        cleanUpInitialParticipations();
+        User student1 = userRepository.findOneByLogin(TEST_PREFIX + "student1").get();
+        User student2 = userRepository.findOneByLogin(TEST_PREFIX + "student2").get();
+
+        lectureUnitService.setLectureUnitCompletion(textUnitRepository.findById(idOfTextUnitOfLectureOne).get(), student1, true);
+        createParticipationSubmissionAndResult(idOfTextExercise, student1, 10.0, 0.0, 85, true);
+        createParticipationSubmissionAndResult(idOfTextExercise, student2, 10.0, 0.0, 40, true);
+        await().pollDelay(Duration.ofSeconds(2)).atMost(Duration.ofSeconds(15)).until(() -> participantScoreScheduleService.isIdle());
+        // Remove the progress that has been created by the participant score updates, so that it is created again by the bulk update
+        learningGoalProgressRepository.deleteAllByLearningGoalId(idOfLearningGoal);
+
+        learningGoalProgressService.updateLearningGoalProgress(idOfLearningGoal, Set.of(student1, student2));
+
+        var progressOfStudent1 = learningGoalProgressRepository.findByLearningGoalIdAndUserId(idOfLearningGoal, student1.getId()).get();
+        assertThat(progressOfStudent1.getProgress()).isEqualTo(50.0);
+        assertThat(progressOfStudent1.getConfidence()).isEqualTo(85.0);
+        var progressOfStudent2 = learningGoalProgressRepository.findByLearningGoalIdAndUserId(idOfLearningGoal, student2.getId()).get();
+        assertThat(progressOfStudent2.getProgress()).isEqualTo(25.0);
+        assertThat(progressOfStudent2.getConfidence()).isEqualTo(40.0);
+    }
+
     private void cleanUpInitialParticipations() {
         participationService.deleteAllByExerciseId(idOfTextExercise, true, true);
         participationService.deleteAllByExerciseId(idOfModelingExercise, true, true);
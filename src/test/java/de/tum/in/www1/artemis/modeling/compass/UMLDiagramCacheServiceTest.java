@@ -0,0 +1,121 @@
+package de.tum.in.www1.artemis.modeling.compass;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.modeling.ModelCluster;
+import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.service.compass.UMLDiagramCacheService;
+import de.tum.in.www1.artemis.service.compass.controller.ModelClusterFactory;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.util.FileUtils;
+import de.tum.in.www1.artemis.util.ModelFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UMLDiagramCacheServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UMLDiagramCacheService umlDiagramCacheService;
+
+    @BeforeEach
+    void initTestCase() {
+        meterRegistry = new SimpleMeterRegistry();
+        umlDiagramCacheService = new UMLDiagramCacheService(meterRegistry, 10_000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        umlDiagramCacheService.shutdown();
+    }
+
+    @Test
+    void testGetDiagrams_sameModel_shouldNotParseAgain() throws Exception {
+        List<ModelingSubmission> submissions = createSubmissions("model.54727.json", "model.54727.cpy.json", "model.one-element.json");
+
+        var diagrams = umlDiagramCacheService.getDiagrams(submissions);
+        var cachedDiagrams = umlDiagramCacheService.getDiagrams(createSubmissions("model.54727.json", "model.54727.cpy.json", "model.one-element.json"));
+
+        assertThat(diagrams).hasSize(3);
+        assertThat(diagrams.keySet()).containsExactlyElementsOf(submissions);
+        assertThat(cachedDiagrams.values()).containsExactlyElementsOf(diagrams.values());
+        assertThat(meterRegistry.get("artemis.compass.diagram_cache.requests").tag("result", "hit").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("artemis.compass.diagram_cache.requests").tag("result", "miss").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testGetDiagram_changedModel_shouldParseAgain() throws Exception {
+        ModelingSubmission submission = createSubmissions("model.54727.json").get(0);
+        UMLDiagram diagram = umlDiagramCacheService.getDiagram(submission);
+
+        submission.setModel(FileUtils.loadFileFromResources("test-data/model-submission/model.one-element.json"));
+        UMLDiagram changedDiagram = umlDiagramCacheService.getDiagram(submission);
+
+        assertThat(changedDiagram).isNotSameAs(diagram);
+        assertThat(changedDiagram.getAllModelElements()).hasSize(1);
+    }
+
+    @Test
+    void testGetDiagrams_exceedingMaxElements_shouldEvictLeastRecentlyUsedDiagrams() throws Exception {
+        umlDiagramCacheService.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        umlDiagramCacheService = new UMLDiagramCacheService(meterRegistry, 1, 2);
+        ModelingSubmission oneElementSubmission = createSubmissions("model.one-element.json").get(0);
+        UMLDiagram diagram = umlDiagramCacheService.getDiagram(oneElementSubmission);
+        assertThat(umlDiagramCacheService.getDiagram(oneElementSubmission)).isSameAs(diagram);
+
+        umlDiagramCacheService.getDiagrams(createSubmissions("model.54727.json"));
+
+        assertThat(umlDiagramCacheService.getDiagram(oneElementSubmission)).isNotSameAs(diagram);
+        assertThat(meterRegistry.get("artemis.compass.diagram_cache.elements").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testBuildClusters_withCache_shouldEqualClustersWithoutCacheAndNotModifySharedDiagrams() throws Exception {
+        List<ModelingSubmission> submissions = createSubmissions("model.54727.json", "model.54727.cpy.json", "model.54727.cpy.json", "model.54727.cpy.json",
+                "model.one-element.json");
+        // e.g. a plagiarism check reads the shared diagrams during the clustering
+        var sharedDiagrams = umlDiagramCacheService.getDiagrams(submissions);
+
+        var cachingClusterFactory = new ModelClusterFactory(umlDiagramCacheService);
+        var clusters = cachingClusterFactory.buildClusters(submissions, new ModelingExercise());
+        var repeatedClusters = cachingClusterFactory.buildClusters(submissions, new ModelingExercise());
+        var referenceClusters = new ModelClusterFactory().buildClusters(submissions, new ModelingExercise());
+
+        assertThat(clusters).hasSize(10);
+        assertThat(toElementSets(clusters)).isEqualTo(toElementSets(referenceClusters)).isEqualTo(toElementSets(repeatedClusters));
+        // the repeated clustering reuses the released diagrams of the first clustering
+        assertThat(meterRegistry.get("artemis.compass.diagram_cache.requests").tag("result", "hit").counter().count()).isEqualTo(5);
+        List<UMLElement> sharedElements = sharedDiagrams.values().stream().flatMap(diagram -> diagram.getAllModelElements().stream()).toList();
+        assertThat(sharedElements).isNotEmpty().allSatisfy(element -> {
+            assertThat(element.getSimilarityID()).isEqualTo(-1);
+            assertThat(element.getContext()).isNull();
+        });
+    }
+
+    private static List<ModelingSubmission> createSubmissions(String... modelFiles) throws Exception {
+        long id = 1;
+        List<ModelingSubmission> submissions = new ArrayList<>();
+        for (String modelFile : modelFiles) {
+            ModelingSubmission submission = ModelFactory.generateModelingSubmission(FileUtils.loadFileFromResources("test-data/model-submission/" + modelFile), true);
+            submission.setId(id++);
+            submissions.add(submission);
+        }
+        return submissions;
+    }
+
+    private static Set<Set<String>> toElementSets(List<ModelCluster> clusters) {
+        return clusters.stream().map(cluster -> cluster.getModelElements().stream()
+                .map(modelElement -> modelElement.getSubmission().getId() + "/" + modelElement.getModelElementId()).collect(Collectors.toSet())).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,64 @@
+package de.tum.in.www1.artemis.modeling.compass.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.service.compass.strategy.NameSimilarity;
+import de.tum.in.www1.artemis.service.compass.strategy.NameSimilarityMemo;
+
+class NameSimilarityMemoTest {
+
+    private static final List<String> NAMES = List.of("Car", "Cars", "car", "getSpeed", "getSped", "setSpeed", "Engine", "engine", "");
+
+    @Test
+    void testLevenshteinSimilarity_withMemo_shouldEqualSimilarityWithoutMemo() {
+        NameSimilarityMemo memo = new NameSimilarityMemo();
+
+        for (int i = 0; i < 2; i++) {
+            for (String name1 : NAMES) {
+                for (String name2 : NAMES) {
+                    double similarity = NameSimilarity.levenshteinSimilarity(name1, name2);
+                    assertThat(memo.apply(() -> NameSimilarity.levenshteinSimilarity(name1, name2))).isEqualTo(similarity);
+                }
+            }
+        }
+
+        // the equal names are not looked up, every other pair is calculated once (in either order)
+        long distinctPairs = (long) NAMES.size() * (NAMES.size() - 1) / 2;
+        assertThat(memo.getMisses()).isEqualTo(distinctPairs);
+        assertThat(memo.getHits()).isEqualTo(4 * distinctPairs - distinctPairs);
+        assertThat(memo.getHitRate()).isEqualTo(0.75);
+    }
+
+    @Test
+    void testLevenshteinSimilarity_outsideOfMemo_shouldNotUseMemo() {
+        NameSimilarityMemo memo = new NameSimilarityMemo();
+        memo.apply(() -> NameSimilarity.levenshteinSimilarity("getSpeed", "setSpeed"));
+
+        NameSimilarity.levenshteinSimilarity("getSpeed", "setSpeed");
+
+        assertThat(memo.getHits()).isZero();
+        assertThat(memo.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void testLevenshteinSimilarity_exceedingMaxNamesOrPairs_shouldCalculateSimilarity() {
+        NameSimilarityMemo memo = new NameSimilarityMemo(3, 1);
+
+        memo.apply(() -> {
+            for (int i = 0; i < 2; i++) {
+                assertThat(NameSimilarity.levenshteinSimilarity("Car", "Cars")).isEqualTo(NameSimilarity.levenshteinSimilarity("Cars", "Car"));
+                NameSimilarity.levenshteinSimilarity("Car", "car");
+                NameSimilarity.levenshteinSimilarity("Car", "Engine");
+            }
+            return null;
+        });
+
+        // only the first pair is stored, the fourth name is not interned
+        assertThat(memo.getHits()).isEqualTo(3);
+        assertThat(memo.getMisses()).isEqualTo(5);
+    }
+}
@@ -11,16 +11,19 @@ import org.assertj.core.data.Offset;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.repository.plagiarism.ModelingPlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.compass.UMLDiagramCacheService;
 import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
 import de.tum.in.www1.artemis.service.compass.umlmodel.component.*;
 import de.tum.in.www1.artemis.service.plagiarism.ModelingPlagiarismDetectionService;
 import de.tum.in.www1.artemis.service.plagiarism.PlagiarismWebsocketService;
 import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public abstract class AbstractUMLDiagramTest {
 
     protected ModelingPlagiarismDetectionService modelingPlagiarismDetectionService = new ModelingPlagiarismDetectionService(mock(PlagiarismWebsocketService.class),
-            mock(PlagiarismCacheService.class));
+            mock(PlagiarismCacheService.class), new UMLDiagramCacheService(new SimpleMeterRegistry(), 10_000, 1), mock(ModelingPlagiarismResultRepository.class), 1);
 
     protected void compareSubmissions(ModelingSubmission modelingSubmission1, ModelingSubmission modelingSubmission2, double minimumSimilarity, double expectedSimilarity) {
         // not really necessary, but avoids issues.
@@ -0,0 +1,67 @@
+package de.tum.in.www1.artemis.modeling.compass.umlmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.domain.plagiarism.modeling.ModelingPlagiarismResult;
+import de.tum.in.www1.artemis.util.FileUtils;
+
+class IncrementalModelingPlagiarismTest extends AbstractUMLDiagramTest {
+
+    private static final double MINIMUM_SIMILARITY = 0.5;
+
+    @Test
+    void testCheckPlagiarism_withPreviousResult_shouldEqualFullCheck() throws Exception {
+        List<ModelingSubmission> submissions = createSubmissions("model.54727.json", "model.54727.cpy.json", "model.54742.json", "model.54745.json");
+        ModelingPlagiarismResult previousResult = modelingPlagiarismDetectionService.checkPlagiarism(submissions, MINIMUM_SIMILARITY, 1, 0, 1L);
+
+        // one submission is changed, one is added
+        submissions.get(2).setModel(loadModel("model.54727.partial.json"));
+        ModelingSubmission newSubmission = modelingSubmission(loadModel("model.54727.cpy.json"));
+        newSubmission.setId(5L);
+        submissions.add(newSubmission);
+
+        ModelingPlagiarismResult fullResult = modelingPlagiarismDetectionService.checkPlagiarism(submissions, MINIMUM_SIMILARITY, 1, 0, 1L);
+        ModelingPlagiarismResult incrementalResult = modelingPlagiarismDetectionService.checkPlagiarism(submissions, MINIMUM_SIMILARITY, 1, 0, 1L,
+                previousResult.getSubmissionSignatures(), previousResult.getSubmissionSimilarities());
+
+        assertThat(fullResult.getComparisons()).isNotEmpty();
+        assertThat(toSimilarPairs(incrementalResult)).isEqualTo(toSimilarPairs(fullResult));
+        assertThat(incrementalResult.getSimilarityDistribution()).isEqualTo(fullResult.getSimilarityDistribution());
+        assertThat(incrementalResult.getSubmissionSignatures()).hasSameSizeAs(submissions);
+        assertThat(incrementalResult.hasParameters(MINIMUM_SIMILARITY, 1, 0)).isTrue();
+    }
+
+    private List<ModelingSubmission> createSubmissions(String... modelFiles) throws Exception {
+        long id = 1;
+        List<ModelingSubmission> submissions = new ArrayList<>();
+        for (String modelFile : modelFiles) {
+            ModelingSubmission submission = modelingSubmission(loadModel(modelFile));
+            submission.setId(id++);
+            submissions.add(submission);
+        }
+        return submissions;
+    }
+
+    private static String loadModel(String modelFile) throws Exception {
+        return FileUtils.loadFileFromResources("test-data/model-submission/" + modelFile);
+    }
+
+    /**
+     * The similar pairs of submission ids with their rounded similarity, independent of the order of the submissions in a comparison
+     */
+    private static Set<String> toSimilarPairs(ModelingPlagiarismResult result) {
+        return result.getComparisons().stream().map(comparison -> {
+            long submissionAId = comparison.getSubmissionA().getSubmissionId();
+            long submissionBId = comparison.getSubmissionB().getSubmissionId();
+            return Math.min(submissionAId, submissionBId) + "-" + Math.max(submissionAId, submissionBId) + ": " + Math.round(comparison.getSimilarity() * 1000);
+        }).collect(Collectors.toSet());
+    }
+}
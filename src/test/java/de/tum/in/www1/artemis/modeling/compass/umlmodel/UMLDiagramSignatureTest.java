@@ -0,0 +1,94 @@
+package de.tum.in.www1.artemis.modeling.compass.umlmodel;
+
+import static com.google.gson.JsonParser.parseString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagram;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLDiagramSignature;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLElement;
+import de.tum.in.www1.artemis.service.compass.umlmodel.parsers.UMLModelParser;
+import de.tum.in.www1.artemis.util.FileUtils;
+
+class UMLDiagramSignatureTest {
+
+    private static final List<String> MODEL_FILES = List.of("model.54727.json", "model.54727.cpy.json", "model.54727.partial.json", "model.54742.json", "model.54745.json",
+            "model.inheritance.json", "model.one-element.json", "example-class-diagram.json", "example-class-diagram-package-relationship.json", "example-activity-diagram.json",
+            "example-communication-diagram.json", "example-component-diagram.json", "example-deployment-diagram.json", "example-flowchart-diagram.json",
+            "example-object-diagram.json", "example-petri-net-diagram.json", "example-syntax-tree-diagram.json", "use-case-model.json", "empty-class-diagram.json");
+
+    private final Random random = new Random(42);
+
+    @Test
+    void testSimilarityUpperBound_shouldNotBeBelowSimilarity() throws Exception {
+        List<UMLDiagram> diagrams = new ArrayList<>();
+        long submissionId = 1;
+        for (String modelFile : MODEL_FILES) {
+            JsonObject model = parseString(FileUtils.loadFileFromResources("test-data/model-submission/" + modelFile)).getAsJsonObject();
+            diagrams.add(UMLModelParser.buildModelFromJSON(model, submissionId++));
+            // variants with fewer relationships, so that the diagrams differ in the number of elements of some element classes
+            for (int i = 0; i < 3; i++) {
+                diagrams.add(UMLModelParser.buildModelFromJSON(withoutRandomRelationships(model), submissionId++));
+            }
+        }
+
+        int prunablePairs = 0;
+        for (UMLDiagram diagram1 : diagrams) {
+            for (UMLDiagram diagram2 : diagrams) {
+                double upperBound = UMLDiagramSignature.of(diagram1).similarityUpperBound(UMLDiagramSignature.of(diagram2));
+                assertThat(upperBound).as("upper bound of %s and %s", diagram1.getName(), diagram2.getName()).isBetween(0.0, 1.0)
+                        .isGreaterThanOrEqualTo(diagram1.similarity(diagram2) - 1e-9);
+                if (upperBound < 1) {
+                    prunablePairs++;
+                }
+            }
+        }
+        assertThat(prunablePairs).as("the bound prunes pairs of diagrams of different types").isPositive();
+    }
+
+    @Test
+    void testDeserialize_serializedSignature_shouldHaveSameUpperBounds() throws Exception {
+        List<UMLDiagramSignature> signatures = new ArrayList<>();
+        for (String modelFile : MODEL_FILES) {
+            JsonObject model = parseString(FileUtils.loadFileFromResources("test-data/model-submission/" + modelFile)).getAsJsonObject();
+            signatures.add(UMLDiagramSignature.of(UMLModelParser.buildModelFromJSON(model, 1)));
+        }
+
+        for (UMLDiagramSignature signature : signatures) {
+            UMLDiagramSignature deserializedSignature = UMLDiagramSignature.deserialize(signature.serialize()).orElseThrow();
+            assertThat(deserializedSignature.serialize()).isEqualTo(signature.serialize());
+            for (UMLDiagramSignature reference : signatures) {
+                assertThat(deserializedSignature.similarityUpperBound(reference)).isEqualTo(signature.similarityUpperBound(reference));
+            }
+        }
+    }
+
+    @Test
+    void testDeserialize_malformedSignature_shouldBeEmpty() {
+        assertThat(UMLDiagramSignature.deserialize("de.tum.in.www1.artemis.NoDiagram")).isEmpty();
+        assertThat(UMLDiagramSignature.deserialize("java.lang.String")).isEmpty();
+        assertThat(UMLDiagramSignature.deserialize(UMLDiagram.class.getName() + "|" + UMLElement.class.getName() + "=x")).isEmpty();
+    }
+
+    private JsonObject withoutRandomRelationships(JsonObject model) {
+        JsonObject variant = model.deepCopy();
+        if (variant.get("relationships") instanceof JsonArray relationships) {
+            JsonArray remainingRelationships = new JsonArray();
+            relationships.forEach(relationship -> {
+                if (random.nextBoolean()) {
+                    remainingRelationships.add(relationship);
+                }
+            });
+            variant.add("relationships", remainingRelationships);
+        }
+        return variant;
+    }
+}
@@ -0,0 +1,216 @@
+package de.tum.in.www1.artemis.plagiarism;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.jplag.clustering.ClusteringOptions;
+import de.jplag.options.JPlagOptions;
+import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextSubmissionFingerprint;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismComparisonRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.TextPlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.plagiarism.IncrementalJPlagService;
+import de.tum.in.www1.artemis.service.plagiarism.IncrementalJPlagService.PreviousCheck;
+
+class IncrementalJPlagServiceTest {
+
+    private static final String TEXT_1 = """
+            Plagiarism detection compares the submissions of all students with each other. The comparison of two submissions converts both texts into sequences of tokens
+            and searches for long common subsequences, which are unlikely to occur by chance if the students worked on their own.
+            """;
+
+    private static final String TEXT_2 = """
+            A binary search tree stores its keys in sorted order, so that every lookup only has to follow a single path from the root to a leaf. If the tree is balanced,
+            the length of this path grows logarithmically with the number of keys, otherwise it can degenerate into a linked list.
+            """;
+
+    private static final String TEXT_3 = """
+            The garbage collector of the virtual machine frees the memory of objects that are not reachable anymore. Generational collectors exploit that most objects die
+            young and collect the young generation much more frequently than the old generation.
+            """;
+
+    @TempDir
+    Path tempPath;
+
+    private TextPlagiarismResultRepository textPlagiarismResultRepository;
+
+    private PlagiarismComparisonRepository plagiarismComparisonRepository;
+
+    private IncrementalJPlagService incrementalJPlagService;
+
+    private final TextExercise exercise = new TextExercise();
+
+    @BeforeEach
+    void initTestCase() {
+        textPlagiarismResultRepository = mock(TextPlagiarismResultRepository.class);
+        plagiarismComparisonRepository = mock(PlagiarismComparisonRepository.class);
+        incrementalJPlagService = new IncrementalJPlagService(textPlagiarismResultRepository, plagiarismComparisonRepository);
+        exercise.setId(1L);
+    }
+
+    @Test
+    void testCheckPlagiarism_withPreviousCheck_shouldEqualFullCheck() throws Exception {
+        Map<Long, String> submissions = new HashMap<>(Map.of(1L, TEXT_1, 2L, TEXT_1 + TEXT_3, 3L, TEXT_2, 4L, TEXT_2.replace("binary", "ternary"), 5L, TEXT_3));
+        TextPlagiarismResult previousResult = checkAllSubmissions("previous", submissions);
+        // the comparisons of the previous result have been stored
+        long comparisonId = 1;
+        for (var comparison : previousResult.getComparisons()) {
+            comparison.setId(comparisonId++);
+        }
+        Set<PlagiarismComparison<?>> previousComparisons = new HashSet<>(previousResult.getComparisons());
+        when(plagiarismComparisonRepository.findAllWithSubmissionsAndElementsAByIdIn(any())).thenReturn(previousComparisons);
+        when(plagiarismComparisonRepository.findAllWithSubmissionsAndElementsBByIdIn(any())).thenReturn(previousComparisons);
+        var previousCheck = new PreviousCheck(previousResult, fingerprints(submissions), previousResult.getSubmissionSimilarities());
+
+        // one submission is changed, one is added and one is removed
+        submissions.put(3L, TEXT_1);
+        submissions.put(6L, TEXT_2);
+        submissions.remove(5L);
+        var fingerprints = fingerprints(submissions);
+        Set<Long> unchangedSubmissionIds = previousCheck.unchangedSubmissionIds(fingerprints);
+        File submissionDirectory = tempPath.resolve("incremental").toFile();
+        File unchangedSubmissionDirectory = tempPath.resolve("incremental-unchanged").toFile();
+        for (var submission : submissions.entrySet()) {
+            writeSubmission(unchangedSubmissionIds.contains(submission.getKey()) ? unchangedSubmissionDirectory : submissionDirectory, submission.getKey(), submission.getValue());
+        }
+
+        TextPlagiarismResult fullResult = checkAllSubmissions("full", submissions);
+        TextPlagiarismResult incrementalResult = incrementalJPlagService.checkPlagiarism(options(submissionDirectory), submissionDirectory, unchangedSubmissionDirectory,
+                previousCheck, fingerprints, exercise);
+
+        assertThat(unchangedSubmissionIds).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(fullResult.getComparisons()).isNotEmpty();
+        assertThat(toSimilarPairs(incrementalResult)).isEqualTo(toSimilarPairs(fullResult));
+        assertThat(incrementalResult.getSimilarityDistribution()).isEqualTo(fullResult.getSimilarityDistribution());
+        assertThat(incrementalResult.getSubmissionFingerprints()).hasSameSizeAs(submissions);
+        // the comparison of the unchanged submissions 1 and 2 is copied from the previous result
+        verify(plagiarismComparisonRepository).findAllWithSubmissionsAndElementsAByIdIn(any());
+        var copiedComparison = incrementalResult.getComparisons().stream()
+                .filter(comparison -> Set.of(comparison.getSubmissionA().getSubmissionId(), comparison.getSubmissionB().getSubmissionId()).equals(Set.of(1L, 2L))).findFirst();
+        assertThat(copiedComparison).isPresent();
+        assertThat(copiedComparison.get().getMatches()).isNotEmpty();
+        assertThat(copiedComparison.get().getSubmissionA().getElements()).isNotEmpty();
+    }
+
+    @Test
+    void testCheckPlagiarismWithBaseCode_invalidBaseCodeAfterMovingUnchangedSubmissions_shouldCompareAllSubmissions() throws Exception {
+        Map<Long, String> submissions = new HashMap<>(Map.of(1L, TEXT_1, 2L, TEXT_1 + TEXT_3, 3L, TEXT_2, 4L, TEXT_2.replace("binary", "ternary"), 5L, TEXT_3));
+        // the previous check could use the base code, the current one cannot
+        mockPreviousCheck(checkAllSubmissions("previous", submissions), submissions, "base-code");
+        submissions.put(6L, TEXT_2);
+        File submissionDirectory = tempPath.resolve("submissions").toFile();
+        File unchangedSubmissionDirectory = tempPath.resolve("submissions-unchanged").toFile();
+        for (var submission : submissions.entrySet()) {
+            writeSubmission(submissionDirectory, submission.getKey(), submission.getValue());
+        }
+
+        TextPlagiarismResult fullResult = checkAllSubmissions("full", submissions);
+        TextPlagiarismResult result = incrementalJPlagService.checkPlagiarismWithBaseCode(optionsWithInvalidBaseCode(submissionDirectory), submissionDirectory,
+                unchangedSubmissionDirectory, fingerprints(submissions), "base-code", 10, 0, exercise);
+
+        // the similarities of the previous check were computed with the base code, so the unchanged submissions are compared again
+        assertThat(toSimilarPairs(result)).isEqualTo(toSimilarPairs(fullResult));
+        assertThat(result.getSubmissionFingerprints()).hasSameSizeAs(submissions);
+        assertThat(result.hasParameters(10, 0, 0, null)).isTrue();
+        verify(plagiarismComparisonRepository, never()).findAllWithSubmissionsAndElementsAByIdIn(any());
+    }
+
+    @Test
+    void testCheckPlagiarismWithBaseCode_invalidBaseCodeInPreviousCheck_shouldReusePreviousCheckWithoutBaseCode() throws Exception {
+        Map<Long, String> submissions = new HashMap<>(Map.of(1L, TEXT_1, 2L, TEXT_1 + TEXT_3, 3L, TEXT_2, 4L, TEXT_2.replace("binary", "ternary"), 5L, TEXT_3));
+        // the base code could not be used in the previous check either, so it was stored without base code
+        TextPlagiarismResult previousResult = checkAllSubmissions("previous", submissions);
+        mockPreviousCheck(previousResult, submissions, null);
+        Set<PlagiarismComparison<?>> previousComparisons = new HashSet<>(previousResult.getComparisons());
+        when(plagiarismComparisonRepository.findAllWithSubmissionsAndElementsAByIdIn(any())).thenReturn(previousComparisons);
+        when(plagiarismComparisonRepository.findAllWithSubmissionsAndElementsBByIdIn(any())).thenReturn(previousComparisons);
+        submissions.put(3L, TEXT_1);
+        File submissionDirectory = tempPath.resolve("submissions").toFile();
+        File unchangedSubmissionDirectory = tempPath.resolve("submissions-unchanged").toFile();
+        for (var submission : submissions.entrySet()) {
+            writeSubmission(submissionDirectory, submission.getKey(), submission.getValue());
+        }
+
+        TextPlagiarismResult fullResult = checkAllSubmissions("full", submissions);
+        TextPlagiarismResult result = incrementalJPlagService.checkPlagiarismWithBaseCode(optionsWithInvalidBaseCode(submissionDirectory), submissionDirectory,
+                unchangedSubmissionDirectory, fingerprints(submissions), "base-code", 10, 0, exercise);
+
+        assertThat(toSimilarPairs(result)).isEqualTo(toSimilarPairs(fullResult));
+        assertThat(result.hasParameters(10, 0, 0, null)).isTrue();
+        // the unchanged submissions have been moved and their comparisons are copied from the previous result
+        assertThat(unchangedSubmissionDirectory.list()).hasSize(4);
+        verify(plagiarismComparisonRepository).findAllWithSubmissionsAndElementsAByIdIn(any());
+    }
+
+    /**
+     * Returns the given result as the latest result of the exercise, which has been checked with the given base code
+     */
+    private void mockPreviousCheck(TextPlagiarismResult previousResult, Map<Long, String> submissions, String baseCodeFingerprint) {
+        previousResult.setId(10L);
+        long comparisonId = 1;
+        for (var comparison : previousResult.getComparisons()) {
+            comparison.setId(comparisonId++);
+        }
+        previousResult.setParameters(10, 0, 0, baseCodeFingerprint);
+        when(textPlagiarismResultRepository.findFirstByExerciseIdOrderByLastModifiedDateDesc(exercise.getId())).thenReturn(Optional.of(previousResult));
+        when(textPlagiarismResultRepository.findSubmissionFingerprintsByPlagiarismResultId(previousResult.getId())).thenReturn(fingerprints(submissions).entrySet().stream()
+                .map(fingerprint -> new TextSubmissionFingerprint(fingerprint.getKey(), fingerprint.getValue())).toList());
+        when(textPlagiarismResultRepository.findSubmissionSimilaritiesByPlagiarismResultId(previousResult.getId()))
+                .thenReturn(new ArrayList<>(previousResult.getSubmissionSimilarities()));
+    }
+
+    /**
+     * JPlag cannot use a base code directory that does not exist
+     */
+    private JPlagOptions optionsWithInvalidBaseCode(File submissionDirectory) {
+        return options(submissionDirectory).withBaseCodeSubmissionDirectory(tempPath.resolve("missing-base-code").toFile());
+    }
+
+    private TextPlagiarismResult checkAllSubmissions(String directoryName, Map<Long, String> submissions) throws Exception {
+        File submissionDirectory = tempPath.resolve(directoryName).toFile();
+        for (var submission : submissions.entrySet()) {
+            writeSubmission(submissionDirectory, submission.getKey(), submission.getValue());
+        }
+        return incrementalJPlagService.checkPlagiarism(options(submissionDirectory), submissionDirectory, tempPath.resolve(directoryName + "-unchanged").toFile(), null,
+                fingerprints(submissions), exercise);
+    }
+
+    private static JPlagOptions options(File submissionDirectory) {
+        return new JPlagOptions(new de.jplag.text.Language(), Set.of(submissionDirectory), Set.of()).withSimilarityThreshold(0.1)
+                .withClusteringOptions(new ClusteringOptions().withEnabled(false));
+    }
+
+    private static void writeSubmission(File directory, long submissionId, String text) throws Exception {
+        Files.createDirectories(directory.toPath());
+        Files.writeString(directory.toPath().resolve(submissionId + "-student" + submissionId + ".txt"), text);
+    }
+
+    private static Map<Long, String> fingerprints(Map<Long, String> submissions) {
+        return submissions.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, submission -> DigestUtils.sha256Hex(submission.getValue())));
+    }
+
+    /**
+     * The similar pairs of submission ids with their rounded similarity, independent of the order of the submissions in a comparison
+     */
+    private static Set<String> toSimilarPairs(TextPlagiarismResult result) {
+        return result.getSubmissionSimilarities().stream().map(similarity -> {
+            long submissionAId = similarity.getSubmissionAId();
+            long submissionBId = similarity.getSubmissionBId();
+            return Math.min(submissionAId, submissionBId) + "-" + Math.max(submissionAId, submissionBId) + ": " + Math.round(similarity.getSimilarity() * 10);
+        }).collect(Collectors.toSet());
+    }
+}
@@ -1,11 +1,18 @@
 package de.tum.in.www1.artemis.plagiarism;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.util.LinkedMultiValueMap;
@@ -14,14 +21,29 @@ import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.TextExercise;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
-import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
-import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
+import de.tum.in.www1.artemis.domain.plagiarism.*;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCheckJobRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.plagiarism.PlagiarismWebsocketService;
 import de.tum.in.www1.artemis.util.FileUtils;
 
 class PlagiarismCheckIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
     private static final String TEST_PREFIX = "plagiarismcheck";
 
+    private static final String NODE = TEST_PREFIX + "-node";
+
+    private static final String OTHER_NODE = TEST_PREFIX + "-other-node";
+
+    @Autowired
+    private PlagiarismCheckJobRepository plagiarismCheckJobRepository;
+
+    @Autowired
+    private PlagiarismResultRepository plagiarismResultRepository;
+
+    @Autowired
+    private PlagiarismWebsocketService plagiarismWebsocketService;
+
     private Course course;
 
     @BeforeEach
@@ -34,6 +56,12 @@ class PlagiarismCheckIntegrationTest extends AbstractSpringIntegrationBambooBitb
         database.addOneFinishedModelingExerciseAndSimilarSubmissionsToTheCourse(TEST_PREFIX, submissionModel, studentAmount, course);
     }
 
+    @AfterEach
+    void tearDown() {
+        plagiarismCheckJobRepository.deleteAllByExerciseId(database.getFirstExerciseWithType(course, TextExercise.class).getId());
+        plagiarismCheckJobRepository.deleteAllByExerciseId(database.getFirstExerciseWithType(course, ModelingExercise.class).getId());
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
     void testCheckPlagiarismResultForTextExercise() throws Exception {
@@ -50,6 +78,184 @@ class PlagiarismCheckIntegrationTest extends AbstractSpringIntegrationBambooBitb
         createAndTestPlagiarismResult(path);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testPlagiarismCheckJobHistory() throws Exception {
+        var textExercise = database.getFirstExerciseWithType(course, TextExercise.class);
+        PlagiarismResult<?> plagiarismResult = request.get("/api/text-exercises/" + textExercise.getId() + "/check-plagiarism", HttpStatus.OK, PlagiarismResult.class,
+                database.getDefaultPlagiarismOptions());
+
+        var jobs = request.getList("/api/exercises/" + textExercise.getId() + "/plagiarism-check-jobs", HttpStatus.OK, PlagiarismCheckJob.class);
+        assertThat(jobs).hasSize(1);
+        var job = jobs.get(0);
+        assertThat(job.getStatus()).isEqualTo(PlagiarismCheckJobStatus.COMPLETED);
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(job.getPlagiarismResultId()).isEqualTo(plagiarismResult.getId());
+        assertThat(job.getStartedDate()).isAfterOrEqualTo(job.getCreatedDate());
+        assertThat(job.getCompletedDate()).isAfterOrEqualTo(job.getStartedDate());
+
+        // a finished job cannot be cancelled
+        request.postWithResponseBody("/api/exercises/" + textExercise.getId() + "/plagiarism-check-jobs/" + job.getId() + "/cancel", null, PlagiarismCheckJob.class,
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testCompletedPlagiarismCheck_shouldNotifyAfterResultWasSaved() throws Exception {
+        var textExercise = database.getFirstExerciseWithType(course, TextExercise.class);
+        String topic = plagiarismWebsocketService.getTextExercisePlagiarismCheckTopic(textExercise.getId());
+        // the result the client would load when it receives the completion
+        AtomicReference<PlagiarismResult<?>> resultWhenCompleted = new AtomicReference<>();
+        doAnswer(invocation -> {
+            resultWhenCompleted.set(plagiarismResultRepository.findFirstByExerciseIdOrderByLastModifiedDateDescOrNull(textExercise.getId()));
+            return invocation.callRealMethod();
+        }).when(websocketMessagingService).sendMessage(eq(topic), argThat(message -> message.toString().contains("COMPLETED")));
+
+        PlagiarismResult<?> plagiarismResult = request.get("/api/text-exercises/" + textExercise.getId() + "/check-plagiarism", HttpStatus.OK, PlagiarismResult.class,
+                database.getDefaultPlagiarismOptions());
+
+        verify(websocketMessagingService, timeout(5000)).sendMessage(eq(topic), argThat(message -> message.toString().contains("COMPLETED")));
+        assertThat(resultWhenCompleted.get()).isNotNull();
+        assertThat(resultWhenCompleted.get().getId()).isEqualTo(plagiarismResult.getId());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testCancelQueuedPlagiarismCheckJob() throws Exception {
+        var textExercise = database.getFirstExerciseWithType(course, TextExercise.class);
+        var modelingExercise = database.getFirstExerciseWithType(course, ModelingExercise.class);
+        // only one check per course runs at the same time, so the queued job waits for the running job
+        var runningJob = new PlagiarismCheckJob(modelingExercise, 50, 0, 0);
+        runningJob.setStatus(PlagiarismCheckJobStatus.RUNNING);
+        runningJob = plagiarismCheckJobRepository.save(runningJob);
+        var queuedJob = plagiarismCheckJobRepository.save(new PlagiarismCheckJob(textExercise, 50, 0, 0));
+        try {
+            var cancelledJob = request.postWithResponseBody("/api/exercises/" + textExercise.getId() + "/plagiarism-check-jobs/" + queuedJob.getId() + "/cancel", null,
+                    PlagiarismCheckJob.class, HttpStatus.OK);
+            assertThat(cancelledJob.getStatus()).isEqualTo(PlagiarismCheckJobStatus.CANCELLED);
+            assertThat(cancelledJob.getStartedDate()).isNull();
+            assertThat(plagiarismCheckJobRepository.findByIdElseThrow(queuedJob.getId()).getStatus()).isEqualTo(PlagiarismCheckJobStatus.CANCELLED);
+
+            // the job belongs to another exercise
+            request.get("/api/exercises/" + modelingExercise.getId() + "/plagiarism-check-jobs/" + queuedJob.getId(), HttpStatus.BAD_REQUEST, PlagiarismCheckJob.class);
+        }
+        finally {
+            plagiarismCheckJobRepository.delete(runningJob);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testClaimPlagiarismCheckJob_shouldOnlySucceedOnce() {
+        var job = queueJobWhileCourseIsBusy();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        assertThat(plagiarismCheckJobRepository.claim(job.getId(), NODE, now)).isTrue();
+        assertThat(plagiarismCheckJobRepository.claim(job.getId(), OTHER_NODE, now)).isFalse();
+
+        var claimedJob = plagiarismCheckJobRepository.findByIdElseThrow(job.getId());
+        assertThat(claimedJob.getStatus()).isEqualTo(PlagiarismCheckJobStatus.RUNNING);
+        assertThat(claimedJob.getNode()).isEqualTo(NODE);
+        assertThat(claimedJob.getAttempts()).isEqualTo(1);
+        assertThat(claimedJob.getStartedDate()).isEqualTo(now);
+        assertThat(claimedJob.getHeartbeatDate()).isEqualTo(now);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testFinishPlagiarismCheckJob_shouldOnlySucceedOnClaimingNode() {
+        var job = queueJobWhileCourseIsBusy();
+        plagiarismCheckJobRepository.claim(job.getId(), NODE, Instant.now());
+
+        plagiarismCheckJobRepository.finish(job.getId(), OTHER_NODE, Instant.now(), PlagiarismCheckJobStatus.COMPLETED, null, null, 1L);
+        assertThat(plagiarismCheckJobRepository.findByIdElseThrow(job.getId()).getStatus()).isEqualTo(PlagiarismCheckJobStatus.RUNNING);
+
+        plagiarismCheckJobRepository.finish(job.getId(), NODE, Instant.now(), PlagiarismCheckJobStatus.COMPLETED, null, null, 2L);
+        // a finished job is not finished again
+        plagiarismCheckJobRepository.finish(job.getId(), NODE, Instant.now(), PlagiarismCheckJobStatus.FAILED, "error", "jplagException", null);
+
+        var finishedJob = plagiarismCheckJobRepository.findByIdElseThrow(job.getId());
+        assertThat(finishedJob.getStatus()).isEqualTo(PlagiarismCheckJobStatus.COMPLETED);
+        assertThat(finishedJob.getPlagiarismResultId()).isEqualTo(2L);
+        assertThat(finishedJob.getErrorMessage()).isNull();
+        assertThat(finishedJob.getCompletedDate()).isNotNull();
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testCancelRunningPlagiarismCheckJob_shouldOnlyRequestCancellation() {
+        var job = queueJobWhileCourseIsBusy();
+        plagiarismCheckJobRepository.claim(job.getId(), NODE, Instant.now());
+
+        assertThat(plagiarismCheckJobRepository.cancel(job.getId(), Instant.now())).isTrue();
+
+        var cancelledJob = plagiarismCheckJobRepository.findByIdElseThrow(job.getId());
+        assertThat(cancelledJob.getStatus()).isEqualTo(PlagiarismCheckJobStatus.RUNNING);
+        assertThat(cancelledJob.isCancellationRequested()).isTrue();
+        assertThat(plagiarismCheckJobRepository.findIdsWithCancellationRequested(Set.of(job.getId()))).containsExactly(job.getId());
+
+        plagiarismCheckJobRepository.finish(job.getId(), NODE, Instant.now(), PlagiarismCheckJobStatus.CANCELLED, null, null, null);
+        assertThat(plagiarismCheckJobRepository.cancel(job.getId(), Instant.now())).isFalse();
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testRequeueJobsOfRestartedNode_shouldFailAfterMaxAttempts() {
+        var job = queueJobWhileCourseIsBusy();
+        // the heartbeats of the jobs are recent, so they are only stale because their node restarted
+        Instant heartbeatThreshold = Instant.now().minus(1, ChronoUnit.HOURS);
+
+        plagiarismCheckJobRepository.claim(job.getId(), NODE, Instant.now());
+        assertThat(plagiarismCheckJobRepository.requeueStaleJobs(heartbeatThreshold, OTHER_NODE, 2, Instant.now())).isZero();
+        assertThat(plagiarismCheckJobRepository.requeueStaleJobs(heartbeatThreshold, NODE, 2, Instant.now())).isEqualTo(1);
+
+        var requeuedJob = plagiarismCheckJobRepository.findByIdElseThrow(job.getId());
+        assertThat(requeuedJob.getStatus()).isEqualTo(PlagiarismCheckJobStatus.QUEUED);
+        assertThat(requeuedJob.getNode()).isNull();
+
+        // the second attempt is the last one
+        plagiarismCheckJobRepository.claim(job.getId(), NODE, Instant.now());
+        assertThat(plagiarismCheckJobRepository.requeueStaleJobs(heartbeatThreshold, NODE, 2, Instant.now())).isEqualTo(1);
+
+        var failedJob = plagiarismCheckJobRepository.findByIdElseThrow(job.getId());
+        assertThat(failedJob.getStatus()).isEqualTo(PlagiarismCheckJobStatus.FAILED);
+        assertThat(failedJob.getAttempts()).isEqualTo(2);
+        assertThat(failedJob.getErrorKey()).isEqualTo("plagiarismCheckInterrupted");
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testRequeueJobsWithMissingHeartbeats() {
+        var job = queueJobWhileCourseIsBusy();
+        var cancelledJob = plagiarismCheckJobRepository.save(new PlagiarismCheckJob(database.getFirstExerciseWithType(course, TextExercise.class), 60, 0, 0));
+        Instant lastHeartbeat = Instant.now().minus(2, ChronoUnit.HOURS);
+        plagiarismCheckJobRepository.claim(job.getId(), NODE, lastHeartbeat);
+        plagiarismCheckJobRepository.claim(cancelledJob.getId(), NODE, lastHeartbeat);
+        plagiarismCheckJobRepository.cancel(cancelledJob.getId(), Instant.now());
+
+        plagiarismCheckJobRepository.requeueStaleJobs(Instant.now().minus(1, ChronoUnit.HOURS), null, 2, Instant.now());
+
+        assertThat(plagiarismCheckJobRepository.findByIdElseThrow(job.getId()).getStatus()).isEqualTo(PlagiarismCheckJobStatus.QUEUED);
+        // a job whose cancellation was requested is not started again, but cancelled
+        var staleCancelledJob = plagiarismCheckJobRepository.findByIdElseThrow(cancelledJob.getId());
+        assertThat(staleCancelledJob.getStatus()).isEqualTo(PlagiarismCheckJobStatus.CANCELLED);
+        assertThat(staleCancelledJob.getErrorKey()).isNull();
+        assertThat(staleCancelledJob.getCompletedDate()).isNotNull();
+    }
+
+    /**
+     * Queues a job of the text exercise while a job of the modeling exercise of the same course is running, so that the dispatcher of the running
+     * instance does not start the queued job while the test changes it
+     *
+     * @return the queued job
+     */
+    private PlagiarismCheckJob queueJobWhileCourseIsBusy() {
+        var runningJob = new PlagiarismCheckJob(database.getFirstExerciseWithType(course, ModelingExercise.class), 50, 0, 0);
+        runningJob.setStatus(PlagiarismCheckJobStatus.RUNNING);
+        plagiarismCheckJobRepository.save(runningJob);
+        return plagiarismCheckJobRepository.save(new PlagiarismCheckJob(database.getFirstExerciseWithType(course, TextExercise.class), 50, 0, 0));
+    }
+
     /***
      * Create the plagiarism result response based on the provided path
      *
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.util.LinkedMultiValueMap;
 
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.Course;
@@ -23,7 +24,9 @@ import de.tum.in.www1.artemis.repository.TextExerciseRepository;
 import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCaseRepository;
 import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismComparisonRepository;
 import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
+import de.tum.in.www1.artemis.web.rest.dto.PlagiarismComparisonDTO;
 import de.tum.in.www1.artemis.web.rest.dto.PlagiarismComparisonStatusDTO;
+import de.tum.in.www1.artemis.web.rest.dto.PlagiarismResultSummaryDTO;
 
 class PlagiarismIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
@@ -61,6 +64,7 @@ class PlagiarismIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         plagiarismComparison1 = new PlagiarismComparison<>();
         plagiarismComparison1.setPlagiarismResult(textPlagiarismResult);
         plagiarismComparison1.setStatus(CONFIRMED);
+        plagiarismComparison1.setSimilarity(60);
         var plagiarismSubmissionA1 = new PlagiarismSubmission<TextSubmissionElement>();
         plagiarismSubmissionA1.setStudentLogin(TEST_PREFIX + "student1");
         var plagiarismSubmissionB1 = new PlagiarismSubmission<TextSubmissionElement>();
@@ -72,6 +76,7 @@ class PlagiarismIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         plagiarismComparison2 = new PlagiarismComparison<>();
         plagiarismComparison2.setPlagiarismResult(textPlagiarismResult);
         plagiarismComparison2.setStatus(NONE);
+        plagiarismComparison2.setSimilarity(80);
         var plagiarismSubmissionA2 = new PlagiarismSubmission<TextSubmissionElement>();
         plagiarismSubmissionA2.setStudentLogin(TEST_PREFIX + "student2");
         var plagiarismSubmissionB2 = new PlagiarismSubmission<TextSubmissionElement>();
@@ -200,4 +205,53 @@ class PlagiarismIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         var result = plagiarismResultRepository.findFirstByExerciseIdOrderByLastModifiedDateDescOrNull(textExercise.getId());
         assertThat(result).isNull();
     }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetPlagiarismComparisons_tutor() throws Exception {
+        request.getList("/api/exercises/" + textExercise.getId() + "/plagiarism-results/" + textPlagiarismResult.getId() + "/plagiarism-comparisons", HttpStatus.FORBIDDEN,
+                PlagiarismComparisonDTO.class);
+        request.get("/api/exercises/" + textExercise.getId() + "/plagiarism-result/summary", HttpStatus.FORBIDDEN, PlagiarismResultSummaryDTO.class);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testGetPlagiarismComparisons_editor() throws Exception {
+        String path = "/api/exercises/" + textExercise.getId() + "/plagiarism-results/" + textPlagiarismResult.getId() + "/plagiarism-comparisons";
+        var params = new LinkedMultiValueMap<String, String>();
+        params.add("page", "0");
+        params.add("size", "1");
+        var firstPage = request.getList(path, HttpStatus.OK, PlagiarismComparisonDTO.class, params);
+        params.set("page", "1");
+        var secondPage = request.getList(path, HttpStatus.OK, PlagiarismComparisonDTO.class, params);
+
+        // the most similar comparison comes first
+        assertThat(firstPage).hasSize(1);
+        assertThat(firstPage.get(0).id()).isEqualTo(plagiarismComparison2.getId());
+        assertThat(firstPage.get(0).similarity()).isEqualTo(80);
+        assertThat(firstPage.get(0).submissionA().studentLogin()).isEqualTo(TEST_PREFIX + "student2");
+        assertThat(firstPage.get(0).submissionB().studentLogin()).isEqualTo(TEST_PREFIX + "student3");
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).id()).isEqualTo(plagiarismComparison1.getId());
+        assertThat(secondPage.get(0).status()).isEqualTo(CONFIRMED);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testGetPlagiarismComparisons_editor_wrongExercise() throws Exception {
+        var otherExercise = database.addCourseWithOneFinishedTextExercise().getExercises().iterator().next();
+        var comparisons = request.getList("/api/exercises/" + otherExercise.getId() + "/plagiarism-results/" + textPlagiarismResult.getId() + "/plagiarism-comparisons",
+                HttpStatus.OK, PlagiarismComparisonDTO.class);
+        assertThat(comparisons).isEmpty();
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "editor1", roles = "EDITOR")
+    void testGetPlagiarismResultSummary_editor() throws Exception {
+        var summary = request.get("/api/exercises/" + textExercise.getId() + "/plagiarism-result/summary", HttpStatus.OK, PlagiarismResultSummaryDTO.class);
+        assertThat(summary.id()).isEqualTo(textPlagiarismResult.getId());
+        assertThat(summary.numberOfComparisons()).isEqualTo(2);
+        assertThat(summary.duration()).isEqualTo(4);
+        assertThat(summary.similarityDistribution()).hasSize(10);
+    }
 }
@@ -0,0 +1,130 @@
+package de.tum.in.www1.artemis.plagiarism;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.transport.RefSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.VcsRepositoryUrl;
+import de.tum.in.www1.artemis.service.plagiarism.PlagiarismRepositoryMirrorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Exports repositories with the real {@link de.tum.in.www1.artemis.service.connectors.GitService#fetchOrCloneMirror} from bare origin repositories on the local disk
+ */
+class PlagiarismRepositoryMirrorServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @TempDir
+    Path tempPath;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PlagiarismRepositoryMirrorService repositoryMirrorService;
+
+    @BeforeEach
+    void initTestCase() {
+        meterRegistry = new SimpleMeterRegistry();
+        repositoryMirrorService = new PlagiarismRepositoryMirrorService(gitService, meterRegistry, tempPath.resolve("mirrors").toString(), 1024, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositoryMirrorService.shutdown();
+    }
+
+    @Test
+    void testExportRepositories_repeatedExport_shouldFetchExistingMirrors() throws Exception {
+        Git origin1 = createOrigin("origin1", "Main.java", "class Main {}");
+        Git origin2 = createOrigin("origin2", "src/Util.java", "class Util {}");
+        var repositoryUrl1 = new VcsRepositoryUrl(origin1.getRepository().getDirectory());
+        var repositoryUrl2 = new VcsRepositoryUrl(origin2.getRepository().getDirectory());
+
+        var exported = repositoryMirrorService.exportRepositories(targetPaths("check1", repositoryUrl1, repositoryUrl2), exportedRepositoryUrl -> {
+        });
+        commit(origin1, "Main.java", "class Main { int changed; }");
+        var reexported = repositoryMirrorService.exportRepositories(targetPaths("check2", repositoryUrl1, repositoryUrl2), exportedRepositoryUrl -> {
+        });
+
+        assertThat(exported).containsOnlyKeys(repositoryUrl1, repositoryUrl2);
+        assertThat(reexported).containsOnlyKeys(repositoryUrl1, repositoryUrl2);
+        verify(gitService, times(2)).fetchOrCloneMirror(eq(repositoryUrl1), any());
+        verify(gitService, times(2)).fetchOrCloneMirror(eq(repositoryUrl2), any());
+        // the exported commits identify the versions of the repositories
+        assertThat(reexported.get(repositoryUrl1)).isNotEqualTo(exported.get(repositoryUrl1)).isEqualTo(headCommit(origin1));
+        assertThat(reexported.get(repositoryUrl2)).isEqualTo(exported.get(repositoryUrl2)).isEqualTo(headCommit(origin2));
+        assertThat(tempPath.resolve("check1/origin1/Main.java")).hasContent("class Main {}");
+        assertThat(tempPath.resolve("check2/origin1/Main.java")).hasContent("class Main { int changed; }");
+        assertThat(tempPath.resolve("check2/origin2/src/Util.java")).hasContent("class Util {}");
+        // only the files are exported, not the git directory
+        assertThat(tempPath.resolve("check2/origin1/.git")).doesNotExist();
+        assertThat(meterRegistry.get("artemis.plagiarism.repository_mirrors.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("artemis.plagiarism.repository_mirrors.requests").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("artemis.plagiarism.repository_mirrors.mirrors").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("artemis.plagiarism.repository_mirrors.disk_usage").gauge().value()).isPositive();
+    }
+
+    @Test
+    void testExportRepositories_exceedingMaxDiskUsage_shouldDeleteLeastRecentlyUsedMirrors() throws Exception {
+        repositoryMirrorService.shutdown();
+        repositoryMirrorService = new PlagiarismRepositoryMirrorService(gitService, meterRegistry, tempPath.resolve("mirrors").toString(), 0, 2);
+        var repositoryUrl = new VcsRepositoryUrl(createOrigin("origin", "Main.java", "class Main {}").getRepository().getDirectory());
+
+        var exported = repositoryMirrorService.exportRepositories(targetPaths("check", repositoryUrl), exportedRepositoryUrl -> {
+        });
+
+        assertThat(exported).containsOnlyKeys(repositoryUrl);
+        assertThat(tempPath.resolve("check/origin/Main.java")).hasContent("class Main {}");
+        assertThat(tempPath.resolve("mirrors").toFile().list()).isEmpty();
+        assertThat(meterRegistry.get("artemis.plagiarism.repository_mirrors.disk_usage").gauge().value()).isZero();
+    }
+
+    private Map<VcsRepositoryUrl, Path> targetPaths(String checkFolder, VcsRepositoryUrl... repositoryUrls) {
+        Map<VcsRepositoryUrl, Path> targetPaths = new LinkedHashMap<>();
+        for (VcsRepositoryUrl repositoryUrl : repositoryUrls) {
+            targetPaths.put(repositoryUrl, tempPath.resolve(checkFolder).resolve(repositoryUrl.folderNameForRepositoryUrl()));
+        }
+        return targetPaths;
+    }
+
+    /**
+     * Creates a bare origin repository with an initial commit of the given file, like the repositories of the version control system
+     *
+     * @return the bare origin repository
+     */
+    private Git createOrigin(String name, String fileName, String content) throws Exception {
+        Git origin = Git.init().setBare(true).setDirectory(tempPath.resolve(name).toFile()).setInitialBranch(defaultBranch).call();
+        commit(origin, fileName, content);
+        return origin;
+    }
+
+    private static String headCommit(Git origin) throws Exception {
+        return origin.getRepository().resolve("HEAD").name();
+    }
+
+    /**
+     * Commits the given file in a clone of the given bare origin repository and pushes the commit to it
+     */
+    private void commit(Git origin, String fileName, String content) throws Exception {
+        File workTree = Files.createTempDirectory(tempPath, "clone").toFile();
+        try (Git clone = Git.cloneRepository().setURI(origin.getRepository().getDirectory().toURI().toString()).setDirectory(workTree).call()) {
+            File file = new File(workTree, fileName);
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.writeString(file.toPath(), content);
+            clone.add().addFilepattern(".").call();
+            clone.commit().setMessage("Update " + fileName).call();
+            clone.push().setRemote("origin").setRefSpecs(new RefSpec("HEAD:refs/heads/" + defaultBranch)).call();
+        }
+    }
+}
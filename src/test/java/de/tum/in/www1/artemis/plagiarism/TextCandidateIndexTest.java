@@ -0,0 +1,198 @@
+package de.tum.in.www1.artemis.plagiarism;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.jplag.JPlag;
+import de.jplag.Language;
+import de.jplag.clustering.ClusteringOptions;
+import de.jplag.options.JPlagOptions;
+import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismComparisonRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.TextPlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.plagiarism.IncrementalJPlagService;
+import de.tum.in.www1.artemis.service.plagiarism.IncrementalJPlagService.SubmissionPair;
+import de.tum.in.www1.artemis.service.plagiarism.TextCandidateIndex;
+
+class TextCandidateIndexTest {
+
+    private static final List<String> WORDS = List.of("the", "a", "memory", "tree", "search", "student", "compiler", "object", "list", "graph", "node", "edge", "value",
+            "function", "returns", "stores", "compares", "every", "each", "small", "large", "fast", "slow", "because", "therefore", "while", "sorted", "balanced", "path",
+            "root", "leaf", "key", "hash", "table", "bucket", "collision", "thread", "lock", "queue", "stack", "heap", "garbage", "collector", "generation", "young", "old");
+
+    /**
+     * The similarity threshold of the checks (in % between 0 and 100)
+     */
+    private static final double SIMILARITY_THRESHOLD = 50;
+
+    @TempDir
+    Path tempPath;
+
+    private final IncrementalJPlagService incrementalJPlagService = new IncrementalJPlagService(mock(TextPlagiarismResultRepository.class),
+            mock(PlagiarismComparisonRepository.class));
+
+    private final Random random = new Random(42);
+
+    @Test
+    void testCandidatePairs_shouldContainCopiesButNotUnrelatedTexts() {
+        String text = randomText(150);
+        var candidateIndex = new TextCandidateIndex(3, 120, 3);
+        candidateIndex.add(1, text);
+        candidateIndex.add(2, text.toUpperCase());
+        candidateIndex.add(3, modify(text, 0.1));
+        candidateIndex.add(4, randomText(150));
+        candidateIndex.add(5, "");
+        candidateIndex.add(6, null);
+
+        var candidatePairs = candidateIndex.candidatePairs();
+
+        assertThat(candidatePairs).contains(SubmissionPair.of(1, 2), SubmissionPair.of(1, 3), SubmissionPair.of(2, 3));
+        assertThat(candidatePairs).noneMatch(pair -> pair.submissionId1() >= 4 || pair.submissionId2() >= 4);
+        assertThat(candidateIndex.getNumberOfSubmissions()).isEqualTo(4);
+    }
+
+    @Test
+    void testCandidateProbability() {
+        var candidateIndex = new TextCandidateIndex(3, 120, 3);
+        assertThat(candidateIndex.candidateProbability(0)).isZero();
+        assertThat(candidateIndex.candidateProbability(1)).isEqualTo(1);
+        assertThat(candidateIndex.candidateProbability(0.5)).isGreaterThan(0.99);
+        assertThat(candidateIndex.candidateProbability(0.05)).isLessThan(0.1);
+        // fewer bands reduce the recall
+        assertThat(new TextCandidateIndex(3, 40, 3).candidateProbability(0.3)).isLessThan(candidateIndex.candidateProbability(0.3));
+    }
+
+    /**
+     * Measures the recall of the candidate pairs compared to the check of all pairs, i.e. the share of the similar pairs of the full check that are also found if
+     * only the candidate pairs are compared
+     */
+    @Test
+    void testCheckPlagiarism_withCandidatePairs_shouldFindSimilarPairsOfFullCheck() throws Exception {
+        Map<Long, String> submissions = new HashMap<>();
+        long submissionId = 1;
+        for (int i = 0; i < 30; i++) {
+            String text = randomText(150);
+            submissions.put(submissionId++, text);
+            if (i % 3 == 0) {
+                // a copy with some replaced words
+                submissions.put(submissionId++, modify(text, 0.1));
+            }
+            else if (i % 3 == 1) {
+                // a copy of the first half with own text
+                submissions.put(submissionId++, modify(text.substring(0, text.length() / 2), 0.05) + " " + randomText(75));
+            }
+        }
+        File submissionDirectory = tempPath.resolve("submissions").toFile();
+        for (var submission : submissions.entrySet()) {
+            writeSubmission(submissionDirectory, submission.getKey(), submission.getValue());
+        }
+        var candidateIndex = new TextCandidateIndex(3, 120, 3);
+        submissions.forEach(candidateIndex::add);
+        var candidatePairs = candidateIndex.candidatePairs();
+
+        TextPlagiarismResult fullResult = incrementalJPlagService.checkPlagiarism(options(submissionDirectory), submissionDirectory,
+                tempPath.resolve("submissions-unchanged").toFile(), null, fingerprints(submissions), new TextExercise());
+        TextPlagiarismResult candidateResult = incrementalJPlagService.checkPlagiarism(options(submissionDirectory), submissionDirectory,
+                tempPath.resolve("submissions-unchanged").toFile(), null, fingerprints(submissions), candidatePairs, new TextExercise());
+
+        Set<String> fullPairs = toSimilarPairs(fullResult);
+        Set<String> candidateFoundPairs = toSimilarPairs(candidateResult);
+        int numberOfPairs = submissions.size() * (submissions.size() - 1) / 2;
+        assertThat(fullPairs).hasSizeGreaterThanOrEqualTo(10);
+        // the candidate pairs are compared exactly like in the full check
+        assertThat(fullPairs).containsAll(candidateFoundPairs);
+        double recall = (double) candidateFoundPairs.size() / fullPairs.size();
+        assertThat(recall).isGreaterThanOrEqualTo(0.9);
+        assertThat(candidatePairs).hasSizeLessThan(numberOfPairs / 10);
+        assertThat(candidateResult.getComparisons()).hasSameSizeAs(candidateFoundPairs);
+        assertThat(candidateResult.getSubmissionFingerprints()).hasSameSizeAs(submissions);
+    }
+
+    /**
+     * Every submission is part of several candidate pairs, but it is only parsed once and all pairs are compared in a single run
+     */
+    @Test
+    void testCheckPlagiarism_withCandidatePairs_shouldParseEverySubmissionOnce() throws Exception {
+        Map<Long, String> submissions = new HashMap<>();
+        long submissionId = 1;
+        for (int i = 0; i < 5; i++) {
+            String text = randomText(150);
+            for (int j = 0; j < 4; j++) {
+                submissions.put(submissionId++, modify(text, 0.05));
+            }
+        }
+        File submissionDirectory = tempPath.resolve("submissions").toFile();
+        for (var submission : submissions.entrySet()) {
+            writeSubmission(submissionDirectory, submission.getKey(), submission.getValue());
+        }
+        var candidateIndex = new TextCandidateIndex(3, 120, 3);
+        submissions.forEach(candidateIndex::add);
+        var candidatePairs = candidateIndex.candidatePairs();
+        assertThat(candidatePairs).hasSizeGreaterThan(submissions.size());
+
+        Language language = spy(new de.jplag.text.Language());
+        TextPlagiarismResult result;
+        try (var jPlagConstruction = mockConstruction(JPlag.class)) {
+            result = incrementalJPlagService.checkPlagiarism(options(language, submissionDirectory), submissionDirectory, tempPath.resolve("submissions-unchanged").toFile(),
+                    null, fingerprints(submissions), candidatePairs, new TextExercise());
+            // the candidate pairs are not compared in separate JPlag runs
+            assertThat(jPlagConstruction.constructed()).isEmpty();
+        }
+
+        verify(language, times(submissions.size())).parse(any());
+        assertThat(result.getSubmissionSimilarities()).hasSizeGreaterThanOrEqualTo(5).allMatch(
+                similarity -> candidatePairs.contains(SubmissionPair.of(similarity.getSubmissionAId(), similarity.getSubmissionBId())));
+        assertThat(result.getSubmissionFingerprints()).hasSameSizeAs(submissions);
+    }
+
+    private String randomText(int numberOfWords) {
+        return random.ints(numberOfWords, 0, WORDS.size()).mapToObj(WORDS::get).collect(Collectors.joining(" "));
+    }
+
+    /**
+     * @return the given text with the given share of its words replaced by random words
+     */
+    private String modify(String text, double share) {
+        return Arrays.stream(text.split(" ")).map(word -> random.nextDouble() < share ? WORDS.get(random.nextInt(WORDS.size())) : word).collect(Collectors.joining(" "));
+    }
+
+    private static JPlagOptions options(File submissionDirectory) {
+        return options(new de.jplag.text.Language(), submissionDirectory);
+    }
+
+    private static JPlagOptions options(Language language, File submissionDirectory) {
+        return new JPlagOptions(language, Set.of(submissionDirectory), Set.of()).withSimilarityThreshold(SIMILARITY_THRESHOLD / 100)
+                .withClusteringOptions(new ClusteringOptions().withEnabled(false));
+    }
+
+    private static void writeSubmission(File directory, long submissionId, String text) throws Exception {
+        Files.createDirectories(directory.toPath());
+        Files.writeString(directory.toPath().resolve(submissionId + "-student" + submissionId + ".txt"), text);
+    }
+
+    private static Map<Long, String> fingerprints(Map<Long, String> submissions) {
+        return submissions.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, submission -> DigestUtils.sha256Hex(submission.getValue())));
+    }
+
+    /**
+     * The similar pairs of submission ids with their rounded similarity, independent of the order of the submissions in a comparison
+     */
+    private static Set<String> toSimilarPairs(TextPlagiarismResult result) {
+        return result.getSubmissionSimilarities().stream().map(similarity -> {
+            long submissionAId = similarity.getSubmissionAId();
+            long submissionBId = similarity.getSubmissionBId();
+            return Math.min(submissionAId, submissionBId) + "-" + Math.max(submissionAId, submissionBId) + ": " + Math.round(similarity.getSimilarity() * 10);
+        }).collect(Collectors.toSet());
+    }
+}
@@ -21,6 +21,7 @@ import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiFunction;
 import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import javax.validation.constraints.NotNull;
@@ -33,6 +34,7 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.transport.RefSpec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
@@ -1660,24 +1662,24 @@ class ProgrammingExerciseIntegrationTestService {
         var course = database.addCourseWithOneProgrammingExercise();
         var programmingExercise = programmingExerciseRepository
                 .findWithTemplateAndSolutionParticipationById(database.getFirstExerciseWithType(course, ProgrammingExercise.class).getId()).get();
-        prepareTwoRepositoriesForPlagiarismChecks(programmingExercise);
+        var participations = prepareTwoRepositoriesForPlagiarismChecks(programmingExercise);
+        // the repositories are exported into folders named after the participation id and the student
+        var submission1 = (participations.get(0).getId() + "-" + userPrefix + "student1").toLowerCase();
+        var submission2 = (participations.get(1).getId() + "-" + userPrefix + "student2").toLowerCase();
 
         final var path = ROOT + CHECK_PLAGIARISM_JPLAG_REPORT.replace("{exerciseId}", String.valueOf(programmingExercise.getId()));
         var jplagZipArchive = request.getFile(path, HttpStatus.OK, database.getDefaultPlagiarismOptions());
         assertThat(jplagZipArchive).isNotNull();
         assertThat(jplagZipArchive).exists();
         try (ZipFile zipFile = new ZipFile(jplagZipArchive)) {
-            // var entries = zipFile.entries();
-            // while(entries.hasMoreElements()) {
-            // System.out.println(entries.nextElement().getName());
-            // }
+            var entryNames = zipFile.stream().map(ZipEntry::getName).toList();
             assertThat(zipFile.getEntry("overview.json")).isNotNull();
-            assertThat(zipFile.getEntry("files/Submission-1.java/Submission-1.java")).isNotNull();
-            assertThat(zipFile.getEntry("files/Submission-2.java/Submission-2.java")).isNotNull();
+            assertThat(entryNames).anyMatch(name -> name.startsWith("files/" + submission1 + "/") && name.endsWith("Main.java"));
+            assertThat(entryNames).anyMatch(name -> name.startsWith("files/" + submission2 + "/") && name.endsWith("Main.java"));
 
             // it is random which of the following two exists, but one of them must be part of the zip file
-            var json1 = zipFile.getEntry("Submission-2.java-Submission-1.java.json");
-            var json2 = zipFile.getEntry("Submission-1.java-Submission-2.java.json");
+            var json1 = zipFile.getEntry(submission2 + "-" + submission1 + ".json");
+            var json2 = zipFile.getEntry(submission1 + "-" + submission2 + ".json");
             assertTrue(json1 != null || json2 != null);
         }
     }
@@ -1692,7 +1694,13 @@ class ProgrammingExerciseIntegrationTestService {
         assertThat(comparison.getMatches()).hasSize(1);
     }
 
-    private void prepareTwoRepositoriesForPlagiarismChecks(ProgrammingExercise programmingExercise) throws IOException, GitAPIException {
+    /**
+     * Prepares two student participations with the same program in their repositories. The repositories are mirrored from bare origin repositories on the local disk.
+     *
+     * @return the two participations
+     */
+    private List<ProgrammingExerciseStudentParticipation> prepareTwoRepositoriesForPlagiarismChecks(ProgrammingExercise programmingExercise)
+            throws IOException, GitAPIException {
         var participationStudent1 = database.addStudentParticipationForProgrammingExercise(programmingExercise, userPrefix + "student1");
         var participationStudent2 = database.addStudentParticipationForProgrammingExercise(programmingExercise, userPrefix + "student2");
         var submissionStudent1 = database.createProgrammingSubmission(participationStudent1, false);
@@ -1736,19 +1744,38 @@ class ProgrammingExerciseIntegrationTestService {
                 }
                 """;
 
-        Files.createDirectories(Path.of(jPlagReposDir, projectKey));
-        Path file1 = Files.createFile(Path.of(jPlagReposDir, projectKey, "Submission-1.java"));
-        Files.writeString(file1, exampleProgram);
-        Path file2 = Files.createFile(Path.of(jPlagReposDir, projectKey, "Submission-2.java"));
-        Files.writeString(file2, exampleProgram);
-
         doReturn(jPlagReposDir).when(fileService).getUniquePathString(any());
         doReturn(null).when(urlService).getRepositorySlugFromRepositoryUrl(any());
 
-        var repository1 = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepoFile.toPath(), null);
-        var repository2 = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepoFile2.toPath(), null);
-        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getVcsRepositoryUrl()), anyString(), anyBoolean());
-        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getVcsRepositoryUrl()), anyString(), anyBoolean());
+        // the plagiarism checks export the repositories from their mirrors, which are fetched from the local origins instead of the version control system
+        for (var participation : List.of(participationStudent1, participationStudent2)) {
+            var originRepositoryUrl = createOriginRepositoryForPlagiarismChecks(participation, exampleProgram);
+            doAnswer(invocation -> gitService.fetchOrCloneMirror(originRepositoryUrl, invocation.getArgument(1))).when(gitService)
+                    .fetchOrCloneMirror(eq(participation.getVcsRepositoryUrl()), any());
+        }
+        return List.of(participationStudent1, participationStudent2);
+    }
+
+    /**
+     * Creates a bare origin repository for the given participation, whose default branch contains the given program
+     *
+     * @return the url of the origin repository
+     */
+    private VcsRepositoryUrl createOriginRepositoryForPlagiarismChecks(ProgrammingExerciseStudentParticipation participation, String program)
+            throws IOException, GitAPIException {
+        var originRepoFile = Path.of(repoDownloadClonePath, "jplag-origins", participation.getId() + ".git").toFile();
+        var workTree = Files.createTempDirectory("jplag-repo").toFile();
+        try (Git origin = Git.init().setBare(true).setDirectory(originRepoFile).setInitialBranch(defaultBranch).call();
+                Git git = LocalRepository.initialize(workTree, defaultBranch)) {
+            Files.writeString(workTree.toPath().resolve("Main.java"), program);
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Add Main.java").setSign(false).setAuthor("test", "test@test.com").call();
+            git.push().setRemote(originRepoFile.toURI().toString()).setRefSpecs(new RefSpec(defaultBranch + ":" + defaultBranch)).call();
+        }
+        finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+        return new VcsRepositoryUrl(originRepoFile);
     }
 
     void testGetPlagiarismResult() throws Exception {
@@ -179,6 +179,30 @@ class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBambooBitbu
         assertThat(submissionRepository.countByExerciseIdSubmitted(quizExercise.getId())).isEqualTo(numberOfStudentsInTest);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testQuizSubmitThroughput() {
+        final int numberOfStudents = 200;
+        final String throughputPrefix = TEST_PREFIX + "throughput";
+        database.addUsers(throughputPrefix, numberOfStudents, 0, 0, 0);
+        QuizExercise quizExercise = quizExerciseService.save(setupQuizExerciseParameters());
+
+        for (int i = 1; i <= numberOfStudents; i++) {
+            QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, i, true, null);
+            final var username = throughputPrefix + "student" + i;
+            quizSubmissionWebsocketService.saveSubmission(quizExercise.getId(), quizSubmission, () -> username);
+        }
+
+        long start = System.nanoTime();
+        quizScheduleService.processCachedQuizSubmissions();
+        double durationInSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Persisted {} quiz submissions in {} s ({} submissions per second)", numberOfStudents, String.format("%.3f", durationInSeconds),
+                String.format("%.1f", numberOfStudents / durationInSeconds));
+
+        assertThat(submissionRepository.countByExerciseIdSubmitted(quizExercise.getId())).isEqualTo(numberOfStudents);
+        assertThat(resultRepository.findAllByExerciseId(quizExercise.getId())).hasSize(numberOfStudents);
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "student2", roles = "USER")
     void testQuizSubmit_partial_points() {
@@ -314,6 +338,29 @@ class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBambooBitbu
         assertThat(participationRepository.findByExerciseId(quizExercise.getId())).hasSize(numberOfParticipants);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student3", roles = "USER")
+    void testQuizSubmitLiveMode_shouldSaveStatisticsWhileQuizIsRunning() throws Exception {
+        List<Course> courses = database.createCoursesWithExercisesAndLectures(TEST_PREFIX, false, 5);
+        QuizExercise quizExercise = database.createQuiz(courses.get(0), ZonedDateTime.now().minusSeconds(10), null, QuizMode.SYNCHRONIZED);
+        quizExercise.setDuration(600);
+        quizExercise = quizExerciseService.save(quizExercise);
+
+        int numberOfParticipants = 3;
+        for (int i = 1; i <= numberOfParticipants; i++) {
+            database.changeUser(TEST_PREFIX + "student" + i);
+            QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, i, false, null);
+            request.postWithResponseBody("/api/exercises/" + quizExercise.getId() + "/submissions/live", quizSubmission, QuizSubmission.class, HttpStatus.OK);
+        }
+
+        quizScheduleService.processCachedQuizSubmissions();
+
+        // the statistic changes are saved periodically, so they do not only exist in the distributed cache until the quiz ends
+        QuizExercise quizExerciseWithStatistic = quizExerciseRepository.findOneWithQuestionsAndStatistics(quizExercise.getId());
+        assertThat(quizExerciseWithStatistic.isQuizEnded()).isFalse();
+        assertThat(quizExerciseWithStatistic.getQuizPointStatistic().getParticipantsRated()).isEqualTo(numberOfParticipants);
+    }
+
     private void joinQuizBatch(QuizExercise quizExercise, QuizBatch batch, String username) {
         var user = new User();
         user.setLogin(username);
@@ -0,0 +1,60 @@
+package de.tum.in.www1.artemis.quiz.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the latencies of one measured step of the quiz load test (e.g. the time until the quiz start arrives at a client) from many threads
+ */
+class LatencyRecorder {
+
+    private final String name;
+
+    private final Queue<Long> latenciesInNanos = new ConcurrentLinkedQueue<>();
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param startNanos the {@link System#nanoTime()} when the measured step started
+     * @param endNanos   the {@link System#nanoTime()} when the measured step was completed
+     */
+    void record(long startNanos, long endNanos) {
+        latenciesInNanos.add(Math.max(0, endNanos - startNanos));
+    }
+
+    int count() {
+        return latenciesInNanos.size();
+    }
+
+    /**
+     * @return the count and the percentiles of all latencies recorded so far
+     */
+    Summary summarize() {
+        List<Long> sorted = new ArrayList<>(latenciesInNanos);
+        sorted.sort(null);
+        return new Summary(name, sorted.size(), percentile(sorted, 0), percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+    }
+
+    private static Duration percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return Duration.ZERO;
+        }
+        // nearest-rank method
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return Duration.ofNanos(sorted.get(Math.max(0, rank - 1)));
+    }
+
+    record Summary(String name, int count, Duration min, Duration p50, Duration p90, Duration p99, Duration max) {
+
+        @Override
+        public String toString() {
+            return String.format("%-28s count=%6d  min=%8d ms  p50=%8d ms  p90=%8d ms  p99=%8d ms  max=%8d ms", name, count, min.toMillis(), p50.toMillis(), p90.toMillis(),
+                    p99.toMillis(), max.toMillis());
+        }
+    }
+}
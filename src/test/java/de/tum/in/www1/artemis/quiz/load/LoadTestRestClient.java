@@ -0,0 +1,66 @@
+package de.tum.in.www1.artemis.quiz.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.security.jwt.JWTFilter;
+
+/**
+ * A minimal asynchronous REST client for the load test, which authenticates each request with the JWT cookie of the simulated user (like the browser does)
+ */
+class LoadTestRestClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+    private final String baseUrl;
+
+    private final ObjectMapper objectMapper;
+
+    LoadTestRestClient(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sends a JSON request to the server
+     *
+     * @param method       the HTTP method, e.g. PUT
+     * @param path         the path of the REST endpoint, e.g. /api/quiz-exercises/1/start-now
+     * @param jwt          the token of the user who sends the request
+     * @param body         the body of the request that is sent as JSON, or null
+     * @param responseType the type the response body is converted to
+     * @param <T>          the type of the response body
+     * @return a future of the response body, which fails if the server does not respond with a 2xx status
+     */
+    <T> CompletableFuture<T> request(String method, String path, String jwt, Object body, Class<T> responseType) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60)).header("Content-Type", "application/json")
+                    .header("Cookie", JWTFilter.JWT_COOKIE_NAME + "=" + jwt)
+                    .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        }
+        catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException(method + " " + path + " failed with status " + response.statusCode() + ": " + new String(response.body()));
+            }
+            try {
+                return responseType == Void.class || response.body().length == 0 ? null : objectMapper.readValue(response.body(), responseType);
+            }
+            catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,309 @@
+package de.tum.in.www1.artemis.quiz.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.enumeration.QuizMode;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.QuizBatch;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.repository.QuizExerciseRepository;
+import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.security.Role;
+import de.tum.in.www1.artemis.security.jwt.TokenProvider;
+import de.tum.in.www1.artemis.service.QuizExerciseService;
+import de.tum.in.www1.artemis.web.rest.dto.QuizBatchJoinDTO;
+
+/**
+ * Simulates a lecture hall quiz with many students that are connected via STOMP over websockets, to get a reproducible baseline for changes of the
+ * quiz processing (e.g. in the QuizScheduleService). The server runs with the simple broker and the embedded test database.
+ * <p>
+ * Each simulated student receives the quiz start, (in BATCHED mode after joining the batch) sends several answer updates via websocket and submits via REST.
+ * The test reports the latencies of the quiz start, of the persisted result after the submit and (in SYNCHRONIZED mode) of the result delivery after the quiz end.
+ * <p>
+ * The test is excluded from ./gradlew test, run it with e.g. ./gradlew quizLoadTest -Dartemis.load-test.clients=500 -Dartemis.load-test.mode=BATCHED
+ * The report is logged and written to build/reports/quiz-load-test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class QuizLoadTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizLoadTest.class);
+
+    private static final String TEST_PREFIX = "quizloadtest";
+
+    private static final String PROPERTY_PREFIX = "artemis.load-test.";
+
+    private static final int NUMBER_OF_CLIENTS = Integer.getInteger(PROPERTY_PREFIX + "clients", 200);
+
+    private static final int ANSWER_UPDATES_PER_CLIENT = Integer.getInteger(PROPERTY_PREFIX + "answer-updates", 5);
+
+    private static final int QUIZ_DURATION_IN_SECONDS = Integer.getInteger(PROPERTY_PREFIX + "quiz-duration", 30);
+
+    private static final QuizMode QUIZ_MODE = QuizMode.valueOf(System.getProperty(PROPERTY_PREFIX + "mode", QuizMode.SYNCHRONIZED.name()));
+
+    /**
+     * The simulated students think for a random time up to this value before each answer update and before the submit
+     */
+    private static final int MAX_THINK_TIME_MILLIS = Integer.getInteger(PROPERTY_PREFIX + "max-think-time", 1000);
+
+    private static final long STEP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(Integer.getInteger(PROPERTY_PREFIX + "step-timeout", 120));
+
+    private static final Path REPORT_DIRECTORY = Path.of("build", "reports", "quiz-load-test");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QuizExerciseService quizExerciseService;
+
+    @Autowired
+    private QuizExerciseRepository quizExerciseRepository;
+
+    @Autowired
+    private StudentParticipationRepository studentParticipationRepository;
+
+    private final List<SimulatedQuizClient> clients = new ArrayList<>();
+
+    private final ScheduledExecutorService clientExecutor = Executors.newScheduledThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private final Random random = new Random(42);
+
+    private WebSocketStompClient stompClient;
+
+    @AfterEach
+    void tearDown() {
+        clients.forEach(SimulatedQuizClient::disconnect);
+        clientExecutor.shutdownNow();
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void simulateLectureHallQuiz() throws Exception {
+        log.info("Starting quiz load test with {} clients in {} mode, {} answer updates per client and a quiz duration of {} s", NUMBER_OF_CLIENTS, QUIZ_MODE,
+                ANSWER_UPDATES_PER_CLIENT, QUIZ_DURATION_IN_SECONDS);
+        database.addUsers(TEST_PREFIX, NUMBER_OF_CLIENTS, 0, 0, 1);
+        var restClient = new LoadTestRestClient("http://localhost:" + port, objectMapper);
+        String instructorJwt = createToken(TEST_PREFIX + "instructor1", Role.INSTRUCTOR);
+
+        // the quiz is visible, but not started yet
+        Course course = database.createCourse();
+        QuizExercise quizExercise = database.createQuiz(course, ZonedDateTime.now().minusMinutes(1), null, QUIZ_MODE);
+        if (QUIZ_MODE == QuizMode.SYNCHRONIZED) {
+            quizExercise.getQuizBatches().forEach(batch -> batch.setStartTime(null));
+        }
+        quizExercise.setDuration(QUIZ_DURATION_IN_SECONDS);
+        quizExercise = quizExerciseService.save(quizExercise);
+        final long quizExerciseId = quizExercise.getId();
+        final QuizExercise quizWithQuestions = quizExerciseRepository.findByIdWithQuestionsElseThrow(quizExerciseId);
+
+        // 1. connect all clients
+        stompClient = createStompClient();
+        String websocketUrl = "ws://localhost:" + port + "/websocket";
+        for (int i = 1; i <= NUMBER_OF_CLIENTS; i++) {
+            String login = TEST_PREFIX + "student" + i;
+            clients.add(new SimulatedQuizClient(login, createToken(login, Role.STUDENT)));
+        }
+        long connectStart = System.nanoTime();
+        CompletableFuture.allOf(clients.stream().map(client -> client.connect(stompClient, websocketUrl)).toArray(CompletableFuture[]::new)).get(STEP_TIMEOUT_MILLIS,
+                TimeUnit.MILLISECONDS);
+        log.info("Connected {} clients in {} ms", clients.size(), SimulatedQuizClient.millisSince(connectStart));
+
+        // 2. join the batch (only in BATCHED mode, synchronized quizzes have one implicit batch) and subscribe to the quiz start and the result
+        String quizStartTopic = "/topic/courses/" + course.getId() + "/quizExercises";
+        QuizBatch batch = null;
+        if (QUIZ_MODE == QuizMode.BATCHED) {
+            batch = restClient.request("PUT", "/api/quiz-exercises/" + quizExerciseId + "/add-batch", instructorJwt, null, QuizBatch.class).get();
+            quizStartTopic = quizStartTopic + "/" + batch.getId();
+            var joinRequest = new QuizBatchJoinDTO(batch.getPassword());
+            CompletableFuture.allOf(clients.stream().map(client -> restClient.request("POST", "/api/quiz-exercises/" + quizExerciseId + "/join", client.getJwt(), joinRequest,
+                    QuizBatch.class)).toArray(CompletableFuture[]::new)).get(STEP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        for (var client : clients) {
+            client.subscribe(quizStartTopic, quizExerciseId);
+        }
+        // give the broker some time to register all subscriptions
+        Thread.sleep(1000);
+
+        // 3. start the quiz and wait until all clients received the start
+        long quizStartNanos = System.nanoTime();
+        Instant quizStartInstant = Instant.now();
+        long quizEndNanos = 0;
+        if (QUIZ_MODE == QuizMode.BATCHED) {
+            restClient.request("PUT", "/api/quiz-exercises/" + batch.getId() + "/start-batch", instructorJwt, null, QuizBatch.class).get();
+        }
+        else {
+            var startedQuiz = restClient.request("PUT", "/api/quiz-exercises/" + quizExerciseId + "/start-now", instructorJwt, null, QuizExercise.class).get();
+            // the results are sent when the due date (including the grace period) has passed, the delivery latency is measured from this point in time
+            quizEndNanos = quizStartNanos + Duration.between(quizStartInstant, startedQuiz.getDueDate().toInstant()).toNanos();
+        }
+        awaitClients(SimulatedQuizClient::hasReceivedQuizStart, "quiz start");
+
+        // 4. every client sends its answer updates with some think time in between and submits afterwards
+        for (int i = 0; i < clients.size(); i++) {
+            simulateAnswering(clients.get(i), i + 1, quizWithQuestions, restClient);
+        }
+
+        // 5. wait until the results of all clients have been persisted
+        var resultPoller = clientExecutor.scheduleWithFixedDelay(() -> pollPersistedResults(quizExerciseId), 0, 250, TimeUnit.MILLISECONDS);
+        awaitClients(SimulatedQuizClient::isResultPersisted, "persisted result");
+        resultPoller.cancel(false);
+
+        // 6. wait until all clients received their result (only synchronized quizzes send the results at the end of the quiz)
+        if (QUIZ_MODE == QuizMode.SYNCHRONIZED) {
+            awaitClients(SimulatedQuizClient::hasReceivedResult, "result delivery");
+        }
+
+        var quizStartLatency = new LatencyRecorder("quiz start (start -> client)");
+        var persistLatency = new LatencyRecorder("result persisted (submit -> db)");
+        var deliveryLatency = new LatencyRecorder("result delivery (end -> client)");
+        for (var client : clients) {
+            quizStartLatency.record(quizStartNanos, client.getQuizStartReceivedNanos());
+            persistLatency.record(client.getSubmitSentNanos(), client.getResultPersistedNanos());
+            if (client.hasReceivedResult()) {
+                deliveryLatency.record(quizEndNanos, client.getResultReceivedNanos());
+            }
+        }
+        writeReport(List.of(quizStartLatency.summarize(), persistLatency.summarize(), deliveryLatency.summarize()));
+
+        assertThat(quizStartLatency.count()).isEqualTo(NUMBER_OF_CLIENTS);
+        assertThat(persistLatency.count()).isEqualTo(NUMBER_OF_CLIENTS);
+        if (QUIZ_MODE == QuizMode.SYNCHRONIZED) {
+            assertThat(deliveryLatency.count()).isEqualTo(NUMBER_OF_CLIENTS);
+        }
+    }
+
+    private WebSocketStompClient createStompClient() {
+        var sockJsClient = new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())));
+        var client = new WebSocketStompClient(sockJsClient);
+        var jacksonConverter = new MappingJackson2MessageConverter();
+        jacksonConverter.setObjectMapper(objectMapper);
+        client.setMessageConverter(new CompositeMessageConverter(List.of(new ByteArrayMessageConverter(), jacksonConverter)));
+        var taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(2);
+        taskScheduler.setThreadNamePrefix("quiz-load-test-heartbeat-");
+        taskScheduler.initialize();
+        client.setTaskScheduler(taskScheduler);
+        return client;
+    }
+
+    private String createToken(String login, Role role) {
+        var authentication = new UsernamePasswordAuthenticationToken(login, null, List.of(new SimpleGrantedAuthority(role.getAuthority())));
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    /**
+     * Schedules the answer updates and the submit of one client, each after a random think time
+     */
+    private void simulateAnswering(SimulatedQuizClient client, int studentNumber, QuizExercise quizExercise, LoadTestRestClient restClient) {
+        long delay = 0;
+        for (int update = 0; update < ANSWER_UPDATES_PER_CLIENT; update++) {
+            delay += random.nextInt(MAX_THINK_TIME_MILLIS + 1);
+            // the answers change with every update, like a student who changes their mind
+            QuizSubmission answers = database.generateSubmissionForThreeQuestions(quizExercise, studentNumber + update, false, null);
+            clientExecutor.schedule(() -> client.sendAnswers(quizExercise.getId(), answers), delay, TimeUnit.MILLISECONDS);
+        }
+        delay += random.nextInt(MAX_THINK_TIME_MILLIS + 1);
+        QuizSubmission submission = database.generateSubmissionForThreeQuestions(quizExercise, studentNumber, true, null);
+        clientExecutor.schedule(() -> {
+            client.markSubmitSent();
+            restClient.request("POST", "/api/exercises/" + quizExercise.getId() + "/submissions/live", client.getJwt(), submission, Void.class).exceptionally(error -> {
+                log.error("Submit of simulated client {} failed: {}", client.getLogin(), error.getMessage());
+                return null;
+            });
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void pollPersistedResults(long quizExerciseId) {
+        try {
+            long now = System.nanoTime();
+            Set<String> loginsWithResult = studentParticipationRepository.findByExerciseIdWithLatestAutomaticResultAndFeedbacks(quizExerciseId).stream()
+                    .map(StudentParticipation::getParticipantIdentifier).collect(Collectors.toSet());
+            clients.stream().filter(client -> loginsWithResult.contains(client.getLogin())).forEach(client -> client.markResultPersisted(now));
+        }
+        catch (Exception e) {
+            log.warn("Could not poll the persisted results: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Waits until the given condition is fulfilled for all clients, but at most {@link #STEP_TIMEOUT_MILLIS} (the report is written nevertheless)
+     */
+    private void awaitClients(Predicate<SimulatedQuizClient> condition, String step) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(STEP_TIMEOUT_MILLIS);
+        long completed = 0;
+        while (System.nanoTime() < deadline) {
+            completed = clients.stream().filter(condition).count();
+            if (completed == clients.size()) {
+                log.info("All {} clients completed the step '{}' after {} ms", completed, step, SimulatedQuizClient.millisSince(start));
+                return;
+            }
+            Thread.sleep(100);
+        }
+        log.warn("Only {} of {} clients completed the step '{}' within {} ms", completed, clients.size(), step, STEP_TIMEOUT_MILLIS);
+    }
+
+    private void writeReport(List<LatencyRecorder.Summary> summaries) throws IOException {
+        String header = String.format("Quiz load test: %d clients, %s mode, %d answer updates per client, quiz duration %d s", NUMBER_OF_CLIENTS, QUIZ_MODE,
+                ANSWER_UPDATES_PER_CLIENT, QUIZ_DURATION_IN_SECONDS);
+        log.info("{}\n{}", header, summaries.stream().map(LatencyRecorder.Summary::toString).collect(Collectors.joining("\n")));
+
+        var report = new LinkedHashMap<String, Object>();
+        report.put("timestamp", ZonedDateTime.now().toString());
+        report.put("clients", NUMBER_OF_CLIENTS);
+        report.put("mode", QUIZ_MODE);
+        report.put("answerUpdatesPerClient", ANSWER_UPDATES_PER_CLIENT);
+        report.put("quizDurationInSeconds", QUIZ_DURATION_IN_SECONDS);
+        var latencies = new LinkedHashMap<String, Object>();
+        for (var summary : summaries) {
+            latencies.put(summary.name(), Map.of("count", summary.count(), "minMillis", summary.min().toMillis(), "p50Millis", summary.p50().toMillis(), "p90Millis",
+                    summary.p90().toMillis(), "p99Millis", summary.p99().toMillis(), "maxMillis", summary.max().toMillis()));
+        }
+        report.put("latencies", latencies);
+        Files.createDirectories(REPORT_DIRECTORY);
+        Path reportFile = REPORT_DIRECTORY.resolve("quiz-load-test-" + QUIZ_MODE.name().toLowerCase() + "-" + NUMBER_OF_CLIENTS + "-" + System.currentTimeMillis() + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        log.info("Wrote the quiz load test report to {}", reportFile.toAbsolutePath());
+    }
+}
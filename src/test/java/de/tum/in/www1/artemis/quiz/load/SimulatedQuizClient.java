@@ -0,0 +1,174 @@
+package de.tum.in.www1.artemis.quiz.load;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.security.jwt.JWTFilter;
+
+/**
+ * A simulated student in the quiz load test, which is connected to the server via STOMP over a websocket like the browser client.
+ * <p>
+ * The client records the {@link System#nanoTime()} of the events the load test measures, so that the latencies can be computed afterwards.
+ */
+class SimulatedQuizClient {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulatedQuizClient.class);
+
+    private final String login;
+
+    private final String jwt;
+
+    private StompSession session;
+
+    private volatile long quizStartReceivedNanos;
+
+    private volatile long submitSentNanos;
+
+    private volatile long resultPersistedNanos;
+
+    private volatile long resultReceivedNanos;
+
+    SimulatedQuizClient(String login, String jwt) {
+        this.login = login;
+        this.jwt = jwt;
+    }
+
+    String getLogin() {
+        return login;
+    }
+
+    String getJwt() {
+        return jwt;
+    }
+
+    /**
+     * Opens the websocket connection, authenticated with the JWT cookie of the simulated student
+     *
+     * @param stompClient  the client shared by all simulated students
+     * @param websocketUrl the url of the websocket endpoint of the server
+     * @return a future that completes once the STOMP session is connected
+     */
+    CompletableFuture<Void> connect(WebSocketStompClient stompClient, String websocketUrl) {
+        var headers = new WebSocketHttpHeaders();
+        headers.add("Cookie", JWTFilter.JWT_COOKIE_NAME + "=" + jwt);
+        return stompClient.connect(websocketUrl, headers, new StompSessionHandlerAdapter() {
+
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                log.warn("Transport error of simulated client {}: {}", login, exception.getMessage());
+            }
+        }).completable().thenAccept(connectedSession -> this.session = connectedSession);
+    }
+
+    /**
+     * Subscribes to the topics on which the quiz start and the result of the simulated student are sent
+     *
+     * @param quizStartTopic   the topic on which the started quiz (batch) is sent
+     * @param quizExerciseId   the id of the quiz exercise
+     */
+    void subscribe(String quizStartTopic, long quizExerciseId) {
+        session.subscribe(quizStartTopic, new RecordingFrameHandler(() -> {
+            if (quizStartReceivedNanos == 0) {
+                quizStartReceivedNanos = System.nanoTime();
+            }
+        }));
+        session.subscribe("/user/topic/exercise/" + quizExerciseId + "/participation", new RecordingFrameHandler(() -> {
+            if (resultReceivedNanos == 0) {
+                resultReceivedNanos = System.nanoTime();
+            }
+        }));
+    }
+
+    /**
+     * Sends the current answers of the simulated student via websocket, like the browser does after every change
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     * @param quizSubmission the current (not submitted) answers
+     */
+    void sendAnswers(long quizExerciseId, QuizSubmission quizSubmission) {
+        session.send("/topic/quizExercise/" + quizExerciseId + "/submission", quizSubmission);
+    }
+
+    void markSubmitSent() {
+        submitSentNanos = System.nanoTime();
+    }
+
+    void markResultPersisted(long nanos) {
+        if (resultPersistedNanos == 0) {
+            resultPersistedNanos = nanos;
+        }
+    }
+
+    boolean hasReceivedQuizStart() {
+        return quizStartReceivedNanos != 0;
+    }
+
+    boolean isResultPersisted() {
+        return resultPersistedNanos != 0;
+    }
+
+    boolean hasReceivedResult() {
+        return resultReceivedNanos != 0;
+    }
+
+    long getQuizStartReceivedNanos() {
+        return quizStartReceivedNanos;
+    }
+
+    long getSubmitSentNanos() {
+        return submitSentNanos;
+    }
+
+    long getResultPersistedNanos() {
+        return resultPersistedNanos;
+    }
+
+    long getResultReceivedNanos() {
+        return resultReceivedNanos;
+    }
+
+    /**
+     * Closes the websocket connection
+     */
+    void disconnect() {
+        if (session != null && session.isConnected()) {
+            try {
+                session.disconnect();
+            }
+            catch (Exception e) {
+                log.debug("Could not disconnect simulated client {}: {}", login, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Only records the arrival of a message, the payload is not needed for the measurement
+     */
+    private record RecordingFrameHandler(Runnable onFrame) implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            onFrame.run();
+        }
+    }
+
+    /**
+     * @return the elapsed time since the given start in milliseconds, for logging
+     */
+    static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,49 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
+
+class QuizMessagingServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final SimpMessageSendingOperations messagingTemplate = mock(SimpMessageSendingOperations.class);
+
+    private final QuizMessagingService quizMessagingService = new QuizMessagingService(new MappingJackson2HttpMessageConverter(objectMapper),
+            mock(GroupNotificationService.class), messagingTemplate);
+
+    @Test
+    void testSendParticipationWithSharedExercise_shouldSendParticipationIncludingExercise() throws Exception {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(2L);
+        quizExercise.setTitle("Quiz");
+        StudentParticipation participation = new StudentParticipation();
+        participation.setId(3L);
+        participation.setExercise(quizExercise);
+
+        byte[] sharedExercise = quizMessagingService.serializeSharedExercise(quizExercise);
+        quizMessagingService.sendParticipationWithSharedExercise("student1", 2L, participation, sharedExercise);
+
+        ArgumentCaptor<Message<?>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/user/student1/topic/exercise/2/participation"), messageCaptor.capture());
+        verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any());
+        JsonNode sentParticipation = objectMapper.readTree((byte[]) messageCaptor.getValue().getPayload());
+        assertThat(sentParticipation.get("id").asLong()).isEqualTo(3L);
+        assertThat(sentParticipation.get("exercise").get("id").asLong()).isEqualTo(2L);
+        assertThat(sentParticipation.get("exercise").get("title").asText()).isEqualTo("Quiz");
+    }
+}
@@ -0,0 +1,87 @@
+package de.tum.in.www1.artemis.service.compass.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import de.tum.in.www1.artemis.domain.modeling.ModelCluster;
+import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.util.FileUtils;
+import de.tum.in.www1.artemis.util.ModelFactory;
+
+class UniqueElementIndexTest {
+
+    private static final int NUMBER_OF_SUBMISSIONS = 100;
+
+    private final Random random = new Random(42);
+
+    @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
+    @ValueSource(strings = { "model.54727.json", "example-class-diagram.json", "example-activity-diagram.json", "example-communication-diagram.json",
+            "example-component-diagram.json", "example-deployment-diagram.json", "example-flowchart-diagram.json", "example-object-diagram.json",
+            "example-petri-net-diagram.json", "example-syntax-tree-diagram.json", "use-case-model.json" })
+    void testBuildClusters_withIndex_shouldEqualComparingAllElements(String modelFile) throws Exception {
+        String model = FileUtils.loadFileFromResources("test-data/model-submission/" + modelFile);
+        List<String> models = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_SUBMISSIONS; i++) {
+            models.add(renameElementsRandomly(model));
+        }
+
+        var modelClusterFactory = new ModelClusterFactory();
+        var indexedClusters = modelClusterFactory.buildClusters(createSubmissions(models), new ModelingExercise(), new UniqueElementIndex());
+        var referenceClusters = modelClusterFactory.buildClusters(createSubmissions(models), new ModelingExercise(), UniqueElementIndex.withoutBlocking());
+
+        assertThat(indexedClusters).isNotEmpty();
+        assertThat(toElementSets(indexedClusters)).isEqualTo(toElementSets(referenceClusters));
+    }
+
+    private static List<ModelingSubmission> createSubmissions(List<String> models) {
+        List<ModelingSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < models.size(); i++) {
+            ModelingSubmission submission = ModelFactory.generateModelingSubmission(models.get(i), true);
+            submission.setId(i + 1L);
+            submissions.add(submission);
+        }
+        return submissions;
+    }
+
+    private static Set<Set<String>> toElementSets(List<ModelCluster> clusters) {
+        return clusters.stream().map(cluster -> cluster.getModelElements().stream()
+                .map(modelElement -> modelElement.getSubmission().getId() + "/" + modelElement.getModelElementId()).collect(Collectors.toSet())).collect(Collectors.toSet());
+    }
+
+    /**
+     * Renames some elements slightly (similar to typos of students), so that the name similarities are close to the equality threshold
+     */
+    private String renameElementsRandomly(String model) {
+        JsonObject modelObject = JsonParser.parseString(model).getAsJsonObject();
+        for (JsonElement element : modelObject.getAsJsonArray("elements")) {
+            JsonObject elementObject = element.getAsJsonObject();
+            if (elementObject.has("name") && elementObject.get("name").isJsonPrimitive() && random.nextBoolean()) {
+                elementObject.addProperty("name", rename(elementObject.get("name").getAsString()));
+            }
+        }
+        return modelObject.toString();
+    }
+
+    private String rename(String name) {
+        if (name.isEmpty()) {
+            return "x";
+        }
+        int position = random.nextInt(name.length());
+        return switch (random.nextInt(4)) {
+            case 0 -> name.substring(0, position) + name.substring(position + 1);
+            case 1 -> name.substring(0, position) + (char) ('a' + random.nextInt(26)) + name.substring(position);
+            case 2 -> name.substring(0, position) + (char) ('a' + random.nextInt(26)) + name.substring(position + 1);
+            default -> name + "s";
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package de.tum.in.www1.artemis.service.compass.umlmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import de.tum.in.www1.artemis.service.compass.strategy.NameSimilarity;
+import de.tum.in.www1.artemis.service.compass.umlmodel.classdiagram.UMLMethod;
+import de.tum.in.www1.artemis.service.compass.umlmodel.parsers.UMLModelParser;
+import de.tum.in.www1.artemis.service.compass.umlmodel.usecase.UMLUseCaseAssociation;
+import de.tum.in.www1.artemis.util.FileUtils;
+
+class UMLElementNameSimilarityWeightTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /**
+     * Renames every element of the model separately and compares the similarity of the renamed element to the original element with its name similarity. As all other
+     * properties of the element stay the same, the similarity is {@code weight * nameSimilarity + (1 - weight)} and the weight can be calculated from it.
+     */
+    @ParameterizedTest(name = "{displayName} [{index}] {argumentsWithNames}")
+    @ValueSource(strings = { "model.54727.json", "example-class-diagram.json", "example-activity-diagram.json", "example-communication-diagram.json",
+            "example-component-diagram.json", "example-deployment-diagram.json", "example-flowchart-diagram.json", "example-object-diagram.json",
+            "example-petri-net-diagram.json", "example-syntax-tree-diagram.json", "use-case-model.json" })
+    void testNameSimilarityWeight_shouldMatchSimilarity(String modelFile) throws Exception {
+        JsonObject model = JsonParser.parseString(FileUtils.loadFileFromResources("test-data/model-submission/" + modelFile)).getAsJsonObject();
+        UMLDiagram originalDiagram = UMLModelParser.buildModelFromJSON(model, 1L);
+        int numberOfComparedElements = 0;
+
+        for (String elementArray : new String[] { "elements", "relationships" }) {
+            for (JsonElement element : model.getAsJsonArray(elementArray)) {
+                JsonObject elementObject = element.getAsJsonObject();
+                if (!elementObject.has("name") || !elementObject.get("name").isJsonPrimitive()) {
+                    continue;
+                }
+                String name = elementObject.get("name").getAsString();
+                elementObject.addProperty("name", "renamed" + name);
+                UMLDiagram renamedDiagram = UMLModelParser.buildModelFromJSON(model, 2L);
+                elementObject.addProperty("name", name);
+
+                String elementId = elementObject.get("id").getAsString();
+                UMLElement original = originalDiagram.getElementByJSONID(elementId);
+                UMLElement renamed = renamedDiagram.getElementByJSONID(elementId);
+                if (original == null) {
+                    // e.g. elements that are not part of the compared model
+                    continue;
+                }
+                assertNameSimilarityWeight(original, renamed);
+                numberOfComparedElements++;
+            }
+        }
+
+        assertThat(numberOfComparedElements).isPositive();
+    }
+
+    private static void assertNameSimilarityWeight(UMLElement original, UMLElement renamed) {
+        double nameSimilarity = NameSimilarity.levenshteinSimilarity(original.getName(), renamed.getName());
+        double similarity = original.similarity(renamed);
+        double weight = original.getNameSimilarityWeight();
+
+        if (nameSimilarity == 1) {
+            // elements without a name return their type as name, which does not change
+            assertThat(weight).as("name similarity weight of %s", original).isZero();
+            return;
+        }
+
+        double observedWeight = (1 - similarity) / (1 - nameSimilarity);
+        if (original instanceof UMLMethod || original instanceof UMLUseCaseAssociation) {
+            // the weight of the name differs between the elements of these types, only a lower weight keeps the bound of the similarity valid
+            assertThat(weight).as("name similarity weight of %s", original).isLessThanOrEqualTo(observedWeight + TOLERANCE);
+        }
+        else {
+            assertThat(weight).as("name similarity weight of %s", original).isCloseTo(observedWeight, within(TOLERANCE));
+        }
+    }
+}
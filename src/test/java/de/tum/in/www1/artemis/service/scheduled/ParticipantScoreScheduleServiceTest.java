@@ -0,0 +1,220 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.partition.MigrationListener;
+import com.hazelcast.partition.MigrationState;
+import com.hazelcast.partition.Partition;
+import com.hazelcast.partition.PartitionService;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.scores.StudentScore;
+import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.LearningGoalProgressService;
+import de.tum.in.www1.artemis.service.StudentCourseScoreService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ParticipantScoreScheduleServiceTest {
+
+    private static final long OWNED_EXERCISE_ID = 1L;
+
+    private static final long OTHER_EXERCISE_ID = 2L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+
+    private final PartitionService partitionService = mock(PartitionService.class);
+
+    private final ITopic<Long[]> topic = mock(ITopic.class);
+
+    private final ParticipantScoreRepository participantScoreRepository = mock(ParticipantScoreRepository.class);
+
+    private final ResultRepository resultRepository = mock(ResultRepository.class);
+
+    /**
+     * The ids of the exercises whose partition is owned by this instance
+     */
+    private final Set<Long> ownedExerciseIds = new HashSet<>(Set.of(OWNED_EXERCISE_ID));
+
+    private final UUID messageListenerId = UUID.randomUUID();
+
+    private final UUID migrationListenerId = UUID.randomUUID();
+
+    private ParticipantScoreScheduleService participantScoreScheduleService;
+
+    @BeforeEach
+    void initTestCase() {
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).scheduleWithFixedDelay(any(Runnable.class), any(Duration.class));
+        when(hazelcastInstance.getPartitionService()).thenReturn(partitionService);
+        doReturn(topic).when(hazelcastInstance).getTopic(any());
+        when(topic.addMessageListener(any())).thenReturn(messageListenerId);
+        when(partitionService.addMigrationListener(any())).thenReturn(migrationListenerId);
+        when(partitionService.getPartition(any())).thenAnswer(invocation -> {
+            Member owner = mock(Member.class);
+            when(owner.localMember()).thenReturn(ownedExerciseIds.contains((Long) invocation.getArgument(0)));
+            Partition partition = mock(Partition.class);
+            when(partition.getOwner()).thenReturn(owner);
+            return partition;
+        });
+        when(participantScoreRepository.getLatestModifiedDate()).thenReturn(Optional.empty());
+
+        participantScoreScheduleService = new ParticipantScoreScheduleService(scheduler, hazelcastInstance, mock(LearningGoalProgressService.class),
+                mock(StudentCourseScoreService.class), participantScoreRepository, mock(StudentScoreRepository.class), mock(TeamScoreRepository.class),
+                mock(ExerciseRepository.class), resultRepository, mock(UserRepository.class), mock(TeamRepository.class), meterRegistry);
+        participantScoreScheduleService.activate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        participantScoreScheduleService.shutdown();
+    }
+
+    @Test
+    void testScheduleTask_ownedExercise_shouldEnqueueLocally() {
+        participantScoreScheduleService.scheduleTask(OWNED_EXERCISE_ID, 10L, null);
+
+        assertThat(pendingUpdates()).isEqualTo(1);
+        verify(topic, never()).publish(any());
+    }
+
+    @Test
+    void testScheduleTask_exerciseOfOtherInstance_shouldForwardToOwner() {
+        participantScoreScheduleService.scheduleTask(OTHER_EXERCISE_ID, 10L, 100L);
+
+        assertThat(pendingUpdates()).isZero();
+        verify(topic).publish(new Long[] { OTHER_EXERCISE_ID, 10L, 100L });
+    }
+
+    @Test
+    void testForwardedUpdate_shouldOnlyBeEnqueuedByOwner() {
+        MessageListener<Long[]> messageListener = captureMessageListener();
+
+        messageListener.onMessage(new Message<>("topic", new Long[] { OTHER_EXERCISE_ID, 10L, null }, 0, null));
+        assertThat(pendingUpdates()).isZero();
+
+        messageListener.onMessage(new Message<>("topic", new Long[] { OWNED_EXERCISE_ID, 10L, null }, 0, null));
+        assertThat(pendingUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    void testPartitionOwnershipChanged_shouldHandOverPendingUpdatesOfMovedExercises() {
+        long movedExerciseId = 3L;
+        ownedExerciseIds.add(movedExerciseId);
+        participantScoreScheduleService.scheduleTask(OWNED_EXERCISE_ID, 10L, null);
+        participantScoreScheduleService.scheduleTask(movedExerciseId, 10L, 100L);
+        participantScoreScheduleService.scheduleTask(movedExerciseId, 10L, 101L);
+        participantScoreScheduleService.scheduleTask(movedExerciseId, 11L, null);
+        assertThat(pendingUpdates()).isEqualTo(3);
+
+        ownedExerciseIds.remove(movedExerciseId);
+        captureMigrationListener().migrationFinished(mock(MigrationState.class));
+
+        assertThat(pendingUpdates()).isEqualTo(1);
+        // the coalesced update keeps all results that are about to be deleted
+        verify(topic).publish(new Long[] { movedExerciseId, 10L, 100L });
+        verify(topic).publish(new Long[] { movedExerciseId, 10L, 101L });
+        verify(topic).publish(new Long[] { movedExerciseId, 11L, null });
+        verify(topic, times(3)).publish(any());
+    }
+
+    @Test
+    void testExecuteScheduledTasks_shouldOnlyLoadOwnedExercises() {
+        when(resultRepository.findExerciseIdsByLastModifiedDateAfter(any())).thenReturn(Set.of(OWNED_EXERCISE_ID, OTHER_EXERCISE_ID));
+        when(resultRepository.findAllByLastModifiedDateAfterAndExerciseIdIn(any(), any())).thenReturn(List.of(result(OWNED_EXERCISE_ID, 10L)));
+        when(participantScoreRepository.findExerciseIdsOfOutdated()).thenReturn(Set.of(OWNED_EXERCISE_ID, OTHER_EXERCISE_ID));
+        when(participantScoreRepository.findAllOutdatedByExerciseIdIn(any())).thenReturn(List.of(studentScore(OWNED_EXERCISE_ID, 11L)));
+
+        participantScoreScheduleService.executeScheduledTasks();
+
+        verify(resultRepository).findAllByLastModifiedDateAfterAndExerciseIdIn(any(), eq(Set.of(OWNED_EXERCISE_ID)));
+        verify(participantScoreRepository).findAllOutdatedByExerciseIdIn(Set.of(OWNED_EXERCISE_ID));
+        assertThat(pendingUpdates()).isEqualTo(2);
+    }
+
+    @Test
+    void testExecuteScheduledTasks_withoutOwnedExercises_shouldNotLoadResults() {
+        when(resultRepository.findExerciseIdsByLastModifiedDateAfter(any())).thenReturn(Set.of(OTHER_EXERCISE_ID));
+        when(participantScoreRepository.findExerciseIdsOfOutdated()).thenReturn(Set.of(OTHER_EXERCISE_ID));
+
+        participantScoreScheduleService.executeScheduledTasks();
+
+        verify(resultRepository, never()).findAllByLastModifiedDateAfterAndExerciseIdIn(any(), any());
+        verify(participantScoreRepository, never()).findAllOutdatedByExerciseIdIn(any());
+        assertThat(pendingUpdates()).isZero();
+    }
+
+    @Test
+    void testShutdown_shouldRemoveListeners() {
+        participantScoreScheduleService.shutdown();
+
+        verify(topic).removeMessageListener(messageListenerId);
+        verify(partitionService).removeMigrationListener(migrationListenerId);
+
+        // the listeners are registered again when the service is activated again
+        participantScoreScheduleService.activate();
+        verify(topic, times(2)).addMessageListener(any());
+        verify(partitionService, times(2)).addMigrationListener(any());
+    }
+
+    private double pendingUpdates() {
+        return meterRegistry.get("artemis.participant_scores.updates.pending").gauge().value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private MessageListener<Long[]> captureMessageListener() {
+        ArgumentCaptor<MessageListener<Long[]>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addMessageListener(captor.capture());
+        return captor.getValue();
+    }
+
+    private MigrationListener captureMigrationListener() {
+        ArgumentCaptor<MigrationListener> captor = ArgumentCaptor.forClass(MigrationListener.class);
+        verify(partitionService).addMigrationListener(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Result result(long exerciseId, long userId) {
+        TextExercise exercise = new TextExercise();
+        exercise.setId(exerciseId);
+        User user = new User();
+        user.setId(userId);
+        StudentParticipation participation = new StudentParticipation();
+        participation.setExercise(exercise);
+        participation.setParticipant(user);
+        Result result = new Result();
+        result.setParticipation(participation);
+        return result;
+    }
+
+    private static StudentScore studentScore(long exerciseId, long userId) {
+        TextExercise exercise = new TextExercise();
+        exercise.setId(exerciseId);
+        User user = new User();
+        user.setId(userId);
+        StudentScore studentScore = new StudentScore();
+        studentScore.setExercise(exercise);
+        studentScore.setUser(user);
+        return studentScore;
+    }
+}
@@ -0,0 +1,257 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import static de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJobStatus.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.cluster.Cluster;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.PlagiarismCheckState;
+import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCheckJob;
+import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismResult;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCheckJobRepository;
+import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismResultRepository;
+import de.tum.in.www1.artemis.service.plagiarism.PlagiarismCheckJobService;
+import de.tum.in.www1.artemis.service.plagiarism.PlagiarismWebsocketService;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PlagiarismCheckJobScheduleServiceTest {
+
+    private static final long TIMEOUT = 5_000;
+
+    private final PlagiarismCheckJobRepository plagiarismCheckJobRepository = mock(PlagiarismCheckJobRepository.class);
+
+    private final PlagiarismResultRepository plagiarismResultRepository = mock(PlagiarismResultRepository.class);
+
+    private final PlagiarismCheckJobService plagiarismCheckJobService = mock(PlagiarismCheckJobService.class);
+
+    private final PlagiarismWebsocketService plagiarismWebsocketService = mock(PlagiarismWebsocketService.class);
+
+    private final HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+
+    /**
+     * The queued jobs of the cluster, a claimed job moves to the running jobs
+     */
+    private final List<PlagiarismCheckJob> queuedJobs = new CopyOnWriteArrayList<>();
+
+    /**
+     * The running jobs of all instances of the cluster
+     */
+    private final List<PlagiarismCheckJob> runningJobs = new CopyOnWriteArrayList<>();
+
+    /**
+     * The started checks block until they are released, so that they count as running while the test dispatches further jobs
+     */
+    private final CountDownLatch releaseChecks = new CountDownLatch(1);
+
+    private Address address;
+
+    private PlagiarismCheckJobScheduleService plagiarismCheckJobScheduleService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void initTestCase() throws Exception {
+        IMap<String, Boolean> dispatchLock = mock(IMap.class);
+        when(dispatchLock.tryLock(any(), anyLong(), any(), anyLong(), any())).thenReturn(true);
+        doReturn(dispatchLock).when(hazelcastInstance).getMap(any());
+        address = new Address("127.0.0.1", 5701);
+        Member member = mock(Member.class);
+        when(member.getAddress()).thenReturn(address);
+        Cluster cluster = mock(Cluster.class);
+        when(cluster.getLocalMember()).thenReturn(member);
+        when(hazelcastInstance.getCluster()).thenReturn(cluster);
+
+        when(plagiarismCheckJobRepository.findAllQueued()).thenAnswer(invocation -> List.copyOf(queuedJobs));
+        when(plagiarismCheckJobRepository.findAllRunning()).thenAnswer(invocation -> List.copyOf(runningJobs));
+        when(plagiarismCheckJobRepository.claim(anyLong(), any(), any())).thenAnswer(invocation -> {
+            long jobId = invocation.getArgument(0);
+            var queuedJob = queuedJobs.stream().filter(job -> job.getId() == jobId).findFirst();
+            queuedJob.ifPresent(job -> {
+                queuedJobs.remove(job);
+                runningJobs.add(job);
+            });
+            return queuedJob.isPresent();
+        });
+        when(plagiarismCheckJobService.checkPlagiarism(any())).thenAnswer(invocation -> {
+            releaseChecks.await();
+            return new TextPlagiarismResult();
+        });
+        when(plagiarismCheckJobService.saveResult(any())).thenAnswer(invocation -> {
+            PlagiarismResult<?> plagiarismResult = invocation.getArgument(0);
+            plagiarismResult.setId(42L);
+            return plagiarismResult;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseChecks.countDown();
+        if (plagiarismCheckJobScheduleService != null) {
+            plagiarismCheckJobScheduleService.shutdown();
+        }
+    }
+
+    @Test
+    void testDispatch_shouldNotExceedGlobalLimit() {
+        createService(2, 2, 0, 0);
+        // a job of another instance
+        runningJobs.add(job(10L, 10L));
+        queuedJobs.addAll(List.of(job(1L, 1L), job(2L, 2L)));
+
+        plagiarismCheckJobScheduleService.dispatch();
+
+        verify(plagiarismCheckJobRepository).claim(eq(1L), any(), any());
+        verify(plagiarismCheckJobRepository, never()).claim(eq(2L), any(), any());
+    }
+
+    @Test
+    void testDispatch_shouldNotExceedLimitOfInstance() {
+        createService(5, 1, 0, 0);
+        queuedJobs.addAll(List.of(job(1L, 1L), job(2L, 2L)));
+
+        plagiarismCheckJobScheduleService.dispatch();
+        plagiarismCheckJobScheduleService.dispatch();
+
+        verify(plagiarismCheckJobRepository).claim(eq(1L), any(), any());
+        verify(plagiarismCheckJobRepository, never()).claim(eq(2L), any(), any());
+        assertThat(queuedJobs).extracting(PlagiarismCheckJob::getId).containsExactly(2L);
+    }
+
+    @Test
+    void testDispatch_shouldRunOneJobPerCourse() {
+        createService(5, 5, 0, 0);
+        // a job of another instance blocks the first course
+        runningJobs.add(job(10L, 1L));
+        queuedJobs.addAll(List.of(job(1L, 1L), job(2L, 2L), job(3L, 2L), job(4L, 3L)));
+
+        plagiarismCheckJobScheduleService.dispatch();
+
+        verify(plagiarismCheckJobRepository, never()).claim(eq(1L), any(), any());
+        verify(plagiarismCheckJobRepository).claim(eq(2L), any(), any());
+        verify(plagiarismCheckJobRepository, never()).claim(eq(3L), any(), any());
+        verify(plagiarismCheckJobRepository).claim(eq(4L), any(), any());
+    }
+
+    @Test
+    void testDispatch_withoutEnoughFreeMemory_shouldOnlyStartFirstJob() {
+        // more free memory than any instance has
+        createService(5, 5, Long.MAX_VALUE / (1024 * 1024), 0);
+        queuedJobs.addAll(List.of(job(1L, 1L), job(2L, 2L)));
+
+        plagiarismCheckJobScheduleService.dispatch();
+
+        // an instance without running jobs always starts a job
+        verify(plagiarismCheckJobRepository).claim(eq(1L), any(), any());
+        verify(plagiarismCheckJobRepository, never()).claim(eq(2L), any(), any());
+    }
+
+    @Test
+    void testRun_shouldSaveResultOfCompletedJob() {
+        createService(1, 1, 0, 0);
+        queuedJobs.add(job(1L, 1L));
+
+        plagiarismCheckJobScheduleService.dispatch();
+        releaseChecks.countDown();
+
+        verify(plagiarismWebsocketService, timeout(TIMEOUT)).notifyInstructorAboutPlagiarismState(any(), eq(PlagiarismCheckState.COMPLETED), any());
+        // the client loads the result when it is notified about the completion, so the result has to be saved before
+        var inOrder = inOrder(plagiarismCheckJobService, plagiarismCheckJobRepository, plagiarismWebsocketService);
+        inOrder.verify(plagiarismCheckJobService).saveResult(any());
+        inOrder.verify(plagiarismCheckJobRepository).finish(eq(1L), eq(address.toString()), any(), eq(COMPLETED), isNull(), isNull(), eq(42L));
+        inOrder.verify(plagiarismWebsocketService).notifyInstructorAboutPlagiarismState(any(), eq(PlagiarismCheckState.COMPLETED), any());
+    }
+
+    @Test
+    void testCancelRunningJob_shouldDiscardResult() throws Exception {
+        createService(1, 1, 0, 0);
+        // the check ignores the interrupt of the cancellation and still returns its result
+        when(plagiarismCheckJobService.checkPlagiarism(any())).thenAnswer(invocation -> {
+            while (true) {
+                try {
+                    releaseChecks.await();
+                    return new TextPlagiarismResult();
+                }
+                catch (InterruptedException ex) {
+                    // keep waiting until the test releases the check
+                }
+            }
+        });
+        queuedJobs.add(job(1L, 1L));
+        plagiarismCheckJobScheduleService.dispatch();
+        verify(plagiarismCheckJobService, timeout(TIMEOUT)).checkPlagiarism(any());
+
+        when(plagiarismCheckJobRepository.findIdsWithCancellationRequested(any())).thenReturn(Set.of(1L));
+        plagiarismCheckJobScheduleService.processJobs();
+        releaseChecks.countDown();
+
+        verify(plagiarismCheckJobRepository, timeout(TIMEOUT)).finish(eq(1L), eq(address.toString()), any(), eq(CANCELLED), isNull(), isNull(), isNull());
+        verify(plagiarismCheckJobService, never()).saveResult(any());
+    }
+
+    @Test
+    void testStartup_shouldRequeueJobsOfRestartedInstance() {
+        createService(1, 1, 0, 0);
+
+        plagiarismCheckJobScheduleService.startup();
+
+        verify(plagiarismCheckJobRepository).requeueStaleJobs(any(), eq(address.toString()), eq(2), any());
+    }
+
+    @Test
+    void testAwaitResult_jobNotFinishedWithinTimeout_shouldReturnEmpty() {
+        createService(1, 1, 0, 0);
+        var job = job(1L, 1L);
+        when(plagiarismCheckJobRepository.findByIdElseThrow(1L)).thenReturn(job);
+
+        assertThat(plagiarismCheckJobScheduleService.awaitResult(job)).isEmpty();
+    }
+
+    @Test
+    void testAwaitResult_resultDeleted_shouldThrowNotFound() {
+        createService(1, 1, 0, 0);
+        var job = mock(PlagiarismCheckJob.class);
+        when(job.getId()).thenReturn(1L);
+        when(job.getStatus()).thenReturn(COMPLETED);
+        when(job.getPlagiarismResultId()).thenReturn(42L);
+        when(plagiarismCheckJobRepository.findByIdElseThrow(1L)).thenReturn(job);
+        when(plagiarismResultRepository.findWithComparisonsById(42L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> plagiarismCheckJobScheduleService.awaitResult(job)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private void createService(int maxConcurrentJobs, int maxConcurrentJobsPerNode, long minFreeMemoryInMb, long awaitTimeoutInSeconds) {
+        plagiarismCheckJobScheduleService = new PlagiarismCheckJobScheduleService(plagiarismCheckJobRepository, plagiarismResultRepository, plagiarismCheckJobService,
+                plagiarismWebsocketService, hazelcastInstance, new SimpleMeterRegistry(), maxConcurrentJobs, maxConcurrentJobsPerNode, minFreeMemoryInMb,
+                awaitTimeoutInSeconds);
+    }
+
+    private static PlagiarismCheckJob job(long jobId, long courseId) {
+        Course course = new Course();
+        course.setId(courseId);
+        TextExercise exercise = new TextExercise();
+        exercise.setId(jobId);
+        exercise.setCourse(course);
+        PlagiarismCheckJob job = new PlagiarismCheckJob(exercise, 50, 0, 0);
+        job.setId(jobId);
+        return job;
+    }
+}
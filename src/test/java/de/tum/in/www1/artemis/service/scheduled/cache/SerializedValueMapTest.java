@@ -0,0 +1,62 @@
+package de.tum.in.www1.artemis.service.scheduled.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.hazelcast.map.IMap;
+
+class SerializedValueMapTest {
+
+    private static final CacheValueSerializer<String> STRING_SERIALIZER = new CacheValueSerializer<>() {
+
+        @Override
+        public byte[] serialize(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    @Test
+    void testSetAndDelete_withHazelcastMap_shouldNotReadPreviousValue() {
+        @SuppressWarnings("unchecked")
+        IMap<String, byte[]> backingMap = mock(IMap.class);
+        var map = new SerializedValueMap<>(backingMap, STRING_SERIALIZER);
+
+        map.set("student1", "value");
+        SerializedValueMap.setValue(map, "student2", "value");
+        map.delete("student1");
+        SerializedValueMap.deleteValue(map, "student2");
+
+        verify(backingMap).set("student1", "value".getBytes(StandardCharsets.UTF_8));
+        verify(backingMap).set("student2", "value".getBytes(StandardCharsets.UTF_8));
+        verify(backingMap).delete("student1");
+        verify(backingMap).delete("student2");
+        verify(backingMap, never()).put(any(), any());
+        verify(backingMap, never()).remove(any());
+    }
+
+    @Test
+    void testSetAndDelete_withOtherMap_shouldStoreSerializedValue() {
+        Map<String, byte[]> backingMap = new HashMap<>();
+        var map = new SerializedValueMap<>(backingMap, STRING_SERIALIZER);
+
+        map.set("student1", "value1");
+        SerializedValueMap.setValue(map, "student2", "value2");
+        assertThat(map).containsOnly(Map.entry("student1", "value1"), Map.entry("student2", "value2"));
+        assertThat(backingMap.get("student1")).isEqualTo("value1".getBytes(StandardCharsets.UTF_8));
+
+        map.delete("student1");
+        SerializedValueMap.deleteValue(map, "student2");
+        assertThat(backingMap).isEmpty();
+    }
+}
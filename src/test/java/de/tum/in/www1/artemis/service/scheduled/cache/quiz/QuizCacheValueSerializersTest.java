@@ -0,0 +1,147 @@
+package de.tum.in.www1.artemis.service.scheduled.cache.quiz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+class QuizCacheValueSerializersTest {
+
+    private final ZonedDateTime submissionDate = ZonedDateTime.now();
+
+    @Test
+    void testSubmissionRestoresBackReferences() throws Exception {
+        QuizSubmission submission = createSubmission();
+
+        QuizSubmission deserialized = QuizCacheValueSerializers.SUBMISSION.deserialize(QuizCacheValueSerializers.SUBMISSION.serialize(submission));
+
+        assertThat(deserialized.getId()).isEqualTo(submission.getId());
+        assertThat(deserialized.isSubmitted()).isTrue();
+        assertThat(deserialized.getSubmissionDate()).isEqualTo(submissionDate);
+        assertThat(deserialized.getSubmittedAnswers()).hasSize(3).allSatisfy(answer -> {
+            assertThat(answer.getSubmission()).isSameAs(deserialized);
+            assertThat(answer.getQuizQuestion().getId()).isNotNull();
+            if (answer instanceof MultipleChoiceSubmittedAnswer multipleChoiceAnswer) {
+                assertThat(multipleChoiceAnswer.getSelectedOptions()).extracting(AnswerOption::getId).containsExactly(11L);
+            }
+            else if (answer instanceof DragAndDropSubmittedAnswer dragAndDropAnswer) {
+                assertThat(dragAndDropAnswer.getMappings()).singleElement().satisfies(mapping -> {
+                    assertThat(mapping.getSubmittedAnswer()).isSameAs(dragAndDropAnswer);
+                    assertThat(mapping.getDragItem().getId()).isEqualTo(21L);
+                    assertThat(mapping.getDropLocation().getId()).isEqualTo(22L);
+                });
+            }
+            else {
+                var shortAnswer = (ShortAnswerSubmittedAnswer) answer;
+                assertThat(shortAnswer.getSubmittedTexts()).singleElement().satisfies(submittedText -> {
+                    assertThat(submittedText.getSubmittedAnswer()).isSameAs(shortAnswer);
+                    assertThat(submittedText.getText()).isEqualTo("solution");
+                    assertThat(submittedText.getSpot().getId()).isEqualTo(31L);
+                });
+            }
+        });
+    }
+
+    @Test
+    void testParticipationKeepsParticipantAndResultWithoutExercise() throws Exception {
+        StudentParticipation participation = createParticipationWithResult();
+
+        StudentParticipation deserialized = QuizCacheValueSerializers.PARTICIPATION.deserialize(QuizCacheValueSerializers.PARTICIPATION.serialize(participation));
+
+        assertThat(deserialized.getId()).isEqualTo(participation.getId());
+        assertThat(deserialized.getParticipantIdentifier()).isEqualTo("student1");
+        assertThat(deserialized.getExercise()).isNull();
+        assertThat(deserialized.getResults()).singleElement().satisfies(result -> {
+            assertThat(result.getScore()).isEqualTo(50.0);
+            assertThat(result.getSubmission()).isInstanceOf(QuizSubmission.class);
+            assertThat(((QuizSubmission) result.getSubmission()).getSubmittedAnswers()).hasSize(3);
+        });
+    }
+
+    @Test
+    void testResultKeepsStatisticValues() throws Exception {
+        Result result = createParticipationWithResult().getResults().iterator().next();
+
+        Result deserialized = QuizCacheValueSerializers.RESULT.deserialize(QuizCacheValueSerializers.RESULT.serialize(result));
+
+        assertThat(deserialized).isEqualTo(result);
+        assertThat(deserialized.isRated()).isTrue();
+        assertThat(deserialized.getScore()).isEqualTo(50.0);
+        assertThat(deserialized.getCompletionDate()).isEqualTo(submissionDate);
+        assertThat(deserialized.getParticipation().getId()).isEqualTo(3L);
+        assertThat(deserialized.getSubmission().getId()).isEqualTo(1L);
+    }
+
+    private QuizSubmission createSubmission() {
+        QuizSubmission submission = new QuizSubmission();
+        submission.setId(1L);
+        submission.setSubmitted(true);
+        submission.setSubmissionDate(submissionDate);
+
+        MultipleChoiceQuestion multipleChoiceQuestion = new MultipleChoiceQuestion();
+        multipleChoiceQuestion.setId(10L);
+        AnswerOption answerOption = new AnswerOption();
+        answerOption.setId(11L);
+        MultipleChoiceSubmittedAnswer multipleChoiceAnswer = new MultipleChoiceSubmittedAnswer();
+        multipleChoiceAnswer.setQuizQuestion(multipleChoiceQuestion);
+        multipleChoiceAnswer.addSelectedOptions(answerOption);
+        submission.addSubmittedAnswers(multipleChoiceAnswer);
+
+        DragAndDropQuestion dragAndDropQuestion = new DragAndDropQuestion();
+        dragAndDropQuestion.setId(20L);
+        DragItem dragItem = new DragItem();
+        dragItem.setId(21L);
+        DropLocation dropLocation = new DropLocation();
+        dropLocation.setId(22L);
+        DragAndDropMapping mapping = new DragAndDropMapping();
+        mapping.setDragItem(dragItem);
+        mapping.setDropLocation(dropLocation);
+        DragAndDropSubmittedAnswer dragAndDropAnswer = new DragAndDropSubmittedAnswer();
+        dragAndDropAnswer.setQuizQuestion(dragAndDropQuestion);
+        dragAndDropAnswer.addMappings(mapping);
+        submission.addSubmittedAnswers(dragAndDropAnswer);
+
+        ShortAnswerQuestion shortAnswerQuestion = new ShortAnswerQuestion();
+        shortAnswerQuestion.setId(30L);
+        ShortAnswerSpot spot = new ShortAnswerSpot();
+        spot.setId(31L);
+        ShortAnswerSubmittedText submittedText = new ShortAnswerSubmittedText();
+        submittedText.setSpot(spot);
+        submittedText.setText("solution");
+        ShortAnswerSubmittedAnswer shortAnswer = new ShortAnswerSubmittedAnswer();
+        shortAnswer.setQuizQuestion(shortAnswerQuestion);
+        shortAnswer.addSubmittedTexts(submittedText);
+        submission.addSubmittedAnswers(shortAnswer);
+        return submission;
+    }
+
+    private StudentParticipation createParticipationWithResult() {
+        User student = new User();
+        student.setLogin("student1");
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(2L);
+
+        StudentParticipation participation = new StudentParticipation();
+        participation.setId(3L);
+        participation.setParticipant(student);
+        participation.setExercise(quizExercise);
+
+        QuizSubmission submission = createSubmission();
+        Result result = new Result().participation(participation);
+        result.setId(4L);
+        result.setRated(true);
+        result.setScore(50.0);
+        result.setCompletionDate(submissionDate);
+        result.setSubmission(submission);
+        participation.addResult(result);
+        participation.setSubmissions(Set.of(submission));
+        return participation;
+    }
+}
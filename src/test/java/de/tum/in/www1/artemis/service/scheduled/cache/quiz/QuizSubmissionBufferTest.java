@@ -0,0 +1,120 @@
+package de.tum.in.www1.artemis.service.scheduled.cache.quiz;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QuizSubmissionBufferTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final QuizSubmissionBuffer buffer = new QuizSubmissionBuffer(meterRegistry);
+
+    /**
+     * The distributed submission maps by the id of the quiz exercise
+     */
+    private final Map<Long, Map<String, QuizSubmission>> submissionMaps = new ConcurrentHashMap<>();
+
+    @Test
+    void testFlush_shouldWriteLatestSubmissionPerUser() {
+        var firstSubmission = submission(1L);
+        var secondSubmission = submission(2L);
+        buffer.add(1L, "student1", firstSubmission);
+        buffer.add(1L, "student1", secondSubmission);
+        buffer.add(2L, "student2", firstSubmission);
+
+        assertThat(buffer.get(1L, "student1")).isSameAs(secondSubmission);
+        buffer.flush(this::submissionMap);
+
+        assertThat(submissionMap(1L)).containsExactly(Map.entry("student1", secondSubmission));
+        assertThat(submissionMap(2L)).containsExactly(Map.entry("student2", firstSubmission));
+        assertThat(buffer.get(1L, "student1")).isNull();
+        assertThat(meterRegistry.get("artemis.quiz.submissions.buffer.puts.avoided").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("artemis.quiz.submissions.buffer.puts").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testWriteThrough_shouldDiscardBufferedSubmission() {
+        var savedSubmission = submission(1L);
+        var submittedSubmission = submission(2L);
+        buffer.add(1L, "student1", savedSubmission);
+
+        buffer.writeThrough(1L, "student1", submittedSubmission, submissionMap(1L));
+        buffer.flush(this::submissionMap);
+
+        assertThat(submissionMap(1L)).containsExactly(Map.entry("student1", submittedSubmission));
+    }
+
+    @Test
+    void testFlush_afterEmptyBufferWasRemoved_shouldKeepNewSubmissions() {
+        buffer.add(1L, "student1", submission(1L));
+        buffer.flush(this::submissionMap);
+        // the now empty buffer of the quiz exercise is removed
+        buffer.flush(this::submissionMap);
+        var submission = submission(2L);
+        buffer.add(1L, "student2", submission);
+        buffer.flush(this::submissionMap);
+
+        assertThat(submissionMap(1L)).containsEntry("student2", submission).hasSize(2);
+    }
+
+    @Test
+    void testConcurrentAddAndFlush_shouldNotLoseSubmissions() throws Exception {
+        int numberOfThreads = 8;
+        int submissionsPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads + 1);
+        AtomicBoolean adding = new AtomicBoolean(true);
+        try {
+            // flush continuously, so that the buffers of the quiz exercises are often empty and removed while submissions are added
+            Future<?> flusher = executor.submit(() -> {
+                while (adding.get()) {
+                    buffer.flush(this::submissionMap);
+                }
+            });
+            CountDownLatch start = new CountDownLatch(1);
+            var adders = new CompletableFuture<?>[numberOfThreads];
+            for (int thread = 0; thread < numberOfThreads; thread++) {
+                int threadIndex = thread;
+                adders[thread] = CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 0; i < submissionsPerThread; i++) {
+                        buffer.add((long) i % 3, "student" + threadIndex + "-" + i, submission((long) i));
+                    }
+                }, executor);
+            }
+            start.countDown();
+            CompletableFuture.allOf(adders).get(30, TimeUnit.SECONDS);
+            adding.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        buffer.flush(this::submissionMap);
+
+        int numberOfSubmissions = submissionMaps.values().stream().mapToInt(Map::size).sum();
+        assertThat(numberOfSubmissions).isEqualTo(numberOfThreads * submissionsPerThread);
+    }
+
+    private Map<String, QuizSubmission> submissionMap(Long quizExerciseId) {
+        return submissionMaps.computeIfAbsent(quizExerciseId, id -> new ConcurrentHashMap<>());
+    }
+
+    private static QuizSubmission submission(Long id) {
+        QuizSubmission submission = new QuizSubmission();
+        submission.setId(id);
+        return submission;
+    }
+}
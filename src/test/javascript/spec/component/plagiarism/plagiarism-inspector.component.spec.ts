@@ -3,7 +3,7 @@ import { ActivatedRoute } from '@angular/router';
 import { of } from 'rxjs';
 import { ExportToCsv } from 'export-to-csv';
 import { ModelingExerciseService } from 'app/exercises/modeling/manage/modeling-exercise.service';
-import { PlagiarismCheckState, PlagiarismInspectorComponent } from 'app/exercises/shared/plagiarism/plagiarism-inspector/plagiarism-inspector.component';
+import { COMPARISONS_PAGE_SIZE, PlagiarismCheckState, PlagiarismInspectorComponent } from 'app/exercises/shared/plagiarism/plagiarism-inspector/plagiarism-inspector.component';
 import { ModelingExercise } from 'app/entities/modeling-exercise.model';
 import { ArtemisTestModule } from '../../test.module';
 import { downloadFile } from 'app/shared/util/download.util';
@@ -31,6 +31,7 @@ import { TextSubmissionElement } from 'app/exercises/shared/plagiarism/types/tex
 import { PlagiarismCasesService } from 'app/course/plagiarism-cases/shared/plagiarism-cases.service';
 import { HttpResponse } from '@angular/common/http';
 import { MockNgbModalService } from '../../helpers/mocks/service/mock-ngb-modal.service';
+import { PlagiarismResultSummary } from 'app/exercises/shared/plagiarism/types/PlagiarismResultSummary';
 
 jest.mock('app/shared/util/download.util', () => ({
     downloadFile: jest.fn(),
@@ -92,6 +93,13 @@ describe('Plagiarism Inspector Component', () => {
         comparisons,
     } as TextPlagiarismResult;
 
+    const plagiarismResultSummary = {
+        id: 123,
+        duration: 1000,
+        numberOfComparisons: comparisons.length,
+        similarityDistribution: [0, 0, 0, 0, 0, 1, 0, 1, 1, 0],
+    } as PlagiarismResultSummary;
+
     beforeEach(() => {
         TestBed.configureTestingModule({
             imports: [ArtemisTestModule],
@@ -128,7 +136,8 @@ describe('Plagiarism Inspector Component', () => {
         const websocketService = TestBed.inject(JhiWebsocketService);
         const websocketServiceSpy = jest.spyOn(websocketService, 'subscribe');
         jest.spyOn(websocketService, 'receive').mockReturnValue(of({ state: 'COMPLETED', messages: 'a message' } as PlagiarismCheckState));
-        jest.spyOn(modelingExerciseService, 'getLatestPlagiarismResult').mockReturnValue(of(modelingPlagiarismResult));
+        jest.spyOn(plagiarismCasesService, 'getPlagiarismResultSummary').mockReturnValue(of(new HttpResponse({ body: plagiarismResultSummary })));
+        jest.spyOn(plagiarismCasesService, 'getPlagiarismComparisons').mockReturnValue(of(new HttpResponse({ body: comparisons as PlagiarismComparison<any>[] })));
 
         comp.ngOnInit();
         tick();
@@ -136,7 +145,8 @@ describe('Plagiarism Inspector Component', () => {
         expect(websocketServiceSpy).toHaveBeenCalledWith(comp.getPlagarismDetectionTopic());
         expect(comp.getPlagarismDetectionTopic()).toBe(`/topic/modeling-exercises/${modelingExercise.id}/plagiarism-check`);
         expect(comp.detectionInProgress).toBeFalse();
-        expect(comp.plagiarismResult).toBe(modelingPlagiarismResult);
+        expect(comp.plagiarismResult?.id).toBe(plagiarismResultSummary.id);
+        expect(comp.plagiarismResult?.comparisons.map((comparison) => comparison.id)).toEqual([2, 3, 1]);
     }));
 
     it('should return the correct topic url', () => {
@@ -192,6 +202,17 @@ describe('Plagiarism Inspector Component', () => {
         expect(textExerciseService.checkPlagiarism).toHaveBeenCalledOnce();
     });
 
+    it('should keep the detection in progress if the check did not finish in time', () => {
+        comp.exercise = textExercise;
+        jest.spyOn(textExerciseService, 'checkPlagiarism').mockReturnValue(of(null as unknown as TextPlagiarismResult));
+        jest.spyOn(comp, 'handlePlagiarismResult');
+
+        comp.checkPlagiarism();
+
+        expect(comp.detectionInProgress).toBeTrue();
+        expect(comp.handlePlagiarismResult).not.toHaveBeenCalled();
+    });
+
     it('should comparisons by similarity', () => {
         comp.sortComparisonsForResult(modelingPlagiarismResult);
 
@@ -222,49 +243,43 @@ describe('Plagiarism Inspector Component', () => {
         expect(generateCsv).toHaveBeenCalledOnce();
     });
 
-    it('should get the latest plagiarism result for modeling exercise', fakeAsync(() => {
-        comp.exercise = modelingExercise;
-
-        jest.spyOn(modelingExerciseService, 'getLatestPlagiarismResult').mockReturnValue(of(modelingPlagiarismResult));
-        jest.spyOn(comp, 'handlePlagiarismResult');
+    it('should get the summary and the comparisons of the latest plagiarism result page by page', fakeAsync(() => {
+        comp.exercise = textExercise;
+        const summary = { ...plagiarismResultSummary, numberOfComparisons: COMPARISONS_PAGE_SIZE + 1 };
+        const secondPage = [{ ...comparisons[0], id: 4, similarity: 0.4 }] as PlagiarismComparison<any>[];
+        jest.spyOn(plagiarismCasesService, 'getPlagiarismResultSummary').mockReturnValue(of(new HttpResponse({ body: summary })));
+        jest.spyOn(plagiarismCasesService, 'getPlagiarismComparisons').mockImplementation((exerciseId, resultId, page) =>
+            of(new HttpResponse({ body: page === 0 ? (comparisons as PlagiarismComparison<any>[]) : secondPage })),
+        );
+        jest.spyOn(textExerciseService, 'getLatestPlagiarismResult');
 
         comp.getLatestPlagiarismResult();
-        expect(comp.detectionInProgress).toBeFalse();
-
         tick();
 
-        expect(modelingExerciseService.getLatestPlagiarismResult).toHaveBeenCalledWith(modelingExercise.id);
-        expect(comp.handlePlagiarismResult).toHaveBeenCalledWith(modelingPlagiarismResult);
+        expect(plagiarismCasesService.getPlagiarismResultSummary).toHaveBeenCalledWith(textExercise.id);
+        expect(plagiarismCasesService.getPlagiarismComparisons).toHaveBeenCalledTimes(2);
+        expect(plagiarismCasesService.getPlagiarismComparisons).toHaveBeenCalledWith(textExercise.id, summary.id, 0, COMPARISONS_PAGE_SIZE);
+        expect(plagiarismCasesService.getPlagiarismComparisons).toHaveBeenCalledWith(textExercise.id, summary.id, 1, COMPARISONS_PAGE_SIZE);
+        // the full result with the matches and elements of all comparisons is not loaded anymore
+        expect(textExerciseService.getLatestPlagiarismResult).not.toHaveBeenCalled();
+        expect(comp.detectionInProgress).toBeFalse();
+        expect(comp.plagiarismResult?.duration).toBe(summary.duration);
+        expect(comp.plagiarismResult?.similarityDistribution).toEqual(summary.similarityDistribution);
+        expect(comp.plagiarismResult?.comparisons.map((comparison) => comparison.id)).toEqual([2, 3, 1, 4]);
+        expect(comp.visibleComparisons).toHaveLength(4);
     }));
 
-    it('should get the latest plagiarism result for programming exercise', fakeAsync(() => {
+    it('should not load comparisons if the exercise has no plagiarism result', fakeAsync(() => {
         comp.exercise = programmingExercise;
-
-        jest.spyOn(programmingExerciseService, 'getLatestPlagiarismResult').mockReturnValue(of(textPlagiarismResult));
-        jest.spyOn(comp, 'handlePlagiarismResult');
+        jest.spyOn(plagiarismCasesService, 'getPlagiarismResultSummary').mockReturnValue(of(new HttpResponse<PlagiarismResultSummary>({ body: null })));
+        jest.spyOn(plagiarismCasesService, 'getPlagiarismComparisons');
 
         comp.getLatestPlagiarismResult();
-        expect(comp.detectionInProgress).toBeFalse();
-
         tick();
 
-        expect(programmingExerciseService.getLatestPlagiarismResult).toHaveBeenCalledWith(programmingExercise.id);
-        expect(comp.handlePlagiarismResult).toHaveBeenCalledWith(textPlagiarismResult);
-    }));
-
-    it('should get the latest plagiarism result for text exercise', fakeAsync(() => {
-        comp.exercise = textExercise;
-
-        jest.spyOn(textExerciseService, 'getLatestPlagiarismResult').mockReturnValue(of(textPlagiarismResult));
-        jest.spyOn(comp, 'handlePlagiarismResult');
-
-        comp.getLatestPlagiarismResult();
+        expect(plagiarismCasesService.getPlagiarismComparisons).not.toHaveBeenCalled();
         expect(comp.detectionInProgress).toBeFalse();
-
-        tick();
-
-        expect(textExerciseService.getLatestPlagiarismResult).toHaveBeenCalledWith(textExercise.id);
-        expect(comp.handlePlagiarismResult).toHaveBeenCalledWith(textPlagiarismResult);
+        expect(comp.plagiarismResult).toBeUndefined();
     }));
 
     it('should be programming exercise', () => {
@@ -138,6 +138,24 @@ describe('Plagiarism Cases Service', () => {
         tick();
     }));
 
+    it('should get plagiarism result summary', fakeAsync(() => {
+        const returnedFromService = { id: 1, duration: 1000, numberOfComparisons: 2 };
+        service.getPlagiarismResultSummary(1).pipe(take(1)).subscribe((response) => expect(response.body).toEqual(returnedFromService));
+
+        const req = httpMock.expectOne({ method: 'GET', url: 'api/exercises/1/plagiarism-result/summary' });
+        req.flush(returnedFromService);
+        tick();
+    }));
+
+    it('should get a page of plagiarism comparisons', fakeAsync(() => {
+        const returnedFromService = [plagiarismComparison1];
+        service.getPlagiarismComparisons(1, 2, 3, 100).pipe(take(1)).subscribe((response) => expect(response.body).toEqual(returnedFromService));
+
+        const req = httpMock.expectOne({ method: 'GET', url: 'api/exercises/1/plagiarism-results/2/plagiarism-comparisons?page=3&size=100' });
+        req.flush(returnedFromService);
+        tick();
+    }));
+
     it('should update plagiarism comparison status', fakeAsync(() => {
         const returnedFromService = {};
         service.updatePlagiarismComparisonStatus(1, 1, PlagiarismStatus.CONFIRMED).pipe(take(1)).subscribe();